@@ -1,6 +1,9 @@
 package LogicLayer;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -11,6 +14,10 @@ public abstract class Account {
     protected final Client owner;
     protected final Currency baseCurrency;
     protected BigDecimal balance;
+    // Último día cerrado por cada trabajo de fin de día que modificó la cuenta (null si ninguno)
+    private Map<String, LocalDate> batchDays;
+    // Oyente de los cambios de saldo de esta cuenta (null si nadie los sigue)
+    private volatile BalanceListener balanceListener;
 
     /**
      * Constructor para crear una nueva cuenta
@@ -19,7 +26,7 @@ public abstract class Account {
      * @param initialBalance Saldo inicial
      */
     public Account(Client owner, Currency baseCurrency, BigDecimal initialBalance) {
-        this.id = UUID.randomUUID();
+        this.id = EntityIds.next();
         this.owner = owner;
         this.baseCurrency = baseCurrency;
         this.balance = initialBalance != null ? initialBalance : BigDecimal.ZERO;
@@ -51,6 +58,7 @@ public abstract class Account {
             throw new IllegalArgumentException("El monto debe ser positivo");
         }
         this.balance = this.balance.add(amount);
+        balanceChanged(BalanceChangeType.CREDIT, amount);
     }
 
     /**
@@ -66,6 +74,59 @@ public abstract class Account {
             throw new IllegalStateException("Fondos insuficientes");
         }
         this.balance = this.balance.subtract(amount);
+        balanceChanged(BalanceChangeType.DEBIT, amount.negate());
+    }
+
+    /**
+     * Registra intereses devengados sin validar fondos
+     * Positivo para intereses ganados, negativo para intereses cobrados (puede superar el límite de crédito)
+     * @param amount Monto con signo
+     */
+    void postInterest(BigDecimal amount) {
+        this.balance = this.balance.add(amount);
+        balanceChanged(BalanceChangeType.INTEREST, amount);
+    }
+
+    /**
+     * Indica si un trabajo de fin de día ya se aplicó a la cuenta para un día
+     * Los días se cierran en orden, por lo que un día anterior al último aplicado también cuenta
+     */
+    synchronized boolean isBatchApplied(String jobName, LocalDate businessDay) {
+        LocalDate last = batchDays != null ? batchDays.get(jobName) : null;
+        return last != null && !last.isBefore(businessDay);
+    }
+
+    /**
+     * Registra que un trabajo de fin de día se aplicó a la cuenta para un día
+     * Se marca junto con el cambio de saldo, de modo que reintentar una porción interrumpida no
+     * vuelve a cobrar ni a acreditar a las cuentas ya procesadas
+     */
+    synchronized void markBatchApplied(String jobName, LocalDate businessDay) {
+        if (batchDays == null) {
+            batchDays = new HashMap<>(2);
+        }
+        batchDays.merge(jobName, businessDay, (last, day) -> last.isAfter(day) ? last : day);
+    }
+
+    /**
+     * Registra el oyente que recibe los cambios de saldo de esta cuenta
+     * Lo asigna {@link EventPublishingAccountDao} al guardar la cuenta, de modo que cada
+     * simulación publica solo los cambios de sus propias cuentas
+     * @param listener oyente (null para dejar de notificar)
+     */
+    void setBalanceListener(BalanceListener listener) {
+        balanceListener = listener;
+    }
+
+    /**
+     * Notifica un cambio de saldo ya aplicado al oyente registrado, si lo hay
+     * @param amount monto del cambio con signo
+     */
+    protected void balanceChanged(BalanceChangeType type, BigDecimal amount) {
+        BalanceListener listener = balanceListener;
+        if (listener != null) {
+            listener.balanceChanged(this, type, amount, balance);
+        }
     }
 
     /**
@@ -26,5 +26,10 @@ public interface AccountDao {
      * Obtiene todas las cuentas del sistema
      */
     List<Account> findAll();
-}
 
+    /**
+     * Divide todas las cuentas en porciones disjuntas y estables
+     * Una cuenta cae siempre en la misma porción para una misma cantidad de porciones
+     */
+    List<List<Account>> findAllPartitioned(int partitionCount);
+}
@@ -1,6 +1,8 @@
 package LogicLayer;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -12,13 +14,41 @@ public class AccountService {
     private final TransactionDao transactionDao;
     private final AuthService authService;
     private final RateProvider rateProvider;
+    private final SimulatedClock clock;
+    private final MarketRateLog marketRateLog;
+    private final VelocityLimiter velocityLimiter;
+    // Serializa las reversiones para que una transacción no se revierta dos veces
+    private final Object reversalLock = new Object();
 
     public AccountService(AccountDao accountDao, TransactionDao transactionDao,
-                         AuthService authService, RateProvider rateProvider) {
+                         AuthService authService, RateProvider rateProvider, SimulatedClock clock) {
+        this(accountDao, transactionDao, authService, rateProvider, clock, null);
+    }
+
+    /**
+     * Constructor para el modo de inversiones diferido
+     * @param marketRateLog registro de tasas al que se asocian las nuevas cuentas de inversión
+     */
+    public AccountService(AccountDao accountDao, TransactionDao transactionDao,
+                         AuthService authService, RateProvider rateProvider, SimulatedClock clock,
+                         MarketRateLog marketRateLog) {
+        this(accountDao, transactionDao, authService, rateProvider, clock, marketRateLog, null);
+    }
+
+    /**
+     * Constructor con control de velocidad para retiros y transferencias a terceros
+     * @param velocityLimiter límites por cuenta y por cliente (null para no aplicar límites)
+     */
+    public AccountService(AccountDao accountDao, TransactionDao transactionDao,
+                         AuthService authService, RateProvider rateProvider, SimulatedClock clock,
+                         MarketRateLog marketRateLog, VelocityLimiter velocityLimiter) {
         this.accountDao = accountDao;
         this.transactionDao = transactionDao;
         this.authService = authService;
         this.rateProvider = rateProvider;
+        this.clock = clock;
+        this.marketRateLog = marketRateLog;
+        this.velocityLimiter = velocityLimiter;
     }
 
     /**
@@ -54,7 +84,8 @@ public class AccountService {
     public InvestmentAccount createInvestmentAccount(Client owner, Currency baseCurrency, BigDecimal initialBalance) {
         validateAccountCreation(owner, baseCurrency, initialBalance);
 
-        InvestmentAccount account = new InvestmentAccount(owner, baseCurrency, initialBalance);
+        InvestmentAccount account = new InvestmentAccount(owner, baseCurrency, initialBalance,
+                clock.getCurrentDay(), marketRateLog);
         accountDao.save(account);
         return account;
     }
@@ -87,6 +118,7 @@ public class AccountService {
 
     /**
      * Realiza un retiro de una cuenta
+     * Si supera un límite de velocidad, el retiro queda registrado como fallido
      */
     public Transaction withdraw(Account source, BigDecimal amount, String note) {
         if (!authService.hasAccessToAccount(source)) {
@@ -98,11 +130,14 @@ public class AccountService {
         }
 
         Transaction tx;
+        long screenedAt = VelocityLimiter.NOT_ACQUIRED;
         try {
+            screenedAt = screenVelocity(source, amount);
             source.debit(amount);
             accountDao.update(source);
             tx = new WithdrawTransaction(TransactionStatus.SETTLED, amount, source.getBaseCurrency(), note, source);
         } catch (Exception e) {
+            releaseVelocity(source, amount, screenedAt);
             tx = new WithdrawTransaction(TransactionStatus.FAILED, amount, source.getBaseCurrency(),
                                         "Error: " + e.getMessage(), source);
         }
@@ -162,7 +197,8 @@ public class AccountService {
 
     /**
      * Realiza una transferencia entre cuentas
-     * Usada para transferencias a terceros
+     * Usada para transferencias a terceros: si supera un límite de velocidad, la transferencia
+     * queda registrada como fallida
      */
     public Transaction transferWithoutOwnerCheck(Account source, Account target, BigDecimal amount, String note) {
         if (!authService.hasAccessToAccount(source)) {
@@ -182,7 +218,10 @@ public class AccountService {
         }
 
         Transaction tx;
+        long screenedAt = VelocityLimiter.NOT_ACQUIRED;
         try {
+            screenedAt = screenVelocity(source, amount);
+
             // Debitar de la cuenta origen
             source.debit(amount);
             accountDao.update(source);
@@ -194,6 +233,7 @@ public class AccountService {
             tx = new TransferTransaction(TransactionStatus.SETTLED, amount, source.getBaseCurrency(),
                                         note, source, target);
         } catch (Exception e) {
+            releaseVelocity(source, amount, screenedAt);
             tx = new TransferTransaction(TransactionStatus.FAILED, amount, source.getBaseCurrency(),
                                         "Error: " + e.getMessage(), source, target);
         }
@@ -202,6 +242,287 @@ public class AccountService {
         return tx;
     }
 
+    /**
+     * Verifica y registra los límites de velocidad antes de debitar
+     * @return instante del registro, o NOT_ACQUIRED si no hay límites configurados
+     */
+    private long screenVelocity(Account source, BigDecimal amount) {
+        return velocityLimiter != null ? velocityLimiter.acquire(source, amount) : VelocityLimiter.NOT_ACQUIRED;
+    }
+
+    /**
+     * Descuenta de los límites de velocidad una operación que no se realizó
+     */
+    private void releaseVelocity(Account source, BigDecimal amount, long screenedAt) {
+        if (velocityLimiter != null) {
+            velocityLimiter.release(source, amount, screenedAt);
+        }
+    }
+
+    /**
+     * Ejecuta un lote de transferencias programadas
+     * El acceso a la cuenta origen se verificó al programar cada orden, por lo que aquí no se
+     * requiere sesión; las transacciones del lote se guardan con una sola operación del DAO.
+     * Las órdenes a cuentas de terceros pasan por los límites de velocidad igual que
+     * transferWithoutOwnerCheck: una orden rechazada queda fallida y se reintenta según la orden.
+     * Si la acreditación falla después del débito, el débito se revierte (y se guarda) antes de
+     * registrar la orden como fallida. Los errores de cada orden, incluso al revertir, quedan en su
+     * transacción fallida sin interrumpir el resto del lote.
+     * Solo StandingOrderService ejecuta órdenes, que ya validó al programarlas
+     *
+     * @param orders órdenes vencidas, en orden de ejecución
+     * @return una transacción por orden, en el mismo orden
+     */
+    List<Transaction> executeStandingOrders(List<StandingOrder> orders) {
+        List<Transaction> transactions = new ArrayList<>(orders.size());
+        for (StandingOrder order : orders) {
+            Account source = order.getSource();
+            Account target = order.getTarget();
+            BigDecimal amount = order.getAmount();
+
+            Transaction tx;
+            long screenedAt = VelocityLimiter.NOT_ACQUIRED;
+            boolean debited = false;
+            boolean credited = false;
+            try {
+                if (!source.getBaseCurrency().equals(target.getBaseCurrency())) {
+                    throw new IllegalStateException("Las cuentas deben tener la misma moneda");
+                }
+                if (!source.getOwner().getId().equals(target.getOwner().getId())) {
+                    screenedAt = screenVelocity(source, amount);
+                }
+
+                source.debit(amount);
+                debited = true;
+                accountDao.update(source);
+
+                target.credit(amount);
+                credited = true;
+                accountDao.update(target);
+
+                tx = new TransferTransaction(TransactionStatus.SETTLED, amount, source.getBaseCurrency(),
+                                            order.getNote(), source, target);
+            } catch (Exception e) {
+                String compensationError = compensateTransfer(source, target, amount, debited, credited);
+                try {
+                    releaseVelocity(source, amount, screenedAt);
+                } catch (Exception releaseError) {
+                    compensationError = (compensationError != null ? compensationError + "; " : "")
+                            + "no se liberó el límite: " + releaseError.getMessage();
+                }
+                tx = new TransferTransaction(TransactionStatus.FAILED, amount, source.getBaseCurrency(),
+                                            failureNote(e, compensationError), source, target);
+            }
+            transactions.add(tx);
+        }
+
+        transactionDao.saveAll(transactions);
+        return transactions;
+    }
+
+    /**
+     * Deshace y guarda los movimientos ya aplicados de una operación fallida; cada paso se intenta
+     * aunque falle el anterior
+     *
+     * @param source cuenta debitada (si debited)
+     * @param target cuenta acreditada (si credited)
+     * @return descripción de los pasos que no se pudieron deshacer, o null
+     */
+    private String compensateTransfer(Account source, Account target, BigDecimal amount,
+                                      boolean debited, boolean credited) {
+        StringBuilder errors = new StringBuilder();
+        if (credited) {
+            try {
+                target.debit(amount);
+                accountDao.update(target);
+            } catch (Exception e) {
+                errors.append("no se revirtió el crédito: ").append(e.getMessage());
+            }
+        }
+        if (debited) {
+            try {
+                source.credit(amount);
+                accountDao.update(source);
+            } catch (Exception e) {
+                errors.append(errors.length() > 0 ? "; " : "").append("no se revirtió el débito: ")
+                        .append(e.getMessage());
+            }
+        }
+        return errors.length() > 0 ? errors.toString() : null;
+    }
+
+    /**
+     * Busca una transacción por su id
+     * Se requiere acceso a alguna de las cuentas involucradas
+     */
+    public Transaction findTransaction(UUID transactionId) {
+        Transaction tx = transactionDao.findById(transactionId);
+        if (tx == null) {
+            throw new IllegalArgumentException("La transacción no existe");
+        }
+        if (tx instanceof TransferTransaction) {
+            TransferTransaction transfer = (TransferTransaction) tx;
+            if (!authService.hasAccessToAccount(transfer.getSource())
+                    && !authService.hasAccessToAccount(transfer.getTarget())) {
+                throw new SecurityException("No tiene acceso a esta transacción");
+            }
+        } else if (!authService.hasAccessToAccount(originatingAccount(tx))) {
+            throw new SecurityException("No tiene acceso a esta transacción");
+        }
+        return tx;
+    }
+
+    /**
+     * Revierte una transferencia entre dos cuentas del cliente con sesión activa
+     * Los retiros, los depósitos (que incluyen los intereses acreditados por el banco), las
+     * comisiones y las transferencias a terceros solo se revierten desde {@link BackOfficeService}
+     *
+     * @param transactionId id de la transferencia a revertir
+     * @param note nota de la reversión
+     * @return la reversión (fallida si la cuenta a debitar no tiene fondos suficientes)
+     * @throws IllegalStateException si la transacción ya fue revertida
+     */
+    public Transaction reverseTransaction(UUID transactionId, String note) {
+        Transaction original = findReversible(transactionId);
+        if (!(original instanceof TransferTransaction)) {
+            throw new SecurityException("Solo se pueden revertir transferencias entre cuentas propias");
+        }
+        TransferTransaction transfer = (TransferTransaction) original;
+        if (!authService.hasAccessToAccount(transfer.getSource())) {
+            throw new SecurityException("No tiene acceso a esta transacción");
+        }
+        if (!authService.hasAccessToAccount(transfer.getTarget())) {
+            throw new SecurityException("Solo se pueden revertir transferencias entre cuentas propias");
+        }
+        return applyReversal(original, note);
+    }
+
+    /**
+     * Busca una transacción que se pueda revertir
+     */
+    Transaction findReversible(UUID transactionId) {
+        Transaction original = transactionDao.findById(transactionId);
+        if (original == null) {
+            throw new IllegalArgumentException("La transacción no existe");
+        }
+        if (!original.isSuccessful()) {
+            throw new IllegalArgumentException("Solo se pueden revertir transacciones completadas");
+        }
+        if (original.isReversal()) {
+            throw new IllegalArgumentException("No se puede revertir una reversión");
+        }
+        return original;
+    }
+
+    /**
+     * Aplica los movimientos inversos de una transacción completada, sin verificar la sesión
+     * Un depósito se revierte con un retiro, un retiro con un depósito y una transferencia con otra
+     * en sentido contrario; si el movimiento falla, lo ya aplicado se deshace y la reversión queda
+     * registrada como fallida.
+     * reversalLock solo impide revertir dos veces la misma transacción: las cuentas no se bloquean,
+     * por lo que otras operaciones sobre ellas pueden intercalarse entre el débito y el crédito,
+     * igual que en una transferencia
+     *
+     * @throws IllegalStateException si la transacción ya fue revertida
+     */
+    Transaction applyReversal(Transaction original, String note) {
+        UUID transactionId = original.getId();
+        // El DAO devuelve copias de la transacción, por lo que se bloquea en el servicio
+        synchronized (reversalLock) {
+            if (transactionDao.findReversalOf(transactionId) != null) {
+                throw new IllegalStateException("La transacción ya fue revertida");
+            }
+
+            BigDecimal amount = original.getAmount();
+            Currency currency = original.getCurrency();
+            Transaction reversal;
+            if (original instanceof DepositTransaction) {
+                Account target = ((DepositTransaction) original).getTarget();
+                boolean debited = false;
+                try {
+                    target.debit(amount);
+                    debited = true;
+                    accountDao.update(target);
+                    reversal = new WithdrawTransaction(TransactionStatus.SETTLED, amount, currency, note,
+                                                      target, transactionId);
+                } catch (Exception e) {
+                    reversal = new WithdrawTransaction(TransactionStatus.FAILED, amount, currency,
+                                                      failureNote(e, compensateTransfer(target, null, amount, debited, false)),
+                                                      target, transactionId);
+                }
+            } else if (original instanceof WithdrawTransaction) {
+                Account source = ((WithdrawTransaction) original).getSource();
+                boolean credited = false;
+                try {
+                    source.credit(amount);
+                    credited = true;
+                    accountDao.update(source);
+                    reversal = new DepositTransaction(TransactionStatus.SETTLED, amount, currency, note,
+                                                     source, transactionId);
+                } catch (Exception e) {
+                    reversal = new DepositTransaction(TransactionStatus.FAILED, amount, currency,
+                                                     failureNote(e, compensateTransfer(null, source, amount, false, credited)),
+                                                     source, transactionId);
+                }
+            } else {
+                TransferTransaction transfer = (TransferTransaction) original;
+                Account source = transfer.getSource();
+                Account target = transfer.getTarget();
+                // El monto acreditado con conversión no queda registrado en la transferencia
+                if (!source.getBaseCurrency().equals(target.getBaseCurrency())) {
+                    throw new IllegalArgumentException("No se pueden revertir transferencias con conversión de moneda");
+                }
+                boolean debited = false;
+                boolean credited = false;
+                try {
+                    // Se debita primero: si el débito falla, ninguna cuenta cambia
+                    target.debit(amount);
+                    debited = true;
+                    accountDao.update(target);
+
+                    source.credit(amount);
+                    credited = true;
+                    accountDao.update(source);
+
+                    reversal = new TransferTransaction(TransactionStatus.SETTLED, amount, currency, note,
+                                                      target, source, transactionId);
+                } catch (Exception e) {
+                    // La reversión va de la cuenta destino original a la de origen
+                    reversal = new TransferTransaction(TransactionStatus.FAILED, amount, currency,
+                                                      failureNote(e, compensateTransfer(target, source, amount, debited, credited)),
+                                                      target, source, transactionId);
+                }
+            }
+
+            transactionDao.save(reversal);
+            return reversal;
+        }
+    }
+
+    private static String failureNote(Exception e, String compensationError) {
+        return "Error: " + e.getMessage() + (compensationError != null ? " (" + compensationError + ")" : "");
+    }
+
+    /**
+     * Obtiene la reversión completada de una transacción, o null si no fue revertida
+     */
+    public Transaction findReversalOf(Transaction original) {
+        findTransaction(original.getId());
+        return transactionDao.findReversalOf(original.getId());
+    }
+
+    /**
+     * Obtiene la cuenta desde la que se originó una transacción
+     */
+    private static Account originatingAccount(Transaction tx) {
+        if (tx instanceof DepositTransaction) {
+            return ((DepositTransaction) tx).getTarget();
+        } else if (tx instanceof WithdrawTransaction) {
+            return ((WithdrawTransaction) tx).getSource();
+        }
+        return ((TransferTransaction) tx).getSource();
+    }
+
     /**
      * Obtiene el historial de transacciones de una cuenta
      */
@@ -212,6 +533,79 @@ public class AccountService {
         return transactionDao.listByAccountId(account.getId());
     }
 
+    /**
+     * Cuenta las transacciones de una cuenta
+     */
+    public int countHistory(Account account) {
+        if (!authService.hasAccessToAccount(account)) {
+            throw new SecurityException("No tiene acceso a esta cuenta");
+        }
+        return transactionDao.countByAccountId(account.getId());
+    }
+
+    /**
+     * Obtiene una página del historial de transacciones (más reciente primero)
+     */
+    public List<Transaction> getHistoryPage(Account account, int offset, int limit) {
+        if (!authService.hasAccessToAccount(account)) {
+            throw new SecurityException("No tiene acceso a esta cuenta");
+        }
+        return transactionDao.listByAccountId(account.getId(), offset, limit);
+    }
+
+    /**
+     * Busca en las notas de las transacciones de todas las cuentas de un cliente
+     *
+     * @param query términos a buscar (deben aparecer todos)
+     * @param limit cantidad máxima de resultados
+     * @return transacciones encontradas, más reciente primero
+     */
+    public List<Transaction> searchTransactions(Client owner, String query, int limit) {
+        if (!authService.hasAccessToClientId(owner.getId())) {
+            throw new SecurityException("No tiene acceso a este cliente");
+        }
+        List<UUID> accountIds = new ArrayList<>();
+        for (Account account : accountDao.listByOwner(owner.getId())) {
+            accountIds.add(account.getId());
+        }
+        return transactionDao.searchByNote(query, accountIds, limit);
+    }
+
+    /**
+     * Busca transacciones de una cuenta por tipo, estado, rango de fechas y rango de montos
+     * La consulta se restringe siempre a la cuenta indicada, sobre una copia: la consulta recibida
+     * no cambia y puede reutilizarse con otra cuenta
+     */
+    public List<Transaction> queryTransactions(Account account, TransactionQuery query) {
+        if (!authService.hasAccessToAccount(account)) {
+            throw new SecurityException("No tiene acceso a esta cuenta");
+        }
+        return transactionDao.query(query.copyForAccount(account.getId()));
+    }
+
+    /**
+     * Obtiene los resúmenes de movimientos de una cuenta por día, semana o mes
+     * Se leen de los totales precalculados, sin recorrer las transacciones.
+     * Las transferencias se resumen en la moneda en que se hicieron (el monto convertido no queda
+     * registrado), por lo que se incluyen los resúmenes de todas las monedas de la cuenta: primero
+     * los de su moneda base y luego, por ejemplo, los de transferencias recibidas desde cuentas en
+     * otra moneda. Cada resumen indica su moneda
+     */
+    public List<TransactionRollup> getRollups(Account account, RollupPeriod granularity,
+                                              LocalDate from, LocalDate to) {
+        if (!authService.hasAccessToAccount(account)) {
+            throw new SecurityException("No tiene acceso a esta cuenta");
+        }
+        List<TransactionRollup> rollups = new ArrayList<>(
+                transactionDao.getAccountRollups(account.getId(), account.getBaseCurrency(), granularity, from, to));
+        for (Currency currency : Currency.values()) {
+            if (currency != account.getBaseCurrency()) {
+                rollups.addAll(transactionDao.getAccountRollups(account.getId(), currency, granularity, from, to));
+            }
+        }
+        return rollups;
+    }
+
     /**
      * Lista todas las cuentas de un cliente
      */
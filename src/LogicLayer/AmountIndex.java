@@ -0,0 +1,168 @@
+package LogicLayer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Índice de posiciones de transacciones ordenado por monto (en centavos, truncado)
+ * Las altas se acumulan en un tramo sin ordenar; al llenarse se ordena y pasa a ser un tramo
+ * ordenado. Los tramos ordenados se mezclan de a dos cuando el último alcanza la mitad del
+ * anterior (como un contador binario), de modo que hay O(log n) tramos y cada alta se mezcla
+ * O(log n) veces. Las consultas hacen búsqueda binaria en cada tramo ordenado y recorren el
+ * tramo pendiente
+ */
+final class AmountIndex {
+    private static final int PENDING_LIMIT = 16_384;
+
+    // Tramos ordenados, del más grande al más chico
+    private final List<Run> runs;
+
+    private final long[] pendingKeys;
+    private final int[] pendingPositions;
+    private int pendingSize;
+
+    // Espacio auxiliar para ordenar el tramo pendiente
+    private final long[] scratchKeys;
+    private final int[] scratchPositions;
+
+    AmountIndex() {
+        this.runs = new ArrayList<>();
+        this.pendingKeys = new long[PENDING_LIMIT];
+        this.pendingPositions = new int[PENDING_LIMIT];
+        this.scratchKeys = new long[PENDING_LIMIT];
+        this.scratchPositions = new int[PENDING_LIMIT];
+    }
+
+    void add(long key, int position) {
+        pendingKeys[pendingSize] = key;
+        pendingPositions[pendingSize] = position;
+        pendingSize++;
+        if (pendingSize == PENDING_LIMIT) {
+            flushPending();
+        }
+    }
+
+    /**
+     * Cuenta las posiciones con clave en [minKey, maxKey]
+     */
+    int count(long minKey, long maxKey) {
+        int count = 0;
+        for (Run run : runs) {
+            count += Math.max(0, run.upperBound(maxKey) - run.lowerBound(minKey));
+        }
+        for (int i = 0; i < pendingSize; i++) {
+            if (pendingKeys[i] >= minKey && pendingKeys[i] <= maxKey) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Entrega las posiciones con clave en [minKey, maxKey] (sin un orden particular)
+     */
+    void forEach(long minKey, long maxKey, IntConsumer action) {
+        for (Run run : runs) {
+            for (int i = run.lowerBound(minKey), end = run.upperBound(maxKey); i < end; i++) {
+                action.accept(run.positions[i]);
+            }
+        }
+        for (int i = 0; i < pendingSize; i++) {
+            if (pendingKeys[i] >= minKey && pendingKeys[i] <= maxKey) {
+                action.accept(pendingPositions[i]);
+            }
+        }
+    }
+
+    /**
+     * Ordena el tramo pendiente, lo agrega como tramo ordenado y mezcla los últimos tramos
+     * mientras el último sea al menos la mitad del anterior
+     */
+    private void flushPending() {
+        sortPending(0, pendingSize);
+        long[] keys = new long[pendingSize];
+        int[] positions = new int[pendingSize];
+        System.arraycopy(pendingKeys, 0, keys, 0, pendingSize);
+        System.arraycopy(pendingPositions, 0, positions, 0, pendingSize);
+        runs.add(new Run(keys, positions));
+        pendingSize = 0;
+
+        while (runs.size() >= 2) {
+            Run last = runs.get(runs.size() - 1);
+            Run previous = runs.get(runs.size() - 2);
+            if (2L * last.keys.length < previous.keys.length) {
+                break;
+            }
+            runs.remove(runs.size() - 1);
+            runs.set(runs.size() - 1, Run.merge(previous, last));
+        }
+    }
+
+    /**
+     * Ordena por clave el rango [from, to) del tramo pendiente (mergesort sobre arreglos
+     * primitivos, moviendo las posiciones junto con las claves)
+     */
+    private void sortPending(int from, int to) {
+        KeySort.sort(pendingKeys, pendingPositions, from, to, scratchKeys, scratchPositions);
+    }
+
+    /**
+     * Tramo ordenado por clave
+     */
+    private static final class Run {
+        private final long[] keys;
+        private final int[] positions;
+
+        private Run(long[] keys, int[] positions) {
+            this.keys = keys;
+            this.positions = positions;
+        }
+
+        private static Run merge(Run a, Run b) {
+            int size = a.keys.length + b.keys.length;
+            long[] keys = new long[size];
+            int[] positions = new int[size];
+            int i = 0;
+            int j = 0;
+            for (int n = 0; n < size; n++) {
+                if (j >= b.keys.length || (i < a.keys.length && a.keys[i] <= b.keys[j])) {
+                    keys[n] = a.keys[i];
+                    positions[n] = a.positions[i++];
+                } else {
+                    keys[n] = b.keys[j];
+                    positions[n] = b.positions[j++];
+                }
+            }
+            return new Run(keys, positions);
+        }
+
+        private int lowerBound(long key) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid] < key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int upperBound(long key) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid] <= key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package LogicLayer;
+
+import java.util.UUID;
+
+/**
+ * Operaciones internas del banco que no dependen de la sesión de un cliente
+ * No debe entregarse a la capa de usuario: quien tenga una instancia puede revertir cualquier
+ * transacción completada (retiros, comisiones, intereses y transferencias a terceros)
+ */
+public class BackOfficeService {
+    private final AccountService accountService;
+
+    public BackOfficeService(AccountService accountService) {
+        if (accountService == null) {
+            throw new IllegalArgumentException("El servicio de cuentas no puede ser nulo");
+        }
+        this.accountService = accountService;
+    }
+
+    /**
+     * Revierte una transacción completada aplicando los movimientos inversos
+     *
+     * @param transactionId id de la transacción a revertir
+     * @param note nota de la reversión
+     * @return la reversión (fallida si la cuenta a debitar no tiene fondos suficientes)
+     * @throws IllegalStateException si la transacción ya fue revertida
+     */
+    public Transaction reverseTransaction(UUID transactionId, String note) {
+        return accountService.applyReversal(accountService.findReversible(transactionId), note);
+    }
+}
@@ -0,0 +1,37 @@
+package LogicLayer;
+
+/**
+ * Enum que representa qué hace el publicador de cambios cuando el buffer de un suscriptor está lleno
+ */
+public enum BackpressurePolicy {
+    /**
+     * Descarta el evento nuevo (quien modifica la cuenta nunca espera)
+     */
+    DROP("Descartar"),
+    /**
+     * Espera a que el suscriptor libere lugar; si no lo libera dentro de la espera máxima del
+     * publicador (o el hilo se interrumpe), descarta el evento
+     */
+    BLOCK("Esperar"),
+    /**
+     * Reemplaza el cambio de saldo pendiente de la misma cuenta por el más reciente; si no hay uno
+     * para reemplazar, espera como BLOCK (con la misma espera máxima). Las transacciones no se
+     * combinan
+     */
+    CONFLATE("Combinar por cuenta");
+
+    private final String description;
+
+    BackpressurePolicy(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+}
@@ -0,0 +1,98 @@
+package LogicLayer;
+
+import java.math.BigDecimal;
+
+/**
+ * Resultado agregado de un backtest sobre una población de cuentas de inversión sintéticas
+ */
+public class BacktestResult {
+    private final int accounts;
+    private final int days;
+    private final BigDecimal initialTotal;
+    private final BigDecimal finalTotal;
+    private final double meanReturn;
+    private final double worstReturn;
+    private final double bestReturn;
+    private final double lossProbability;
+    private final long elapsedNanos;
+
+    public BacktestResult(int accounts, int days, BigDecimal initialTotal, BigDecimal finalTotal,
+                          double meanReturn, double worstReturn, double bestReturn,
+                          double lossProbability, long elapsedNanos) {
+        this.accounts = accounts;
+        this.days = days;
+        this.initialTotal = initialTotal;
+        this.finalTotal = finalTotal;
+        this.meanReturn = meanReturn;
+        this.worstReturn = worstReturn;
+        this.bestReturn = bestReturn;
+        this.lossProbability = lossProbability;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getAccounts() {
+        return accounts;
+    }
+
+    /**
+     * Cantidad de días de la serie procesados
+     */
+    public int getDays() {
+        return days;
+    }
+
+    public BigDecimal getInitialTotal() {
+        return initialTotal;
+    }
+
+    public BigDecimal getFinalTotal() {
+        return finalTotal;
+    }
+
+    /**
+     * Rendimiento promedio por cuenta (ej: 0.25 = +25%)
+     */
+    public double getMeanReturn() {
+        return meanReturn;
+    }
+
+    public double getWorstReturn() {
+        return worstReturn;
+    }
+
+    public double getBestReturn() {
+        return bestReturn;
+    }
+
+    /**
+     * Proporción de cuentas que terminan con menos saldo que al inicio (0 a 1)
+     */
+    public double getLossProbability() {
+        return lossProbability;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Días de la serie procesados por segundo
+     */
+    public double getDaysPerSecond() {
+        return perSecond(days);
+    }
+
+    /**
+     * Actualizaciones de cuenta por segundo (cuentas × días)
+     */
+    public double getAccountDaysPerSecond() {
+        return perSecond((double) days * accounts);
+    }
+
+    private double perSecond(double amount) {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return amount / (elapsedNanos / 1_000_000_000d);
+    }
+}
@@ -0,0 +1,225 @@
+package LogicLayer;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Servicio de backtesting: aplica una serie de tasas diarias grabada en un archivo
+ * a una población de cuentas de inversión sintéticas
+ *
+ * La población se guarda como arreglo de saldos en centavos y se actualiza con DailyReturnKernel,
+ * que reproduce exactamente InvestmentAccount.applyDailyReturn. La serie se lee por bloques de días
+ * y cada bloque se aplica en paralelo por porciones de la población
+ *
+ * Formato del archivo: una línea por día, "fecha,tasa" o solo "tasa" (ej: 2024-01-02,0.01234).
+ * Se ignoran las líneas vacías, los comentarios (#) y un encabezado no numérico en la primera
+ * línea que no es comentario.
+ * Las tasas con más de 5 decimales se redondean HALF_UP, igual que MarketSimulator
+ */
+public class BacktestService {
+    // Días leídos del archivo por bloque
+    private static final int DAYS_PER_BLOCK = 512;
+
+    // Cuentas procesadas por cada tarea paralela
+    private static final int ACCOUNTS_PER_TASK = 8192;
+
+    /**
+     * Ejecuta un backtest
+     *
+     * @param rateSeries archivo con la serie de tasas diarias
+     * @param accounts cantidad de cuentas sintéticas
+     * @param minBalance saldo inicial mínimo
+     * @param maxBalance saldo inicial máximo
+     * @param seed semilla para generar los saldos iniciales
+     * @return estadísticas agregadas y rendimiento de la ejecución
+     * @throws IOException si no se puede leer el archivo
+     */
+    public BacktestResult run(Path rateSeries, int accounts, BigDecimal minBalance, BigDecimal maxBalance,
+                              long seed) throws IOException {
+        if (accounts <= 0) {
+            throw new IllegalArgumentException("La cantidad de cuentas debe ser positiva");
+        }
+        if (minBalance == null || maxBalance == null || minBalance.compareTo(BigDecimal.ZERO) <= 0
+                || maxBalance.compareTo(minBalance) < 0) {
+            throw new IllegalArgumentException("El rango de saldos iniciales es inválido");
+        }
+
+        long[] initialCents = createPopulation(accounts, DailyReturnKernel.toCents(minBalance),
+                DailyReturnKernel.toCents(maxBalance), seed);
+        long[] cents = initialCents.clone();
+        int tasks = (accounts + ACCOUNTS_PER_TASK - 1) / ACCOUNTS_PER_TASK;
+
+        long start = System.nanoTime();
+        int totalDays = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(rateSeries, StandardCharsets.UTF_8)) {
+            long[] block = new long[DAYS_PER_BLOCK];
+            int blockSize;
+            int lineNumber = 0;
+            boolean headerAllowed = true;
+            String line = null;
+
+            do {
+                // Leer el siguiente bloque de días
+                blockSize = 0;
+                while (blockSize < DAYS_PER_BLOCK && (line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (isBlankOrComment(line)) {
+                        continue;
+                    }
+                    Long rateUnits = parseRateUnits(line, lineNumber, headerAllowed);
+                    headerAllowed = false;
+                    if (rateUnits != null) {
+                        block[blockSize++] = rateUnits;
+                    }
+                }
+
+                if (blockSize > 0) {
+                    try {
+                        applyBlock(cents, block, blockSize, tasks);
+                    } catch (ArithmeticException e) {
+                        throw new IllegalStateException("Un saldo excedió el rango soportado entre los días "
+                                + (totalDays + 1) + " y " + (totalDays + blockSize));
+                    }
+                    totalDays += blockSize;
+                }
+            } while (line != null);
+        }
+
+        long elapsed = System.nanoTime() - start;
+        return summarize(initialCents, cents, totalDays, elapsed);
+    }
+
+    /**
+     * Escribe una serie de tasas generada por el simulador, útil para preparar backtests
+     *
+     * @param target archivo a escribir
+     * @param marketSimulator simulador a usar
+     * @param currency moneda cuyo modelo genera la serie
+     * @param startDate fecha del primer día
+     * @param days cantidad de días
+     * @throws IOException si no se puede escribir el archivo
+     */
+    public void writeRateSeries(Path target, MarketSimulator marketSimulator, Currency currency,
+                                LocalDate startDate, int days) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+            writer.write("fecha,tasa");
+            writer.newLine();
+            LocalDate date = startDate;
+            for (int i = 0; i < days; i++) {
+                writer.write(date.toString());
+                writer.write(',');
+                writer.write(marketSimulator.generateDailyRates().get(currency).toPlainString());
+                writer.newLine();
+                date = date.plusDays(1);
+            }
+        }
+    }
+
+    /**
+     * Aplica un bloque de días a toda la población
+     * Cada tarea toma una porción de cuentas y le aplica todos los días del bloque en orden
+     */
+    private static void applyBlock(long[] cents, long[] block, int blockSize, int tasks) {
+        IntStream.range(0, tasks).parallel().forEach(task -> {
+            int from = task * ACCOUNTS_PER_TASK;
+            int to = Math.min(from + ACCOUNTS_PER_TASK, cents.length);
+            for (int day = 0; day < blockSize; day++) {
+                DailyReturnKernel.applyRate(cents, from, to, block[day]);
+            }
+        });
+    }
+
+    private static boolean isBlankOrComment(String line) {
+        String trimmed = line.trim();
+        return trimmed.isEmpty() || trimmed.startsWith("#");
+    }
+
+    /**
+     * Interpreta una línea del archivo que no es vacía ni comentario
+     *
+     * @param headerAllowed true si es la primera línea con contenido, que puede ser un encabezado
+     * @return tasa en unidades de 0.00001, o null si la línea es el encabezado
+     */
+    private static Long parseRateUnits(String line, int lineNumber, boolean headerAllowed) {
+        String trimmed = line.trim();
+
+        int comma = trimmed.lastIndexOf(',');
+        String rateText = comma >= 0 ? trimmed.substring(comma + 1).trim() : trimmed;
+
+        try {
+            BigDecimal rate = new BigDecimal(rateText).setScale(5, RoundingMode.HALF_UP);
+            if (rate.compareTo(BigDecimal.ONE.negate()) <= 0) {
+                throw new IllegalArgumentException("Tasa inválida en la línea " + lineNumber + ": " + rateText);
+            }
+            return DailyReturnKernel.toRateUnits(rate);
+        } catch (NumberFormatException e) {
+            // Se tolera un encabezado en la primera línea con contenido
+            if (headerAllowed) {
+                return null;
+            }
+            throw new IllegalArgumentException("Tasa inválida en la línea " + lineNumber + ": " + rateText);
+        }
+    }
+
+    /**
+     * Genera los saldos iniciales de la población
+     */
+    private static long[] createPopulation(int accounts, long minCents, long maxCents, long seed) {
+        SplittableRandom rng = new SplittableRandom(seed);
+        long[] cents = new long[accounts];
+        for (int i = 0; i < accounts; i++) {
+            cents[i] = minCents == maxCents ? minCents : rng.nextLong(minCents, maxCents + 1);
+        }
+        return cents;
+    }
+
+    /**
+     * Calcula las estadísticas agregadas de la población
+     */
+    private static BacktestResult summarize(long[] initialCents, long[] finalCents, int days, long elapsed) {
+        BigDecimal initialTotal = BigDecimal.ZERO;
+        BigDecimal finalTotal = BigDecimal.ZERO;
+        double sumReturns = 0;
+        double worst = Double.MAX_VALUE;
+        double best = -Double.MAX_VALUE;
+        int losses = 0;
+
+        // Totales parciales en long para no crear un BigDecimal por cuenta
+        long initialPartial = 0;
+        long finalPartial = 0;
+        for (int i = 0; i < initialCents.length; i++) {
+            if (initialPartial > Long.MAX_VALUE / 2 || finalPartial > Long.MAX_VALUE / 2) {
+                initialTotal = initialTotal.add(DailyReturnKernel.fromCents(initialPartial));
+                finalTotal = finalTotal.add(DailyReturnKernel.fromCents(finalPartial));
+                initialPartial = 0;
+                finalPartial = 0;
+            }
+            initialPartial += initialCents[i];
+            finalPartial += finalCents[i];
+
+            double accountReturn = (double) finalCents[i] / initialCents[i] - 1;
+            sumReturns += accountReturn;
+            worst = Math.min(worst, accountReturn);
+            best = Math.max(best, accountReturn);
+            if (finalCents[i] < initialCents[i]) {
+                losses++;
+            }
+        }
+        initialTotal = initialTotal.add(DailyReturnKernel.fromCents(initialPartial));
+        finalTotal = finalTotal.add(DailyReturnKernel.fromCents(finalPartial));
+
+        int accounts = initialCents.length;
+        return new BacktestResult(accounts, days, initialTotal, finalTotal, sumReturns / accounts,
+                worst, best, (double) losses / accounts, elapsed);
+    }
+}
@@ -0,0 +1,56 @@
+package LogicLayer;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Evento emitido cuando cambia el saldo de una cuenta
+ */
+public class BalanceChangeEvent extends ChangeEvent {
+    private final UUID accountId;
+    private final BalanceChangeType type;
+    private final BigDecimal amount;
+    private final BigDecimal balance;
+
+    BalanceChangeEvent(long sequence, Instant occurredAt, UUID accountId, BalanceChangeType type,
+                       BigDecimal amount, BigDecimal balance) {
+        super(sequence, occurredAt);
+        this.accountId = accountId;
+        this.type = type;
+        this.amount = amount;
+        this.balance = balance;
+    }
+
+    public UUID getAccountId() {
+        return accountId;
+    }
+
+    public BalanceChangeType getType() {
+        return type;
+    }
+
+    /**
+     * Monto del cambio con signo (negativo si el saldo bajó)
+     */
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    /**
+     * Saldo de la cuenta después del cambio
+     */
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    @Override
+    UUID conflationKey() {
+        return accountId;
+    }
+
+    @Override
+    public String toString() {
+        return "#" + getSequence() + " " + type + " " + amount + " -> " + balance + " [" + accountId + "]";
+    }
+}
@@ -0,0 +1,26 @@
+package LogicLayer;
+
+/**
+ * Enum que representa el origen de un cambio de saldo
+ */
+public enum BalanceChangeType {
+    CREDIT("Crédito"),
+    DEBIT("Débito"),
+    DAILY_RETURN("Rendimiento diario"),
+    INTEREST("Intereses");
+
+    private final String description;
+
+    BalanceChangeType(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+}
@@ -0,0 +1,17 @@
+package LogicLayer;
+
+import java.math.BigDecimal;
+
+/**
+ * Interfaz para seguir los cambios de saldo de las cuentas
+ * Se invoca en el hilo que modificó la cuenta, inmediatamente después del cambio
+ */
+public interface BalanceListener {
+    /**
+     * @param account cuenta modificada
+     * @param type origen del cambio
+     * @param amount monto del cambio con signo (negativo si el saldo bajó)
+     * @param balance saldo resultante
+     */
+    void balanceChanged(Account account, BalanceChangeType type, BigDecimal amount, BigDecimal balance);
+}
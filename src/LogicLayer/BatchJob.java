@@ -0,0 +1,28 @@
+package LogicLayer;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Interfaz para los trabajos de fin de día que recorren todas las cuentas
+ * El ejecutor llama a processPartition en paralelo con porciones disjuntas de cuentas
+ * Una porción que falla a mitad de camino se vuelve a procesar completa en la siguiente ejecución,
+ * por lo que cada trabajo debe omitir las cuentas a las que ya se aplicó en el día
+ * (Account.isBatchApplied / markBatchApplied)
+ */
+public interface BatchJob {
+    /**
+     * Nombre único del trabajo (se usa como clave de los puntos de control)
+     */
+    String getName();
+
+    /**
+     * Procesa una porción de las cuentas del sistema
+     * Puede ejecutarse en paralelo con otras porciones del mismo trabajo
+     *
+     * @param accounts cuentas de la porción
+     * @param businessDay día que se está cerrando
+     * @return cantidad de cuentas afectadas
+     */
+    int processPartition(List<Account> accounts, LocalDate businessDay);
+}
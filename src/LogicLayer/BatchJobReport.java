@@ -0,0 +1,99 @@
+package LogicLayer;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Resultado de la ejecución de un trabajo de fin de día
+ */
+public class BatchJobReport {
+    private final String jobName;
+    private final LocalDate businessDay;
+    private final int partitionsProcessed;
+    private final int partitionsSkipped;
+    private final int partitionsFailed;
+    private final long accountsScanned;
+    private final long accountsAffected;
+    private final long elapsedNanos;
+    private final List<String> failureMessages;
+
+    public BatchJobReport(String jobName, LocalDate businessDay, int partitionsProcessed,
+                          int partitionsSkipped, int partitionsFailed, long accountsScanned,
+                          long accountsAffected, long elapsedNanos, List<String> failureMessages) {
+        this.jobName = jobName;
+        this.businessDay = businessDay;
+        this.partitionsProcessed = partitionsProcessed;
+        this.partitionsSkipped = partitionsSkipped;
+        this.partitionsFailed = partitionsFailed;
+        this.accountsScanned = accountsScanned;
+        this.accountsAffected = accountsAffected;
+        this.elapsedNanos = elapsedNanos;
+        this.failureMessages = List.copyOf(failureMessages);
+    }
+
+    public String getJobName() {
+        return jobName;
+    }
+
+    public LocalDate getBusinessDay() {
+        return businessDay;
+    }
+
+    public int getPartitionsProcessed() {
+        return partitionsProcessed;
+    }
+
+    /**
+     * Porciones omitidas por estar ya completadas (reanudación)
+     */
+    public int getPartitionsSkipped() {
+        return partitionsSkipped;
+    }
+
+    /**
+     * Porciones que fallaron; se reintentan en la próxima ejecución del día
+     */
+    public int getPartitionsFailed() {
+        return partitionsFailed;
+    }
+
+    /**
+     * Mensajes de error de las porciones fallidas
+     */
+    public List<String> getFailureMessages() {
+        return failureMessages;
+    }
+
+    public long getAccountsScanned() {
+        return accountsScanned;
+    }
+
+    public long getAccountsAffected() {
+        return accountsAffected;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Cuentas recorridas por segundo
+     */
+    public double getAccountsPerSecond() {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return accountsScanned / (elapsedNanos / 1_000_000_000d);
+    }
+
+    public boolean isSuccessful() {
+        return partitionsFailed == 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s [%s]: %d porciones (%d omitidas, %d fallidas), %,d cuentas, %,d afectadas, %.1f ms, %,.0f cuentas/s",
+                jobName, businessDay, partitionsProcessed, partitionsSkipped, partitionsFailed,
+                accountsScanned, accountsAffected, elapsedNanos / 1e6, getAccountsPerSecond());
+    }
+}
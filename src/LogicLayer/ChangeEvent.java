@@ -0,0 +1,33 @@
+package LogicLayer;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Evento del flujo de cambios (saldos y transacciones guardadas)
+ */
+public abstract class ChangeEvent {
+    private final long sequence;
+    private final Instant occurredAt;
+
+    protected ChangeEvent(long sequence, Instant occurredAt) {
+        this.sequence = sequence;
+        this.occurredAt = occurredAt;
+    }
+
+    /**
+     * Número creciente asignado por el publicador al emitir el evento
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    /**
+     * Cuenta por la que el evento puede combinarse con uno posterior, o null si no se combina
+     */
+    abstract UUID conflationKey();
+}
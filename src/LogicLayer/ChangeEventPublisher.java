@@ -0,0 +1,411 @@
+package LogicLayer;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Flujo de cambios en el proceso: cambios de saldo y transacciones guardadas, publicados con
+ * java.util.concurrent.Flow
+ * Cada suscriptor tiene su propio buffer acotado y su política ante un buffer lleno; los eventos
+ * se entregan en lotes (cada elemento solicitado es un lote de hasta maxBatchSize eventos) desde
+ * el ejecutor indicado, nunca desde el hilo que modificó la cuenta. Sin suscriptores, publicar
+ * no crea eventos.
+ * Para recibir los cambios de saldo el DAO de cuentas se envuelve con
+ * {@link EventPublishingAccountDao}; para las transacciones, el DAO se envuelve con
+ * {@link EventPublishingTransactionDao}. Cada simulación usa su propio publicador.
+ * Con BLOCK y CONFLATE el hilo que modificó la cuenta espera dentro de credit/debit, con el saldo
+ * ya cambiado (y, en las cuentas de inversión, con el monitor de la cuenta tomado), por lo que la
+ * espera está acotada: vencido el plazo, el evento se descarta como con DROP.
+ * Publicar nunca lanza excepciones hacia la cuenta: si el ejecutor rechaza una entrega (por
+ * ejemplo, porque se apagó antes de cerrar el publicador), los eventos pendientes del suscriptor
+ * se cuentan como descartados y la próxima publicación vuelve a intentar la entrega
+ */
+public class ChangeEventPublisher implements Flow.Publisher<List<ChangeEvent>>, BalanceListener, AutoCloseable {
+    // Lotes entregados por cada ejecución en el ejecutor, para no acaparar sus hilos
+    private static final int BATCHES_PER_RUN = 16;
+    // Espera máxima por defecto de BLOCK y CONFLATE antes de descartar el evento
+    private static final long DEFAULT_BLOCK_TIMEOUT_MILLIS = 1_000;
+
+    private final Executor executor;
+    private final int bufferCapacity;
+    private final int maxBatchSize;
+    private final long blockTimeoutNanos;
+    private final List<EventSubscription> subscriptions;
+    private final AtomicLong sequence;
+    private final LongAdder published;
+    private final LongAdder dropped;
+    private final LongAdder conflated;
+    private volatile boolean closed;
+
+    /**
+     * @param executor ejecutor donde se entregan los lotes
+     * @param bufferCapacity eventos pendientes por suscriptor
+     * @param maxBatchSize eventos por lote entregado
+     */
+    public ChangeEventPublisher(Executor executor, int bufferCapacity, int maxBatchSize) {
+        this(executor, bufferCapacity, maxBatchSize, DEFAULT_BLOCK_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param executor ejecutor donde se entregan los lotes
+     * @param bufferCapacity eventos pendientes por suscriptor
+     * @param maxBatchSize eventos por lote entregado
+     * @param blockTimeoutMillis espera máxima con BLOCK y CONFLATE antes de descartar el evento
+     */
+    public ChangeEventPublisher(Executor executor, int bufferCapacity, int maxBatchSize, long blockTimeoutMillis) {
+        if (executor == null) {
+            throw new IllegalArgumentException("El ejecutor no puede ser nulo");
+        }
+        if (bufferCapacity <= 0 || maxBatchSize <= 0) {
+            throw new IllegalArgumentException("El buffer y el tamaño de lote deben ser positivos");
+        }
+        if (blockTimeoutMillis < 0) {
+            throw new IllegalArgumentException("La espera máxima no puede ser negativa");
+        }
+        this.executor = executor;
+        this.bufferCapacity = bufferCapacity;
+        this.maxBatchSize = maxBatchSize;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMillis);
+        this.subscriptions = new CopyOnWriteArrayList<>();
+        this.sequence = new AtomicLong();
+        this.published = new LongAdder();
+        this.dropped = new LongAdder();
+        this.conflated = new LongAdder();
+    }
+
+    /**
+     * Suscribe con la política DROP: quien modifica las cuentas nunca espera al suscriptor
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super List<ChangeEvent>> subscriber) {
+        subscribe(subscriber, BackpressurePolicy.DROP);
+    }
+
+    /**
+     * Suscribe con una política propia para cuando su buffer esté lleno
+     */
+    public void subscribe(Flow.Subscriber<? super List<ChangeEvent>> subscriber, BackpressurePolicy policy) {
+        if (subscriber == null || policy == null) {
+            throw new IllegalArgumentException("El suscriptor y la política no pueden ser nulos");
+        }
+        EventSubscription subscription = new EventSubscription(subscriber, policy);
+        subscriptions.add(subscription);
+        subscriber.onSubscribe(subscription);
+        if (closed) {
+            subscription.close();
+        }
+    }
+
+    @Override
+    public void balanceChanged(Account account, BalanceChangeType type, BigDecimal amount, BigDecimal balance) {
+        if (subscriptions.isEmpty() || closed) {
+            return;
+        }
+        publish(new BalanceChangeEvent(sequence.incrementAndGet(), Instant.now(), account.getId(), type,
+                amount, balance));
+    }
+
+    /**
+     * Publica una transacción guardada
+     */
+    public void transactionSaved(Transaction tx) {
+        if (subscriptions.isEmpty() || closed) {
+            return;
+        }
+        publish(new TransactionSavedEvent(sequence.incrementAndGet(), Instant.now(), tx));
+    }
+
+    private void publish(ChangeEvent event) {
+        published.increment();
+        for (EventSubscription subscription : subscriptions) {
+            try {
+                subscription.offer(event);
+            } catch (RuntimeException e) {
+                // El cambio ya ocurrió: un suscriptor con problemas no debe hacerlo fallar
+                dropped.increment();
+            }
+        }
+    }
+
+    /**
+     * Deja de publicar; cada suscriptor recibe onComplete después de sus eventos pendientes
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (EventSubscription subscription : subscriptions) {
+            subscription.close();
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Eventos publicados (cada uno cuenta una vez aunque haya varios suscriptores)
+     */
+    public long getPublishedCount() {
+        return published.sum();
+    }
+
+    /**
+     * Entregas descartadas por buffers llenos: con DROP, o con BLOCK y CONFLATE al vencer la espera
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Cambios de saldo reemplazados por uno más reciente con la política CONFLATE
+     */
+    public long getConflatedCount() {
+        return conflated.sum();
+    }
+
+    /**
+     * Suscripción con buffer circular acotado
+     * Con CONFLATE, un mapa por cuenta guarda la posición de su cambio de saldo pendiente para
+     * reemplazarlo sin recorrer el buffer
+     */
+    private final class EventSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super List<ChangeEvent>> subscriber;
+        private final BackpressurePolicy policy;
+        private final ReentrantLock lock;
+        private final Condition notFull;
+        private final ChangeEvent[] ring;
+        private final Map<UUID, Long> pendingByAccount;
+        // Posiciones absolutas del primer evento pendiente y del siguiente lugar libre
+        private long head;
+        private long tail;
+        private long demand;
+        private boolean scheduled;
+        private boolean cancelled;
+        private boolean completing;
+        private boolean completed;
+
+        private EventSubscription(Flow.Subscriber<? super List<ChangeEvent>> subscriber, BackpressurePolicy policy) {
+            this.subscriber = subscriber;
+            this.policy = policy;
+            this.lock = new ReentrantLock();
+            this.notFull = lock.newCondition();
+            this.ring = new ChangeEvent[bufferCapacity];
+            this.pendingByAccount = policy == BackpressurePolicy.CONFLATE ? new HashMap<>() : null;
+        }
+
+        private void offer(ChangeEvent event) {
+            boolean schedule;
+            lock.lock();
+            try {
+                UUID key = pendingByAccount != null ? event.conflationKey() : null;
+                long waitNanos = blockTimeoutNanos;
+                while (true) {
+                    if (cancelled || completing) {
+                        return;
+                    }
+                    if (key != null) {
+                        Long position = pendingByAccount.get(key);
+                        if (position != null) {
+                            ring[slot(position)] = event;
+                            conflated.increment();
+                            return;
+                        }
+                    }
+                    if (tail - head < ring.length) {
+                        break;
+                    }
+                    if (policy == BackpressurePolicy.DROP || waitNanos <= 0) {
+                        dropped.increment();
+                        return;
+                    }
+                    try {
+                        waitNanos = notFull.awaitNanos(waitNanos);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        dropped.increment();
+                        return;
+                    }
+                }
+                ring[slot(tail)] = event;
+                if (key != null) {
+                    pendingByAccount.put(key, tail);
+                }
+                tail++;
+                schedule = claimDelivery();
+            } finally {
+                lock.unlock();
+            }
+            if (schedule) {
+                scheduleDelivery();
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                subscriber.onError(new IllegalArgumentException("La cantidad solicitada debe ser positiva"));
+                return;
+            }
+            boolean schedule;
+            lock.lock();
+            try {
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                schedule = claimDelivery();
+            } finally {
+                lock.unlock();
+            }
+            if (schedule) {
+                scheduleDelivery();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            lock.lock();
+            try {
+                cancelled = true;
+                Arrays.fill(ring, null);
+                head = tail;
+                if (pendingByAccount != null) {
+                    pendingByAccount.clear();
+                }
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            subscriptions.remove(this);
+        }
+
+        private void close() {
+            boolean schedule;
+            lock.lock();
+            try {
+                completing = true;
+                notFull.signalAll();
+                schedule = claimDelivery();
+            } finally {
+                lock.unlock();
+            }
+            if (schedule) {
+                scheduleDelivery();
+            }
+        }
+
+        /**
+         * Entrega lotes mientras haya eventos y demanda; se vuelve a encolar en el ejecutor si
+         * queda trabajo después de BATCHES_PER_RUN lotes
+         */
+        private void deliver() {
+            for (int round = 0; round < BATCHES_PER_RUN; round++) {
+                List<ChangeEvent> batch = null;
+                boolean complete = false;
+                lock.lock();
+                try {
+                    if (cancelled) {
+                        scheduled = false;
+                        return;
+                    }
+                    if (demand > 0 && tail > head) {
+                        batch = takeBatch();
+                        demand--;
+                    } else if (completing && tail == head && !completed) {
+                        completed = true;
+                        complete = true;
+                    } else {
+                        scheduled = false;
+                        return;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+
+                if (complete) {
+                    subscriptions.remove(this);
+                    subscriber.onComplete();
+                    return;
+                }
+                try {
+                    subscriber.onNext(batch);
+                } catch (RuntimeException e) {
+                    cancel();
+                    subscriber.onError(e);
+                    return;
+                }
+            }
+            scheduleDelivery();
+        }
+
+        /**
+         * Programa la entrega en el ejecutor
+         * Si el ejecutor la rechaza, los eventos pendientes se descartan (no hay quién los entregue)
+         * y la entrega queda libre para que la próxima publicación la vuelva a programar
+         */
+        private void scheduleDelivery() {
+            try {
+                executor.execute(this::deliver);
+            } catch (RejectedExecutionException e) {
+                lock.lock();
+                try {
+                    scheduled = false;
+                    dropped.add(tail - head);
+                    Arrays.fill(ring, null);
+                    head = tail;
+                    if (pendingByAccount != null) {
+                        pendingByAccount.clear();
+                    }
+                    notFull.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        private List<ChangeEvent> takeBatch() {
+            int size = (int) Math.min(maxBatchSize, tail - head);
+            List<ChangeEvent> batch = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                int slot = slot(head);
+                ChangeEvent event = ring[slot];
+                ring[slot] = null;
+                if (pendingByAccount != null && event.conflationKey() != null) {
+                    pendingByAccount.remove(event.conflationKey(), head);
+                }
+                head++;
+                batch.add(event);
+            }
+            notFull.signalAll();
+            return batch;
+        }
+
+        /**
+         * Marca la entrega como en curso si hay algo para entregar y no estaba programada
+         * (debe llamarse con el lock tomado)
+         * @return true si quien llama debe programar la entrega
+         */
+        private boolean claimDelivery() {
+            if (scheduled || cancelled || completed) {
+                return false;
+            }
+            if (demand > 0 && tail > head || completing && tail == head) {
+                scheduled = true;
+                return true;
+            }
+            return false;
+        }
+
+        private int slot(long position) {
+            return (int) (position % ring.length);
+        }
+    }
+}
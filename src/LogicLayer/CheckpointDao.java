@@ -0,0 +1,18 @@
+package LogicLayer;
+
+import java.time.LocalDate;
+
+/**
+ * Interfaz DAO para los puntos de control de los trabajos de fin de día
+ */
+public interface CheckpointDao {
+    /**
+     * Verifica si una porción de un trabajo ya fue completada para un día
+     */
+    boolean isCompleted(String jobName, LocalDate businessDay, int partition);
+
+    /**
+     * Registra que una porción de un trabajo fue completada para un día
+     */
+    void markCompleted(String jobName, LocalDate businessDay, int partition);
+}
@@ -0,0 +1,77 @@
+package LogicLayer;
+
+import java.util.*;
+
+/**
+ * Recorrido cronológico de las transacciones de una cuenta en un DAO que las guarda en orden de alta
+ * Con el lock del DAO tomado se copian la fecha y la posición de cada transacción de la cuenta
+ * (sin crear objetos), se ordenan de forma estable por fecha y las transacciones se reconstruyen
+ * por tramos. Al agotar lo copiado se toman las guardadas desde entonces, que quedan al final
+ */
+abstract class ChronologicalTransactionIterator implements Iterator<Transaction> {
+    private final int chunkSize;
+    private final List<Transaction> chunk;
+    private long[] micros;
+    private int[] positions;
+    private int size;
+    private int nextKey;
+    private int chunkIndex;
+
+    ChronologicalTransactionIterator(int chunkSize) {
+        this.chunkSize = chunkSize;
+        this.chunk = new ArrayList<>(chunkSize);
+        this.micros = new long[16];
+        this.positions = new int[16];
+    }
+
+    /**
+     * Agrega con {@link #add} las transacciones de la cuenta guardadas desde la llamada anterior
+     * Debe ejecutarse con el lock del DAO tomado
+     */
+    abstract void collectNew();
+
+    /**
+     * Reconstruye las transacciones de las posiciones [from, to) en el orden dado
+     * Debe ejecutarse con el lock del DAO tomado
+     */
+    abstract void materialize(int[] positions, int from, int to, List<Transaction> target);
+
+    final void add(long createdMicros, int position) {
+        if (size == micros.length) {
+            micros = Arrays.copyOf(micros, size * 2);
+            positions = Arrays.copyOf(positions, size * 2);
+        }
+        micros[size] = createdMicros;
+        positions[size++] = position;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (chunkIndex < chunk.size()) {
+            return true;
+        }
+        chunk.clear();
+        chunkIndex = 0;
+        if (nextKey == size) {
+            size = 0;
+            nextKey = 0;
+            collectNew();
+            KeySort.sort(micros, positions, 0, size, new long[size], new int[size]);
+        }
+        if (nextKey == size) {
+            return false;
+        }
+        int to = Math.min(nextKey + chunkSize, size);
+        materialize(positions, nextKey, to, chunk);
+        nextKey = to;
+        return !chunk.isEmpty();
+    }
+
+    @Override
+    public Transaction next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return chunk.get(chunkIndex++);
+    }
+}
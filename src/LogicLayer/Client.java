@@ -16,7 +16,7 @@ public class Client {
      * @param alias Alias único del cliente (usado para login)
      */
     public Client(String name, String alias) {
-        this.id = UUID.randomUUID();
+        this.id = EntityIds.next();
         this.name = name;
         this.alias = alias;
     }
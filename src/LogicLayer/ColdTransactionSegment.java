@@ -0,0 +1,758 @@
+package LogicLayer;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Segmento inmutable de transacciones archivadas en un archivo comprimido
+ * Las transacciones se agrupan en bloques comprimidos por separado con Deflater, de modo que una
+ * lectura solo descomprime los bloques que necesita. Al final del archivo se guarda el índice:
+ * por bloque, su tamaño y el rango de fechas que cubre (índice temporal disperso); por cuenta,
+ * los bloques donde aparece y cuántas transacciones tiene en cada uno; y los ids ordenados con
+ * su bloque. El índice se mantiene en memoria mientras el segmento está abierto
+ */
+final class ColdTransactionSegment implements Closeable {
+    private static final int MAGIC = 0x54585347;
+    private static final int VERSION = 1;
+
+    private static final TransactionType[] TYPES = TransactionType.values();
+    private static final TransactionStatus[] STATUSES = TransactionStatus.values();
+    private static final Currency[] CURRENCIES = Currency.values();
+
+    private static final int NONE = -1;
+    // Escala que indica que el monto no entra en un long y se guarda completo
+    private static final byte WIDE_AMOUNT = Byte.MIN_VALUE;
+    private static final int HAS_SOURCE = 1;
+    private static final int HAS_TARGET = 2;
+    private static final int HAS_NOTE = 4;
+    private static final int HAS_REVERSAL = 8;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final Function<UUID, Account> accountResolver;
+
+    // Índice por bloque
+    private final long[] blockOffsets;
+    private final int[] blockLengths;
+    private final int[] blockRawLengths;
+    private final int[] blockRecords;
+    private final long[] blockMinMicros;
+    private final long[] blockMaxMicros;
+
+    // Índice por cuenta: cantidad total seguida de pares (bloque, cantidad en el bloque) en orden
+    private final Map<UUID, int[]> accounts;
+
+    // Parte alta de los ids, ordenada, con el bloque que contiene cada uno; la parte baja se
+    // verifica al descomprimir el bloque
+    private final long[] idHigh;
+    private final int[] idBlocks;
+
+    private final long rawBytes;
+    private final long compressedBytes;
+    private final long fileBytes;
+
+    private ColdTransactionSegment(Path file, Function<UUID, Account> accountResolver) throws IOException {
+        this.file = file;
+        this.accountResolver = accountResolver;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.fileBytes = channel.size();
+
+        ByteBuffer tail = ByteBuffer.allocate(Long.BYTES);
+        readFully(tail, fileBytes - Long.BYTES);
+        long footerOffset = tail.getLong(0);
+        ByteBuffer in = ByteBuffer.allocate((int) (fileBytes - Long.BYTES - footerOffset));
+        readFully(in, footerOffset);
+        in.flip();
+
+        if (in.getInt() != MAGIC || in.getInt() != VERSION) {
+            throw new IOException("Formato de segmento desconocido: " + file);
+        }
+        int blocks = (int) readVarLong(in);
+        blockOffsets = new long[blocks];
+        blockLengths = new int[blocks];
+        blockRawLengths = new int[blocks];
+        blockRecords = new int[blocks];
+        blockMinMicros = new long[blocks];
+        blockMaxMicros = new long[blocks];
+        long offset = 0;
+        long raw = 0;
+        long previousMicros = 0;
+        for (int b = 0; b < blocks; b++) {
+            blockOffsets[b] = offset;
+            blockLengths[b] = (int) readVarLong(in);
+            blockRawLengths[b] = (int) readVarLong(in);
+            blockRecords[b] = (int) readVarLong(in);
+            blockMinMicros[b] = previousMicros + readVarLong(in);
+            blockMaxMicros[b] = blockMinMicros[b] + readVarLong(in);
+            previousMicros = blockMinMicros[b];
+            offset += blockLengths[b];
+            raw += blockRawLengths[b];
+        }
+        rawBytes = raw;
+        compressedBytes = offset;
+
+        int accountCount = (int) readVarLong(in);
+        accounts = new HashMap<>(accountCount * 2);
+        for (int a = 0; a < accountCount; a++) {
+            UUID accountId = new UUID(in.getLong(), in.getLong());
+            int[] entry = new int[1 + 2 * (int) readVarLong(in)];
+            int block = 0;
+            for (int i = 1; i < entry.length; i += 2) {
+                block += (int) readVarLong(in);
+                entry[i] = block;
+                entry[i + 1] = (int) readVarLong(in);
+                entry[0] += entry[i + 1];
+            }
+            accounts.put(accountId, entry);
+        }
+
+        int ids = (int) readVarLong(in);
+        idHigh = new long[ids];
+        idBlocks = new int[ids];
+        long previousHigh = 0;
+        for (int i = 0; i < ids; i++) {
+            // Diferencias con el id anterior, con desborde: la suma las recupera exactas
+            previousHigh += readVarLong(in);
+            idHigh[i] = previousHigh;
+            idBlocks[i] = (int) readVarLong(in);
+        }
+    }
+
+    /**
+     * Escribe un segmento con las transacciones dadas (en orden de alta) y lo abre
+     * El archivo se escribe con otro nombre y se renombra al terminar, por lo que nunca queda
+     * un segmento incompleto con el nombre definitivo
+     *
+     * @param blockSize transacciones por bloque comprimido
+     * @param accountResolver obtiene las cuentas a partir de su id al leer
+     */
+    static ColdTransactionSegment write(Path file, List<Transaction> transactions, int blockSize,
+                                        Function<UUID, Account> accountResolver) throws IOException {
+        int blocks = (transactions.size() + blockSize - 1) / blockSize;
+        Map<UUID, List<int[]>> accounts = new HashMap<>();
+        long[][] ids = new long[transactions.size()][];
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(temporary), 1 << 16))) {
+            ByteArrayOutputStream rawBlock = new ByteArrayOutputStream(1 << 17);
+            DataOutputStream blockOut = new DataOutputStream(rawBlock);
+            Deflater deflater = new Deflater();
+            byte[] compressed = new byte[1 << 16];
+            ByteArrayOutputStream footerBytes = new ByteArrayOutputStream();
+            DataOutputStream footer = new DataOutputStream(footerBytes);
+            footer.writeInt(MAGIC);
+            footer.writeInt(VERSION);
+            writeVarLong(footer, blocks);
+
+            long offset = 0;
+            long previousMicros = 0;
+            try {
+                for (int b = 0; b < blocks; b++) {
+                    int from = b * blockSize;
+                    int to = Math.min(from + blockSize, transactions.size());
+                    long minMicros = Long.MAX_VALUE;
+                    long maxMicros = Long.MIN_VALUE;
+                    for (int i = from; i < to; i++) {
+                        Transaction tx = transactions.get(i);
+                        long micros = ChronoUnit.MICROS.between(Instant.EPOCH, tx.getCreatedAt());
+                        minMicros = Math.min(minMicros, micros);
+                        maxMicros = Math.max(maxMicros, micros);
+                        ids[i] = new long[]{tx.getId().getMostSignificantBits(), b};
+                        for (UUID accountId : accountIds(tx)) {
+                            List<int[]> counts = accounts.computeIfAbsent(accountId, k -> new ArrayList<>());
+                            if (!counts.isEmpty() && counts.get(counts.size() - 1)[0] == b) {
+                                counts.get(counts.size() - 1)[1]++;
+                            } else {
+                                counts.add(new int[]{b, 1});
+                            }
+                        }
+                    }
+
+                    rawBlock.reset();
+                    writeBlock(blockOut, transactions.subList(from, to));
+                    blockOut.flush();
+                    deflater.reset();
+                    deflater.setInput(rawBlock.toByteArray());
+                    deflater.finish();
+                    int length = 0;
+                    while (!deflater.finished()) {
+                        int n = deflater.deflate(compressed);
+                        out.write(compressed, 0, n);
+                        length += n;
+                    }
+                    writeVarLong(footer, length);
+                    writeVarLong(footer, rawBlock.size());
+                    writeVarLong(footer, to - from);
+                    writeVarLong(footer, minMicros - previousMicros);
+                    writeVarLong(footer, maxMicros - minMicros);
+                    previousMicros = minMicros;
+                    offset += length;
+                }
+            } finally {
+                deflater.end();
+            }
+
+            writeVarLong(footer, accounts.size());
+            for (Map.Entry<UUID, List<int[]>> entry : accounts.entrySet()) {
+                writeUuid(footer, entry.getKey());
+                writeVarLong(footer, entry.getValue().size());
+                int previousBlock = 0;
+                for (int[] blockCount : entry.getValue()) {
+                    writeVarLong(footer, blockCount[0] - previousBlock);
+                    writeVarLong(footer, blockCount[1]);
+                    previousBlock = blockCount[0];
+                }
+            }
+            Arrays.sort(ids, (a, b) -> Long.compare(a[0], b[0]));
+            writeVarLong(footer, ids.length);
+            long previousHigh = 0;
+            for (long[] id : ids) {
+                writeVarLong(footer, id[0] - previousHigh);
+                writeVarLong(footer, id[1]);
+                previousHigh = id[0];
+            }
+            footer.flush();
+            footerBytes.writeTo(out);
+            out.writeLong(offset);
+        } catch (IOException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+        return new ColdTransactionSegment(file, accountResolver);
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    int size() {
+        return idHigh.length;
+    }
+
+    /**
+     * Tamaño de los registros sin comprimir
+     */
+    long getRawBytes() {
+        return rawBytes;
+    }
+
+    /**
+     * Tamaño de los bloques comprimidos
+     */
+    long getCompressedBytes() {
+        return compressedBytes;
+    }
+
+    /**
+     * Tamaño del archivo, incluido el índice
+     */
+    long getFileBytes() {
+        return fileBytes;
+    }
+
+    /**
+     * Cantidad de transacciones de una cuenta en el segmento
+     */
+    int countByAccountId(UUID accountId) {
+        int[] entry = accounts.get(accountId);
+        return entry != null ? entry[0] : 0;
+    }
+
+    /**
+     * Cota inferior de la fecha de alta de las transacciones de una cuenta en el segmento, en
+     * microsegundos desde la época, tomada del índice temporal sin descomprimir bloques
+     * @return Long.MAX_VALUE si la cuenta no aparece en el segmento
+     */
+    long minMicrosByAccountId(UUID accountId) {
+        int[] entry = accounts.get(accountId);
+        long min = Long.MAX_VALUE;
+        if (entry != null) {
+            for (int i = 1; i < entry.length; i += 2) {
+                min = Math.min(min, blockMinMicros[entry[i]]);
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Transacciones de una cuenta, en orden de alta
+     * Solo se descomprimen los bloques donde aparece la cuenta
+     */
+    List<Transaction> listByAccountId(UUID accountId) {
+        int[] entry = accounts.get(accountId);
+        if (entry == null) {
+            return Collections.emptyList();
+        }
+        List<Transaction> result = new ArrayList<>(entry[0]);
+        for (int i = 1; i < entry.length; i += 2) {
+            Block block = readBlock(entry[i]);
+            int account = block.accountNumber(accountId);
+            for (int j = 0; j < block.size; j++) {
+                if (block.involves(j, account)) {
+                    result.add(block.get(j));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Página de transacciones de una cuenta (más reciente primero)
+     * Las cantidades por bloque permiten saltear sin descomprimir los bloques anteriores a la página
+     */
+    List<Transaction> listByAccountId(UUID accountId, int offset, int limit) {
+        int[] entry = accounts.get(accountId);
+        if (entry == null || offset >= entry[0] || limit <= 0) {
+            return Collections.emptyList();
+        }
+        List<Transaction> page = new ArrayList<>(Math.min(limit, entry[0] - offset));
+        int skip = offset;
+        for (int i = entry.length - 2; i >= 1 && page.size() < limit; i -= 2) {
+            if (skip >= entry[i + 1]) {
+                skip -= entry[i + 1];
+                continue;
+            }
+            Block block = readBlock(entry[i]);
+            int account = block.accountNumber(accountId);
+            for (int j = block.size - 1; j >= 0 && page.size() < limit; j--) {
+                if (block.involves(j, account)) {
+                    if (skip > 0) {
+                        skip--;
+                    } else {
+                        page.add(block.get(j));
+                    }
+                }
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Busca una transacción por su id
+     * @return la transacción o null si no está en el segmento
+     */
+    Transaction findById(UUID id) {
+        long high = id.getMostSignificantBits();
+        // Primera entrada con la misma parte alta; puede haber varias si coinciden
+        int lo = 0;
+        int hi = idHigh.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (idHigh[mid] < high) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        for (int i = lo; i < idHigh.length && idHigh[i] == high; i++) {
+            Block block = readBlock(idBlocks[i]);
+            for (int j = 0; j < block.size; j++) {
+                if (block.idHigh[j] == high && block.idLow[j] == id.getLeastSignificantBits()) {
+                    return block.get(j);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Transacciones que cumplen un filtro, más reciente primero
+     * El índice temporal descarta los bloques fuera del rango [fromMicros, toMicros]; si se indican
+     * cuentas, solo se leen los bloques donde aparecen. Dentro de cada bloque, la fecha y las cuentas
+     * se comparan antes de reconstruir la transacción
+     *
+     * @param accountIds cuentas de las que alguna debe participar (null para todas)
+     */
+    List<Transaction> select(Collection<UUID> accountIds, long fromMicros, long toMicros,
+                             Predicate<Transaction> filter, int limit) {
+        boolean[] candidates = null;
+        if (accountIds != null) {
+            candidates = new boolean[blockOffsets.length];
+            for (UUID accountId : accountIds) {
+                int[] entry = accounts.getOrDefault(accountId, new int[1]);
+                for (int i = 1; i < entry.length; i += 2) {
+                    candidates[entry[i]] = true;
+                }
+            }
+        }
+        List<Transaction> result = new ArrayList<>();
+        for (int b = blockOffsets.length - 1; b >= 0 && result.size() < limit; b--) {
+            if (candidates != null && !candidates[b]
+                    || blockMaxMicros[b] < fromMicros || blockMinMicros[b] > toMicros) {
+                continue;
+            }
+            Block block = readBlock(b);
+            boolean[] accountMatches = null;
+            if (accountIds != null) {
+                accountMatches = new boolean[block.accountIds.length];
+                for (int a = 0; a < accountMatches.length; a++) {
+                    accountMatches[a] = accountIds.contains(block.accountIds[a]);
+                }
+            }
+            for (int j = block.size - 1; j >= 0 && result.size() < limit; j--) {
+                if (block.micros[j] < fromMicros || block.micros[j] > toMicros) {
+                    continue;
+                }
+                if (accountMatches != null && !(block.sources[j] != NONE && accountMatches[block.sources[j]]
+                        || block.targets[j] != NONE && accountMatches[block.targets[j]])) {
+                    continue;
+                }
+                Transaction tx = block.get(j);
+                if (filter.test(tx)) {
+                    result.add(tx);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Todas las transacciones del segmento, en orden de alta
+     */
+    List<Transaction> readAll() {
+        List<Transaction> result = new ArrayList<>(size());
+        for (int b = 0; b < blockOffsets.length; b++) {
+            Block block = readBlock(b);
+            for (int j = 0; j < block.size; j++) {
+                result.add(block.get(j));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private Block readBlock(int block) {
+        try {
+            ByteBuffer compressed = ByteBuffer.allocate(blockLengths[block]);
+            readFully(compressed, blockOffsets[block]);
+            Inflater inflater = new Inflater();
+            byte[] raw = new byte[blockRawLengths[block]];
+            try {
+                inflater.setInput(compressed.array());
+                int length = 0;
+                while (length < raw.length) {
+                    int n = inflater.inflate(raw, length, raw.length - length);
+                    if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+                        throw new IOException("Bloque incompleto en " + file);
+                    }
+                    length += n;
+                }
+            } finally {
+                inflater.end();
+            }
+            return new Block(ByteBuffer.wrap(raw), blockRecords[block]);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el segmento " + file, e);
+        } catch (DataFormatException e) {
+            throw new UncheckedIOException("No se pudo leer el segmento " + file, new IOException(e));
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position + buffer.position());
+            if (n < 0) {
+                throw new EOFException("Segmento truncado: " + file);
+            }
+        }
+    }
+
+    /**
+     * Codifica un bloque por columnas para que Deflater aproveche las repeticiones: primero los ids,
+     * después las fechas como diferencias, los campos de un byte, los montos en longitud variable,
+     * las cuentas como referencias a una tabla propia del bloque y por último notas y reversiones
+     */
+    private static void writeBlock(DataOutputStream out, List<Transaction> block) throws IOException {
+        for (Transaction tx : block) {
+            writeUuid(out, tx.getId());
+        }
+        long previousMicros = 0;
+        for (Transaction tx : block) {
+            long micros = ChronoUnit.MICROS.between(Instant.EPOCH, tx.getCreatedAt());
+            writeVarLong(out, micros - previousMicros);
+            previousMicros = micros;
+        }
+        for (Transaction tx : block) {
+            out.writeByte(tx.getType().ordinal());
+        }
+        for (Transaction tx : block) {
+            out.writeByte(tx.getStatus().ordinal());
+        }
+        for (Transaction tx : block) {
+            out.writeByte(tx.getCurrency().ordinal());
+        }
+        for (Transaction tx : block) {
+            out.writeByte(flags(tx));
+        }
+
+        for (Transaction tx : block) {
+            BigInteger unscaled = tx.getAmount().unscaledValue();
+            int scale = tx.getAmount().scale();
+            if (unscaled.bitLength() < 64 && scale > WIDE_AMOUNT && scale <= Byte.MAX_VALUE) {
+                out.writeByte(scale);
+                writeVarLong(out, unscaled.longValue());
+            } else {
+                byte[] bytes = unscaled.toByteArray();
+                out.writeByte(WIDE_AMOUNT);
+                out.writeInt(scale);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+
+        // Cuentas del bloque en orden de aparición; cada transacción guarda su número
+        Map<UUID, Integer> numbers = new LinkedHashMap<>();
+        for (Transaction tx : block) {
+            for (UUID accountId : sourceAndTarget(tx)) {
+                if (accountId != null) {
+                    numbers.putIfAbsent(accountId, numbers.size());
+                }
+            }
+        }
+        writeVarLong(out, numbers.size());
+        for (UUID accountId : numbers.keySet()) {
+            writeUuid(out, accountId);
+        }
+        for (Transaction tx : block) {
+            for (UUID accountId : sourceAndTarget(tx)) {
+                if (accountId != null) {
+                    writeVarLong(out, numbers.get(accountId));
+                }
+            }
+        }
+
+        for (Transaction tx : block) {
+            if (tx.getNote() != null) {
+                byte[] note = tx.getNote().getBytes(StandardCharsets.UTF_8);
+                writeVarLong(out, note.length);
+                out.write(note);
+            }
+        }
+        for (Transaction tx : block) {
+            if (tx.isReversal()) {
+                writeUuid(out, tx.getReversedTransactionId());
+            }
+        }
+    }
+
+    private static int flags(Transaction tx) {
+        UUID[] accountIds = sourceAndTarget(tx);
+        return (accountIds[0] != null ? HAS_SOURCE : 0) | (accountIds[1] != null ? HAS_TARGET : 0)
+                | (tx.getNote() != null ? HAS_NOTE : 0) | (tx.isReversal() ? HAS_REVERSAL : 0);
+    }
+
+    /**
+     * Id de la cuenta de origen y de destino (null si el tipo no la tiene)
+     */
+    private static UUID[] sourceAndTarget(Transaction tx) {
+        if (tx instanceof DepositTransaction) {
+            return new UUID[]{null, ((DepositTransaction) tx).getTarget().getId()};
+        } else if (tx instanceof WithdrawTransaction) {
+            return new UUID[]{((WithdrawTransaction) tx).getSource().getId(), null};
+        } else if (tx instanceof TransferTransaction) {
+            return new UUID[]{((TransferTransaction) tx).getSource().getId(),
+                    ((TransferTransaction) tx).getTarget().getId()};
+        }
+        return new UUID[2];
+    }
+
+    /**
+     * Cuentas en las que participa una transacción (una sola vez si origen y destino coinciden)
+     */
+    static List<UUID> accountIds(Transaction tx) {
+        UUID[] accountIds = sourceAndTarget(tx);
+        if (accountIds[0] == null || accountIds[1] == null) {
+            return accountIds[0] != null ? List.of(accountIds[0])
+                    : accountIds[1] != null ? List.of(accountIds[1]) : Collections.emptyList();
+        }
+        return accountIds[0].equals(accountIds[1]) ? List.of(accountIds[0]) : List.of(accountIds[0], accountIds[1]);
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID id) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    /**
+     * Escribe un long en zigzag con 7 bits por byte: los valores chicos ocupan pocos bytes
+     */
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.writeByte((int) (zigzag & 0x7F) | 0x80);
+            zigzag >>>= 7;
+        }
+        out.writeByte((int) zigzag);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long zigzag = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.get();
+            zigzag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+        }
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    /**
+     * Bloque descomprimido con sus columnas decodificadas
+     * Las transacciones se reconstruyen recién al pedirlas, para no crear objetos por registros
+     * que las búsquedas descartan
+     */
+    private final class Block {
+        private final int size;
+        private final long[] idHigh;
+        private final long[] idLow;
+        private final long[] micros;
+        private final byte[] types;
+        private final byte[] statuses;
+        private final byte[] currencies;
+        private final byte[] flags;
+        private final byte[] scales;
+        private final long[] unscaledAmounts;
+        private final BigDecimal[] wideAmounts;
+        private final UUID[] accountIds;
+        private final int[] sources;
+        private final int[] targets;
+        private final byte[] raw;
+        private final int[] noteOffsets;
+        private final int[] noteLengths;
+        private final UUID[] reversedIds;
+
+        private Block(ByteBuffer in, int size) {
+            this.size = size;
+            idHigh = new long[size];
+            idLow = new long[size];
+            for (int i = 0; i < size; i++) {
+                idHigh[i] = in.getLong();
+                idLow[i] = in.getLong();
+            }
+            micros = new long[size];
+            long previousMicros = 0;
+            for (int i = 0; i < size; i++) {
+                previousMicros += readVarLong(in);
+                micros[i] = previousMicros;
+            }
+            types = new byte[size];
+            statuses = new byte[size];
+            currencies = new byte[size];
+            flags = new byte[size];
+            in.get(types);
+            in.get(statuses);
+            in.get(currencies);
+            in.get(flags);
+
+            scales = new byte[size];
+            unscaledAmounts = new long[size];
+            wideAmounts = new BigDecimal[size];
+            for (int i = 0; i < size; i++) {
+                scales[i] = in.get();
+                if (scales[i] != WIDE_AMOUNT) {
+                    unscaledAmounts[i] = readVarLong(in);
+                } else {
+                    int scale = in.getInt();
+                    byte[] bytes = new byte[in.getInt()];
+                    in.get(bytes);
+                    wideAmounts[i] = new BigDecimal(new BigInteger(bytes), scale);
+                }
+            }
+
+            accountIds = new UUID[(int) readVarLong(in)];
+            for (int a = 0; a < accountIds.length; a++) {
+                accountIds[a] = new UUID(in.getLong(), in.getLong());
+            }
+            sources = new int[size];
+            targets = new int[size];
+            for (int i = 0; i < size; i++) {
+                sources[i] = (flags[i] & HAS_SOURCE) != 0 ? (int) readVarLong(in) : NONE;
+                targets[i] = (flags[i] & HAS_TARGET) != 0 ? (int) readVarLong(in) : NONE;
+            }
+
+            // Las notas quedan en el buffer y se decodifican solo al reconstruir la transacción
+            raw = in.array();
+            noteOffsets = new int[size];
+            noteLengths = new int[size];
+            for (int i = 0; i < size; i++) {
+                noteLengths[i] = NONE;
+                if ((flags[i] & HAS_NOTE) != 0) {
+                    noteLengths[i] = (int) readVarLong(in);
+                    noteOffsets[i] = in.position();
+                    in.position(in.position() + noteLengths[i]);
+                }
+            }
+            reversedIds = new UUID[size];
+            for (int i = 0; i < size; i++) {
+                if ((flags[i] & HAS_REVERSAL) != 0) {
+                    reversedIds[i] = new UUID(in.getLong(), in.getLong());
+                }
+            }
+        }
+
+        /**
+         * Número de una cuenta en la tabla del bloque, o -1 si no aparece
+         */
+        private int accountNumber(UUID accountId) {
+            for (int a = 0; a < accountIds.length; a++) {
+                if (accountIds[a].equals(accountId)) {
+                    return a;
+                }
+            }
+            return NONE;
+        }
+
+        private boolean involves(int i, int account) {
+            return account != NONE && (sources[i] == account || targets[i] == account);
+        }
+
+        private Transaction get(int i) {
+            UUID id = new UUID(idHigh[i], idLow[i]);
+            TransactionStatus status = STATUSES[statuses[i]];
+            BigDecimal amount = scales[i] == WIDE_AMOUNT
+                    ? wideAmounts[i]
+                    : BigDecimal.valueOf(unscaledAmounts[i], scales[i]);
+            Currency currency = CURRENCIES[currencies[i]];
+            Instant createdAt = Instant.EPOCH.plus(micros[i], ChronoUnit.MICROS);
+            String note = noteLengths[i] != NONE
+                    ? new String(raw, noteOffsets[i], noteLengths[i], StandardCharsets.UTF_8) : null;
+            Account source = sources[i] != NONE ? accountResolver.apply(accountIds[sources[i]]) : null;
+            Account target = targets[i] != NONE ? accountResolver.apply(accountIds[targets[i]]) : null;
+
+            switch (TYPES[types[i]]) {
+                case DEPOSIT:
+                    return new DepositTransaction(id, status, amount, currency, createdAt, note, target,
+                            reversedIds[i]);
+                case WITHDRAW:
+                    return new WithdrawTransaction(id, status, amount, currency, createdAt, note, source,
+                            reversedIds[i]);
+                default:
+                    return new TransferTransaction(id, status, amount, currency, createdAt, note, source, target,
+                            reversedIds[i]);
+            }
+        }
+    }
+}
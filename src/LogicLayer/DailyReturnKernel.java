@@ -0,0 +1,105 @@
+package LogicLayer;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Núcleo de cálculo de rendimientos diarios sobre arreglos de saldos en centavos
+ * Reproduce exactamente InvestmentAccount.applyDailyReturn (saldo × (1 + tasa), HALF_UP a centavos)
+ * usando aritmética entera: la tasa se expresa en unidades de 0.00001 (5 decimales)
+ */
+public final class DailyReturnKernel {
+    // Escala de la tasa: 5 decimales
+    public static final long RATE_SCALE = 100_000L;
+    private static final long HALF_RATE_SCALE = RATE_SCALE / 2;
+
+    // Mayor saldo en centavos que se procesa en punto fijo (deja margen para tasas de hasta +100%)
+    private static final long MAX_SAFE_CENTS = Long.MAX_VALUE / (2 * RATE_SCALE);
+
+    private DailyReturnKernel() {
+    }
+
+    /**
+     * Convierte una tasa a unidades de 0.00001
+     *
+     * @throws ArithmeticException si la tasa tiene más de 5 decimales
+     */
+    public static long toRateUnits(BigDecimal rate) {
+        return rate.setScale(5, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Indica si un saldo se puede representar exactamente en centavos dentro del rango seguro
+     */
+    public static boolean isRepresentableInCents(BigDecimal amount) {
+        try {
+            return Math.abs(toCents(amount)) <= MAX_SAFE_CENTS;
+        } catch (ArithmeticException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Convierte un saldo a centavos
+     *
+     * @throws ArithmeticException si tiene más de 2 decimales o no entra en un long
+     */
+    public static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Convierte centavos a BigDecimal con escala 2
+     */
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * Aplica una tasa a un saldo en centavos
+     * Los saldos nulos o negativos no generan rendimiento (igual que applyDailyReturn)
+     *
+     * @throws ArithmeticException si el resultado intermedio excede el rango de long
+     */
+    public static long applyRate(long cents, long rateUnits) {
+        if (cents <= 0) {
+            return cents;
+        }
+        long product = Math.multiplyExact(cents, RATE_SCALE + rateUnits);
+        if (product >= 0) {
+            return Math.addExact(product, HALF_RATE_SCALE) / RATE_SCALE;
+        }
+        // HALF_UP redondea alejándose de cero también en negativos
+        return -(Math.addExact(-product, HALF_RATE_SCALE) / RATE_SCALE);
+    }
+
+    /**
+     * Aplica la misma tasa a un rango contiguo de saldos
+     *
+     * @param cents saldos en centavos (se modifican en el lugar)
+     * @param from índice inicial (inclusive)
+     * @param to índice final (exclusive)
+     * @param rateUnits tasa en unidades de 0.00001
+     */
+    public static void applyRate(long[] cents, int from, int to, long rateUnits) {
+        for (int i = from; i < to; i++) {
+            cents[i] = applyRate(cents[i], rateUnits);
+        }
+    }
+
+    /**
+     * Aplica a cada saldo la tasa de su moneda
+     *
+     * @param cents saldos en centavos (se modifican en el lugar)
+     * @param currencyIndex ordinal de la moneda de cada saldo
+     * @param rateUnitsByCurrency tasa de cada moneda (indexada por ordinal)
+     * @param from índice inicial (inclusive)
+     * @param to índice final (exclusive)
+     */
+    public static void applyRates(long[] cents, byte[] currencyIndex, long[] rateUnitsByCurrency,
+                                  int from, int to) {
+        for (int i = from; i < to; i++) {
+            cents[i] = applyRate(cents[i], rateUnitsByCurrency[currencyIndex[i]]);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package LogicLayer;
+
+import java.time.LocalDate;
+
+/**
+ * Interfaz para los procesos de fin de día que se ejecutan cuando avanza el reloj simulado
+ */
+public interface DayChangeListener {
+    /**
+     * Se invoca una vez por cada día que avanza el reloj
+     *
+     * @param previousDay día que terminó
+     * @param newDay nuevo día actual
+     */
+    void onDayChanged(LocalDate previousDay, LocalDate newDay);
+}
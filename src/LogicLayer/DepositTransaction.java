@@ -1,6 +1,8 @@
 package LogicLayer;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
 
 /**
  * Transacción de depósito a una cuenta
@@ -17,20 +19,33 @@ public class DepositTransaction extends Transaction {
         this.target = target;
     }
 
+    /**
+     * Constructor para el depósito que revierte un retiro
+     */
+    DepositTransaction(TransactionStatus status, BigDecimal amount, Currency currency,
+                       String note, Account target, UUID reversedTransactionId) {
+        super(TransactionType.DEPOSIT, status, amount, currency, note, reversedTransactionId);
+        this.target = target;
+    }
+
+    /**
+     * Constructor para reconstruir un depósito guardado
+     */
+    DepositTransaction(UUID id, TransactionStatus status, BigDecimal amount, Currency currency, Instant createdAt,
+                       String note, Account target, UUID reversedTransactionId) {
+        super(id, TransactionType.DEPOSIT, status, amount, currency, createdAt, note, reversedTransactionId);
+        this.target = target;
+    }
+
     public Account getTarget() {
         return target;
     }
 
     @Override
-    public String summary() {
-        return String.format("[%s] %s: +%s%s → %s | %s | %s",
-                formatDateTime(),
-                type.getDescription(),
-                currency.getSymbol(),
-                String.format("%,.2f", amount),
-                target.type(),
-                status.getDescription(),
-                note != null ? note : "Sin nota");
+    public StringBuilder appendSummary(StringBuilder sb) {
+        appendHeader(sb).append('+').append(currency.getSymbol());
+        DisplayFormatter.appendAmount(sb, amount).append(" → ").append(target.type());
+        return appendStatusAndNote(sb);
     }
 }
 
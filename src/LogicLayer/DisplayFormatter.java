@@ -0,0 +1,145 @@
+package LogicLayer;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Formateo de montos, tasas y fechas para la presentación
+ * Los formateadores son inmutables y compartidos; los métodos append escriben directamente sobre un
+ * StringBuilder reutilizable, sin crear Formatter ni cadenas intermedias por valor.
+ * Los montos usan coma como separador de miles y punto decimal (ej: 1,234,567.89) y redondeo HALF_UP
+ */
+public final class DisplayFormatter {
+    /**
+     * Fecha y hora de las transacciones (ej: 31/12/2024 23:59:59)
+     */
+    public static final DateTimeFormatter DATE_TIME =
+            DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private DisplayFormatter() {
+    }
+
+    /**
+     * Formatea un monto con separadores de miles y 2 decimales
+     */
+    public static String formatAmount(BigDecimal amount) {
+        return appendAmount(new StringBuilder(24), amount).toString();
+    }
+
+    /**
+     * Agrega un monto con separadores de miles y 2 decimales
+     * @return el mismo StringBuilder, para encadenar
+     */
+    public static StringBuilder appendAmount(StringBuilder sb, BigDecimal amount) {
+        return appendDecimal(sb, amount, 2, true);
+    }
+
+    /**
+     * Agrega una tasa como porcentaje con signo y 3 decimales (ej: +1.250%)
+     */
+    public static StringBuilder appendRate(StringBuilder sb, BigDecimal rate) {
+        BigDecimal percentage = rate.movePointRight(2);
+        if (percentage.signum() >= 0) {
+            sb.append('+');
+        }
+        return appendDecimal(sb, percentage, 3, false).append('%');
+    }
+
+    /**
+     * Agrega la fecha y hora de un instante
+     */
+    public static StringBuilder appendDateTime(StringBuilder sb, Instant instant) {
+        DATE_TIME.formatTo(instant, sb);
+        return sb;
+    }
+
+    /**
+     * Agrega un decimal redondeado HALF_UP a la escala indicada
+     * Equivale a String.format("%,.Nf") con separadores de miles, o "%.Nf" sin ellos
+     *
+     * @param scale cantidad de decimales (0 a 18)
+     * @param grouping true para separar los miles con coma
+     */
+    public static StringBuilder appendDecimal(StringBuilder sb, BigDecimal value, int scale, boolean grouping) {
+        if (scale < 0 || scale >= POWERS_OF_TEN.length) {
+            throw new IllegalArgumentException("La escala debe estar entre 0 y " + (POWERS_OF_TEN.length - 1));
+        }
+        if (value.signum() < 0) {
+            sb.append('-');
+        }
+        BigInteger unscaled = value.setScale(scale, RoundingMode.HALF_UP).unscaledValue().abs();
+
+        if (unscaled.bitLength() < 63) {
+            // Caso habitual: el monto entra en un long y se escribe dígito por dígito
+            long magnitude = unscaled.longValue();
+            long divisor = POWERS_OF_TEN[scale];
+            appendInteger(sb, magnitude / divisor, grouping);
+            if (scale > 0) {
+                sb.append('.');
+                appendFraction(sb, magnitude % divisor, scale);
+            }
+            return sb;
+        }
+
+        String digits = unscaled.toString();
+        int integerDigits = digits.length() - scale;
+        for (int i = 0; i < integerDigits; i++) {
+            if (grouping && i > 0 && (integerDigits - i) % 3 == 0) {
+                sb.append(',');
+            }
+            sb.append(digits.charAt(i));
+        }
+        if (scale > 0) {
+            sb.append('.').append(digits, integerDigits, digits.length());
+        }
+        return sb;
+    }
+
+    /**
+     * Escribe un entero no negativo de derecha a izquierda sobre el espacio reservado en el builder
+     */
+    private static void appendInteger(StringBuilder sb, long value, boolean grouping) {
+        int digits = 1;
+        while (digits < POWERS_OF_TEN.length && value >= POWERS_OF_TEN[digits]) {
+            digits++;
+        }
+        int length = digits + (grouping ? (digits - 1) / 3 : 0);
+        int pos = sb.length() + length - 1;
+        sb.setLength(sb.length() + length);
+
+        int written = 0;
+        do {
+            if (grouping && written > 0 && written % 3 == 0) {
+                sb.setCharAt(pos--, ',');
+            }
+            sb.setCharAt(pos--, (char) ('0' + value % 10));
+            value /= 10;
+            written++;
+        } while (value > 0);
+    }
+
+    /**
+     * Escribe la parte decimal completando con ceros a la izquierda
+     */
+    private static void appendFraction(StringBuilder sb, long value, int scale) {
+        int pos = sb.length() + scale - 1;
+        sb.setLength(sb.length() + scale);
+        for (int i = 0; i < scale; i++) {
+            sb.setCharAt(pos--, (char) ('0' + value % 10));
+            value /= 10;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package LogicLayer;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Ejecutor de los trabajos de fin de día
+ * Divide las cuentas del AccountDao en porciones, ejecuta cada trabajo en orden procesando sus porciones
+ * en paralelo y registra un punto de control por porción completada. Si una ejecución se interrumpe,
+ * volver a ejecutar el mismo día omite las porciones ya completadas; dentro de una porción
+ * interrumpida, los trabajos omiten las cuentas ya procesadas (ver {@link BatchJob})
+ */
+public class EndOfDayBatchRunner implements DayChangeListener {
+    private final AccountDao accountDao;
+    private final CheckpointDao checkpointDao;
+    private final int partitionCount;
+    private final List<BatchJob> jobs;
+    private volatile List<BatchJobReport> lastReports;
+
+    /**
+     * @param accountDao origen de las cuentas
+     * @param checkpointDao registro de porciones completadas
+     * @param partitionCount cantidad de porciones en que se dividen las cuentas
+     */
+    public EndOfDayBatchRunner(AccountDao accountDao, CheckpointDao checkpointDao, int partitionCount) {
+        if (partitionCount <= 0) {
+            throw new IllegalArgumentException("La cantidad de porciones debe ser positiva");
+        }
+        this.accountDao = accountDao;
+        this.checkpointDao = checkpointDao;
+        this.partitionCount = partitionCount;
+        this.jobs = new CopyOnWriteArrayList<>();
+        this.lastReports = Collections.emptyList();
+    }
+
+    /**
+     * Registra un trabajo; los trabajos se ejecutan en orden de registro
+     */
+    public void addJob(BatchJob job) {
+        if (job == null) {
+            throw new IllegalArgumentException("El trabajo no puede ser nulo");
+        }
+        jobs.add(job);
+    }
+
+    @Override
+    public void onDayChanged(LocalDate previousDay, LocalDate newDay) {
+        // El cierre corresponde al día que terminó
+        runDay(previousDay);
+    }
+
+    /**
+     * Ejecuta (o reanuda) todos los trabajos para un día
+     *
+     * @param businessDay día a cerrar
+     * @return un reporte por trabajo
+     */
+    public List<BatchJobReport> runDay(LocalDate businessDay) {
+        List<List<Account>> partitions = accountDao.findAllPartitioned(partitionCount);
+        List<BatchJobReport> reports = new ArrayList<>();
+        for (BatchJob job : jobs) {
+            reports.add(runJob(job, partitions, businessDay));
+        }
+        lastReports = Collections.unmodifiableList(reports);
+        return lastReports;
+    }
+
+    /**
+     * Obtiene los reportes de la última ejecución
+     */
+    public List<BatchJobReport> getLastReports() {
+        return lastReports;
+    }
+
+    /**
+     * Ejecuta un trabajo sobre todas sus porciones pendientes
+     * Una porción que falla no se marca como completada y no detiene a las demás
+     */
+    private BatchJobReport runJob(BatchJob job, List<List<Account>> partitions, LocalDate businessDay) {
+        AtomicInteger processed = new AtomicInteger();
+        AtomicInteger skipped = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicLong scanned = new AtomicLong();
+        AtomicLong affected = new AtomicLong();
+        List<String> failures = new CopyOnWriteArrayList<>();
+
+        long start = System.nanoTime();
+        IntStream.range(0, partitions.size()).parallel().forEach(partition -> {
+            if (checkpointDao.isCompleted(job.getName(), businessDay, partition)) {
+                skipped.incrementAndGet();
+                return;
+            }
+            List<Account> accounts = partitions.get(partition);
+            try {
+                affected.addAndGet(job.processPartition(accounts, businessDay));
+                checkpointDao.markCompleted(job.getName(), businessDay, partition);
+                processed.incrementAndGet();
+                scanned.addAndGet(accounts.size());
+            } catch (RuntimeException e) {
+                failed.incrementAndGet();
+                failures.add("Porción " + partition + ": " + e.getMessage());
+            }
+        });
+        long elapsed = System.nanoTime() - start;
+
+        return new BatchJobReport(job.getName(), businessDay, processed.get(), skipped.get(), failed.get(),
+                scanned.get(), affected.get(), elapsed, failures);
+    }
+}
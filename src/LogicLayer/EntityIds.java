@@ -0,0 +1,50 @@
+package LogicLayer;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Punto único de generación de ids para las entidades (clientes, cuentas, sesiones,
+ * transacciones y órdenes permanentes)
+ * Por defecto los ids se ordenan por tiempo. El generador puede elegirse una sola vez, al
+ * iniciar la aplicación y antes de crear la primera entidad (por ejemplo para volver a ids
+ * aleatorios o usar uno determinista en una simulación); después queda fijo para todo el proceso
+ */
+public final class EntityIds {
+    private static final AtomicReference<IdGenerator> GENERATOR = new AtomicReference<>();
+
+    private EntityIds() {
+    }
+
+    /**
+     * Genera un id nuevo con el generador vigente
+     */
+    public static UUID next() {
+        return getGenerator().nextId();
+    }
+
+    /**
+     * Generador vigente; si no se eligió ninguno, fija el generador ordenado por tiempo
+     */
+    public static IdGenerator getGenerator() {
+        IdGenerator generator = GENERATOR.get();
+        if (generator == null) {
+            GENERATOR.compareAndSet(null, new TimeOrderedIdGenerator());
+            generator = GENERATOR.get();
+        }
+        return generator;
+    }
+
+    /**
+     * Elige el generador de ids del proceso
+     * @throws IllegalStateException si ya se eligió un generador o ya se generaron ids
+     */
+    public static void setGenerator(IdGenerator newGenerator) {
+        if (newGenerator == null) {
+            throw new IllegalArgumentException("El generador de ids no puede ser nulo");
+        }
+        if (!GENERATOR.compareAndSet(null, newGenerator)) {
+            throw new IllegalStateException("El generador de ids ya está en uso y no puede reemplazarse");
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package LogicLayer;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DAO de cuentas que publica los cambios de saldo de sus cuentas en un {@link ChangeEventPublisher}
+ * Registra el publicador como oyente de cada cuenta guardada y de las que el DAO ya tenía, de modo
+ * que otra simulación con su propio publicador no recibe estos cambios
+ */
+public class EventPublishingAccountDao implements AccountDao {
+    private final AccountDao delegate;
+    private final ChangeEventPublisher publisher;
+
+    public EventPublishingAccountDao(AccountDao delegate, ChangeEventPublisher publisher) {
+        if (delegate == null || publisher == null) {
+            throw new IllegalArgumentException("El DAO y el publicador no pueden ser nulos");
+        }
+        this.delegate = delegate;
+        this.publisher = publisher;
+        for (Account account : delegate.findAll()) {
+            account.setBalanceListener(publisher);
+        }
+    }
+
+    @Override
+    public void save(Account account) {
+        delegate.save(account);
+        account.setBalanceListener(publisher);
+    }
+
+    @Override
+    public List<Account> listByOwner(UUID ownerId) {
+        return delegate.listByOwner(ownerId);
+    }
+
+    @Override
+    public void update(Account account) {
+        delegate.update(account);
+    }
+
+    @Override
+    public List<Account> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<List<Account>> findAllPartitioned(int partitionCount) {
+        return delegate.findAllPartitioned(partitionCount);
+    }
+}
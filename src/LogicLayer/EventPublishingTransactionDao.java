@@ -0,0 +1,96 @@
+package LogicLayer;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DAO de transacciones que publica cada transacción guardada en un {@link ChangeEventPublisher}
+ * El evento se publica después de guardar: una transacción rechazada por el DAO no se publica
+ */
+public class EventPublishingTransactionDao implements TransactionDao {
+    private final TransactionDao delegate;
+    private final ChangeEventPublisher publisher;
+
+    public EventPublishingTransactionDao(TransactionDao delegate, ChangeEventPublisher publisher) {
+        if (delegate == null || publisher == null) {
+            throw new IllegalArgumentException("El DAO y el publicador no pueden ser nulos");
+        }
+        this.delegate = delegate;
+        this.publisher = publisher;
+    }
+
+    @Override
+    public void save(Transaction newTx) {
+        delegate.save(newTx);
+        publisher.transactionSaved(newTx);
+    }
+
+    @Override
+    public void saveAll(List<Transaction> newTxs) {
+        delegate.saveAll(newTxs);
+        for (Transaction newTx : newTxs) {
+            publisher.transactionSaved(newTx);
+        }
+    }
+
+    @Override
+    public Transaction findById(UUID id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public Transaction findReversalOf(UUID originalId) {
+        return delegate.findReversalOf(originalId);
+    }
+
+    @Override
+    public List<Transaction> listByAccountId(UUID accountId) {
+        return delegate.listByAccountId(accountId);
+    }
+
+    @Override
+    public int countByAccountId(UUID accountId) {
+        return delegate.countByAccountId(accountId);
+    }
+
+    @Override
+    public List<Transaction> listByAccountId(UUID accountId, int offset, int limit) {
+        return delegate.listByAccountId(accountId, offset, limit);
+    }
+
+    @Override
+    public Iterator<Transaction> iterateByAccountId(UUID accountId) {
+        return delegate.iterateByAccountId(accountId);
+    }
+
+    @Override
+    public List<Transaction> searchByNote(String query, Collection<UUID> accountIds, int limit) {
+        return delegate.searchByNote(query, accountIds, limit);
+    }
+
+    @Override
+    public List<Transaction> query(TransactionQuery query) {
+        return delegate.query(query);
+    }
+
+    @Override
+    public List<TransactionRollup> getAccountRollups(UUID accountId, Currency currency,
+                                                     RollupPeriod granularity,
+                                                     LocalDate from, LocalDate to) {
+        return delegate.getAccountRollups(accountId, currency, granularity, from, to);
+    }
+
+    @Override
+    public List<TransactionRollup> getSystemRollups(Currency currency, RollupPeriod granularity,
+                                                    LocalDate from, LocalDate to) {
+        return delegate.getSystemRollups(currency, granularity, from, to);
+    }
+
+    @Override
+    public boolean verifyRollups() {
+        return delegate.verifyRollups();
+    }
+}
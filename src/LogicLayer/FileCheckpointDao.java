@@ -0,0 +1,73 @@
+package LogicLayer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implementación en archivo del DAO de puntos de control
+ * Cada porción completada se agrega como una línea "trabajo|día|porción" y se fuerza a disco,
+ * de modo que al reiniciar tras una caída se retoma sin repetir las porciones ya aplicadas
+ */
+public class FileCheckpointDao implements CheckpointDao, AutoCloseable {
+    private final Set<String> completed;
+    private final FileChannel channel;
+
+    /**
+     * Abre (o crea) el archivo de puntos de control y carga los registros existentes
+     *
+     * @throws IOException si no se puede leer o abrir el archivo
+     */
+    public FileCheckpointDao(Path file) throws IOException {
+        this.completed = ConcurrentHashMap.newKeySet();
+        if (Files.exists(file)) {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (!line.isBlank()) {
+                    completed.add(line.trim());
+                }
+            }
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public boolean isCompleted(String jobName, LocalDate businessDay, int partition) {
+        return completed.contains(key(jobName, businessDay, partition));
+    }
+
+    @Override
+    public synchronized void markCompleted(String jobName, LocalDate businessDay, int partition) {
+        String key = key(jobName, businessDay, partition);
+        if (!completed.add(key)) {
+            return;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap((key + "\n").getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            completed.remove(key);
+            throw new UncheckedIOException("No se pudo registrar el punto de control " + key, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static String key(String jobName, LocalDate businessDay, int partition) {
+        return jobName + "|" + businessDay + "|" + partition;
+    }
+}
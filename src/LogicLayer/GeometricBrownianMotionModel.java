@@ -0,0 +1,40 @@
+package LogicLayer;
+
+import java.util.SplittableRandom;
+
+/**
+ * Modelo de movimiento browniano geométrico
+ * El logaritmo del rendimiento diario es normal con media (mu - sigma²/2) y desvío sigma
+ */
+public class GeometricBrownianMotionModel implements MarketModel {
+    private final double drift;
+    private final double volatility;
+
+    /**
+     * @param drift rendimiento esperado diario (mu)
+     * @param volatility volatilidad diaria (sigma)
+     */
+    public GeometricBrownianMotionModel(double drift, double volatility) {
+        if (volatility < 0) {
+            throw new IllegalArgumentException("La volatilidad no puede ser negativa");
+        }
+        this.drift = drift;
+        this.volatility = volatility;
+    }
+
+    @Override
+    public double nextRate(SplittableRandom rng) {
+        double logReturn = (drift - 0.5 * volatility * volatility) + volatility * rng.nextGaussian();
+        return Math.exp(logReturn) - 1;
+    }
+
+    @Override
+    public MarketModel copy() {
+        return this;
+    }
+
+    @Override
+    public String getName() {
+        return "Movimiento browniano geométrico";
+    }
+}
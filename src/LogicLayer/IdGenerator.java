@@ -0,0 +1,14 @@
+package LogicLayer;
+
+import java.util.UUID;
+
+/**
+ * Generador de ids para las entidades del sistema
+ * Las implementaciones deben ser seguras para usar desde varios hilos
+ */
+public interface IdGenerator {
+    /**
+     * Genera un id nuevo
+     */
+    UUID nextId();
+}
@@ -1,6 +1,7 @@
 package LogicLayer;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Implementación en memoria del DAO de cuentas
@@ -10,19 +11,19 @@ public class InMemoryAccountDao implements AccountDao {
     private final Map<UUID, List<Account>> accountsByOwner;
 
     public InMemoryAccountDao() {
-        this.accountsById = new HashMap<>();
+        this.accountsById = new ConcurrentHashMap<>();
         this.accountsByOwner = new HashMap<>();
     }
 
     @Override
-    public void save(Account account) {
+    public synchronized void save(Account account) {
         accountsById.put(account.getId(), account);
         UUID ownerId = account.getOwner().getId();
         accountsByOwner.computeIfAbsent(ownerId, k -> new ArrayList<>()).add(account);
     }
 
     @Override
-    public List<Account> listByOwner(UUID ownerId) {
+    public synchronized List<Account> listByOwner(UUID ownerId) {
         return new ArrayList<>(accountsByOwner.getOrDefault(ownerId, Collections.emptyList()));
     }
 
@@ -35,4 +36,16 @@ public class InMemoryAccountDao implements AccountDao {
     public List<Account> findAll() {
         return new ArrayList<>(accountsById.values());
     }
-}
\ No newline at end of file
+
+    @Override
+    public List<List<Account>> findAllPartitioned(int partitionCount) {
+        List<List<Account>> partitions = new ArrayList<>(partitionCount);
+        for (int i = 0; i < partitionCount; i++) {
+            partitions.add(new ArrayList<>());
+        }
+        for (Account account : accountsById.values()) {
+            partitions.get(Math.floorMod(account.getId().hashCode(), partitionCount)).add(account);
+        }
+        return partitions;
+    }
+}
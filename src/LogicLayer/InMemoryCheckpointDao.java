@@ -0,0 +1,30 @@
+package LogicLayer;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implementación en memoria del DAO de puntos de control
+ */
+public class InMemoryCheckpointDao implements CheckpointDao {
+    private final Set<String> completed;
+
+    public InMemoryCheckpointDao() {
+        this.completed = ConcurrentHashMap.newKeySet();
+    }
+
+    @Override
+    public boolean isCompleted(String jobName, LocalDate businessDay, int partition) {
+        return completed.contains(key(jobName, businessDay, partition));
+    }
+
+    @Override
+    public void markCompleted(String jobName, LocalDate businessDay, int partition) {
+        completed.add(key(jobName, businessDay, partition));
+    }
+
+    private static String key(String jobName, LocalDate businessDay, int partition) {
+        return jobName + "|" + businessDay + "|" + partition;
+    }
+}
@@ -0,0 +1,77 @@
+package LogicLayer;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Implementación en memoria del DAO de transferencias programadas
+ * Mantiene un balde por fecha de vencimiento; las órdenes canceladas permanecen en su balde
+ * y se descartan al vencer
+ */
+public class InMemoryStandingOrderDao implements StandingOrderDao {
+    private final Map<UUID, StandingOrder> ordersById;
+    private final Map<UUID, Set<StandingOrder>> ordersBySource;
+    private final TreeMap<LocalDate, List<StandingOrder>> ordersByDueDate;
+
+    public InMemoryStandingOrderDao() {
+        this.ordersById = new HashMap<>();
+        this.ordersBySource = new HashMap<>();
+        this.ordersByDueDate = new TreeMap<>();
+    }
+
+    @Override
+    public synchronized void save(StandingOrder order) {
+        if (ordersById.putIfAbsent(order.getId(), order) == null) {
+            ordersBySource.computeIfAbsent(order.getSource().getId(), k -> new LinkedHashSet<>()).add(order);
+        }
+        ordersByDueDate.computeIfAbsent(order.getDueDate(), k -> new ArrayList<>()).add(order);
+    }
+
+    @Override
+    public synchronized StandingOrder findById(UUID orderId) {
+        return ordersById.get(orderId);
+    }
+
+    @Override
+    public synchronized List<StandingOrder> listBySourceAccountId(UUID accountId) {
+        Set<StandingOrder> orders = ordersBySource.get(accountId);
+        if (orders == null) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<>(orders);
+    }
+
+    @Override
+    public synchronized List<StandingOrder> pollDueThrough(LocalDate day) {
+        List<StandingOrder> due = new ArrayList<>();
+        Map.Entry<LocalDate, List<StandingOrder>> bucket;
+        while ((bucket = ordersByDueDate.firstEntry()) != null && !bucket.getKey().isAfter(day)) {
+            ordersByDueDate.pollFirstEntry();
+            for (StandingOrder order : bucket.getValue()) {
+                if (order.isActive()) {
+                    due.add(order);
+                }
+            }
+        }
+        return due;
+    }
+
+    @Override
+    public synchronized void delete(StandingOrder order) {
+        if (ordersById.remove(order.getId()) == null) {
+            return;
+        }
+        Set<StandingOrder> orders = ordersBySource.get(order.getSource().getId());
+        if (orders != null) {
+            orders.remove(order);
+            if (orders.isEmpty()) {
+                ordersBySource.remove(order.getSource().getId());
+            }
+        }
+    }
+
+    @Override
+    public synchronized int count() {
+        return ordersById.size();
+    }
+}
@@ -1,21 +1,65 @@
 package LogicLayer;
 
+import java.time.LocalDate;
 import java.util.*;
 
 /**
  * Implementación en memoria del DAO de transacciones
  */
 public class InMemoryTransactionDao implements TransactionDao {
-    private final Map<UUID, List<Transaction>> transactionsByAccount;
+    // Transacciones copiadas por cada toma del lock al recorrer una cuenta
+    private static final int ITERATION_CHUNK = 1024;
+
+    // Transacciones en orden de alta; la posición identifica a la transacción en los índices
+    private final TransactionRecordStore records;
+    // Vista de solo lectura de los registros por posición, reconstruidos al acceder
+    private final List<Transaction> transactionsByPosition;
+    // Posición de la reversión completada de cada transacción revertida, por posición de la original
+    private final Map<Integer, Integer> reversalsByOriginal;
+    private final TransactionNoteIndex noteIndex;
+    private final TransactionRangeIndex rangeIndex;
+    private final TransactionRollupCube rollups;
 
     public InMemoryTransactionDao() {
-        this.transactionsByAccount = new HashMap<>();
+        this.records = new TransactionRecordStore(1024);
+        this.transactionsByPosition = new AbstractList<>() {
+            @Override
+            public Transaction get(int position) {
+                return records.get(position);
+            }
+
+            @Override
+            public int size() {
+                return records.size();
+            }
+        };
+        this.reversalsByOriginal = new HashMap<>();
+        this.noteIndex = new TransactionNoteIndex();
+        this.rangeIndex = new TransactionRangeIndex();
+        this.rollups = new TransactionRollupCube();
     }
 
     @Override
-    public void save(Transaction newTx) {
+    public synchronized void save(Transaction newTx) {
+        index(newTx);
+    }
+
+    @Override
+    public synchronized void saveAll(List<Transaction> newTxs) {
+        for (Transaction newTx : newTxs) {
+            index(newTx);
+        }
+    }
+
+    /**
+     * Guarda la transacción en los registros compactos y la agrega a los índices
+     */
+    private void index(Transaction newTx) {
+        // Los resúmenes se actualizan primero: si el monto los desborda, la transacción se rechaza sin cambios
+        rollups.add(newTx);
+
         // Determinar las cuentas involucradas según el tipo de transacción
-        List<UUID> accountIds = new ArrayList<>();
+        List<UUID> accountIds = new ArrayList<>(2);
 
         if (newTx instanceof DepositTransaction) {
             accountIds.add(((DepositTransaction) newTx).getTarget().getId());
@@ -26,22 +70,153 @@ public class InMemoryTransactionDao implements TransactionDao {
             accountIds.add(((TransferTransaction) newTx).getTarget().getId());
         }
 
-        // Agregar la transacción a todas las cuentas involucradas
-        for (UUID accountId : accountIds) {
-            transactionsByAccount.computeIfAbsent(accountId, k -> new ArrayList<>()).add(newTx);
+        int position = records.append(newTx);
+        if (newTx.isReversal() && newTx.isSuccessful()) {
+            int original = records.find(newTx.getReversedTransactionId());
+            if (original >= 0) {
+                reversalsByOriginal.put(original, position);
+            }
         }
+        noteIndex.add(position, newTx.getNote(), accountIds);
+        rangeIndex.add(position, newTx, accountIds);
     }
 
     @Override
-    public List<Transaction> listByAccountId(UUID accountId) {
-        List<Transaction> transactions = transactionsByAccount.get(accountId);
-        if (transactions == null) {
+    public synchronized Transaction findById(UUID id) {
+        int position = records.find(id);
+        return position >= 0 ? records.get(position) : null;
+    }
+
+    @Override
+    public synchronized Transaction findReversalOf(UUID originalId) {
+        int original = records.find(originalId);
+        Integer reversal = original >= 0 ? reversalsByOriginal.get(original) : null;
+        return reversal != null ? records.get(reversal) : null;
+    }
+
+    @Override
+    public synchronized List<Transaction> listByAccountId(UUID accountId) {
+        int account = records.accountNumber(accountId);
+        int count = records.accountSize(account);
+        if (count == 0) {
             return Collections.emptyList();
         }
         // Copia ordenada por fecha (más reciente primero)
-        List<Transaction> sorted = new ArrayList<>(transactions);
+        List<Transaction> sorted = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            sorted.add(records.get(records.accountPosition(account, i)));
+        }
         sorted.sort((t1, t2) -> t2.getCreatedAt().compareTo(t1.getCreatedAt()));
         return sorted;
     }
-}
 
+    @Override
+    public synchronized int countByAccountId(UUID accountId) {
+        return records.accountSize(records.accountNumber(accountId));
+    }
+
+    @Override
+    public synchronized List<Transaction> listByAccountId(UUID accountId, int offset, int limit) {
+        int account = records.accountNumber(accountId);
+        int count = records.accountSize(account);
+        if (offset >= count || limit <= 0) {
+            return Collections.emptyList();
+        }
+        // Las transacciones se agregan en orden de creación: se recorre desde el final
+        int from = count - 1 - offset;
+        int to = Math.max(from - limit, -1);
+        List<Transaction> page = new ArrayList<>(from - to);
+        for (int i = from; i > to; i--) {
+            page.add(records.get(records.accountPosition(account, i)));
+        }
+        return page;
+    }
+
+    @Override
+    public synchronized List<Transaction> searchByNote(String query, Collection<UUID> accountIds, int limit) {
+        int[] positions = noteIndex.search(query, accountIds);
+        int size = Math.min(positions.length, Math.max(limit, 0));
+        List<Transaction> result = new ArrayList<>(size);
+        for (int i = positions.length - 1; i >= 0 && result.size() < size; i--) {
+            result.add(transactionsByPosition.get(positions[i]));
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized List<Transaction> query(TransactionQuery query) {
+        return rangeIndex.query(query, transactionsByPosition);
+    }
+
+    @Override
+    public synchronized List<TransactionRollup> getAccountRollups(UUID accountId, Currency currency,
+                                                                  RollupPeriod granularity,
+                                                                  LocalDate from, LocalDate to) {
+        return rollups.getAccountRollups(accountId, currency, granularity, from, to);
+    }
+
+    @Override
+    public synchronized List<TransactionRollup> getSystemRollups(Currency currency, RollupPeriod granularity,
+                                                                 LocalDate from, LocalDate to) {
+        return rollups.getSystemRollups(currency, granularity, from, to);
+    }
+
+    @Override
+    public boolean verifyRollups() {
+        // Se reconstruye fuera del lock a partir de una copia de las transacciones
+        List<Transaction> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(transactionsByPosition);
+        }
+        TransactionRollupCube rebuilt = TransactionRollupCube.rebuild(snapshot);
+        synchronized (this) {
+            // Las transacciones guardadas durante la reconstrucción se suman antes de comparar
+            for (int i = snapshot.size(); i < transactionsByPosition.size(); i++) {
+                rebuilt.add(transactionsByPosition.get(i));
+            }
+            return rebuilt.equals(rollups);
+        }
+    }
+
+    /**
+     * Cantidad de transacciones guardadas
+     */
+    synchronized int size() {
+        return records.size();
+    }
+
+    /**
+     * Copia las transacciones guardadas a partir de una posición, en orden de alta
+     */
+    synchronized List<Transaction> snapshot(int from) {
+        return new ArrayList<>(transactionsByPosition.subList(Math.min(from, records.size()), records.size()));
+    }
+
+    @Override
+    public Iterator<Transaction> iterateByAccountId(UUID accountId) {
+        return new ChronologicalTransactionIterator(ITERATION_CHUNK) {
+            private int collected;
+
+            @Override
+            void collectNew() {
+                synchronized (InMemoryTransactionDao.this) {
+                    int account = records.accountNumber(accountId);
+                    int size = records.accountSize(account);
+                    for (; collected < size; collected++) {
+                        int position = records.accountPosition(account, collected);
+                        add(records.createdMicros(position), position);
+                    }
+                }
+            }
+
+            @Override
+            void materialize(int[] positions, int from, int to, List<Transaction> target) {
+                synchronized (InMemoryTransactionDao.this) {
+                    for (int i = from; i < to; i++) {
+                        target.add(records.get(positions[i]));
+                    }
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,144 @@
+package LogicLayer;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trabajo de fin de día que devenga intereses diarios
+ * Las cuentas de ahorro ganan interés sobre su saldo positivo y las cuentas de crédito
+ * pagan interés sobre su saldo negativo (sobregiro)
+ *
+ * Las tasas se configuran como tasa nominal anual por moneda y se aplican como TNA / 365.
+ * El cálculo se hace en punto fijo: saldo en centavos × tasa diaria en unidades de 1e-9,
+ * redondeado HALF_UP a centavos. Las transacciones de cada porción se guardan en un solo lote
+ */
+public class InterestAccrualJob implements BatchJob {
+    // Escala de la tasa diaria: 9 decimales
+    private static final long RATE_SCALE = 1_000_000_000L;
+    private static final long HALF_RATE_SCALE = RATE_SCALE / 2;
+    private static final int DAYS_PER_YEAR = 365;
+
+    private static final String SAVINGS_NOTE = "Interés diario";
+    private static final String OVERDRAFT_NOTE = "Interés por saldo deudor";
+
+    private final AccountDao accountDao;
+    private final TransactionDao transactionDao;
+    private final long[] savingsRateUnits;
+    private final long[] overdraftRateUnits;
+
+    /**
+     * @param savingsAnnualRates TNA de las cuentas de ahorro por moneda (ej: 0.30 = 30%)
+     * @param overdraftAnnualRates TNA del sobregiro de las cuentas de crédito por moneda
+     */
+    public InterestAccrualJob(AccountDao accountDao, TransactionDao transactionDao,
+                              Map<Currency, BigDecimal> savingsAnnualRates,
+                              Map<Currency, BigDecimal> overdraftAnnualRates) {
+        this.accountDao = accountDao;
+        this.transactionDao = transactionDao;
+        this.savingsRateUnits = toDailyRateUnits(savingsAnnualRates);
+        this.overdraftRateUnits = toDailyRateUnits(overdraftAnnualRates);
+    }
+
+    @Override
+    public String getName() {
+        return "intereses-diarios";
+    }
+
+    @Override
+    public int processPartition(List<Account> accounts, LocalDate businessDay) {
+        List<Transaction> transactions = new ArrayList<>();
+        try {
+            accrueAll(accounts, businessDay, transactions);
+        } finally {
+            // Si la porción se interrumpe, las cuentas ya procesadas conservan su transacción
+            transactionDao.saveAll(transactions);
+        }
+        return transactions.size();
+    }
+
+    /**
+     * Devenga los intereses de las cuentas que todavía no los recibieron en el día
+     */
+    private void accrueAll(List<Account> accounts, LocalDate businessDay, List<Transaction> transactions) {
+        for (Account account : accounts) {
+            long[] rates;
+            if (account instanceof SavingsAccount) {
+                rates = savingsRateUnits;
+            } else if (account instanceof CreditAccount) {
+                rates = overdraftRateUnits;
+            } else {
+                continue;
+            }
+
+            long rateUnits = rates[account.getBaseCurrency().ordinal()];
+            if (rateUnits == 0 || account.isBatchApplied(getName(), businessDay)) {
+                continue;
+            }
+
+            BigDecimal balance = account.getBalance();
+            int sign = balance.signum();
+            // Ahorro: solo saldo positivo; crédito: solo saldo negativo
+            if ((rates == savingsRateUnits && sign <= 0) || (rates == overdraftRateUnits && sign >= 0)) {
+                continue;
+            }
+
+            BigDecimal interest = accrue(balance, rateUnits);
+            if (interest.signum() == 0) {
+                continue;
+            }
+
+            account.postInterest(interest);
+            account.markBatchApplied(getName(), businessDay);
+            if (interest.signum() > 0) {
+                transactions.add(new DepositTransaction(TransactionStatus.SETTLED, interest,
+                        account.getBaseCurrency(), SAVINGS_NOTE, account));
+            } else {
+                transactions.add(new WithdrawTransaction(TransactionStatus.SETTLED, interest.negate(),
+                        account.getBaseCurrency(), OVERDRAFT_NOTE, account));
+            }
+            accountDao.update(account);
+        }
+    }
+
+    /**
+     * Calcula el interés de un día con el mismo signo que el saldo
+     * Usa punto fijo cuando el saldo está en centavos y no hay desborde; si no, BigDecimal
+     */
+    static BigDecimal accrue(BigDecimal balance, long rateUnits) {
+        if (DailyReturnKernel.isRepresentableInCents(balance)) {
+            long cents = DailyReturnKernel.toCents(balance);
+            long magnitude = Math.abs(cents);
+            long high = Math.multiplyHigh(magnitude, rateUnits);
+            long product = magnitude * rateUnits;
+            if (high == 0 && product >= 0 && product <= Long.MAX_VALUE - HALF_RATE_SCALE) {
+                long interestCents = (product + HALF_RATE_SCALE) / RATE_SCALE;
+                return DailyReturnKernel.fromCents(cents < 0 ? -interestCents : interestCents);
+            }
+        }
+        return balance.multiply(BigDecimal.valueOf(rateUnits, 9)).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Convierte TNA por moneda en tasas diarias de punto fijo indexadas por ordinal
+     */
+    private static long[] toDailyRateUnits(Map<Currency, BigDecimal> annualRates) {
+        long[] units = new long[Currency.values().length];
+        if (annualRates == null) {
+            return units;
+        }
+        for (Map.Entry<Currency, BigDecimal> entry : annualRates.entrySet()) {
+            BigDecimal annual = entry.getValue();
+            if (annual == null || annual.signum() < 0) {
+                throw new IllegalArgumentException("La tasa de interés no puede ser negativa");
+            }
+            units[entry.getKey().ordinal()] = annual.movePointRight(9)
+                    .divide(BigDecimal.valueOf(DAYS_PER_YEAR), 0, RoundingMode.HALF_UP)
+                    .longValueExact();
+        }
+        return units;
+    }
+}
@@ -4,29 +4,94 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * Cuenta de inversión que genera rendimientos según tasas de interés variables
  * El saldo fluctúa diariamente según el comportamiento del mercado
+ * El saldo, el historial, los resúmenes y las métricas se modifican y se leen con el monitor de la
+ * cuenta, de modo que la interfaz puede consultarla mientras la simulación (inmediata o diferida)
+ * aplica días; las consultas devuelven copias
  */
 public class InvestmentAccount extends Account {
+    // Períodos resumidos (el detalle diario es el historial)
+    private static final Set<RollupPeriod> ROLLUP_PERIODS = EnumSet.of(RollupPeriod.WEEKLY, RollupPeriod.MONTHLY);
+
     private final List<InvestmentHistory> history;
     private LocalDate lastUpdateDate;
 
+    // Resúmenes por período y totales acumulados (no dependen de los días retenidos)
+    private final Map<RollupPeriod, NavigableMap<LocalDate, InvestmentRollup>> rollups;
+    private BigDecimal firstRecordedBalance;
+    private BigDecimal totalReturn;
+    private int simulatedDays;
+    private int bullishDays;
+    private int bearishDays;
+    private final InvestmentRiskMetrics riskMetrics;
+
+    // Días de detalle diario a conservar (0 = conservar todo)
+    private int dailyRetentionDays;
+
+    // Modo diferido: registro de tasas y último día del registro ya procesado
+    // (volátil para la verificación rápida fuera del monitor en catchUp)
+    private final MarketRateLog rateLog;
+    private volatile LocalDate ratesAppliedThrough;
+
     /**
      * Constructor para crear una nueva cuenta de inversión
+     * @param openingDate día simulado de apertura (el primer rendimiento se aplica al día siguiente)
+     */
+    public InvestmentAccount(Client owner, Currency baseCurrency, BigDecimal initialBalance,
+                             LocalDate openingDate) {
+        this(owner, baseCurrency, initialBalance, openingDate, null);
+    }
+
+    /**
+     * Constructor para crear una cuenta de inversión en modo diferido
+     * Los rendimientos de los días registrados en rateLog se aplican al consultar la cuenta
+     *
+     * @param openingDate día simulado de apertura
+     * @param rateLog registro global de tasas (null para el modo inmediato)
      */
-    public InvestmentAccount(Client owner, Currency baseCurrency, BigDecimal initialBalance) {
+    public InvestmentAccount(Client owner, Currency baseCurrency, BigDecimal initialBalance,
+                             LocalDate openingDate, MarketRateLog rateLog) {
         super(owner, baseCurrency, initialBalance);
+        if (openingDate == null) {
+            throw new IllegalArgumentException("La fecha de apertura no puede ser nula");
+        }
         this.history = new ArrayList<>();
-        this.lastUpdateDate = SimulatedClock.getCurrentDay();
+        this.lastUpdateDate = openingDate;
+        this.rollups = new EnumMap<>(RollupPeriod.class);
+        for (RollupPeriod period : ROLLUP_PERIODS) {
+            rollups.put(period, new TreeMap<>());
+        }
+        this.totalReturn = BigDecimal.ZERO;
+        this.riskMetrics = new InvestmentRiskMetrics();
+        this.rateLog = rateLog;
+        this.ratesAppliedThrough = lastUpdateDate;
     }
 
     @Override
     public boolean hasSufficientFunds(BigDecimal amount) {
-        // La cuenta de inversión no puede tener saldo negativo
-        return balance.compareTo(amount) >= 0;
+        catchUp();
+        synchronized (this) {
+            // La cuenta de inversión no puede tener saldo negativo
+            return balance.compareTo(amount) >= 0;
+        }
+    }
+
+    @Override
+    public BigDecimal getBalance() {
+        catchUp();
+        synchronized (this) {
+            return balance;
+        }
     }
 
     @Override
@@ -48,13 +113,41 @@ public class InvestmentAccount extends Account {
             throw new IllegalArgumentException("La fecha no puede ser nula");
         }
 
-        // Solo aplicar si hay saldo
-        if (balance.compareTo(BigDecimal.ZERO) > 0) {
-            BigDecimal balanceBefore = balance;
+        synchronized (this) {
+            // Solo aplicar si hay saldo
+            if (balance.compareTo(BigDecimal.ZERO) > 0) {
+                // Calcular nuevo saldo: balance * (1 + rate)
+                BigDecimal multiplier = BigDecimal.ONE.add(dailyRate);
+                recordDailyReturn(dailyRate, currentDate,
+                        balance.multiply(multiplier).setScale(2, java.math.RoundingMode.HALF_UP));
+            }
+        }
+    }
+
+    /**
+     * Aplica un rendimiento diario cuyo nuevo saldo ya fue calculado en lote
+     * (ver DailyReturnKernel), registrándolo igual que applyDailyReturn
+     *
+     * @param dailyRate tasa de interés del día
+     * @param currentDate fecha actual
+     * @param newBalance saldo resultante, ya redondeado a centavos
+     */
+    void applyPrecomputedReturn(BigDecimal dailyRate, LocalDate currentDate, BigDecimal newBalance) {
+        synchronized (this) {
+            if (balance.compareTo(BigDecimal.ZERO) > 0) {
+                recordDailyReturn(dailyRate, currentDate, newBalance);
+            }
+        }
+    }
 
-            // Calcular nuevo saldo: balance * (1 + rate)
-            BigDecimal multiplier = BigDecimal.ONE.add(dailyRate);
-            balance = balance.multiply(multiplier).setScale(2, java.math.RoundingMode.HALF_UP);
+    /**
+     * Actualiza el saldo y registra el día en el historial, con el monitor de la cuenta
+     */
+    private void recordDailyReturn(BigDecimal dailyRate, LocalDate currentDate, BigDecimal newBalance) {
+        synchronized (this) {
+            BigDecimal balanceBefore = balance;
+            balance = newBalance;
+            balanceChanged(BalanceChangeType.DAILY_RETURN, balance.subtract(balanceBefore));
 
             // Registrar en el historial
             InvestmentHistory record = new InvestmentHistory(
@@ -62,68 +155,291 @@ public class InvestmentAccount extends Account {
             );
             history.add(record);
 
+            updateRollups(record);
+            riskMetrics.update(dailyRate);
+            trimDailyHistory(currentDate);
+
             lastUpdateDate = currentDate;
         }
     }
 
     /**
-     * Obtiene el historial de inversiones
+     * Actualiza los resúmenes por período y los totales con un nuevo día
+     */
+    private void updateRollups(InvestmentHistory record) {
+        for (RollupPeriod period : ROLLUP_PERIODS) {
+            NavigableMap<LocalDate, InvestmentRollup> periodRollups = rollups.get(period);
+            LocalDate start = period.periodStart(record.getDate());
+            InvestmentRollup rollup = periodRollups.get(start);
+            if (rollup == null) {
+                periodRollups.put(start, new InvestmentRollup(period, record));
+            } else {
+                rollup.add(record);
+            }
+        }
+
+        if (firstRecordedBalance == null) {
+            firstRecordedBalance = record.getBalanceBefore();
+        }
+        totalReturn = totalReturn.add(record.getProfit());
+        simulatedDays++;
+        if (record.isBullish()) {
+            bullishDays++;
+        } else if (record.isBearish()) {
+            bearishDays++;
+        }
+    }
+
+    /**
+     * Descarta el detalle diario más antiguo que la retención configurada
+     * Los resúmenes por período conservan la información agregada
+     */
+    private void trimDailyHistory(LocalDate currentDate) {
+        if (dailyRetentionDays <= 0) {
+            return;
+        }
+        LocalDate oldestKept = currentDate.minusDays(dailyRetentionDays - 1L);
+        int expired = 0;
+        while (expired < history.size() && history.get(expired).getDate().isBefore(oldestKept)) {
+            expired++;
+        }
+        if (expired > 0) {
+            history.subList(0, expired).clear();
+        }
+    }
+
+    /**
+     * Configura cuántos días de detalle diario se conservan
+     * Los días más antiguos solo quedan en los resúmenes semanales y mensuales
+     *
+     * @param days días a conservar (0 para conservar todo el detalle)
+     */
+    public void setDailyRetentionDays(int days) {
+        if (days < 0) {
+            throw new IllegalArgumentException("La retención no puede ser negativa");
+        }
+        synchronized (this) {
+            this.dailyRetentionDays = days;
+            if (days > 0 && lastUpdateDate != null) {
+                trimDailyHistory(lastUpdateDate);
+            }
+        }
+    }
+
+    public synchronized int getDailyRetentionDays() {
+        return dailyRetentionDays;
+    }
+
+    /**
+     * Obtiene los resúmenes de un tipo de período cuyo inicio está dentro del rango
+     *
+     * @param period período (semanal o mensual)
+     * @param from fecha desde (inclusive)
+     * @param to fecha hasta (inclusive)
+     */
+    public List<InvestmentRollup> getRollups(RollupPeriod period, LocalDate from, LocalDate to) {
+        checkRollupPeriod(period);
+        catchUp();
+        LocalDate start = period.periodStart(from);
+        if (start.isAfter(to)) {
+            return Collections.emptyList();
+        }
+        synchronized (this) {
+            return copyRollups(rollups.get(period).subMap(start, true, to, true));
+        }
+    }
+
+    /**
+     * Obtiene todos los resúmenes de un tipo de período
+     */
+    public List<InvestmentRollup> getRollups(RollupPeriod period) {
+        checkRollupPeriod(period);
+        catchUp();
+        synchronized (this) {
+            return copyRollups(rollups.get(period));
+        }
+    }
+
+    private static List<InvestmentRollup> copyRollups(Map<LocalDate, InvestmentRollup> periodRollups) {
+        List<InvestmentRollup> copies = new ArrayList<>(periodRollups.size());
+        for (InvestmentRollup rollup : periodRollups.values()) {
+            copies.add(rollup.copy());
+        }
+        return copies;
+    }
+
+    private static void checkRollupPeriod(RollupPeriod period) {
+        if (!ROLLUP_PERIODS.contains(period)) {
+            throw new IllegalArgumentException("Los resúmenes de inversión son semanales o mensuales");
+        }
+    }
+
+    /**
+     * Obtiene el saldo anterior al primer día simulado (null si todavía no hubo simulaciones)
+     */
+    public BigDecimal getFirstRecordedBalance() {
+        catchUp();
+        synchronized (this) {
+            return firstRecordedBalance;
+        }
+    }
+
+    /**
+     * Obtiene una copia de las métricas de riesgo acumuladas de la cuenta
+     */
+    public InvestmentRiskMetrics getRiskMetrics() {
+        catchUp();
+        synchronized (this) {
+            return riskMetrics.snapshot();
+        }
+    }
+
+    /**
+     * Cantidad total de días simulados, incluidos los que ya no se conservan en detalle
+     */
+    public int getSimulatedDaysCount() {
+        catchUp();
+        synchronized (this) {
+            return simulatedDays;
+        }
+    }
+
+    /**
+     * Obtiene una copia del historial de inversiones (más antiguo primero)
      */
     public List<InvestmentHistory> getHistory() {
-        return Collections.unmodifiableList(history);
+        catchUp();
+        synchronized (this) {
+            return new ArrayList<>(history);
+        }
+    }
+
+    /**
+     * Cantidad de días conservados en el historial detallado
+     */
+    public int getHistorySize() {
+        catchUp();
+        synchronized (this) {
+            return history.size();
+        }
+    }
+
+    /**
+     * Obtiene una página del historial detallado (más reciente primero)
+     * @param offset posición del primer día de la página
+     * @param limit cantidad máxima de días
+     */
+    public List<InvestmentHistory> getHistoryPage(int offset, int limit) {
+        catchUp();
+        synchronized (this) {
+            if (offset >= history.size() || limit <= 0) {
+                return Collections.emptyList();
+            }
+            int from = history.size() - 1 - offset;
+            int to = Math.max(from - limit, -1);
+            List<InvestmentHistory> page = new ArrayList<>(from - to);
+            for (int i = from; i > to; i--) {
+                page.add(history.get(i));
+            }
+            return page;
+        }
     }
 
     /**
      * Obtiene la fecha de la última actualización
      */
     public LocalDate getLastUpdateDate() {
-        return lastUpdateDate;
+        catchUp();
+        synchronized (this) {
+            return lastUpdateDate;
+        }
     }
 
     /**
-     * Calcula el rendimiento total acumulado
+     * Obtiene el rendimiento total acumulado
      */
     public BigDecimal getTotalReturn() {
-        BigDecimal total = BigDecimal.ZERO;
-        for (InvestmentHistory record : history) {
-            total = total.add(record.getProfit());
+        catchUp();
+        synchronized (this) {
+            return totalReturn;
         }
-        return total;
     }
 
     /**
      * Cuenta cuántos días fueron alcistas
      */
     public int getBullishDaysCount() {
-        int count = 0;
-        for (InvestmentHistory record : history) {
-            if (record.isBullish()) {
-                count++;
-            }
+        catchUp();
+        synchronized (this) {
+            return bullishDays;
         }
-        return count;
     }
 
     /**
      * Cuenta cuántos días fueron bajistas
      */
     public int getBearishDaysCount() {
-        int count = 0;
-        for (InvestmentHistory record : history) {
-            if (record.isBearish()) {
-                count++;
-            }
+        catchUp();
+        synchronized (this) {
+            return bearishDays;
         }
-        return count;
     }
 
+    /**
+     * Se pone al día y acredita con el monitor tomado, para que un día aplicado en otro hilo no
+     * pise el nuevo saldo
+     */
     @Override
     public void credit(BigDecimal amount) {
-        super.credit(amount);
-        // Actualizar fecha si es necesario
-        if (lastUpdateDate == null) {
-            lastUpdateDate = SimulatedClock.getCurrentDay();
+        synchronized (this) {
+            catchUp();
+            super.credit(amount);
         }
     }
-}
 
+    @Override
+    public void debit(BigDecimal amount) {
+        synchronized (this) {
+            catchUp();
+            super.debit(amount);
+        }
+    }
+
+    @Override
+    void postInterest(BigDecimal amount) {
+        synchronized (this) {
+            catchUp();
+            super.postInterest(amount);
+        }
+    }
+
+    /**
+     * Aplica en orden los días del registro global que la cuenta todavía no procesó
+     * Usa la misma condición que la actualización inmediata (lastUpdateDate anterior al día),
+     * por lo que el resultado es idéntico al de actualizar todas las cuentas en cada avance
+     */
+    private void catchUp() {
+        if (rateLog == null) {
+            return;
+        }
+        LocalDate latest = rateLog.getLatestDate();
+        if (latest == null || !ratesAppliedThrough.isBefore(latest)) {
+            return;
+        }
+
+        synchronized (this) {
+            // Otro hilo pudo ponerse al día mientras se esperaba el monitor
+            if (!ratesAppliedThrough.isBefore(latest)) {
+                return;
+            }
+            for (Map.Entry<LocalDate, Map<Currency, BigDecimal>> day
+                    : rateLog.daysBetween(ratesAppliedThrough, latest).entrySet()) {
+                BigDecimal dailyRate = day.getValue().get(baseCurrency);
+                if (dailyRate != null && lastUpdateDate.isBefore(day.getKey())) {
+                    applyDailyReturn(dailyRate, day.getKey());
+                }
+                ratesAppliedThrough = day.getKey();
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package LogicLayer;
+
+import java.math.BigDecimal;
+
+/**
+ * Resultado de una proyección Monte Carlo sobre una cuenta de inversión
+ * Contiene las bandas de percentiles, la probabilidad de pérdida y el rendimiento de la simulación
+ */
+public class InvestmentProjection {
+    private final BigDecimal initialBalance;
+    private final int horizonDays;
+    private final int paths;
+    private final BigDecimal p5;
+    private final BigDecimal p50;
+    private final BigDecimal p95;
+    private final BigDecimal expectedFinalBalance;
+    private final double probabilityOfLoss;
+    private final long elapsedNanos;
+
+    public InvestmentProjection(BigDecimal initialBalance, int horizonDays, int paths,
+                                BigDecimal p5, BigDecimal p50, BigDecimal p95,
+                                BigDecimal expectedFinalBalance, double probabilityOfLoss,
+                                long elapsedNanos) {
+        this.initialBalance = initialBalance;
+        this.horizonDays = horizonDays;
+        this.paths = paths;
+        this.p5 = p5;
+        this.p50 = p50;
+        this.p95 = p95;
+        this.expectedFinalBalance = expectedFinalBalance;
+        this.probabilityOfLoss = probabilityOfLoss;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public BigDecimal getInitialBalance() {
+        return initialBalance;
+    }
+
+    public int getHorizonDays() {
+        return horizonDays;
+    }
+
+    public int getPaths() {
+        return paths;
+    }
+
+    /**
+     * Saldo final en el percentil 5 (escenario pesimista)
+     */
+    public BigDecimal getP5() {
+        return p5;
+    }
+
+    /**
+     * Saldo final mediano
+     */
+    public BigDecimal getP50() {
+        return p50;
+    }
+
+    /**
+     * Saldo final en el percentil 95 (escenario optimista)
+     */
+    public BigDecimal getP95() {
+        return p95;
+    }
+
+    public BigDecimal getExpectedFinalBalance() {
+        return expectedFinalBalance;
+    }
+
+    /**
+     * Proporción de trayectorias que terminan por debajo del saldo inicial (0 a 1)
+     */
+    public double getProbabilityOfLoss() {
+        return probabilityOfLoss;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Trayectorias simuladas por segundo
+     */
+    public double getPathsPerSecond() {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return paths / (elapsedNanos / 1_000_000_000d);
+    }
+}
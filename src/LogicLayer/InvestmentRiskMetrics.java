@@ -0,0 +1,128 @@
+package LogicLayer;
+
+import java.math.BigDecimal;
+
+/**
+ * Métricas de riesgo de una cuenta de inversión calculadas incrementalmente
+ * Cada día aplicado actualiza la varianza en línea (Welford), el pico y la máxima caída
+ * de un índice de rendimiento y un estimador del percentil 5 de las tasas diarias para el VaR
+ * histórico.
+ * El índice acumula (1 + tasa diaria) desde 1, por lo que la caída mide solo el rendimiento;
+ * los depósitos y retiros entre días no la afectan
+ */
+public class InvestmentRiskMetrics {
+    // Días hábiles por año para anualizar
+    private static final double TRADING_DAYS_PER_YEAR = 252;
+
+    // Nivel de confianza del VaR (95%)
+    private static final double VAR_QUANTILE = 0.05;
+
+    private long observations;
+    private double meanRate;
+    private double sumSquaredDeviations;
+    private double returnIndex;
+    private double peakIndex;
+    private double maxDrawdown;
+    private final StreamingQuantile rateQuantile;
+
+    public InvestmentRiskMetrics() {
+        this(new StreamingQuantile(VAR_QUANTILE));
+        this.returnIndex = 1;
+        this.peakIndex = 1;
+    }
+
+    private InvestmentRiskMetrics(StreamingQuantile rateQuantile) {
+        this.rateQuantile = rateQuantile;
+    }
+
+    /**
+     * Copia de las métricas que no cambia con los días aplicados después
+     */
+    InvestmentRiskMetrics snapshot() {
+        InvestmentRiskMetrics copy = new InvestmentRiskMetrics(rateQuantile.copy());
+        copy.observations = observations;
+        copy.meanRate = meanRate;
+        copy.sumSquaredDeviations = sumSquaredDeviations;
+        copy.returnIndex = returnIndex;
+        copy.peakIndex = peakIndex;
+        copy.maxDrawdown = maxDrawdown;
+        return copy;
+    }
+
+    /**
+     * Incorpora un día aplicado
+     */
+    void update(BigDecimal dailyRate) {
+        double rate = dailyRate.doubleValue();
+
+        observations++;
+        double delta = rate - meanRate;
+        meanRate += delta / observations;
+        sumSquaredDeviations += delta * (rate - meanRate);
+
+        returnIndex *= 1 + rate;
+        if (returnIndex > peakIndex) {
+            peakIndex = returnIndex;
+        } else {
+            maxDrawdown = Math.max(maxDrawdown, (peakIndex - returnIndex) / peakIndex);
+        }
+
+        rateQuantile.add(rate);
+    }
+
+    public long getObservations() {
+        return observations;
+    }
+
+    /**
+     * Tasa diaria promedio
+     */
+    public double getMeanDailyRate() {
+        return meanRate;
+    }
+
+    /**
+     * Volatilidad diaria (desvío estándar muestral de las tasas)
+     */
+    public double getDailyVolatility() {
+        if (observations < 2) {
+            return 0;
+        }
+        return Math.sqrt(sumSquaredDeviations / (observations - 1));
+    }
+
+    /**
+     * Volatilidad anualizada
+     */
+    public double getAnnualizedVolatility() {
+        return getDailyVolatility() * Math.sqrt(TRADING_DAYS_PER_YEAR);
+    }
+
+    /**
+     * Máxima caída del índice de rendimiento desde un pico, como fracción del pico (0 a 1)
+     */
+    public double getMaxDrawdown() {
+        return maxDrawdown;
+    }
+
+    /**
+     * Índice tipo Sharpe anualizado (tasa libre de riesgo cero)
+     */
+    public double getSharpeRatio() {
+        double volatility = getDailyVolatility();
+        if (volatility == 0) {
+            return 0;
+        }
+        return meanRate / volatility * Math.sqrt(TRADING_DAYS_PER_YEAR);
+    }
+
+    /**
+     * Valor en riesgo histórico diario al 95%, como fracción del saldo (0 si no hay pérdida esperada)
+     */
+    public double getValueAtRisk95() {
+        if (observations == 0) {
+            return 0;
+        }
+        return Math.max(0, -rateQuantile.getEstimate());
+    }
+}
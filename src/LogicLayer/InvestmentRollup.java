@@ -0,0 +1,117 @@
+package LogicLayer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Resumen de un período (semana o mes) del historial de una inversión
+ * Guarda saldo de apertura, máximo, mínimo y cierre, ganancia total y días alcistas/bajistas
+ * Se actualiza incrementalmente a medida que se aplican los rendimientos diarios
+ */
+public class InvestmentRollup {
+    private final RollupPeriod period;
+    private final LocalDate periodStart;
+    private final BigDecimal open;
+    private BigDecimal high;
+    private BigDecimal low;
+    private BigDecimal close;
+    private BigDecimal totalProfit;
+    private int days;
+    private int bullishDays;
+    private int bearishDays;
+
+    /**
+     * Crea el resumen de un período a partir de su primer día
+     */
+    public InvestmentRollup(RollupPeriod period, InvestmentHistory firstRecord) {
+        this.period = period;
+        this.periodStart = period.periodStart(firstRecord.getDate());
+        this.open = firstRecord.getBalanceBefore();
+        this.high = open;
+        this.low = open;
+        this.close = open;
+        this.totalProfit = BigDecimal.ZERO;
+        add(firstRecord);
+    }
+
+    private InvestmentRollup(InvestmentRollup other) {
+        this.period = other.period;
+        this.periodStart = other.periodStart;
+        this.open = other.open;
+        this.high = other.high;
+        this.low = other.low;
+        this.close = other.close;
+        this.totalProfit = other.totalProfit;
+        this.days = other.days;
+        this.bullishDays = other.bullishDays;
+        this.bearishDays = other.bearishDays;
+    }
+
+    /**
+     * Copia del resumen que no cambia con los días aplicados después
+     */
+    InvestmentRollup copy() {
+        return new InvestmentRollup(this);
+    }
+
+    /**
+     * Incorpora un día al resumen
+     */
+    void add(InvestmentHistory record) {
+        BigDecimal balance = record.getBalanceAfter();
+        if (balance.compareTo(high) > 0) {
+            high = balance;
+        }
+        if (balance.compareTo(low) < 0) {
+            low = balance;
+        }
+        close = balance;
+        totalProfit = totalProfit.add(record.getProfit());
+        days++;
+        if (record.isBullish()) {
+            bullishDays++;
+        } else if (record.isBearish()) {
+            bearishDays++;
+        }
+    }
+
+    public RollupPeriod getPeriod() {
+        return period;
+    }
+
+    public LocalDate getPeriodStart() {
+        return periodStart;
+    }
+
+    public BigDecimal getOpen() {
+        return open;
+    }
+
+    public BigDecimal getHigh() {
+        return high;
+    }
+
+    public BigDecimal getLow() {
+        return low;
+    }
+
+    public BigDecimal getClose() {
+        return close;
+    }
+
+    public BigDecimal getTotalProfit() {
+        return totalProfit;
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    public int getBullishDays() {
+        return bullishDays;
+    }
+
+    public int getBearishDays() {
+        return bearishDays;
+    }
+}
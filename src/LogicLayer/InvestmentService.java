@@ -3,18 +3,71 @@ package LogicLayer;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Servicio que gestiona las operaciones de inversión
  * Aplica rendimientos diarios y mantiene el historial
+ * En modo diferido el avance de día solo registra las tasas y cada cuenta se pone al día al consultarla
+ * Se suscribe al reloj simulado para aplicar los rendimientos en cada cambio de día
  */
-public class InvestmentService {
+public class InvestmentService implements DayChangeListener {
     private final AccountDao accountDao;
     private final MarketSimulator marketSimulator;
+    private final MarketRateLog marketRateLog;
+    private volatile Map<Currency, BigDecimal> lastDailyRates;
 
     public InvestmentService(AccountDao accountDao, MarketSimulator marketSimulator) {
+        this(accountDao, marketSimulator, null);
+    }
+
+    /**
+     * Constructor para el modo diferido
+     * @param marketRateLog registro de tasas compartido con AccountService (null para el modo inmediato)
+     */
+    public InvestmentService(AccountDao accountDao, MarketSimulator marketSimulator,
+                             MarketRateLog marketRateLog) {
         this.accountDao = accountDao;
         this.marketSimulator = marketSimulator;
+        this.marketRateLog = marketRateLog;
+    }
+
+    /**
+     * Indica si el servicio trabaja en modo diferido
+     */
+    public boolean isLazy() {
+        return marketRateLog != null;
+    }
+
+    /**
+     * Genera las tasas del día y las aplica
+     * En modo inmediato actualiza en lote todas las cuentas de inversión;
+     * en modo diferido solo registra las tasas (costo independiente de la cantidad de cuentas)
+     *
+     * @param currentDate nuevo día
+     * @return tasas generadas por moneda
+     */
+    public Map<Currency, BigDecimal> advanceDay(LocalDate currentDate) {
+        Map<Currency, BigDecimal> dailyRates = marketSimulator.generateDailyRates();
+        if (marketRateLog != null) {
+            marketRateLog.record(currentDate, dailyRates);
+        } else {
+            updateAllInvestmentAccountsBatched(currentDate, dailyRates);
+        }
+        lastDailyRates = dailyRates;
+        return dailyRates;
+    }
+
+    @Override
+    public void onDayChanged(LocalDate previousDay, LocalDate newDay) {
+        advanceDay(newDay);
+    }
+
+    /**
+     * Obtiene las tasas del último día aplicado (null si todavía no avanzó ningún día)
+     */
+    public Map<Currency, BigDecimal> getLastDailyRates() {
+        return lastDailyRates;
     }
 
     /**
@@ -47,5 +100,93 @@ public class InvestmentService {
             }
         }
     }
-}
 
+    /**
+     * Actualiza TODAS las cuentas de inversión del sistema aplicando a cada una
+     * la tasa del día de su moneda base
+     *
+     * @param currentDate fecha actual
+     * @param dailyRates tasas del día por moneda
+     */
+    public void updateAllInvestmentAccountsInSystem(LocalDate currentDate, Map<Currency, BigDecimal> dailyRates) {
+        List<Account> allAccounts = accountDao.findAll();
+
+        for (Account account : allAccounts) {
+            if (account instanceof InvestmentAccount) {
+                InvestmentAccount investmentAccount = (InvestmentAccount) account;
+                BigDecimal dailyRate = dailyRates.get(investmentAccount.getBaseCurrency());
+
+                if (dailyRate != null && investmentAccount.getLastUpdateDate().isBefore(currentDate)) {
+                    investmentAccount.applyDailyReturn(dailyRate, currentDate);
+                    accountDao.update(investmentAccount);
+                }
+            }
+        }
+    }
+
+    /**
+     * Igual que updateAllInvestmentAccountsInSystem, pero calcula los nuevos saldos en lote
+     * sobre arreglos de centavos con DailyReturnKernel y luego los registra en cada cuenta
+     * Las cuentas cuyo saldo o tasa no se representan exactamente en punto fijo usan el cálculo BigDecimal
+     *
+     * @param currentDate fecha actual
+     * @param dailyRates tasas del día por moneda
+     */
+    public void updateAllInvestmentAccountsBatched(LocalDate currentDate, Map<Currency, BigDecimal> dailyRates) {
+        Currency[] currencies = Currency.values();
+        long[] rateUnitsByCurrency = new long[currencies.length];
+        boolean[] fixedPointRate = new boolean[currencies.length];
+        for (Currency currency : currencies) {
+            BigDecimal rate = dailyRates.get(currency);
+            if (rate != null) {
+                try {
+                    rateUnitsByCurrency[currency.ordinal()] = DailyReturnKernel.toRateUnits(rate);
+                    fixedPointRate[currency.ordinal()] = true;
+                } catch (ArithmeticException e) {
+                    fixedPointRate[currency.ordinal()] = false;
+                }
+            }
+        }
+
+        // Reunir las cuentas a actualizar en arreglos contiguos
+        List<Account> allAccounts = accountDao.findAll();
+        InvestmentAccount[] batch = new InvestmentAccount[allAccounts.size()];
+        long[] cents = new long[allAccounts.size()];
+        byte[] currencyIndex = new byte[allAccounts.size()];
+        int size = 0;
+
+        for (Account account : allAccounts) {
+            if (!(account instanceof InvestmentAccount)) {
+                continue;
+            }
+            InvestmentAccount investmentAccount = (InvestmentAccount) account;
+            Currency currency = investmentAccount.getBaseCurrency();
+            BigDecimal dailyRate = dailyRates.get(currency);
+
+            if (dailyRate == null || !investmentAccount.getLastUpdateDate().isBefore(currentDate)) {
+                continue;
+            }
+
+            if (fixedPointRate[currency.ordinal()]
+                    && DailyReturnKernel.isRepresentableInCents(investmentAccount.getBalance())) {
+                batch[size] = investmentAccount;
+                cents[size] = DailyReturnKernel.toCents(investmentAccount.getBalance());
+                currencyIndex[size] = (byte) currency.ordinal();
+                size++;
+            } else {
+                investmentAccount.applyDailyReturn(dailyRate, currentDate);
+                accountDao.update(investmentAccount);
+            }
+        }
+
+        DailyReturnKernel.applyRates(cents, currencyIndex, rateUnitsByCurrency, 0, size);
+
+        // Registrar los resultados en cada cuenta
+        for (int i = 0; i < size; i++) {
+            InvestmentAccount investmentAccount = batch[i];
+            investmentAccount.applyPrecomputedReturn(dailyRates.get(investmentAccount.getBaseCurrency()),
+                    currentDate, DailyReturnKernel.fromCents(cents[i]));
+            accountDao.update(investmentAccount);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package LogicLayer;
+
+/**
+ * Ordenamiento estable de claves primitivas que arrastra un valor entero por clave
+ * (mergesort sin objetos por elemento; un rango ya ordenado se recorre una sola vez)
+ */
+final class KeySort {
+    private static final int INSERTION_LIMIT = 16;
+
+    private KeySort() {
+    }
+
+    /**
+     * Ordena por clave el rango [from, to), moviendo los valores junto con las claves
+     * @param scratchKeys auxiliar de al menos {@code to} elementos
+     * @param scratchValues auxiliar de al menos {@code to} elementos
+     */
+    static void sort(long[] keys, int[] values, int from, int to, long[] scratchKeys, int[] scratchValues) {
+        if (to - from <= INSERTION_LIMIT) {
+            for (int i = from + 1; i < to; i++) {
+                long key = keys[i];
+                int value = values[i];
+                int j = i - 1;
+                while (j >= from && keys[j] > key) {
+                    keys[j + 1] = keys[j];
+                    values[j + 1] = values[j];
+                    j--;
+                }
+                keys[j + 1] = key;
+                values[j + 1] = value;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        sort(keys, values, from, mid, scratchKeys, scratchValues);
+        sort(keys, values, mid, to, scratchKeys, scratchValues);
+        if (keys[mid - 1] <= keys[mid]) {
+            return;
+        }
+        System.arraycopy(keys, from, scratchKeys, from, to - from);
+        System.arraycopy(values, from, scratchValues, from, to - from);
+        int i = from;
+        int j = mid;
+        for (int n = from; n < to; n++) {
+            if (j >= to || (i < mid && scratchKeys[i] <= scratchKeys[j])) {
+                keys[n] = scratchKeys[i];
+                values[n] = scratchValues[i++];
+            } else {
+                keys[n] = scratchKeys[j];
+                values[n] = scratchValues[j++];
+            }
+        }
+    }
+}
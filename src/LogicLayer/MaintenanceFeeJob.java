@@ -0,0 +1,71 @@
+package LogicLayer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trabajo de fin de día que cobra la comisión mensual de mantenimiento de las cuentas de ahorro
+ * Se cobra al cerrar el último día de cada mes, con un monto fijo por moneda
+ */
+public class MaintenanceFeeJob implements BatchJob {
+    private static final String FEE_NOTE = "Comisión de mantenimiento";
+
+    private final AccountDao accountDao;
+    private final TransactionDao transactionDao;
+    private final Map<Currency, BigDecimal> monthlyFees;
+
+    /**
+     * @param monthlyFees comisión mensual por moneda (las monedas sin comisión no se cobran)
+     */
+    public MaintenanceFeeJob(AccountDao accountDao, TransactionDao transactionDao,
+                             Map<Currency, BigDecimal> monthlyFees) {
+        this.accountDao = accountDao;
+        this.transactionDao = transactionDao;
+        this.monthlyFees = new EnumMap<>(monthlyFees);
+    }
+
+    @Override
+    public String getName() {
+        return "comision-mantenimiento";
+    }
+
+    @Override
+    public int processPartition(List<Account> accounts, LocalDate businessDay) {
+        if (businessDay.getDayOfMonth() != businessDay.lengthOfMonth()) {
+            return 0;
+        }
+
+        List<Transaction> transactions = new ArrayList<>();
+        try {
+            for (Account account : accounts) {
+                if (!(account instanceof SavingsAccount) || account.isBatchApplied(getName(), businessDay)) {
+                    continue;
+                }
+                BigDecimal fee = monthlyFees.get(account.getBaseCurrency());
+                if (fee == null || fee.compareTo(BigDecimal.ZERO) <= 0) {
+                    continue;
+                }
+
+                if (account.hasSufficientFunds(fee)) {
+                    account.debit(fee);
+                    account.markBatchApplied(getName(), businessDay);
+                    transactions.add(new WithdrawTransaction(TransactionStatus.SETTLED, fee,
+                            account.getBaseCurrency(), FEE_NOTE, account));
+                    accountDao.update(account);
+                } else {
+                    account.markBatchApplied(getName(), businessDay);
+                    transactions.add(new WithdrawTransaction(TransactionStatus.FAILED, fee,
+                            account.getBaseCurrency(), "Error: Fondos insuficientes para " + FEE_NOTE, account));
+                }
+            }
+        } finally {
+            // Si la porción se interrumpe, las cuentas ya cobradas conservan su transacción
+            transactionDao.saveAll(transactions);
+        }
+        return transactions.size();
+    }
+}
@@ -0,0 +1,30 @@
+package LogicLayer;
+
+import java.util.SplittableRandom;
+
+/**
+ * Modelo de mercado que genera la tasa de rendimiento de un día
+ * Las implementaciones pueden guardar estado entre días (ej: régimen actual),
+ * por eso cada moneda usa su propia instancia y no se comparten entre hilos
+ */
+public interface MarketModel {
+    /**
+     * Genera la tasa del próximo día
+     *
+     * @param rng generador de números aleatorios a usar
+     * @return tasa diaria (ej: 0.01 = +1%), siempre mayor que -1
+     */
+    double nextRate(SplittableRandom rng);
+
+    /**
+     * Crea un modelo con los mismos parámetros y el estado inicial, para simular una trayectoria
+     * independiente (ej: en paralelo durante una proyección)
+     * Los modelos sin estado pueden devolverse a sí mismos
+     */
+    MarketModel copy();
+
+    /**
+     * Nombre descriptivo del modelo
+     */
+    String getName();
+}
@@ -0,0 +1,78 @@
+package LogicLayer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Registro global de las tasas diarias del mercado
+ * En modo diferido el avance de día solo agrega una entrada aquí y cada cuenta de inversión
+ * aplica los días pendientes la próxima vez que se la consulta
+ */
+public class MarketRateLog {
+    private final ConcurrentSkipListMap<LocalDate, Map<Currency, BigDecimal>> ratesByDay;
+    private volatile LocalDate latestDate;
+
+    public MarketRateLog() {
+        this.ratesByDay = new ConcurrentSkipListMap<>();
+    }
+
+    /**
+     * Registra las tasas de un día
+     *
+     * @param date fecha del día, debe ser posterior al último día registrado
+     * @param dailyRates tasas del día por moneda
+     */
+    public synchronized void record(LocalDate date, Map<Currency, BigDecimal> dailyRates) {
+        if (date == null) {
+            throw new IllegalArgumentException("La fecha no puede ser nula");
+        }
+        if (dailyRates == null) {
+            throw new IllegalArgumentException("Las tasas no pueden ser nulas");
+        }
+        if (latestDate != null && !date.isAfter(latestDate)) {
+            throw new IllegalArgumentException("La fecha debe ser posterior al último día registrado");
+        }
+        ratesByDay.put(date, Collections.unmodifiableMap(new EnumMap<>(dailyRates)));
+        latestDate = date;
+    }
+
+    /**
+     * Obtiene el último día registrado (null si no hay ninguno)
+     */
+    public LocalDate getLatestDate() {
+        return latestDate;
+    }
+
+    /**
+     * Obtiene las tasas de un día (null si no fue registrado)
+     */
+    public Map<Currency, BigDecimal> getRates(LocalDate date) {
+        return ratesByDay.get(date);
+    }
+
+    /**
+     * Obtiene los días registrados posteriores a una fecha y hasta otra (inclusive), en orden
+     *
+     * @param exclusiveFrom fecha desde (no incluida)
+     * @param inclusiveTo fecha hasta (incluida)
+     */
+    public NavigableMap<LocalDate, Map<Currency, BigDecimal>> daysBetween(LocalDate exclusiveFrom,
+                                                                        LocalDate inclusiveTo) {
+        if (!exclusiveFrom.isBefore(inclusiveTo)) {
+            return Collections.emptyNavigableMap();
+        }
+        return ratesByDay.subMap(exclusiveFrom, false, inclusiveTo, true);
+    }
+
+    /**
+     * Cantidad de días registrados
+     */
+    public int size() {
+        return ratesByDay.size();
+    }
+}
@@ -2,50 +2,135 @@ package LogicLayer;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.Random;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
 
 /**
  * Simulador de mercado que genera tasas de interés diarias
- * Utiliza una combinación de fluctuaciones normales y eventos extremos
+ * Cada moneda tiene su propio modelo de mercado (por defecto el modelo uniforme con eventos extremos)
+ * Se construye a partir de una semilla: la misma semilla reproduce la misma secuencia de tasas
+ * y los mismos flujos independientes para simulaciones paralelas
  */
 public class MarketSimulator {
-    // Tasas normales
-    private static final double NORMAL_MIN_RATE = -0.02;  // -2%
-    private static final double NORMAL_MAX_RATE = 0.03;   // +3%
+    // Constante de Weyl usada para separar los flujos derivados de la semilla
+    private static final long STREAM_GAMMA = 0x9E3779B97F4A7C15L;
 
-    // Tasas extremas
-    private static final double EXTREME_MIN_RATE = -0.08; // -8%
-    private static final double EXTREME_MAX_RATE = 0.12;  // +12%
+    // Modelo usado cuando no se indica moneda (generateDailyRate y proyecciones sin moneda)
+    private static final MarketModel DEFAULT_MODEL = new TwoRegimeMarketModel();
 
-    // Probabilidad de evento extremo (5%)
-    private static final double EXTREME_EVENT_PROBABILITY = 0.05;
-
-    private final Random random;
+    private final long seed;
+    private final SplittableRandom random;
+    private final Map<Currency, MarketModel> models;
+    private final Map<Currency, SplittableRandom> currencyStreams;
 
+    /**
+     * Crea un simulador con una semilla aleatoria
+     */
     public MarketSimulator() {
-        this.random = new Random();
+        this(new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Crea un simulador reproducible a partir de una semilla
+     */
+    public MarketSimulator(long seed) {
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+        this.models = new EnumMap<>(Currency.class);
+        this.currencyStreams = new EnumMap<>(Currency.class);
+
+        // Cada moneda usa un flujo propio (identificadores negativos, distintos de los bloques paralelos)
+        for (Currency currency : Currency.values()) {
+            models.put(currency, new TwoRegimeMarketModel());
+            currencyStreams.put(currency, newStream(-1L - currency.ordinal()));
+        }
+    }
+
+    /**
+     * Obtiene la semilla con la que se construyó el simulador
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Configura el modelo de mercado de una moneda
+     */
+    public synchronized void setModel(Currency currency, MarketModel model) {
+        if (currency == null) {
+            throw new IllegalArgumentException("La moneda no puede ser nula");
+        }
+        if (model == null) {
+            throw new IllegalArgumentException("El modelo no puede ser nulo");
+        }
+        models.put(currency, model);
+    }
+
+    /**
+     * Obtiene el modelo de mercado configurado para una moneda
+     */
+    public synchronized MarketModel getModel(Currency currency) {
+        return models.get(currency);
+    }
+
+    /**
+     * Crea un generador independiente identificado por streamId
+     * El resultado depende solo de la semilla y del identificador (no del hilo que lo pide),
+     * por lo que cada tarea paralela obtiene siempre el mismo flujo sin compartir estado
+     *
+     * @param streamId identificador de la tarea (ej: índice de bloque de una proyección)
+     * @return generador propio de la tarea, no debe compartirse entre hilos
+     */
+    public SplittableRandom newStream(long streamId) {
+        return new SplittableRandom(mix64(seed + STREAM_GAMMA * (streamId + 1)));
     }
 
     /**
-     * Genera una tasa de interés diaria aleatoria
+     * Genera una tasa de interés diaria aleatoria con el modelo uniforme con eventos extremos
      * El 95% del tiempo genera tasas normales (-2% a +3%)
      * El 5% del tiempo genera tasas extremas (-8% a +12%)
      *
      * @return tasa de interés diaria como BigDecimal
      */
-    public BigDecimal generateDailyRate() {
-        double rate;
+    public synchronized BigDecimal generateDailyRate() {
+        return toRate(DEFAULT_MODEL.nextRate(random));
+    }
 
-        // Determinar si es un evento extremo
-        if (random.nextDouble() < EXTREME_EVENT_PROBABILITY) {
-            // Evento extremo
-            rate = EXTREME_MIN_RATE + (EXTREME_MAX_RATE - EXTREME_MIN_RATE) * random.nextDouble();
-        } else {
-            // Fluctuación normal
-            rate = NORMAL_MIN_RATE + (NORMAL_MAX_RATE - NORMAL_MIN_RATE) * random.nextDouble();
+    /**
+     * Genera las tasas del día para todas las monedas en una sola llamada
+     * Cada moneda usa su propio modelo y su propio flujo aleatorio
+     *
+     * @return tasa del día por moneda
+     */
+    public synchronized Map<Currency, BigDecimal> generateDailyRates() {
+        Map<Currency, BigDecimal> rates = new EnumMap<>(Currency.class);
+        for (Currency currency : Currency.values()) {
+            rates.put(currency, toRate(models.get(currency).nextRate(currencyStreams.get(currency))));
         }
+        return rates;
+    }
 
+    /**
+     * Obtiene el modelo uniforme con eventos extremos, usado cuando no se indica moneda
+     */
+    static MarketModel getDefaultModel() {
+        return DEFAULT_MODEL;
+    }
+
+    /**
+     * Convierte una tasa double a BigDecimal con 5 decimales
+     */
+    private static BigDecimal toRate(double rate) {
         return BigDecimal.valueOf(rate).setScale(5, RoundingMode.HALF_UP);
     }
-}
 
+    /**
+     * Función de mezcla de 64 bits (finalizador de SplitMix64)
+     */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -1,16 +1,25 @@
 package LogicLayer;
 
 import javax.swing.*;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Servicio que maneja toda la lógica de menús y diálogos de usuario
  * Separa la lógica de presentación del Main.java
  */
 public class MenuUIService {
+    // Cantidad máxima de resultados de una búsqueda de transacciones
+    private static final int SEARCH_RESULT_LIMIT = 200;
+
     private final AuthService authService;
     private final AccountService accountService;
     private final RegistrationService registrationService;
@@ -18,11 +27,15 @@ public class MenuUIService {
     private final UIDataService uiDataService;
     private final RateProvider rateProvider;
     private final InvestmentService investmentService;
+    private final ProjectionService projectionService;
+    private final StandingOrderService standingOrderService;
+    private final SimulatedClock clock;
 
     public MenuUIService(AuthService authService, AccountService accountService,
                         RegistrationService registrationService, TransferService transferService,
                         UIDataService uiDataService, RateProvider rateProvider,
-                        InvestmentService investmentService) {
+                        InvestmentService investmentService, ProjectionService projectionService,
+                        StandingOrderService standingOrderService, SimulatedClock clock) {
         this.authService = authService;
         this.accountService = accountService;
         this.registrationService = registrationService;
@@ -30,6 +43,9 @@ public class MenuUIService {
         this.uiDataService = uiDataService;
         this.rateProvider = rateProvider;
         this.investmentService = investmentService;
+        this.projectionService = projectionService;
+        this.standingOrderService = standingOrderService;
+        this.clock = clock;
     }
 
     /**
@@ -77,7 +93,9 @@ public class MenuUIService {
                 "Depositar",
                 "Retirar",
                 "Transferir",
+                "Transferencias Programadas",
                 "Ver Historial",
+                "Buscar Transacciones",
                 "Resumen Total",
                 "Inversiones",
                 "Cerrar Sesión"
@@ -85,7 +103,7 @@ public class MenuUIService {
 
         int choice = JOptionPane.showOptionDialog(null,
                 "Usuario: " + clientName + "\n" +
-                "Día actual: " + SimulatedClock.getCurrentDay() + "\n\n" +
+                "Día actual: " + clock.getCurrentDay() + "\n\n" +
                 "Seleccione una operación:",
                 "Sistema Bancario - Menú Principal",
                 JOptionPane.DEFAULT_OPTION,
@@ -111,15 +129,21 @@ public class MenuUIService {
                 handleTransfer();
                 break;
             case 5:
-                showTransactionHistory();
+                showStandingOrdersMenu();
                 break;
             case 6:
-                showSummary();
+                showTransactionHistory();
                 break;
             case 7:
-                showInvestmentMenu();
+                searchTransactions();
                 break;
             case 8:
+                showSummary();
+                break;
+            case 9:
+                showInvestmentMenu();
+                break;
+            case 10:
             case JOptionPane.CLOSED_OPTION:
                 authService.logout();
                 JOptionPane.showMessageDialog(null,
@@ -813,6 +837,253 @@ public class MenuUIService {
         }
     }
 
+    /**
+     * Muestra el menú de transferencias programadas
+     */
+    private void showStandingOrdersMenu() {
+        String[] options = {"Programar Transferencia", "Ver Programadas", "Cancelar Programada", "Volver"};
+        int choice = JOptionPane.showOptionDialog(null,
+                "Día actual: " + clock.getCurrentDay() + "\n\n" +
+                "Las transferencias programadas se ejecutan al comenzar el día indicado.\n" +
+                "Si fallan se reintentan al día siguiente.",
+                "Transferencias Programadas",
+                JOptionPane.DEFAULT_OPTION,
+                JOptionPane.INFORMATION_MESSAGE,
+                null,
+                options,
+                options[0]);
+
+        switch (choice) {
+            case 0:
+                scheduleTransfer();
+                break;
+            case 1:
+                showStandingOrders();
+                break;
+            case 2:
+                cancelStandingOrder();
+                break;
+        }
+    }
+
+    /**
+     * Programa una transferencia única o recurrente
+     */
+    private void scheduleTransfer() {
+        Account source = selectAccount("Seleccione la cuenta origen:");
+        if (source == null) return;
+
+        String[] transferOptions = {"A mi propia cuenta", "A un tercero"};
+        int transferType = JOptionPane.showOptionDialog(null,
+                "¿A quién desea transferir?",
+                "Tipo de Transferencia",
+                JOptionPane.DEFAULT_OPTION,
+                JOptionPane.QUESTION_MESSAGE,
+                null,
+                transferOptions,
+                transferOptions[0]);
+
+        if (transferType == JOptionPane.CLOSED_OPTION) return;
+
+        Account target = (transferType == 0)
+                ? handleOwnAccountTransfer(source)
+                : handleThirdPartyTransfer(source);
+
+        if (target == null) return;
+
+        RecurrenceFrequency frequency = (RecurrenceFrequency) JOptionPane.showInputDialog(null,
+                "Seleccione la periodicidad:",
+                "Programar Transferencia",
+                JOptionPane.QUESTION_MESSAGE,
+                null,
+                RecurrenceFrequency.values(),
+                RecurrenceFrequency.MONTHLY);
+
+        if (frequency == null) return;
+
+        try {
+            String startStr = (String) JOptionPane.showInputDialog(null,
+                    "Fecha de la primera ejecución (AAAA-MM-DD):",
+                    "Programar Transferencia",
+                    JOptionPane.QUESTION_MESSAGE,
+                    null,
+                    null,
+                    clock.getCurrentDay().plusDays(1).toString());
+
+            if (startStr == null || startStr.trim().isEmpty()) return;
+            LocalDate startDate = LocalDate.parse(startStr.trim());
+
+            LocalDate endDate = null;
+            if (frequency != RecurrenceFrequency.ONCE) {
+                String endStr = JOptionPane.showInputDialog(null,
+                        "Fecha de fin (AAAA-MM-DD, vacío = sin fin):",
+                        "Programar Transferencia",
+                        JOptionPane.QUESTION_MESSAGE);
+                if (endStr == null) return;
+                if (!endStr.trim().isEmpty()) {
+                    endDate = LocalDate.parse(endStr.trim());
+                }
+            }
+
+            String amountStr = JOptionPane.showInputDialog(null,
+                    "Ingrese el monto de cada transferencia (en " + source.getBaseCurrency() + "):",
+                    "Programar Transferencia",
+                    JOptionPane.QUESTION_MESSAGE);
+
+            if (amountStr == null || amountStr.trim().isEmpty()) return;
+            BigDecimal amount = new BigDecimal(amountStr);
+
+            String note = JOptionPane.showInputDialog(null,
+                    "Ingrese una nota (opcional):",
+                    "Programar Transferencia",
+                    JOptionPane.QUESTION_MESSAGE);
+
+            StandingOrder order = standingOrderService.scheduleTransfer(source, target, amount, note,
+                    frequency, startDate, endDate);
+
+            JOptionPane.showMessageDialog(null,
+                    "Transferencia programada exitosamente\n\n" + order,
+                    "Éxito",
+                    JOptionPane.INFORMATION_MESSAGE);
+        } catch (DateTimeParseException e) {
+            JOptionPane.showMessageDialog(null,
+                    "Fecha inválida. Use el formato AAAA-MM-DD",
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE);
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(null,
+                    "Error: " + e.getMessage(),
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    /**
+     * Muestra las transferencias programadas de una cuenta
+     */
+    private void showStandingOrders() {
+        Account source = selectAccount("Seleccione la cuenta origen:");
+        if (source == null) return;
+
+        List<StandingOrder> orders = standingOrderService.listByAccount(source);
+        if (orders.isEmpty()) {
+            JOptionPane.showMessageDialog(null,
+                    "La cuenta no tiene transferencias programadas.",
+                    "Transferencias Programadas",
+                    JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("TRANSFERENCIAS PROGRAMADAS\n\n");
+        for (StandingOrder order : orders) {
+            sb.append("• ").append(order).append("\n");
+        }
+
+        JOptionPane.showMessageDialog(null,
+                sb.toString(),
+                "Transferencias Programadas",
+                JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    /**
+     * Cancela una transferencia programada
+     */
+    private void cancelStandingOrder() {
+        Account source = selectAccount("Seleccione la cuenta origen:");
+        if (source == null) return;
+
+        List<StandingOrder> orders = standingOrderService.listByAccount(source);
+        if (orders.isEmpty()) {
+            JOptionPane.showMessageDialog(null,
+                    "La cuenta no tiene transferencias programadas.",
+                    "Transferencias Programadas",
+                    JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+
+        String[] orderOptions = new String[orders.size()];
+        for (int i = 0; i < orders.size(); i++) {
+            orderOptions[i] = (i + 1) + ". " + orders.get(i);
+        }
+
+        String selected = (String) JOptionPane.showInputDialog(null,
+                "Seleccione la transferencia a cancelar:",
+                "Cancelar Programada",
+                JOptionPane.QUESTION_MESSAGE,
+                null,
+                orderOptions,
+                orderOptions[0]);
+
+        if (selected == null) return;
+
+        for (int i = 0; i < orderOptions.length; i++) {
+            if (orderOptions[i].equals(selected)) {
+                try {
+                    standingOrderService.cancel(orders.get(i).getId());
+                    JOptionPane.showMessageDialog(null,
+                            "Transferencia programada cancelada",
+                            "Éxito",
+                            JOptionPane.INFORMATION_MESSAGE);
+                } catch (Exception e) {
+                    JOptionPane.showMessageDialog(null,
+                            "Error: " + e.getMessage(),
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Busca transacciones por texto en las notas de todas las cuentas del cliente
+     */
+    private void searchTransactions() {
+        String query = JOptionPane.showInputDialog(null,
+                "Ingrese las palabras a buscar en las notas\n(se muestran las transacciones que las contienen a todas):",
+                "Buscar Transacciones",
+                JOptionPane.QUESTION_MESSAGE);
+
+        if (query == null || query.trim().isEmpty()) return;
+
+        try {
+            List<Transaction> results = accountService.searchTransactions(uiDataService.getCurrentClient(),
+                    query, SEARCH_RESULT_LIMIT);
+
+            if (results.isEmpty()) {
+                JOptionPane.showMessageDialog(null,
+                        "No se encontraron transacciones para: " + query,
+                        "Buscar Transacciones",
+                        JOptionPane.INFORMATION_MESSAGE);
+                return;
+            }
+
+            StringBuilder sb = new StringBuilder("=== RESULTADOS: ").append(query).append(" ===\n\n");
+            for (Transaction tx : results) {
+                tx.appendSummary(sb).append("\n\n");
+            }
+            if (results.size() == SEARCH_RESULT_LIMIT) {
+                sb.append("(Se muestran los ").append(SEARCH_RESULT_LIMIT).append(" resultados más recientes)\n");
+            }
+
+            JTextArea textArea = new JTextArea(sb.toString());
+            textArea.setEditable(false);
+            textArea.setRows(20);
+            textArea.setColumns(60);
+
+            JOptionPane.showMessageDialog(null,
+                    new JScrollPane(textArea),
+                    "Buscar Transacciones",
+                    JOptionPane.INFORMATION_MESSAGE);
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(null,
+                    "Error: " + e.getMessage(),
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
     /**
      * Muestra historial de transacciones
      */
@@ -820,8 +1091,8 @@ public class MenuUIService {
         Account account = selectAccount("Seleccione la cuenta para ver el historial:");
         if (account == null) return;
 
-        String history = uiDataService.formatTransactionHistory(account);
-        if (history == null) {
+        int count = accountService.countHistory(account);
+        if (count == 0) {
             JOptionPane.showMessageDialog(null,
                     "No hay transacciones para esta cuenta",
                     "Historial de Transacciones",
@@ -829,14 +1100,18 @@ public class MenuUIService {
             return;
         }
 
-        JTextArea textArea = new JTextArea(history);
-        textArea.setEditable(false);
-        textArea.setRows(20);
-        textArea.setColumns(60);
-        JScrollPane scrollPane = new JScrollPane(textArea);
+        // Las filas se cargan por páginas a medida que se desplaza la tabla
+        PagedTableModel<Transaction> model = uiDataService.createTransactionTableModel(account);
+        model.refresh();
+
+        JPanel panel = new JPanel(new BorderLayout(0, 8));
+        panel.add(new JLabel("Cuenta: " + account.type() + " | Saldo actual: " +
+                account.getBaseCurrency().getSymbol() + uiDataService.formatAmount(account.getBalance()) +
+                " | Transacciones: " + count), BorderLayout.NORTH);
+        panel.add(createHistoryScrollPane(model), BorderLayout.CENTER);
 
         JOptionPane.showMessageDialog(null,
-                scrollPane,
+                panel,
                 "Historial de Transacciones",
                 JOptionPane.INFORMATION_MESSAGE);
     }
@@ -910,12 +1185,13 @@ public class MenuUIService {
                     "Ver Estado Actual",
                     "Avanzar 1 Día",
                     "Ver Historial Completo",
+                    "Proyectar Rendimiento",
                     "Volver al Menú Principal"
             };
 
             int choice = JOptionPane.showOptionDialog(null,
                     "=== INVERSIONES ===\n\n" +
-                    "Día actual: " + SimulatedClock.getCurrentDay() + "\n\n" +
+                    "Día actual: " + clock.getCurrentDay() + "\n\n" +
                     "Seleccione una opción:",
                     "Menú de Inversiones",
                     JOptionPane.DEFAULT_OPTION,
@@ -935,6 +1211,9 @@ public class MenuUIService {
                     showFullInvestmentHistory(investmentAccounts);
                     break;
                 case 3:
+                    showInvestmentProjection(investmentAccounts);
+                    break;
+                case 4:
                 case JOptionPane.CLOSED_OPTION:
                     inInvestmentMenu = false;
                     break;
@@ -948,7 +1227,7 @@ public class MenuUIService {
     private void showCurrentInvestmentStatus(List<InvestmentAccount> investmentAccounts) {
         StringBuilder info = new StringBuilder();
         info.append("=== ESTADO ACTUAL DE INVERSIONES ===\n\n");
-        info.append("Día actual: ").append(SimulatedClock.getCurrentDay()).append("\n\n");
+        info.append("Día actual: ").append(clock.getCurrentDay()).append("\n\n");
 
         for (InvestmentAccount acc : investmentAccounts) {
             info.append("Cuenta de Inversión - ").append(acc.getBaseCurrency()).append("\n");
@@ -962,6 +1241,12 @@ public class MenuUIService {
                 info.append("Última tasa: ").append(uiDataService.formatRate(latest.getDailyRate())).append("\n");
                 info.append("Último rendimiento: ").append(acc.getBaseCurrency().getSymbol())
                     .append(uiDataService.formatAmount(latest.getProfit())).append("\n");
+
+                InvestmentRiskMetrics risk = acc.getRiskMetrics();
+                info.append("Volatilidad anual: ").append(String.format("%.2f%%", risk.getAnnualizedVolatility() * 100))
+                    .append(" | Máx. caída: ").append(String.format("%.2f%%", risk.getMaxDrawdown() * 100))
+                    .append(" | VaR 95%: ").append(String.format("%.2f%%", risk.getValueAtRisk95() * 100))
+                    .append("\n");
             } else {
                 info.append("Sin movimientos aún\n");
             }
@@ -978,29 +1263,40 @@ public class MenuUIService {
      * Avanza un día y muestra los resultados
      */
     private void advanceOneDayAndShowResult(List<InvestmentAccount> investmentAccounts) {
-        LocalDate previousDay = SimulatedClock.getCurrentDay();
-        SimulatedClock.advanceOneDay();
-        LocalDate currentDay = SimulatedClock.getCurrentDay();
+        LocalDate previousDay = clock.getCurrentDay();
 
-        // Generar tasa del día
-        BigDecimal dailyRate = investmentService.getMarketSimulator().generateDailyRate();
-
-        // Actualizar TODAS las cuentas de inversión del sistema
-        investmentService.updateAllInvestmentAccountsInSystem(currentDay, dailyRate);
+        // Avanzar el reloj ejecuta los procesos de fin de día (incluidos los rendimientos de inversión)
+        LocalDate currentDay = clock.advanceOneDay();
+        Map<Currency, BigDecimal> dailyRates = investmentService.getLastDailyRates();
 
         StringBuilder result = new StringBuilder();
         result.append("=== RESULTADOS DEL DÍA ===\n\n");
         result.append("Día anterior: ").append(previousDay).append("\n");
         result.append("Día actual: ").append(currentDay).append("\n\n");
-        result.append("Tasa del mercado: ").append(uiDataService.formatRate(dailyRate));
-
-        if (dailyRate.compareTo(BigDecimal.ZERO) > 0) {
-            result.append(" 📈 ALCISTA\n\n");
-        } else if (dailyRate.compareTo(BigDecimal.ZERO) < 0) {
-            result.append(" 📉 BAJISTA\n\n");
-        } else {
-            result.append(" ➡️ ESTABLE\n\n");
+        List<String> dayErrors = clock.getLastDayErrors();
+        if (!dayErrors.isEmpty()) {
+            result.append("Procesos de fin de día con errores:\n");
+            for (String error : dayErrors) {
+                result.append("  ⚠ ").append(error).append("\n");
+            }
+            result.append("\n");
+        }
+        result.append("Tasas del mercado:\n");
+
+        for (Map.Entry<Currency, BigDecimal> entry : dailyRates.entrySet()) {
+            BigDecimal dailyRate = entry.getValue();
+            result.append("  ").append(entry.getKey().name()).append(": ")
+                  .append(uiDataService.formatRate(dailyRate));
+
+            if (dailyRate.compareTo(BigDecimal.ZERO) > 0) {
+                result.append(" 📈 ALCISTA\n");
+            } else if (dailyRate.compareTo(BigDecimal.ZERO) < 0) {
+                result.append(" 📉 BAJISTA\n");
+            } else {
+                result.append(" ➡️ ESTABLE\n");
+            }
         }
+        result.append("\n");
 
         result.append("-------------------------------------\n");
         result.append("SUS CUENTAS DE INVERSIÓN:\n");
@@ -1032,6 +1328,136 @@ public class MenuUIService {
                 JOptionPane.INFORMATION_MESSAGE);
     }
 
+    /**
+     * Proyecta el saldo futuro de las cuentas de inversión mediante simulación Monte Carlo
+     */
+    private void showInvestmentProjection(List<InvestmentAccount> investmentAccounts) {
+        String daysStr = JOptionPane.showInputDialog(null,
+                "Ingrese la cantidad de días a proyectar (1 a " + ProjectionService.MAX_HORIZON_DAYS + "):",
+                "Proyección de Inversiones",
+                JOptionPane.QUESTION_MESSAGE);
+
+        if (daysStr == null) return;
+
+        int horizonDays;
+        try {
+            horizonDays = Integer.parseInt(daysStr.trim());
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(null,
+                    "Formato de número inválido",
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (horizonDays < 1 || horizonDays > ProjectionService.MAX_HORIZON_DAYS) {
+            JOptionPane.showMessageDialog(null,
+                    "La cantidad de días debe estar entre 1 y " + ProjectionService.MAX_HORIZON_DAYS,
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        String result;
+        try {
+            result = runProjections(investmentAccounts, horizonDays);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            JOptionPane.showMessageDialog(null,
+                    "Error al proyectar: " + e.getCause().getMessage(),
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        JOptionPane.showMessageDialog(null,
+                result,
+                "Proyección de Inversiones",
+                JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    /**
+     * Proyecta las cuentas con SwingWorker fuera del hilo de eventos mientras un diálogo modal
+     * muestra la cuenta en curso
+     * La simulación arranca al abrirse el diálogo y lo cierra al terminar
+     *
+     * @return texto con la proyección de cada cuenta
+     * @throws ExecutionException si alguna proyección falla
+     */
+    private String runProjections(List<InvestmentAccount> investmentAccounts, int horizonDays)
+            throws InterruptedException, ExecutionException {
+        JLabel status = new JLabel("Preparando la proyección...");
+        JProgressBar progressBar = new JProgressBar(0, investmentAccounts.size());
+        progressBar.setStringPainted(true);
+        JPanel panel = new JPanel(new BorderLayout(0, 8));
+        panel.setBorder(BorderFactory.createEmptyBorder(12, 12, 12, 12));
+        panel.add(status, BorderLayout.NORTH);
+        panel.add(progressBar, BorderLayout.CENTER);
+
+        JDialog dialog = new JDialog((Frame) null, "Proyección de Inversiones", true);
+        dialog.setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
+        dialog.setContentPane(panel);
+        dialog.setSize(420, 120);
+        dialog.setLocationRelativeTo(null);
+
+        SwingWorker<String, Integer> worker = new SwingWorker<>() {
+            @Override
+            protected String doInBackground() {
+                StringBuilder result = new StringBuilder();
+                result.append("=== PROYECCIÓN A ").append(horizonDays).append(" DÍAS ===\n\n");
+                for (int i = 0; i < investmentAccounts.size(); i++) {
+                    publish(i);
+                    appendProjection(result, investmentAccounts.get(i),
+                            projectionService.project(investmentAccounts.get(i), horizonDays, 100_000));
+                }
+                return result.toString();
+            }
+
+            @Override
+            protected void process(List<Integer> started) {
+                int current = started.get(started.size() - 1);
+                status.setText("Proyectando cuenta " + (current + 1) + " de " + investmentAccounts.size()
+                        + " (" + investmentAccounts.get(current).getBaseCurrency() + ")...");
+                progressBar.setValue(current);
+            }
+
+            @Override
+            protected void done() {
+                dialog.dispose();
+            }
+        };
+        dialog.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                worker.execute();
+            }
+        });
+        dialog.setVisible(true);
+        return worker.get();
+    }
+
+    /**
+     * Agrega al texto la proyección de una cuenta
+     */
+    private void appendProjection(StringBuilder result, InvestmentAccount acc, InvestmentProjection projection) {
+        String symbol = acc.getBaseCurrency().getSymbol();
+
+        result.append("Cuenta ").append(acc.getBaseCurrency()).append(":\n");
+        result.append("  Saldo actual: ").append(symbol)
+              .append(uiDataService.formatAmount(projection.getInitialBalance())).append("\n");
+        result.append("  Pesimista (P5): ").append(symbol)
+              .append(uiDataService.formatAmount(projection.getP5())).append("\n");
+        result.append("  Mediana (P50): ").append(symbol)
+              .append(uiDataService.formatAmount(projection.getP50())).append("\n");
+        result.append("  Optimista (P95): ").append(symbol)
+              .append(uiDataService.formatAmount(projection.getP95())).append("\n");
+        result.append("  Saldo esperado: ").append(symbol)
+              .append(uiDataService.formatAmount(projection.getExpectedFinalBalance())).append("\n");
+        result.append("  Probabilidad de pérdida: ")
+              .append(String.format("%.1f%%", projection.getProbabilityOfLoss() * 100)).append("\n\n");
+    }
+
     /**
      * Muestra el historial completo de todas las simulaciones
      */
@@ -1050,11 +1476,31 @@ public class MenuUIService {
         textArea.setEditable(false);
         textArea.setRows(20);
         textArea.setColumns(60);
-        JScrollPane scrollPane = new JScrollPane(textArea);
+
+        // Resumen en texto y una tabla paginada con el detalle diario de cada cuenta
+        JTabbedPane tabs = new JTabbedPane();
+        tabs.addTab("Resumen", new JScrollPane(textArea));
+        for (InvestmentAccount acc : investmentAccounts) {
+            PagedTableModel<InvestmentHistory> model = uiDataService.createInvestmentHistoryTableModel(acc);
+            model.refresh();
+            tabs.addTab("Diario " + acc.getBaseCurrency(), createHistoryScrollPane(model));
+        }
 
         JOptionPane.showMessageDialog(null,
-                scrollPane,
+                tabs,
                 "Historial de Inversiones",
                 JOptionPane.INFORMATION_MESSAGE);
     }
+
+    /**
+     * Crea la tabla desplazable de un historial paginado
+     */
+    private JScrollPane createHistoryScrollPane(PagedTableModel<?> model) {
+        JTable table = new JTable(model);
+        table.setFillsViewportHeight(true);
+        table.getTableHeader().setReorderingAllowed(false);
+        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.setPreferredSize(new Dimension(760, 400));
+        return scrollPane;
+    }
 }
@@ -0,0 +1,678 @@
+package LogicLayer;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Implementación del DAO de transacciones con los registros fuera del heap
+ * Las transacciones se guardan en segmentos de columnas (memoria directa, solo se agregan) y cada
+ * registro enlaza con la transacción anterior y la siguiente de sus cuentas, por lo que el historial
+ * de una cuenta se recorre sin índices en el heap. El recolector de basura no recorre los registros:
+ * en el heap solo quedan las cuentas, las reversiones y los resúmenes precalculados.
+ * Las búsquedas por nota y por criterios recorren los registros (desde el más reciente) en lugar
+ * de usar índices secundarios
+ */
+public class OffHeapTransactionDao implements TransactionDao {
+    // Registros por segmento (potencia de dos)
+    private static final int SEGMENT_SHIFT = 16;
+    private static final int SEGMENT_RECORDS = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_RECORDS - 1;
+
+    // Bytes de notas por bloque; una nota más larga ocupa un bloque propio
+    private static final int NOTE_BLOCK_BYTES = 1 << 20;
+    // Celdas por tramo del índice de ids
+    private static final int ID_TABLE_SHIFT = 20;
+
+    // Transacciones copiadas por cada toma del lock al recorrer una cuenta
+    private static final int ITERATION_CHUNK = 1024;
+
+    private static final TransactionType[] TYPES = TransactionType.values();
+    private static final TransactionStatus[] STATUSES = TransactionStatus.values();
+    private static final Currency[] CURRENCIES = Currency.values();
+
+    private static final int NONE = -1;
+    private static final byte WIDE_AMOUNT = Byte.MIN_VALUE;
+
+    private final List<Segment> segments;
+    private final List<ByteBuffer> noteBlocks;
+    private int size;
+
+    // Índice de ids con direccionamiento abierto, en tramos de memoria directa (posición + 1, 0 = libre)
+    private IntBuffer[] idTable;
+    private long idTableSlots;
+
+    // Cuentas numeradas en orden de aparición, con la primera y la última transacción de cada una
+    private final List<Account> accounts;
+    private final Map<UUID, Integer> accountNumbers;
+    private int[] firstPositions;
+    private int[] lastPositions;
+    private int[] positionCounts;
+
+    // Datos poco frecuentes, por posición
+    private final Map<Integer, BigDecimal> wideAmounts;
+    private final Map<Integer, UUID> reversedIds;
+    private final Map<Integer, Integer> reversalsByOriginal;
+
+    private final TransactionRollupCube rollups;
+
+    public OffHeapTransactionDao() {
+        this.segments = new ArrayList<>();
+        this.noteBlocks = new ArrayList<>();
+        this.idTable = newIdTable(1L << ID_TABLE_SHIFT);
+        this.accounts = new ArrayList<>();
+        this.accountNumbers = new HashMap<>();
+        this.firstPositions = new int[16];
+        this.lastPositions = new int[16];
+        this.positionCounts = new int[16];
+        this.wideAmounts = new HashMap<>();
+        this.reversedIds = new HashMap<>();
+        this.reversalsByOriginal = new HashMap<>();
+        this.rollups = new TransactionRollupCube();
+    }
+
+    /**
+     * Visitante de los registros de una cuenta, sin reconstruir las transacciones
+     */
+    @FunctionalInterface
+    public interface RecordVisitor {
+        /**
+         * @param createdMicros fecha de creación en microsegundos desde la época
+         * @param unscaledAmount monto sin escala (el monto es unscaledAmount / 10^scale)
+         * @param outgoing true si el dinero sale de la cuenta recorrida
+         */
+        void visit(long createdMicros, TransactionType type, TransactionStatus status,
+                   long unscaledAmount, int scale, boolean outgoing);
+    }
+
+    @Override
+    public synchronized void save(Transaction newTx) {
+        append(newTx);
+    }
+
+    @Override
+    public synchronized void saveAll(List<Transaction> newTxs) {
+        for (Transaction newTx : newTxs) {
+            append(newTx);
+        }
+    }
+
+    @Override
+    public synchronized Transaction findById(UUID id) {
+        int position = find(id);
+        return position != NONE ? read(position) : null;
+    }
+
+    @Override
+    public synchronized Transaction findReversalOf(UUID originalId) {
+        int original = find(originalId);
+        Integer reversal = original != NONE ? reversalsByOriginal.get(original) : null;
+        return reversal != null ? read(reversal) : null;
+    }
+
+    @Override
+    public synchronized List<Transaction> listByAccountId(UUID accountId) {
+        int account = accountNumber(accountId);
+        if (account == NONE) {
+            return Collections.emptyList();
+        }
+        // Copia ordenada por fecha (más reciente primero)
+        List<Transaction> sorted = new ArrayList<>(positionCounts[account]);
+        for (int position = lastPositions[account]; position != NONE; position = previous(position, account)) {
+            sorted.add(read(position));
+        }
+        sorted.sort((t1, t2) -> t2.getCreatedAt().compareTo(t1.getCreatedAt()));
+        return sorted;
+    }
+
+    @Override
+    public synchronized int countByAccountId(UUID accountId) {
+        int account = accountNumber(accountId);
+        return account != NONE ? positionCounts[account] : 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * La página se alcanza recorriendo la cadena de la cuenta desde el final, por lo que el costo
+     * crece con el desplazamiento
+     */
+    @Override
+    public synchronized List<Transaction> listByAccountId(UUID accountId, int offset, int limit) {
+        int account = accountNumber(accountId);
+        if (account == NONE || offset >= positionCounts[account] || limit <= 0) {
+            return Collections.emptyList();
+        }
+        int position = lastPositions[account];
+        for (int skipped = 0; skipped < offset; skipped++) {
+            position = previous(position, account);
+        }
+        List<Transaction> page = new ArrayList<>(Math.min(limit, positionCounts[account] - offset));
+        while (position != NONE && page.size() < limit) {
+            page.add(read(position));
+            position = previous(position, account);
+        }
+        return page;
+    }
+
+    @Override
+    public Iterator<Transaction> iterateByAccountId(UUID accountId) {
+        return new ChronologicalTransactionIterator(ITERATION_CHUNK) {
+            private int lastCollected = NONE;
+
+            @Override
+            void collectNew() {
+                synchronized (OffHeapTransactionDao.this) {
+                    int account = accountNumber(accountId);
+                    if (account == NONE) {
+                        return;
+                    }
+                    int position = lastCollected == NONE ? firstPositions[account]
+                            : OffHeapTransactionDao.this.next(lastCollected, account);
+                    while (position != NONE) {
+                        Segment segment = segments.get(position >>> SEGMENT_SHIFT);
+                        add(segment.createdMicros.get(position & SEGMENT_MASK), position);
+                        lastCollected = position;
+                        position = OffHeapTransactionDao.this.next(position, account);
+                    }
+                }
+            }
+
+            @Override
+            void materialize(int[] positions, int from, int to, List<Transaction> target) {
+                synchronized (OffHeapTransactionDao.this) {
+                    for (int i = from; i < to; i++) {
+                        target.add(read(positions[i]));
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Recorre los registros de una cuenta en orden de alta sin crear objetos por transacción
+     */
+    public synchronized void forEachRecord(UUID accountId, RecordVisitor visitor) {
+        int account = accountNumber(accountId);
+        if (account == NONE) {
+            return;
+        }
+        for (int position = firstPositions[account]; position != NONE; position = next(position, account)) {
+            Segment segment = segments.get(position >>> SEGMENT_SHIFT);
+            int i = position & SEGMENT_MASK;
+            visitor.visit(segment.createdMicros.get(i), TYPES[segment.types.get(i)],
+                    STATUSES[segment.statuses.get(i)], segment.amounts.get(i), segment.scales.get(i),
+                    segment.sources.get(i) == account);
+        }
+    }
+
+    @Override
+    public synchronized List<Transaction> searchByNote(String query, Collection<UUID> accountIds, int limit) {
+        List<String> terms = TransactionNoteIndex.tokenize(query);
+        List<Transaction> result = new ArrayList<>();
+        if (terms.isEmpty() || limit <= 0) {
+            return result;
+        }
+        AccountCursor cursor = new AccountCursor(accountIds);
+        for (int position = cursor.next(); position != NONE && result.size() < limit; position = cursor.next()) {
+            Segment segment = segments.get(position >>> SEGMENT_SHIFT);
+            int i = position & SEGMENT_MASK;
+            if (segment.noteLengths.get(i) == NONE) {
+                continue;
+            }
+            String note = readNote(segment.noteRefs.get(i), segment.noteLengths.get(i));
+            if (TransactionNoteIndex.tokenize(note).containsAll(terms)) {
+                result.add(read(position));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized List<Transaction> query(TransactionQuery query) {
+        List<UUID> accountIds = query.getAccountId() != null ? List.of(query.getAccountId()) : null;
+        AccountCursor cursor = new AccountCursor(accountIds);
+        // Límites en microsegundos que descartan registros sin reconstruirlos (luego se verifica el
+        // criterio exacto); los resultados quedan en orden de alta inverso
+        long fromMicros = query.getFrom() != null
+                ? ChronoUnit.MICROS.between(Instant.EPOCH, query.getFrom()) : Long.MIN_VALUE;
+        long toMicros = query.getTo() != null
+                ? ChronoUnit.MICROS.between(Instant.EPOCH, query.getTo()) + 1 : Long.MAX_VALUE;
+        Currency currency = query.getCurrency();
+
+        List<Transaction> result = new ArrayList<>();
+        for (int position = cursor.next(); position != NONE && result.size() < query.getLimit();
+             position = cursor.next()) {
+            Segment segment = segments.get(position >>> SEGMENT_SHIFT);
+            int i = position & SEGMENT_MASK;
+            long created = segment.createdMicros.get(i);
+            if (created < fromMicros || created > toMicros
+                    || currency != null && segment.currencies.get(i) != currency.ordinal()) {
+                continue;
+            }
+            Transaction tx = read(position);
+            if (query.matches(tx)) {
+                result.add(tx);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized List<TransactionRollup> getAccountRollups(UUID accountId, Currency currency,
+                                                                  RollupPeriod granularity,
+                                                                  LocalDate from, LocalDate to) {
+        return rollups.getAccountRollups(accountId, currency, granularity, from, to);
+    }
+
+    @Override
+    public synchronized List<TransactionRollup> getSystemRollups(Currency currency, RollupPeriod granularity,
+                                                                 LocalDate from, LocalDate to) {
+        return rollups.getSystemRollups(currency, granularity, from, to);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Los registros se leen en paralelo sin copiarlos al heap, por lo que las altas esperan a que
+     * termine la verificación
+     */
+    @Override
+    public synchronized boolean verifyRollups() {
+        List<Transaction> view = new AbstractList<>() {
+            @Override
+            public Transaction get(int position) {
+                return read(position);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+        return TransactionRollupCube.rebuild(view).equals(rollups);
+    }
+
+    /**
+     * Bytes de memoria directa reservados por los registros, las notas y el índice de ids
+     */
+    public synchronized long getOffHeapBytes() {
+        long bytes = (long) segments.size() * Segment.BYTES + idTableSlots * Integer.BYTES;
+        for (ByteBuffer block : noteBlocks) {
+            bytes += block.capacity();
+        }
+        return bytes;
+    }
+
+    private void append(Transaction tx) {
+        int position = size;
+        if (position == Integer.MAX_VALUE) {
+            throw new IllegalStateException("Se alcanzó la cantidad máxima de transacciones");
+        }
+        // Los resúmenes se actualizan primero: si el monto los desborda, la transacción se rechaza sin cambios
+        rollups.add(tx);
+        if ((position & SEGMENT_MASK) == 0) {
+            segments.add(new Segment());
+        }
+        Segment segment = segments.get(position >>> SEGMENT_SHIFT);
+        int i = position & SEGMENT_MASK;
+
+        segment.idHigh.put(i, tx.getId().getMostSignificantBits());
+        segment.idLow.put(i, tx.getId().getLeastSignificantBits());
+        segment.createdMicros.put(i, ChronoUnit.MICROS.between(Instant.EPOCH, tx.getCreatedAt()));
+        BigInteger unscaled = tx.getAmount().unscaledValue();
+        int scale = tx.getAmount().scale();
+        if (unscaled.bitLength() < 64 && scale > WIDE_AMOUNT && scale <= Byte.MAX_VALUE) {
+            segment.amounts.put(i, unscaled.longValue());
+            segment.scales.put(i, (byte) scale);
+        } else {
+            segment.scales.put(i, WIDE_AMOUNT);
+            wideAmounts.put(position, tx.getAmount());
+        }
+        segment.types.put(i, (byte) tx.getType().ordinal());
+        segment.statuses.put(i, (byte) tx.getStatus().ordinal());
+        segment.currencies.put(i, (byte) tx.getCurrency().ordinal());
+        writeNote(segment, i, tx.getNote());
+
+        Account source = null;
+        Account target = null;
+        if (tx instanceof DepositTransaction) {
+            target = ((DepositTransaction) tx).getTarget();
+        } else if (tx instanceof WithdrawTransaction) {
+            source = ((WithdrawTransaction) tx).getSource();
+        } else if (tx instanceof TransferTransaction) {
+            source = ((TransferTransaction) tx).getSource();
+            target = ((TransferTransaction) tx).getTarget();
+        }
+        int sourceNumber = source != null ? registerAccount(source) : NONE;
+        int targetNumber = target != null ? registerAccount(target) : NONE;
+        segment.sources.put(i, sourceNumber);
+        // Una transferencia a la misma cuenta se encadena una sola vez
+        segment.targets.put(i, targetNumber != sourceNumber ? targetNumber : NONE);
+        segment.prevSource.put(i, NONE);
+        segment.nextSource.put(i, NONE);
+        segment.prevTarget.put(i, NONE);
+        segment.nextTarget.put(i, NONE);
+        size++;
+
+        if (sourceNumber != NONE) {
+            link(sourceNumber, position);
+        }
+        if (targetNumber != NONE && targetNumber != sourceNumber) {
+            link(targetNumber, position);
+        }
+        indexId(position);
+
+        if (tx.isReversal()) {
+            reversedIds.put(position, tx.getReversedTransactionId());
+            int original = find(tx.getReversedTransactionId());
+            if (tx.isSuccessful() && original != NONE) {
+                reversalsByOriginal.put(original, position);
+            }
+        }
+    }
+
+    /**
+     * Reconstruye la transacción guardada en una posición
+     */
+    private Transaction read(int position) {
+        Segment segment = segments.get(position >>> SEGMENT_SHIFT);
+        int i = position & SEGMENT_MASK;
+
+        UUID id = new UUID(segment.idHigh.get(i), segment.idLow.get(i));
+        TransactionStatus status = STATUSES[segment.statuses.get(i)];
+        byte scale = segment.scales.get(i);
+        BigDecimal amount = scale == WIDE_AMOUNT
+                ? wideAmounts.get(position)
+                : BigDecimal.valueOf(segment.amounts.get(i), scale);
+        Currency currency = CURRENCIES[segment.currencies.get(i)];
+        Instant createdAt = Instant.EPOCH.plus(segment.createdMicros.get(i), ChronoUnit.MICROS);
+        int noteLength = segment.noteLengths.get(i);
+        String note = noteLength != NONE ? readNote(segment.noteRefs.get(i), noteLength) : null;
+        UUID reversedId = reversedIds.get(position);
+        int source = segment.sources.get(i);
+        int target = segment.targets.get(i);
+
+        switch (TYPES[segment.types.get(i)]) {
+            case DEPOSIT:
+                return new DepositTransaction(id, status, amount, currency, createdAt, note,
+                        accounts.get(target), reversedId);
+            case WITHDRAW:
+                return new WithdrawTransaction(id, status, amount, currency, createdAt, note,
+                        accounts.get(source), reversedId);
+            default:
+                return new TransferTransaction(id, status, amount, currency, createdAt, note,
+                        accounts.get(source), accounts.get(target != NONE ? target : source), reversedId);
+        }
+    }
+
+    // Enlaces entre las transacciones de una cuenta
+
+    private void link(int account, int position) {
+        int last = lastPositions[account];
+        if (last == NONE) {
+            firstPositions[account] = position;
+        } else {
+            setNext(last, account, position);
+        }
+        Segment segment = segments.get(position >>> SEGMENT_SHIFT);
+        int i = position & SEGMENT_MASK;
+        if (segment.sources.get(i) == account) {
+            segment.prevSource.put(i, last);
+        } else {
+            segment.prevTarget.put(i, last);
+        }
+        lastPositions[account] = position;
+        positionCounts[account]++;
+    }
+
+    private void setNext(int position, int account, int next) {
+        Segment segment = segments.get(position >>> SEGMENT_SHIFT);
+        int i = position & SEGMENT_MASK;
+        if (segment.sources.get(i) == account) {
+            segment.nextSource.put(i, next);
+        } else {
+            segment.nextTarget.put(i, next);
+        }
+    }
+
+    private int next(int position, int account) {
+        Segment segment = segments.get(position >>> SEGMENT_SHIFT);
+        int i = position & SEGMENT_MASK;
+        return segment.sources.get(i) == account ? segment.nextSource.get(i) : segment.nextTarget.get(i);
+    }
+
+    private int previous(int position, int account) {
+        Segment segment = segments.get(position >>> SEGMENT_SHIFT);
+        int i = position & SEGMENT_MASK;
+        return segment.sources.get(i) == account ? segment.prevSource.get(i) : segment.prevTarget.get(i);
+    }
+
+    private int accountNumber(UUID accountId) {
+        Integer number = accountNumbers.get(accountId);
+        return number != null ? number : NONE;
+    }
+
+    private int registerAccount(Account account) {
+        Integer number = accountNumbers.get(account.getId());
+        if (number != null) {
+            return number;
+        }
+        int newNumber = accounts.size();
+        accounts.add(account);
+        accountNumbers.put(account.getId(), newNumber);
+        if (newNumber == firstPositions.length) {
+            firstPositions = Arrays.copyOf(firstPositions, newNumber * 2);
+            lastPositions = Arrays.copyOf(lastPositions, newNumber * 2);
+            positionCounts = Arrays.copyOf(positionCounts, newNumber * 2);
+        }
+        firstPositions[newNumber] = NONE;
+        lastPositions[newNumber] = NONE;
+        return newNumber;
+    }
+
+    /**
+     * Recorre posiciones de la más reciente a la más antigua: todas, o las de un conjunto de
+     * cuentas combinando sus cadenas (una transferencia entre dos de ellas se visita una vez)
+     */
+    private final class AccountCursor {
+        private final int[] cursorAccounts;
+        private final int[] heads;
+        private int nextGlobal;
+
+        AccountCursor(Collection<UUID> accountIds) {
+            if (accountIds == null) {
+                this.cursorAccounts = null;
+                this.heads = null;
+                this.nextGlobal = size - 1;
+                return;
+            }
+            List<Integer> known = new ArrayList<>();
+            for (UUID accountId : accountIds) {
+                int account = accountNumber(accountId);
+                if (account != NONE && !known.contains(account)) {
+                    known.add(account);
+                }
+            }
+            this.cursorAccounts = new int[known.size()];
+            this.heads = new int[known.size()];
+            for (int k = 0; k < cursorAccounts.length; k++) {
+                cursorAccounts[k] = known.get(k);
+                heads[k] = lastPositions[cursorAccounts[k]];
+            }
+        }
+
+        int next() {
+            if (heads == null) {
+                return nextGlobal >= 0 ? nextGlobal-- : NONE;
+            }
+            int newest = NONE;
+            for (int head : heads) {
+                newest = Math.max(newest, head);
+            }
+            if (newest != NONE) {
+                for (int k = 0; k < heads.length; k++) {
+                    if (heads[k] == newest) {
+                        heads[k] = previous(newest, cursorAccounts[k]);
+                    }
+                }
+            }
+            return newest;
+        }
+    }
+
+    // Notas
+
+    private void writeNote(Segment segment, int i, String note) {
+        if (note == null) {
+            segment.noteLengths.put(i, NONE);
+            return;
+        }
+        byte[] bytes = note.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer block = noteBlocks.isEmpty() ? null : noteBlocks.get(noteBlocks.size() - 1);
+        if (block == null || block.remaining() < bytes.length) {
+            block = ByteBuffer.allocateDirect(Math.max(NOTE_BLOCK_BYTES, bytes.length));
+            noteBlocks.add(block);
+        }
+        segment.noteRefs.put(i, ((long) (noteBlocks.size() - 1) << 32) | block.position());
+        segment.noteLengths.put(i, bytes.length);
+        block.put(bytes);
+    }
+
+    private String readNote(long reference, int length) {
+        ByteBuffer block = noteBlocks.get((int) (reference >>> 32));
+        byte[] bytes = new byte[length];
+        block.get((int) reference, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Índice de ids
+
+    private int find(UUID id) {
+        long high = id.getMostSignificantBits();
+        long low = id.getLeastSignificantBits();
+        long mask = idTableSlots - 1;
+        for (long slot = hash(high, low) & mask; ; slot = (slot + 1) & mask) {
+            int entry = idTable[(int) (slot >>> ID_TABLE_SHIFT)].get((int) (slot & ((1 << ID_TABLE_SHIFT) - 1)));
+            if (entry == 0) {
+                return NONE;
+            }
+            Segment segment = segments.get((entry - 1) >>> SEGMENT_SHIFT);
+            int i = (entry - 1) & SEGMENT_MASK;
+            if (segment.idHigh.get(i) == high && segment.idLow.get(i) == low) {
+                return entry - 1;
+            }
+        }
+    }
+
+    private void indexId(int position) {
+        // Se mantiene la ocupación por debajo de la mitad
+        if ((long) size * 2 > idTableSlots) {
+            idTable = newIdTable(idTableSlots * 2);
+            for (int p = 0; p < size; p++) {
+                insertId(p);
+            }
+        } else {
+            insertId(position);
+        }
+    }
+
+    private void insertId(int position) {
+        Segment segment = segments.get(position >>> SEGMENT_SHIFT);
+        int i = position & SEGMENT_MASK;
+        long mask = idTableSlots - 1;
+        long slot = hash(segment.idHigh.get(i), segment.idLow.get(i)) & mask;
+        int sliceMask = (1 << ID_TABLE_SHIFT) - 1;
+        while (idTable[(int) (slot >>> ID_TABLE_SHIFT)].get((int) (slot & sliceMask)) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        idTable[(int) (slot >>> ID_TABLE_SHIFT)].put((int) (slot & sliceMask), position + 1);
+    }
+
+    private IntBuffer[] newIdTable(long slots) {
+        idTableSlots = slots;
+        IntBuffer[] table = new IntBuffer[(int) (slots >>> ID_TABLE_SHIFT)];
+        for (int t = 0; t < table.length; t++) {
+            table[t] = ByteBuffer.allocateDirect(Integer.BYTES << ID_TABLE_SHIFT)
+                    .order(ByteOrder.nativeOrder()).asIntBuffer();
+        }
+        return table;
+    }
+
+    private static long hash(long high, long low) {
+        long h = (high ^ low) * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+
+    /**
+     * Columnas de un segmento de registros, en un único bloque de memoria directa
+     */
+    private static final class Segment {
+        // idHigh, idLow, fecha, monto y referencia de nota (long); largo de nota, cuentas y enlaces (int);
+        // escala, tipo, estado y moneda (byte)
+        static final long BYTES = (long) SEGMENT_RECORDS * (5 * Long.BYTES + 7 * Integer.BYTES + 4);
+
+        final LongBuffer idHigh;
+        final LongBuffer idLow;
+        final LongBuffer createdMicros;
+        final LongBuffer amounts;
+        final LongBuffer noteRefs;
+        final IntBuffer noteLengths;
+        final IntBuffer sources;
+        final IntBuffer targets;
+        final IntBuffer prevSource;
+        final IntBuffer nextSource;
+        final IntBuffer prevTarget;
+        final IntBuffer nextTarget;
+        final ByteBuffer scales;
+        final ByteBuffer types;
+        final ByteBuffer statuses;
+        final ByteBuffer currencies;
+
+        Segment() {
+            ByteBuffer block = ByteBuffer.allocateDirect((int) BYTES).order(ByteOrder.nativeOrder());
+            int offset = 0;
+            idHigh = slice(block, offset, Long.BYTES).asLongBuffer();
+            offset += SEGMENT_RECORDS * Long.BYTES;
+            idLow = slice(block, offset, Long.BYTES).asLongBuffer();
+            offset += SEGMENT_RECORDS * Long.BYTES;
+            createdMicros = slice(block, offset, Long.BYTES).asLongBuffer();
+            offset += SEGMENT_RECORDS * Long.BYTES;
+            amounts = slice(block, offset, Long.BYTES).asLongBuffer();
+            offset += SEGMENT_RECORDS * Long.BYTES;
+            noteRefs = slice(block, offset, Long.BYTES).asLongBuffer();
+            offset += SEGMENT_RECORDS * Long.BYTES;
+            noteLengths = slice(block, offset, Integer.BYTES).asIntBuffer();
+            offset += SEGMENT_RECORDS * Integer.BYTES;
+            sources = slice(block, offset, Integer.BYTES).asIntBuffer();
+            offset += SEGMENT_RECORDS * Integer.BYTES;
+            targets = slice(block, offset, Integer.BYTES).asIntBuffer();
+            offset += SEGMENT_RECORDS * Integer.BYTES;
+            prevSource = slice(block, offset, Integer.BYTES).asIntBuffer();
+            offset += SEGMENT_RECORDS * Integer.BYTES;
+            nextSource = slice(block, offset, Integer.BYTES).asIntBuffer();
+            offset += SEGMENT_RECORDS * Integer.BYTES;
+            prevTarget = slice(block, offset, Integer.BYTES).asIntBuffer();
+            offset += SEGMENT_RECORDS * Integer.BYTES;
+            nextTarget = slice(block, offset, Integer.BYTES).asIntBuffer();
+            offset += SEGMENT_RECORDS * Integer.BYTES;
+            scales = slice(block, offset, 1);
+            offset += SEGMENT_RECORDS;
+            types = slice(block, offset, 1);
+            offset += SEGMENT_RECORDS;
+            statuses = slice(block, offset, 1);
+            offset += SEGMENT_RECORDS;
+            currencies = slice(block, offset, 1);
+        }
+
+        private static ByteBuffer slice(ByteBuffer block, int offset, int width) {
+            return block.slice(offset, SEGMENT_RECORDS * width).order(ByteOrder.nativeOrder());
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package LogicLayer;
+
+import java.util.List;
+
+/**
+ * Origen de datos paginado para las tablas del historial
+ * Los métodos se invocan fuera del hilo de eventos de Swing
+ */
+public interface PageLoader<T> {
+    /**
+     * Cantidad total de filas
+     */
+    int count();
+
+    /**
+     * Carga una página de filas
+     * @param offset posición de la primera fila
+     * @param limit cantidad máxima de filas
+     */
+    List<T> loadPage(int offset, int limit);
+}
@@ -0,0 +1,207 @@
+package LogicLayer;
+
+import javax.swing.*;
+import javax.swing.Timer;
+import javax.swing.table.AbstractTableModel;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Modelo de tabla que carga las filas por páginas a medida que se muestran
+ * Las páginas se cargan con SwingWorker fuera del hilo de eventos y se conserva en memoria solo
+ * una cantidad acotada de páginas recientes; mientras una página se carga sus celdas muestran un
+ * texto provisorio.
+ * Una página cuya carga falla no se guarda: sus celdas muestran el error y la carga se reintenta
+ * unas pocas veces; refresh() descarta las cargas en curso, que ya no se aplican al terminar
+ */
+public abstract class PagedTableModel<T> extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+    private static final String LOADING = "Cargando...";
+    // Reintentos automáticos de una página que no se pudo cargar y espera entre ellos
+    private static final int MAX_RETRIES = 3;
+    private static final int RETRY_DELAY_MS = 2_000;
+
+    private final PageLoader<T> loader;
+    private final String[] columnNames;
+    private final int pageSize;
+    private final Map<Integer, List<T>> pages;
+    private final Set<Integer> pendingPages;
+    private final Map<Integer, PageFailure> failedPages;
+    private int rowCount;
+    // Se incrementa en cada refresh(); las cargas iniciadas antes se descartan al terminar
+    private int generation;
+
+    /**
+     * @param loader origen de las filas
+     * @param columnNames títulos de las columnas
+     * @param pageSize filas por página
+     * @param maxCachedPages páginas conservadas en memoria
+     */
+    protected PagedTableModel(PageLoader<T> loader, String[] columnNames, int pageSize, int maxCachedPages) {
+        if (pageSize <= 0 || maxCachedPages <= 0) {
+            throw new IllegalArgumentException("El tamaño de página y la cantidad de páginas deben ser positivos");
+        }
+        this.loader = loader;
+        this.columnNames = columnNames.clone();
+        this.pageSize = pageSize;
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+                return size() > maxCachedPages;
+            }
+        };
+        this.pendingPages = new HashSet<>();
+        this.failedPages = new HashMap<>();
+    }
+
+    /**
+     * Obtiene el valor de una columna para una fila ya cargada
+     */
+    protected abstract Object getColumnValue(T row, int column);
+
+    /**
+     * Descarta las páginas cargadas, los errores y las cargas en curso, y consulta la cantidad de
+     * filas fuera del hilo de eventos
+     * Debe invocarse desde el hilo de eventos
+     */
+    public void refresh() {
+        int refreshGeneration = ++generation;
+        pages.clear();
+        pendingPages.clear();
+        failedPages.clear();
+        fireTableDataChanged();
+        new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() {
+                return loader.count();
+            }
+
+            @Override
+            protected void done() {
+                if (refreshGeneration != generation) {
+                    return;
+                }
+                try {
+                    rowCount = get();
+                } catch (Exception e) {
+                    rowCount = 0;
+                }
+                fireTableDataChanged();
+            }
+        }.execute();
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        int pageIndex = rowIndex / pageSize;
+        List<T> page = pages.get(pageIndex);
+        if (page == null) {
+            PageFailure failure = failedPages.get(pageIndex);
+            if (failure != null) {
+                return columnIndex == 0 ? failure.describe() : "";
+            }
+            loadPage(pageIndex);
+            return columnIndex == 0 ? LOADING : "";
+        }
+        int offsetInPage = rowIndex % pageSize;
+        if (offsetInPage >= page.size()) {
+            return "";
+        }
+        return getColumnValue(page.get(offsetInPage), columnIndex);
+    }
+
+    /**
+     * Inicia la carga de una página si no está ya en curso
+     */
+    private void loadPage(int pageIndex) {
+        if (!pendingPages.add(pageIndex)) {
+            return;
+        }
+        int loadGeneration = generation;
+        new SwingWorker<List<T>, Void>() {
+            @Override
+            protected List<T> doInBackground() {
+                return loader.loadPage(pageIndex * pageSize, pageSize);
+            }
+
+            @Override
+            protected void done() {
+                if (loadGeneration != generation) {
+                    return;
+                }
+                pendingPages.remove(pageIndex);
+                try {
+                    pages.put(pageIndex, get());
+                    failedPages.remove(pageIndex);
+                } catch (ExecutionException e) {
+                    recordFailure(pageIndex, e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    recordFailure(pageIndex, e);
+                }
+                int firstRow = pageIndex * pageSize;
+                int lastRow = Math.min(firstRow + pageSize, rowCount) - 1;
+                if (firstRow <= lastRow) {
+                    fireTableRowsUpdated(firstRow, lastRow);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Registra el error de una página y programa un reintento mientras queden
+     */
+    private void recordFailure(int pageIndex, Throwable cause) {
+        PageFailure previous = failedPages.get(pageIndex);
+        PageFailure failure = new PageFailure(cause, previous != null ? previous.attempts + 1 : 1);
+        failedPages.put(pageIndex, failure);
+        if (failure.willRetry()) {
+            int failureGeneration = generation;
+            Timer retry = new Timer(RETRY_DELAY_MS, e -> {
+                if (failureGeneration == generation && failedPages.get(pageIndex) == failure) {
+                    loadPage(pageIndex);
+                }
+            });
+            retry.setRepeats(false);
+            retry.start();
+        }
+    }
+
+    /**
+     * Último error al cargar una página y cantidad de intentos fallidos
+     */
+    private static final class PageFailure {
+        private final String message;
+        private final int attempts;
+
+        private PageFailure(Throwable cause, int attempts) {
+            this.message = cause != null && cause.getMessage() != null
+                    ? cause.getMessage()
+                    : cause != null ? cause.getClass().getSimpleName() : "error desconocido";
+            this.attempts = attempts;
+        }
+
+        private boolean willRetry() {
+            return attempts <= MAX_RETRIES;
+        }
+
+        private String describe() {
+            return "No se pudo cargar: " + message + (willRetry() ? " (reintentando)" : "");
+        }
+    }
+}
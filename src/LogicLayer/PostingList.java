@@ -0,0 +1,111 @@
+package LogicLayer;
+
+import java.util.Arrays;
+
+/**
+ * Lista de posiciones de un término del índice de notas
+ * Las posiciones se agregan en orden creciente y se guardan como diferencias codificadas en
+ * enteros de longitud variable (7 bits por byte), por lo que la mayoría ocupa uno o dos bytes
+ */
+final class PostingList {
+    private byte[] data;
+    private int length;
+    private int count;
+    private int last;
+
+    PostingList() {
+        this.data = new byte[4];
+        this.last = -1;
+    }
+
+    /**
+     * Agrega una posición mayor que la última agregada
+     * Una posición repetida (el término aparece dos veces en la misma nota) se ignora
+     */
+    void add(int position) {
+        if (position == last) {
+            return;
+        }
+        if (position < last) {
+            throw new IllegalArgumentException("Las posiciones deben agregarse en orden creciente");
+        }
+        int delta = position - last;
+        if (length + 5 > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, length + 5));
+        }
+        while ((delta & ~0x7F) != 0) {
+            data[length++] = (byte) ((delta & 0x7F) | 0x80);
+            delta >>>= 7;
+        }
+        data[length++] = (byte) delta;
+        last = position;
+        count++;
+    }
+
+    int size() {
+        return count;
+    }
+
+    /**
+     * Bytes ocupados por las posiciones codificadas
+     */
+    int encodedBytes() {
+        return length;
+    }
+
+    /**
+     * Decodifica las posiciones en orden creciente
+     */
+    int[] toArray() {
+        int[] positions = new int[count];
+        int value = -1;
+        int offset = 0;
+        for (int i = 0; i < count; i++) {
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[offset++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            value += delta;
+            positions[i] = value;
+        }
+        return positions;
+    }
+
+    /**
+     * Conserva al principio del arreglo las candidatas que figuran en la lista
+     * Recorre las posiciones codificadas sin copiarlas y se detiene al pasar la última candidata
+     *
+     * @param candidates posiciones en orden creciente
+     * @param size cantidad de candidatas a considerar
+     * @return cantidad de candidatas conservadas
+     */
+    int retain(int[] candidates, int size) {
+        int kept = 0;
+        int next = 0;
+        int value = -1;
+        int offset = 0;
+        for (int i = 0; i < count && next < size; i++) {
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[offset++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            value += delta;
+            while (next < size && candidates[next] < value) {
+                next++;
+            }
+            if (next < size && candidates[next] == value) {
+                candidates[kept++] = value;
+                next++;
+            }
+        }
+        return kept;
+    }
+}
@@ -0,0 +1,149 @@
+package LogicLayer;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Servicio de proyección Monte Carlo para cuentas de inversión
+ * Simula muchas trayectorias futuras del saldo con el modelo de mercado que MarketSimulator
+ * usa para la moneda de la cuenta, repartiendo el trabajo en tareas paralelas con generadores
+ * SplittableRandom independientes. Cada trayectoria usa su propia copia del modelo.
+ * Los saldos se calculan en centavos con DailyReturnKernel, igual que
+ * InvestmentAccount.applyDailyReturn. Con la misma semilla del simulador el resultado es idéntico
+ * sin importar la cantidad de hilos
+ */
+public class ProjectionService {
+    // Horizonte máximo de una proyección (un año): con horizontes de varios años las trayectorias
+    // más favorables exceden el rango de los saldos en centavos
+    public static final int MAX_HORIZON_DAYS = 365;
+
+    // Trayectorias simuladas por cada tarea paralela
+    private static final int PATHS_PER_TASK = 4096;
+
+    private final MarketSimulator marketSimulator;
+
+    public ProjectionService(MarketSimulator marketSimulator) {
+        this.marketSimulator = marketSimulator;
+    }
+
+    /**
+     * Proyecta el saldo de una cuenta de inversión
+     *
+     * @param account cuenta a proyectar
+     * @param horizonDays cantidad de días a simular
+     * @param paths cantidad de trayectorias
+     * @return bandas de percentiles y estadísticas de la proyección
+     */
+    public InvestmentProjection project(InvestmentAccount account, int horizonDays, int paths) {
+        if (account == null) {
+            throw new IllegalArgumentException("La cuenta no puede ser nula");
+        }
+        return project(account.getBalance(), account.getBaseCurrency(), horizonDays, paths);
+    }
+
+    /**
+     * Proyecta un saldo arbitrario con el modelo configurado para una moneda
+     *
+     * @param initialBalance saldo inicial
+     * @param currency moneda cuyo modelo de mercado se usa
+     * @param horizonDays cantidad de días a simular
+     * @param paths cantidad de trayectorias
+     * @return bandas de percentiles y estadísticas de la proyección
+     */
+    public InvestmentProjection project(BigDecimal initialBalance, Currency currency, int horizonDays, int paths) {
+        if (currency == null) {
+            throw new IllegalArgumentException("La moneda no puede ser nula");
+        }
+        return project(initialBalance, marketSimulator.getModel(currency), horizonDays, paths);
+    }
+
+    /**
+     * Proyecta un saldo arbitrario con el modelo uniforme con eventos extremos
+     *
+     * @param initialBalance saldo inicial
+     * @param horizonDays cantidad de días a simular
+     * @param paths cantidad de trayectorias
+     * @return bandas de percentiles y estadísticas de la proyección
+     */
+    public InvestmentProjection project(BigDecimal initialBalance, int horizonDays, int paths) {
+        return project(initialBalance, MarketSimulator.getDefaultModel(), horizonDays, paths);
+    }
+
+    private InvestmentProjection project(BigDecimal initialBalance, MarketModel model, int horizonDays,
+                                         int paths) {
+        if (initialBalance == null || initialBalance.compareTo(BigDecimal.ZERO) < 0) {
+            throw new IllegalArgumentException("El saldo inicial no puede ser negativo");
+        }
+        if (!DailyReturnKernel.isRepresentableInCents(initialBalance)) {
+            throw new IllegalArgumentException("El saldo inicial debe expresarse en centavos");
+        }
+        if (horizonDays <= 0) {
+            throw new IllegalArgumentException("El horizonte debe ser de al menos un día");
+        }
+        if (horizonDays > MAX_HORIZON_DAYS) {
+            throw new IllegalArgumentException("El horizonte no puede superar los " + MAX_HORIZON_DAYS + " días");
+        }
+        if (paths <= 0) {
+            throw new IllegalArgumentException("La cantidad de trayectorias debe ser positiva");
+        }
+
+        long start = System.nanoTime();
+
+        long startCents = DailyReturnKernel.toCents(initialBalance);
+        long[] finals = new long[paths];
+        int tasks = (paths + PATHS_PER_TASK - 1) / PATHS_PER_TASK;
+
+        // Un generador independiente por tarea, identificado por el índice del bloque
+        IntStream.range(0, tasks).parallel().forEach(task -> {
+            SplittableRandom rng = marketSimulator.newStream(task);
+            int from = task * PATHS_PER_TASK;
+            int to = Math.min(from + PATHS_PER_TASK, paths);
+            for (int path = from; path < to; path++) {
+                finals[path] = simulatePath(startCents, horizonDays, model.copy(), rng);
+            }
+        });
+
+        Arrays.parallelSort(finals);
+
+        double sum = 0;
+        int losses = 0;
+        for (long cents : finals) {
+            sum += cents;
+            if (cents < startCents) {
+                losses++;
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+
+        return new InvestmentProjection(initialBalance, horizonDays, paths,
+                percentile(finals, 0.05), percentile(finals, 0.50), percentile(finals, 0.95),
+                BigDecimal.valueOf(sum / paths / 100).setScale(2, RoundingMode.HALF_UP),
+                (double) losses / paths, elapsed);
+    }
+
+    /**
+     * Simula una trayectoria completa y devuelve el saldo final en centavos
+     * La tasa se lleva a 5 decimales como en MarketSimulator y el saldo se redondea HALF_UP a
+     * centavos cada día con DailyReturnKernel, igual que InvestmentAccount.applyDailyReturn
+     */
+    private static long simulatePath(long cents, int horizonDays, MarketModel model, SplittableRandom rng) {
+        for (int day = 0; day < horizonDays && cents > 0; day++) {
+            long rateUnits = Math.round(model.nextRate(rng) * DailyReturnKernel.RATE_SCALE);
+            cents = DailyReturnKernel.applyRate(cents, rateUnits);
+        }
+        return cents;
+    }
+
+    /**
+     * Obtiene un percentil (método del rango más cercano) de un arreglo ordenado
+     */
+    private static BigDecimal percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        index = Math.max(0, Math.min(index, sorted.length - 1));
+        return DailyReturnKernel.fromCents(sorted[index]);
+    }
+}
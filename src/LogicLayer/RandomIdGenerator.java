@@ -0,0 +1,14 @@
+package LogicLayer;
+
+import java.util.UUID;
+
+/**
+ * Generador de ids aleatorios (UUID versión 4)
+ * Cada id pasa por el SecureRandom compartido de UUID, por lo que los ids no guardan orden
+ */
+public class RandomIdGenerator implements IdGenerator {
+    @Override
+    public UUID nextId() {
+        return UUID.randomUUID();
+    }
+}
@@ -0,0 +1,50 @@
+package LogicLayer;
+
+import java.time.LocalDate;
+
+/**
+ * Enum que representa la periodicidad de una transferencia programada
+ */
+public enum RecurrenceFrequency {
+    ONCE("Única vez"),
+    DAILY("Diaria"),
+    WEEKLY("Semanal"),
+    MONTHLY("Mensual");
+
+    private final String description;
+
+    RecurrenceFrequency(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Calcula la fecha de una ocurrencia a partir de la fecha de inicio
+     * Se calcula siempre desde el inicio para que las órdenes mensuales del día 31
+     * vuelvan al 31 después de pasar por meses más cortos
+     *
+     * @param startDate fecha de la primera ocurrencia
+     * @param occurrence número de ocurrencia (0 = la primera)
+     * @return fecha de la ocurrencia, o null si la periodicidad no la tiene
+     */
+    public LocalDate occurrence(LocalDate startDate, long occurrence) {
+        switch (this) {
+            case DAILY:
+                return startDate.plusDays(occurrence);
+            case WEEKLY:
+                return startDate.plusWeeks(occurrence);
+            case MONTHLY:
+                return startDate.plusMonths(occurrence);
+            default:
+                return occurrence == 0 ? startDate : null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+}
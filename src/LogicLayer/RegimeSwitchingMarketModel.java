@@ -0,0 +1,83 @@
+package LogicLayer;
+
+import java.util.SplittableRandom;
+
+/**
+ * Modelo de Markov con dos regímenes (calmo y turbulento)
+ * Cada día se decide si se cambia de régimen y luego se genera una tasa normal
+ * con la media y el desvío del régimen actual
+ */
+public class RegimeSwitchingMarketModel implements MarketModel {
+    // Pérdida máxima permitida en un día
+    private static final double MIN_RATE = -0.99;
+
+    private final double calmMean;
+    private final double calmVolatility;
+    private final double turbulentMean;
+    private final double turbulentVolatility;
+    private final double calmToTurbulent;
+    private final double turbulentToCalm;
+
+    private boolean turbulent;
+
+    /**
+     * @param calmMean media diaria en régimen calmo
+     * @param calmVolatility desvío diario en régimen calmo
+     * @param turbulentMean media diaria en régimen turbulento
+     * @param turbulentVolatility desvío diario en régimen turbulento
+     * @param calmToTurbulent probabilidad diaria de pasar de calmo a turbulento
+     * @param turbulentToCalm probabilidad diaria de pasar de turbulento a calmo
+     */
+    public RegimeSwitchingMarketModel(double calmMean, double calmVolatility,
+                                      double turbulentMean, double turbulentVolatility,
+                                      double calmToTurbulent, double turbulentToCalm) {
+        if (calmVolatility < 0 || turbulentVolatility < 0) {
+            throw new IllegalArgumentException("La volatilidad no puede ser negativa");
+        }
+        if (calmToTurbulent < 0 || calmToTurbulent > 1 || turbulentToCalm < 0 || turbulentToCalm > 1) {
+            throw new IllegalArgumentException("Las probabilidades de transición deben estar entre 0 y 1");
+        }
+        this.calmMean = calmMean;
+        this.calmVolatility = calmVolatility;
+        this.turbulentMean = turbulentMean;
+        this.turbulentVolatility = turbulentVolatility;
+        this.calmToTurbulent = calmToTurbulent;
+        this.turbulentToCalm = turbulentToCalm;
+        this.turbulent = false;
+    }
+
+    @Override
+    public double nextRate(SplittableRandom rng) {
+        // Transición de régimen
+        double switchProbability = turbulent ? turbulentToCalm : calmToTurbulent;
+        if (rng.nextDouble() < switchProbability) {
+            turbulent = !turbulent;
+        }
+
+        double rate = turbulent
+                ? turbulentMean + turbulentVolatility * rng.nextGaussian()
+                : calmMean + calmVolatility * rng.nextGaussian();
+        return Math.max(rate, MIN_RATE);
+    }
+
+    /**
+     * Indica si el modelo está actualmente en régimen turbulento
+     */
+    public boolean isTurbulent() {
+        return turbulent;
+    }
+
+    /**
+     * Crea un modelo con los mismos parámetros que comienza en régimen calmo
+     */
+    @Override
+    public MarketModel copy() {
+        return new RegimeSwitchingMarketModel(calmMean, calmVolatility, turbulentMean, turbulentVolatility,
+                calmToTurbulent, turbulentToCalm);
+    }
+
+    @Override
+    public String getName() {
+        return "Cambio de régimen (Markov)";
+    }
+}
@@ -0,0 +1,72 @@
+package LogicLayer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Servicio de consultas de riesgo sobre todas las cuentas de inversión del banco
+ * Usa las métricas incrementales de cada cuenta, sin recorrer los historiales; las métricas se
+ * leen una vez por cuenta, así el orden no cambia si la simulación aplica días durante la consulta
+ */
+public class RiskService {
+    // Orden de riesgo: mayor VaR primero, luego mayor volatilidad
+    private static final Comparator<RankedAccount> BY_RISK = Comparator
+            .comparingDouble((RankedAccount ranked) -> ranked.valueAtRisk)
+            .thenComparingDouble(ranked -> ranked.volatility);
+
+    private final AccountDao accountDao;
+
+    public RiskService(AccountDao accountDao) {
+        this.accountDao = accountDao;
+    }
+
+    /**
+     * Obtiene las cuentas de inversión más riesgosas del banco
+     *
+     * @param limit cantidad máxima de cuentas a devolver
+     * @return cuentas ordenadas de mayor a menor riesgo
+     */
+    public List<InvestmentAccount> getRiskiestAccounts(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("El límite debe ser positivo");
+        }
+
+        // Montículo acotado: conserva las 'limit' cuentas más riesgosas vistas hasta el momento
+        PriorityQueue<RankedAccount> top = new PriorityQueue<>(limit + 1, BY_RISK);
+        for (Account account : accountDao.findAll()) {
+            if (account instanceof InvestmentAccount) {
+                top.add(new RankedAccount((InvestmentAccount) account));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+
+        List<RankedAccount> ordered = new ArrayList<>(top);
+        ordered.sort(Collections.reverseOrder(BY_RISK));
+        List<InvestmentAccount> ranking = new ArrayList<>(ordered.size());
+        for (RankedAccount ranked : ordered) {
+            ranking.add(ranked.account);
+        }
+        return ranking;
+    }
+
+    /**
+     * Cuenta con las métricas de riesgo leídas al momento de compararla
+     */
+    private static final class RankedAccount {
+        private final InvestmentAccount account;
+        private final double valueAtRisk;
+        private final double volatility;
+
+        private RankedAccount(InvestmentAccount account) {
+            InvestmentRiskMetrics metrics = account.getRiskMetrics();
+            this.account = account;
+            this.valueAtRisk = metrics.getValueAtRisk95();
+            this.volatility = metrics.getDailyVolatility();
+        }
+    }
+}
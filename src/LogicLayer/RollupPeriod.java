@@ -0,0 +1,46 @@
+package LogicLayer;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Enum que representa los períodos de agregación del historial de inversiones y de los resúmenes
+ * de transacciones
+ * Las cuentas de inversión resumen solo por semana y por mes: su detalle diario es el historial
+ */
+public enum RollupPeriod {
+    DAILY("Diario"),
+    WEEKLY("Semanal"),
+    MONTHLY("Mensual");
+
+    private final String description;
+
+    RollupPeriod(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Obtiene el primer día del período que contiene a la fecha
+     * (la misma fecha para días, lunes para semanas, día 1 para meses)
+     */
+    public LocalDate periodStart(LocalDate date) {
+        switch (this) {
+            case DAILY:
+                return date;
+            case WEEKLY:
+                return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            default:
+                return date.withDayOfMonth(1);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+}
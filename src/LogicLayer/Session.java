@@ -16,7 +16,7 @@ public class Session {
      * @param clientId ID del cliente autenticado
      */
     public Session(UUID clientId) {
-        this.id = UUID.randomUUID();
+        this.id = EntityIds.next();
         this.clientId = clientId;
         this.expiresAt = Instant.now().plusSeconds(1800); // 30 minutos
     }
@@ -1,28 +1,91 @@
 package LogicLayer;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Reloj simulado para el sistema bancario
  * Permite avanzar el tiempo de forma controlada para simular días
+ * Cada simulación tiene su propio reloj; los procesos de fin de día se suscriben como oyentes
+ * y se ejecutan en orden de registro cada vez que cambia el día. Un proceso que falla no impide
+ * que se ejecuten los siguientes; sus errores quedan en {@link #getLastDayErrors()}
  */
 public class SimulatedClock {
-    private static LocalDate currentDay = LocalDate.now();
+    private LocalDate currentDay;
+    private final List<DayChangeListener> listeners;
+    private volatile List<String> lastDayErrors;
+
+    /**
+     * Crea un reloj que comienza en la fecha actual
+     */
+    public SimulatedClock() {
+        this(LocalDate.now());
+    }
+
+    /**
+     * Crea un reloj que comienza en una fecha dada
+     */
+    public SimulatedClock(LocalDate startDay) {
+        if (startDay == null) {
+            throw new IllegalArgumentException("La fecha inicial no puede ser nula");
+        }
+        this.currentDay = startDay;
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.lastDayErrors = Collections.emptyList();
+    }
 
     /**
      * Obtiene el día actual simulado
      */
-    public static LocalDate getCurrentDay() {
+    public synchronized LocalDate getCurrentDay() {
         return currentDay;
     }
 
     /**
-     * Avanza el reloj un día
+     * Registra un proceso de fin de día
+     */
+    public void addDayChangeListener(DayChangeListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("El oyente no puede ser nulo");
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * Quita un proceso de fin de día
+     */
+    public void removeDayChangeListener(DayChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Avanza el reloj un día y ejecuta los procesos de fin de día en orden de registro
+     * El siguiente avance no comienza hasta que terminan todos los procesos del día
      * @return el nuevo día actual
      */
-    public static LocalDate advanceOneDay() {
+    public synchronized LocalDate advanceOneDay() {
+        LocalDate previousDay = currentDay;
         currentDay = currentDay.plusDays(1);
+        List<String> errors = new ArrayList<>();
+        for (DayChangeListener listener : listeners) {
+            try {
+                listener.onDayChanged(previousDay, currentDay);
+            } catch (RuntimeException e) {
+                errors.add(listener.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+        }
+        lastDayErrors = Collections.unmodifiableList(errors);
         return currentDay;
     }
-}
 
+    /**
+     * Errores de los procesos que fallaron en el último avance (vacía si todos terminaron bien)
+     * El día no se vuelve a procesar: cada proceso decide cómo recuperar lo que no hizo
+     */
+    public List<String> getLastDayErrors() {
+        return lastDayErrors;
+    }
+}
@@ -0,0 +1,182 @@
+package LogicLayer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Orden de transferencia programada, única o recurrente
+ * Cada orden está indexada por la fecha en que vence; al ejecutarse (o agotar sus reintentos)
+ * se vuelve a indexar en la fecha de su próxima ocurrencia
+ */
+public class StandingOrder {
+    private final UUID id;
+    private final Account source;
+    private final Account target;
+    private final BigDecimal amount;
+    private final String note;
+    private final RecurrenceFrequency frequency;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private long occurrence;
+    private LocalDate dueDate;
+    private int failedAttempts;
+    private String lastFailure;
+    private int executedCount;
+    private boolean active;
+
+    /**
+     * @param source cuenta a debitar
+     * @param target cuenta a acreditar
+     * @param amount monto de cada ocurrencia
+     * @param note nota de las transferencias
+     * @param frequency periodicidad
+     * @param startDate fecha de la primera ocurrencia
+     * @param endDate última fecha posible de ocurrencia (null = sin fin)
+     */
+    public StandingOrder(Account source, Account target, BigDecimal amount, String note,
+                         RecurrenceFrequency frequency, LocalDate startDate, LocalDate endDate) {
+        this.id = EntityIds.next();
+        this.source = source;
+        this.target = target;
+        this.amount = amount;
+        this.note = note;
+        this.frequency = frequency;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.occurrence = 0;
+        this.dueDate = startDate;
+        this.active = true;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public Account getSource() {
+        return source;
+    }
+
+    public Account getTarget() {
+        return target;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public String getNote() {
+        return note;
+    }
+
+    public RecurrenceFrequency getFrequency() {
+        return frequency;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    /**
+     * Fecha en la que la orden está indexada (ocurrencia pendiente o reintento)
+     */
+    public synchronized LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    /**
+     * Intentos fallidos de la ocurrencia pendiente
+     */
+    public synchronized int getFailedAttempts() {
+        return failedAttempts;
+    }
+
+    /**
+     * Motivo del último intento fallido, o null
+     */
+    public synchronized String getLastFailure() {
+        return lastFailure;
+    }
+
+    public synchronized int getExecutedCount() {
+        return executedCount;
+    }
+
+    public synchronized boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Desactiva la orden; si sigue indexada se descarta al vencer
+     */
+    synchronized void cancel() {
+        active = false;
+    }
+
+    /**
+     * Registra la ejecución exitosa de la ocurrencia pendiente
+     * @return true si la orden tiene una próxima ocurrencia
+     */
+    synchronized boolean recordSuccess() {
+        executedCount++;
+        failedAttempts = 0;
+        lastFailure = null;
+        return moveToNextOccurrence();
+    }
+
+    /**
+     * Registra un intento fallido
+     * Si quedan reintentos, la orden vence de nuevo al día siguiente; si no, la ocurrencia se
+     * abandona y la orden pasa a la próxima
+     *
+     * @param day día del intento
+     * @param reason motivo del fallo
+     * @param maxRetries cantidad máxima de reintentos por ocurrencia
+     * @return true si la orden sigue vigente (reintento u ocurrencia siguiente)
+     */
+    synchronized boolean recordFailure(LocalDate day, String reason, int maxRetries) {
+        failedAttempts++;
+        lastFailure = reason;
+        if (failedAttempts <= maxRetries) {
+            dueDate = day.plusDays(1);
+            return true;
+        }
+        failedAttempts = 0;
+        return moveToNextOccurrence();
+    }
+
+    /**
+     * Indica si la ocurrencia pendiente se está reintentando
+     */
+    synchronized boolean isRetrying() {
+        return failedAttempts > 0;
+    }
+
+    private boolean moveToNextOccurrence() {
+        occurrence++;
+        LocalDate next = frequency.occurrence(startDate, occurrence);
+        if (next == null || (endDate != null && next.isAfter(endDate))) {
+            active = false;
+            return false;
+        }
+        dueDate = next;
+        return true;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%s %s%s %s → %s | %s | próxima: %s%s",
+                frequency.getDescription(),
+                source.getBaseCurrency().getSymbol(),
+                String.format("%,.2f", amount),
+                source.type(),
+                target.type(),
+                note != null ? note : "Sin nota",
+                active ? dueDate : "-",
+                failedAttempts > 0 ? " (reintento " + failedAttempts + ": " + lastFailure + ")" : "");
+    }
+}
@@ -0,0 +1,43 @@
+package LogicLayer;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Interfaz DAO para las transferencias programadas
+ * Las órdenes se indexan por su fecha de vencimiento para que cada cierre obtenga solo las del día
+ */
+public interface StandingOrderDao {
+    /**
+     * Guarda una orden y la indexa en su fecha de vencimiento actual
+     * Una orden ya guardada se vuelve a indexar (después de ejecutarse o fallar)
+     */
+    void save(StandingOrder order);
+
+    /**
+     * Busca una orden por su id
+     */
+    StandingOrder findById(UUID orderId);
+
+    /**
+     * Lista las órdenes vigentes cuya cuenta origen es la indicada
+     */
+    List<StandingOrder> listBySourceAccountId(UUID accountId);
+
+    /**
+     * Quita y devuelve todas las órdenes que vencen hasta el día indicado inclusive
+     * El costo es proporcional a la cantidad de órdenes vencidas, no al total
+     */
+    List<StandingOrder> pollDueThrough(LocalDate day);
+
+    /**
+     * Elimina una orden finalizada o cancelada
+     */
+    void delete(StandingOrder order);
+
+    /**
+     * Cantidad de órdenes vigentes
+     */
+    int count();
+}
@@ -0,0 +1,92 @@
+package LogicLayer;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Resultado de la ejecución de las transferencias programadas de un día
+ */
+public class StandingOrderReport {
+    private final LocalDate businessDay;
+    private final int due;
+    private final int executed;
+    private final int failed;
+    private final int retriesScheduled;
+    private final int occurrencesAbandoned;
+    private final long elapsedNanos;
+    private final List<String> failureMessages;
+
+    public StandingOrderReport(LocalDate businessDay, int due, int executed, int failed,
+                               int retriesScheduled, int occurrencesAbandoned, long elapsedNanos,
+                               List<String> failureMessages) {
+        this.businessDay = businessDay;
+        this.due = due;
+        this.executed = executed;
+        this.failed = failed;
+        this.retriesScheduled = retriesScheduled;
+        this.occurrencesAbandoned = occurrencesAbandoned;
+        this.elapsedNanos = elapsedNanos;
+        this.failureMessages = List.copyOf(failureMessages);
+    }
+
+    public LocalDate getBusinessDay() {
+        return businessDay;
+    }
+
+    /**
+     * Órdenes vencidas en el día (incluye reintentos)
+     */
+    public int getDue() {
+        return due;
+    }
+
+    public int getExecuted() {
+        return executed;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    /**
+     * Órdenes fallidas que se reintentarán al día siguiente
+     */
+    public int getRetriesScheduled() {
+        return retriesScheduled;
+    }
+
+    /**
+     * Ocurrencias descartadas por agotar los reintentos
+     */
+    public int getOccurrencesAbandoned() {
+        return occurrencesAbandoned;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Primeros mensajes de error del día (la cantidad está acotada)
+     */
+    public List<String> getFailureMessages() {
+        return failureMessages;
+    }
+
+    /**
+     * Órdenes procesadas por segundo
+     */
+    public double getOrdersPerSecond() {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return due / (elapsedNanos / 1_000_000_000d);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("transferencias-programadas [%s]: %,d vencidas, %,d ejecutadas, %,d fallidas (%,d a reintentar, %,d descartadas), %.1f ms, %,.0f órdenes/s",
+                businessDay, due, executed, failed, retriesScheduled, occurrencesAbandoned,
+                elapsedNanos / 1e6, getOrdersPerSecond());
+    }
+}
@@ -0,0 +1,208 @@
+package LogicLayer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Servicio de transferencias programadas y recurrentes
+ * Al cambiar el día toma del índice solo las órdenes que vencen, las ejecuta en lotes a través de
+ * AccountService y reprograma las fallidas para el día siguiente hasta agotar los reintentos
+ */
+public class StandingOrderService implements DayChangeListener {
+    private static final int MAX_FAILURE_MESSAGES = 100;
+
+    private final AccountService accountService;
+    private final AuthService authService;
+    private final StandingOrderDao standingOrderDao;
+    private final SimulatedClock clock;
+    private final int batchSize;
+    private final int maxRetries;
+    private volatile StandingOrderReport lastReport;
+
+    /**
+     * @param batchSize cantidad de órdenes ejecutadas por lote
+     * @param maxRetries reintentos por ocurrencia antes de descartarla
+     */
+    public StandingOrderService(AccountService accountService, AuthService authService,
+                                StandingOrderDao standingOrderDao, SimulatedClock clock,
+                                int batchSize, int maxRetries) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser positivo");
+        }
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("La cantidad de reintentos no puede ser negativa");
+        }
+        this.accountService = accountService;
+        this.authService = authService;
+        this.standingOrderDao = standingOrderDao;
+        this.clock = clock;
+        this.batchSize = batchSize;
+        this.maxRetries = maxRetries;
+    }
+
+    /**
+     * Programa una transferencia entre cuentas de la misma moneda
+     *
+     * @param startDate fecha de la primera ejecución (posterior al día actual)
+     * @param endDate última fecha posible de ejecución (null = sin fin)
+     * @return la orden programada
+     */
+    public StandingOrder scheduleTransfer(Account source, Account target, BigDecimal amount, String note,
+                                          RecurrenceFrequency frequency, LocalDate startDate, LocalDate endDate) {
+        if (!authService.hasAccessToAccount(source)) {
+            throw new SecurityException("No tiene acceso a la cuenta origen");
+        }
+        return schedule(source, target, amount, note, frequency, startDate, endDate);
+    }
+
+    /**
+     * Programa una transferencia sin verificar la sesión (procesos internos del paquete)
+     */
+    StandingOrder scheduleTransferWithoutAuth(Account source, Account target, BigDecimal amount,
+                                              String note, RecurrenceFrequency frequency,
+                                              LocalDate startDate, LocalDate endDate) {
+        return schedule(source, target, amount, note, frequency, startDate, endDate);
+    }
+
+    /**
+     * Cancela una orden programada
+     */
+    public void cancel(UUID orderId) {
+        StandingOrder order = standingOrderDao.findById(orderId);
+        if (order == null) {
+            throw new IllegalArgumentException("No existe la transferencia programada");
+        }
+        if (!authService.hasAccessToAccount(order.getSource())) {
+            throw new SecurityException("No tiene acceso a la cuenta origen");
+        }
+        order.cancel();
+        standingOrderDao.delete(order);
+    }
+
+    /**
+     * Lista las órdenes vigentes de una cuenta origen
+     */
+    public List<StandingOrder> listByAccount(Account source) {
+        if (!authService.hasAccessToAccount(source)) {
+            throw new SecurityException("No tiene acceso a esta cuenta");
+        }
+        return standingOrderDao.listBySourceAccountId(source.getId());
+    }
+
+    @Override
+    public void onDayChanged(LocalDate previousDay, LocalDate newDay) {
+        // Las órdenes se ejecutan al comenzar el día en que vencen
+        processDay(newDay);
+    }
+
+    /**
+     * Ejecuta las órdenes que vencen hasta el día indicado inclusive
+     * Si el proceso se interrumpe, las órdenes que no llegaron a ejecutarse se vuelven a indexar
+     * en su fecha de vencimiento para el próximo proceso
+     *
+     * @param day día de ejecución
+     * @return reporte del día
+     */
+    public StandingOrderReport processDay(LocalDate day) {
+        long start = System.nanoTime();
+        List<StandingOrder> due = standingOrderDao.pollDueThrough(day);
+
+        int executed = 0;
+        int failed = 0;
+        int retries = 0;
+        int abandoned = 0;
+        List<String> failures = new ArrayList<>();
+
+        // Órdenes retiradas del índice cuyo resultado ya quedó registrado en la orden
+        int processed = 0;
+        try {
+            for (int from = 0; from < due.size(); from += batchSize) {
+                List<StandingOrder> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+                List<Transaction> transactions = accountService.executeStandingOrders(batch);
+
+                for (int i = 0; i < batch.size(); i++) {
+                    StandingOrder order = batch.get(i);
+                    Transaction tx = transactions.get(i);
+                    boolean stillActive;
+                    if (tx.isSuccessful()) {
+                        executed++;
+                        stillActive = order.recordSuccess();
+                    } else {
+                        failed++;
+                        if (failures.size() < MAX_FAILURE_MESSAGES) {
+                            failures.add(order.getId() + ": " + tx.getNote());
+                        }
+                        stillActive = order.recordFailure(day, tx.getNote(), maxRetries);
+                        if (order.isRetrying()) {
+                            retries++;
+                        } else {
+                            abandoned++;
+                        }
+                    }
+                    processed = from + i + 1;
+
+                    if (stillActive) {
+                        standingOrderDao.save(order);
+                    } else {
+                        standingOrderDao.delete(order);
+                    }
+                }
+            }
+        } finally {
+            // Si algo interrumpe el día, las órdenes sin ejecutar vuelven a vencer en su fecha
+            for (int i = processed; i < due.size(); i++) {
+                standingOrderDao.save(due.get(i));
+            }
+        }
+
+        lastReport = new StandingOrderReport(day, due.size(), executed, failed, retries, abandoned,
+                System.nanoTime() - start, failures);
+        return lastReport;
+    }
+
+    /**
+     * Obtiene el reporte del último día procesado, o null
+     */
+    public StandingOrderReport getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * Cantidad de órdenes vigentes
+     */
+    public int countActiveOrders() {
+        return standingOrderDao.count();
+    }
+
+    private StandingOrder schedule(Account source, Account target, BigDecimal amount, String note,
+                                   RecurrenceFrequency frequency, LocalDate startDate, LocalDate endDate) {
+        if (source == null || target == null) {
+            throw new IllegalArgumentException("Las cuentas no pueden ser nulas");
+        }
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("El monto debe ser positivo");
+        }
+        if (source.getId().equals(target.getId())) {
+            throw new IllegalArgumentException("No se puede transferir a la misma cuenta");
+        }
+        if (!source.getBaseCurrency().equals(target.getBaseCurrency())) {
+            throw new IllegalArgumentException("Las cuentas deben tener la misma moneda");
+        }
+        if (frequency == null) {
+            throw new IllegalArgumentException("La periodicidad no puede ser nula");
+        }
+        if (startDate == null || !startDate.isAfter(clock.getCurrentDay())) {
+            throw new IllegalArgumentException("La fecha de inicio debe ser posterior al día actual");
+        }
+        if (endDate != null && endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("La fecha de fin no puede ser anterior a la de inicio");
+        }
+
+        StandingOrder order = new StandingOrder(source, target, amount, note, frequency, startDate, endDate);
+        standingOrderDao.save(order);
+        return order;
+    }
+}
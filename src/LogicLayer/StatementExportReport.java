@@ -0,0 +1,58 @@
+package LogicLayer;
+
+/**
+ * Resultado de una exportación de extractos
+ */
+public class StatementExportReport {
+    private final int files;
+    private final long rows;
+    private final long bytes;
+    private final long elapsedNanos;
+
+    public StatementExportReport(int files, long rows, long bytes, long elapsedNanos) {
+        this.files = files;
+        this.rows = rows;
+        this.bytes = bytes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getFiles() {
+        return files;
+    }
+
+    /**
+     * Filas de movimientos escritas (sin contar los encabezados)
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getRowsPerSecond() {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return rows / (elapsedNanos / 1_000_000_000d);
+    }
+
+    public double getMegabytesPerSecond() {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return bytes / (1024d * 1024d) / (elapsedNanos / 1_000_000_000d);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%,d archivos, %,d filas, %.1f MB en %.1f ms (%,.0f filas/s, %.1f MB/s)",
+                files, rows, bytes / (1024d * 1024d), elapsedNanos / 1e6, getRowsPerSecond(),
+                getMegabytesPerSecond());
+    }
+}
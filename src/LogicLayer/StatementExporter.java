@@ -0,0 +1,191 @@
+package LogicLayer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Exportador de extractos de cuenta a CSV
+ * Las transacciones se leen del TransactionDao en orden cronológico y se escriben fila por fila,
+ * sin armar la lista completa en memoria. El extracto de un cliente intercala las transacciones de
+ * todas sus cuentas por fecha; una transferencia entre dos cuentas del mismo cliente aparece una vez
+ * por cuenta, con el signo que corresponde a cada una
+ */
+public class StatementExporter {
+    private static final String HEADER =
+            "fecha,transaccion,cuenta,tipo_cuenta,tipo,importe,moneda,estado,nota";
+
+    private static final DateTimeFormatter CSV_DATE_TIME =
+            DateTimeFormatter.ISO_OFFSET_DATE_TIME.withZone(ZoneId.systemDefault());
+
+    private final ClientDao clientDao;
+    private final AccountDao accountDao;
+    private final TransactionDao transactionDao;
+
+    public StatementExporter(ClientDao clientDao, AccountDao accountDao, TransactionDao transactionDao) {
+        this.clientDao = clientDao;
+        this.accountDao = accountDao;
+        this.transactionDao = transactionDao;
+    }
+
+    /**
+     * Exporta el extracto de una cuenta
+     *
+     * @throws IOException si no se puede escribir el archivo
+     */
+    public StatementExportReport exportAccount(Account account, Path file) throws IOException {
+        long start = System.nanoTime();
+        long rows;
+        long bytes;
+        try (CsvStatementWriter writer = new CsvStatementWriter(file)) {
+            writer.writeRow(HEADER);
+            StringBuilder row = new StringBuilder(160);
+            Iterator<Transaction> transactions = transactionDao.iterateByAccountId(account.getId());
+            while (transactions.hasNext()) {
+                writeTransaction(writer, row, account, transactions.next());
+            }
+            rows = writer.getRowsWritten() - 1;
+            bytes = writer.getBytesWritten();
+        }
+        return new StatementExportReport(1, rows, bytes, System.nanoTime() - start);
+    }
+
+    /**
+     * Exporta el extracto de todas las cuentas de un cliente, intercaladas por fecha
+     *
+     * @throws IOException si no se puede escribir el archivo
+     */
+    public StatementExportReport exportClient(Client client, Path file) throws IOException {
+        long start = System.nanoTime();
+        List<Account> accounts = accountDao.listByOwner(client.getId());
+
+        // Mezcla de k vías: una posición por cuenta, ordenadas por la fecha de su próxima transacción
+        PriorityQueue<AccountCursor> cursors = new PriorityQueue<>(Math.max(1, accounts.size()),
+                Comparator.comparing((AccountCursor c) -> c.current.getCreatedAt())
+                        .thenComparingInt(c -> c.order));
+        for (int i = 0; i < accounts.size(); i++) {
+            AccountCursor cursor = new AccountCursor(accounts.get(i), i,
+                    transactionDao.iterateByAccountId(accounts.get(i).getId()));
+            if (cursor.advance()) {
+                cursors.add(cursor);
+            }
+        }
+
+        long rows;
+        long bytes;
+        try (CsvStatementWriter writer = new CsvStatementWriter(file)) {
+            writer.writeRow(HEADER);
+            StringBuilder row = new StringBuilder(160);
+            while (!cursors.isEmpty()) {
+                AccountCursor cursor = cursors.poll();
+                writeTransaction(writer, row, cursor.account, cursor.current);
+                if (cursor.advance()) {
+                    cursors.add(cursor);
+                }
+            }
+            rows = writer.getRowsWritten() - 1;
+            bytes = writer.getBytesWritten();
+        }
+        return new StatementExportReport(1, rows, bytes, System.nanoTime() - start);
+    }
+
+    /**
+     * Exporta en paralelo el extracto de cada cliente a un archivo propio
+     * ("extracto-<id del cliente>.csv") dentro del directorio indicado
+     *
+     * @throws IOException si no se puede crear el directorio o escribir algún archivo
+     */
+    public StatementExportReport exportAllClients(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        long start = System.nanoTime();
+        List<StatementExportReport> reports;
+        try {
+            reports = clientDao.listAll().parallelStream()
+                    .map(client -> {
+                        try {
+                            return exportClient(client, directory.resolve("extracto-" + client.getId() + ".csv"));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    })
+                    .toList();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        long totalRows = 0;
+        long totalBytes = 0;
+        for (StatementExportReport report : reports) {
+            totalRows += report.getRows();
+            totalBytes += report.getBytes();
+        }
+        return new StatementExportReport(reports.size(), totalRows, totalBytes, System.nanoTime() - start);
+    }
+
+    /**
+     * Arma y escribe la fila de una transacción desde el punto de vista de una cuenta
+     */
+    private static void writeTransaction(CsvStatementWriter writer, StringBuilder row, Account account,
+                                         Transaction tx) throws IOException {
+        row.setLength(0);
+        CSV_DATE_TIME.formatTo(tx.getCreatedAt(), row);
+        row.append(',').append(tx.getId())
+                .append(',').append(account.getId())
+                .append(',');
+        CsvStatementWriter.appendField(row, account.type())
+                .append(',').append(tx.getType().name())
+                .append(',');
+        DisplayFormatter.appendDecimal(row, signedAmount(account, tx), 2, false)
+                .append(',').append(tx.getCurrency().name())
+                .append(',').append(tx.getStatus().name())
+                .append(',');
+        CsvStatementWriter.appendField(row, tx.getNote());
+        writer.writeRow(row);
+    }
+
+    /**
+     * Importe con signo para la cuenta: positivo si la acredita, negativo si la debita
+     */
+    private static BigDecimal signedAmount(Account account, Transaction tx) {
+        if (tx instanceof WithdrawTransaction) {
+            return tx.getAmount().negate();
+        }
+        if (tx instanceof TransferTransaction
+                && ((TransferTransaction) tx).getSource().getId().equals(account.getId())) {
+            return tx.getAmount().negate();
+        }
+        return tx.getAmount();
+    }
+
+    /**
+     * Posición de lectura sobre las transacciones de una cuenta
+     */
+    private static final class AccountCursor {
+        private final Account account;
+        private final int order;
+        private final Iterator<Transaction> transactions;
+        private Transaction current;
+
+        private AccountCursor(Account account, int order, Iterator<Transaction> transactions) {
+            this.account = account;
+            this.order = order;
+            this.transactions = transactions;
+        }
+
+        private boolean advance() {
+            if (!transactions.hasNext()) {
+                return false;
+            }
+            current = transactions.next();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package LogicLayer;
+
+import java.util.Arrays;
+
+/**
+ * Estimador de un cuantil sobre un flujo de datos con memoria constante (algoritmo P² de Jain y Chlamtac)
+ * Mantiene cinco marcadores cuyas alturas se ajustan con interpolación parabólica en cada observación
+ */
+public class StreamingQuantile {
+    private final double quantile;
+    private final double[] heights;
+    private final int[] positions;
+    private final double[] desiredPositions;
+    private final double[] increments;
+    private long count;
+
+    /**
+     * @param quantile cuantil a estimar (ej: 0.05 para el percentil 5)
+     */
+    public StreamingQuantile(double quantile) {
+        if (quantile <= 0 || quantile >= 1) {
+            throw new IllegalArgumentException("El cuantil debe estar entre 0 y 1");
+        }
+        this.quantile = quantile;
+        this.heights = new double[5];
+        this.positions = new int[5];
+        this.desiredPositions = new double[5];
+        this.increments = new double[5];
+    }
+
+    /**
+     * Copia independiente del estado actual
+     */
+    StreamingQuantile copy() {
+        StreamingQuantile copy = new StreamingQuantile(quantile);
+        System.arraycopy(heights, 0, copy.heights, 0, heights.length);
+        System.arraycopy(positions, 0, copy.positions, 0, positions.length);
+        System.arraycopy(desiredPositions, 0, copy.desiredPositions, 0, desiredPositions.length);
+        System.arraycopy(increments, 0, copy.increments, 0, increments.length);
+        copy.count = count;
+        return copy;
+    }
+
+    /**
+     * Incorpora una observación
+     */
+    public void add(double value) {
+        if (count < 5) {
+            heights[(int) count] = value;
+            count++;
+            if (count == 5) {
+                Arrays.sort(heights);
+                for (int i = 0; i < 5; i++) {
+                    positions[i] = i + 1;
+                }
+                desiredPositions[0] = 1;
+                desiredPositions[1] = 1 + 2 * quantile;
+                desiredPositions[2] = 1 + 4 * quantile;
+                desiredPositions[3] = 3 + 2 * quantile;
+                desiredPositions[4] = 5;
+                increments[0] = 0;
+                increments[1] = quantile / 2;
+                increments[2] = quantile;
+                increments[3] = (1 + quantile) / 2;
+                increments[4] = 1;
+            }
+            return;
+        }
+
+        // Ubicar la celda de la observación y ajustar extremos
+        int cell;
+        if (value < heights[0]) {
+            heights[0] = value;
+            cell = 0;
+        } else if (value < heights[1]) {
+            cell = 0;
+        } else if (value < heights[2]) {
+            cell = 1;
+        } else if (value < heights[3]) {
+            cell = 2;
+        } else if (value <= heights[4]) {
+            cell = 3;
+        } else {
+            heights[4] = value;
+            cell = 3;
+        }
+
+        for (int i = cell + 1; i < 5; i++) {
+            positions[i]++;
+        }
+        for (int i = 0; i < 5; i++) {
+            desiredPositions[i] += increments[i];
+        }
+
+        // Ajustar los marcadores intermedios
+        for (int i = 1; i < 4; i++) {
+            double delta = desiredPositions[i] - positions[i];
+            if ((delta >= 1 && positions[i + 1] - positions[i] > 1)
+                    || (delta <= -1 && positions[i - 1] - positions[i] < -1)) {
+                int direction = delta > 0 ? 1 : -1;
+                double candidate = parabolic(i, direction);
+                if (heights[i - 1] < candidate && candidate < heights[i + 1]) {
+                    heights[i] = candidate;
+                } else {
+                    heights[i] = linear(i, direction);
+                }
+                positions[i] += direction;
+            }
+        }
+        count++;
+    }
+
+    /**
+     * Obtiene la estimación actual del cuantil (NaN si no hay observaciones)
+     */
+    public double getEstimate() {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (count < 5) {
+            double[] sorted = Arrays.copyOf(heights, (int) count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(quantile * count) - 1;
+            return sorted[Math.max(0, index)];
+        }
+        return heights[2];
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    private double parabolic(int i, int d) {
+        double left = positions[i] - positions[i - 1];
+        double right = positions[i + 1] - positions[i];
+        double span = positions[i + 1] - positions[i - 1];
+        return heights[i] + d / span
+                * ((left + d) * (heights[i + 1] - heights[i]) / right
+                + (right - d) * (heights[i] - heights[i - 1]) / left);
+    }
+
+    private double linear(int i, int d) {
+        return heights[i] + d * (heights[i + d] - heights[i]) / (positions[i + d] - positions[i]);
+    }
+}
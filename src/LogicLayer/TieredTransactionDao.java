@@ -0,0 +1,487 @@
+package LogicLayer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DAO de transacciones en dos niveles: las recientes en memoria y las antiguas en segmentos
+ * comprimidos en disco
+ * Cada pase de archivado mueve las transacciones con más antigüedad que la retención indicada a un
+ * segmento nuevo e inmutable; las consultas combinan ambos niveles sin que el llamador lo note.
+ * Los segmentos guardan solo el id de las cuentas, que se resuelven con las cuentas vistas al
+ * guardar, por lo que el directorio debe empezar vacío
+ */
+public class TieredTransactionDao implements TransactionDao, AutoCloseable {
+    // Transacciones por bloque comprimido: bloques chicos abaratan las lecturas puntuales
+    private static final int BLOCK_SIZE = 256;
+
+    private final Path directory;
+    private final Duration hotRetention;
+
+    // Niveles vigentes; se reemplazan juntos al terminar cada archivado
+    private volatile Tiers tiers;
+    private final TransactionRollupCube rollups;
+    private final Map<UUID, Account> accounts;
+    // Id de la reversión completada de cada transacción revertida, por id de la original
+    private final Map<UUID, UUID> reversalsByOriginal;
+
+    // Serializa los archivados y el cierre
+    private final Object archiveLock;
+    private int nextSegment;
+    private ScheduledExecutorService archiver;
+    private volatile TransactionArchiveReport lastReport;
+    private volatile String lastError;
+
+    /**
+     * @param directory directorio donde se escriben los segmentos (se crea si no existe)
+     * @param hotRetention antigüedad a partir de la cual una transacción se archiva
+     */
+    public TieredTransactionDao(Path directory, Duration hotRetention) {
+        if (hotRetention.isNegative()) {
+            throw new IllegalArgumentException("La retención no puede ser negativa");
+        }
+        try {
+            Files.createDirectories(directory);
+            try (DirectoryStream<Path> existing = Files.newDirectoryStream(directory, "segment-*.txs")) {
+                if (existing.iterator().hasNext()) {
+                    throw new IllegalArgumentException("El directorio ya contiene segmentos archivados: "
+                            + directory);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo preparar el directorio " + directory, e);
+        }
+        this.directory = directory;
+        this.hotRetention = hotRetention;
+        this.tiers = new Tiers(new InMemoryTransactionDao(), Collections.emptyList());
+        this.rollups = new TransactionRollupCube();
+        this.accounts = new ConcurrentHashMap<>();
+        this.reversalsByOriginal = new ConcurrentHashMap<>();
+        this.archiveLock = new Object();
+    }
+
+    @Override
+    public synchronized void save(Transaction newTx) {
+        store(newTx);
+    }
+
+    @Override
+    public synchronized void saveAll(List<Transaction> newTxs) {
+        for (Transaction newTx : newTxs) {
+            store(newTx);
+        }
+    }
+
+    private void store(Transaction newTx) {
+        // Los resúmenes se actualizan primero: si el monto los desborda, la transacción se rechaza sin cambios
+        rollups.add(newTx);
+        for (Account account : involvedAccounts(newTx)) {
+            accounts.putIfAbsent(account.getId(), account);
+        }
+        tiers.hot.save(newTx);
+        if (newTx.isReversal() && newTx.isSuccessful()) {
+            reversalsByOriginal.put(newTx.getReversedTransactionId(), newTx.getId());
+        }
+    }
+
+    /**
+     * Mueve al almacenamiento frío las transacciones con más antigüedad que la retención
+     * El segmento se escribe sin bloquear a quienes guardan o consultan; al terminar, las
+     * transacciones guardadas mientras tanto se trasladan al nuevo nivel en memoria
+     *
+     * @return resultado del pase (sin transacciones si no había ninguna para archivar)
+     */
+    public TransactionArchiveReport archive() {
+        synchronized (archiveLock) {
+            long start = System.nanoTime();
+            Instant cutoff = Instant.now().minus(hotRetention);
+            InMemoryTransactionDao hot = tiers.hot;
+            List<Transaction> snapshot = hot.snapshot(0);
+
+            List<Transaction> old = new ArrayList<>();
+            List<Transaction> recent = new ArrayList<>();
+            for (Transaction tx : snapshot) {
+                (tx.getCreatedAt().isBefore(cutoff) ? old : recent).add(tx);
+            }
+            if (old.isEmpty()) {
+                return record(new TransactionArchiveReport(0, 0, 0, 0, System.nanoTime() - start));
+            }
+
+            ColdTransactionSegment segment;
+            Path file = directory.resolve(String.format("segment-%06d.txs", nextSegment++));
+            try {
+                segment = ColdTransactionSegment.write(file, old, BLOCK_SIZE, accounts::get);
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo archivar en " + file, e);
+            }
+            InMemoryTransactionDao newHot = new InMemoryTransactionDao();
+            newHot.saveAll(recent);
+
+            synchronized (this) {
+                // Transacciones guardadas durante la escritura del segmento
+                newHot.saveAll(hot.snapshot(snapshot.size()));
+                List<ColdTransactionSegment> segments = new ArrayList<>(tiers.segments);
+                segments.add(segment);
+                tiers = new Tiers(newHot, Collections.unmodifiableList(segments));
+            }
+            return record(new TransactionArchiveReport(old.size(), segment.getRawBytes(),
+                    segment.getCompressedBytes(), segment.getFileBytes() - segment.getCompressedBytes(), System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Inicia el archivado periódico en segundo plano
+     * Los errores no detienen los pases siguientes; el último queda disponible en {@link #getLastError()}
+     */
+    public void startBackgroundArchiving(Duration interval) {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("El intervalo de archivado debe ser positivo");
+        }
+        synchronized (archiveLock) {
+            if (archiver != null) {
+                throw new IllegalStateException("El archivado en segundo plano ya está iniciado");
+            }
+            archiver = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "transaction-archiver");
+                thread.setDaemon(true);
+                return thread;
+            });
+            archiver.scheduleWithFixedDelay(() -> {
+                try {
+                    archive();
+                    lastError = null;
+                } catch (RuntimeException e) {
+                    lastError = e.getMessage();
+                }
+            }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Resultado del último pase de archivado, o null si todavía no hubo ninguno
+     */
+    public TransactionArchiveReport getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * Mensaje del error del último pase en segundo plano, o null si terminó bien
+     */
+    public String getLastError() {
+        return lastError;
+    }
+
+    /**
+     * Cantidad de transacciones en memoria
+     */
+    public int getHotSize() {
+        return tiers.hot.size();
+    }
+
+    /**
+     * Cantidad de transacciones archivadas
+     */
+    public int getColdSize() {
+        int size = 0;
+        for (ColdTransactionSegment segment : tiers.segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        ScheduledExecutorService running;
+        synchronized (archiveLock) {
+            running = archiver;
+            archiver = null;
+        }
+        if (running != null) {
+            running.shutdownNow();
+        }
+        // Espera a que termine un archivado en curso antes de cerrar los segmentos
+        synchronized (archiveLock) {
+            for (ColdTransactionSegment segment : tiers.segments) {
+                segment.close();
+            }
+        }
+    }
+
+    @Override
+    public Transaction findById(UUID id) {
+        Tiers current = tiers;
+        Transaction tx = current.hot.findById(id);
+        for (int s = current.segments.size() - 1; s >= 0 && tx == null; s--) {
+            tx = current.segments.get(s).findById(id);
+        }
+        return tx;
+    }
+
+    @Override
+    public Transaction findReversalOf(UUID originalId) {
+        UUID reversalId = reversalsByOriginal.get(originalId);
+        return reversalId != null ? findById(reversalId) : null;
+    }
+
+    @Override
+    public List<Transaction> listByAccountId(UUID accountId) {
+        Tiers current = tiers;
+        List<Transaction> all = new ArrayList<>(current.hot.listByAccountId(accountId));
+        for (ColdTransactionSegment segment : current.segments) {
+            all.addAll(segment.listByAccountId(accountId));
+        }
+        all.sort((t1, t2) -> t2.getCreatedAt().compareTo(t1.getCreatedAt()));
+        return all;
+    }
+
+    @Override
+    public int countByAccountId(UUID accountId) {
+        Tiers current = tiers;
+        int count = current.hot.countByAccountId(accountId);
+        for (ColdTransactionSegment segment : current.segments) {
+            count += segment.countByAccountId(accountId);
+        }
+        return count;
+    }
+
+    @Override
+    public List<Transaction> listByAccountId(UUID accountId, int offset, int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        Tiers current = tiers;
+        int hotCount = current.hot.countByAccountId(accountId);
+        List<Transaction> page = new ArrayList<>(offset < hotCount
+                ? current.hot.listByAccountId(accountId, offset, limit)
+                : Collections.emptyList());
+
+        // Los segmentos se recorren del más nuevo al más antiguo, saltando los que quedan antes de la página
+        int skip = Math.max(offset - hotCount, 0);
+        for (int s = current.segments.size() - 1; s >= 0 && page.size() < limit; s--) {
+            ColdTransactionSegment segment = current.segments.get(s);
+            int count = segment.countByAccountId(accountId);
+            if (skip >= count) {
+                skip -= count;
+                continue;
+            }
+            page.addAll(segment.listByAccountId(accountId, skip, limit - page.size()));
+            skip = 0;
+        }
+        return page;
+    }
+
+    @Override
+    public Iterator<Transaction> iterateByAccountId(UUID accountId) {
+        return new ChronologicalMerge(tiers, accountId);
+    }
+
+    @Override
+    public List<Transaction> searchByNote(String query, Collection<UUID> accountIds, int limit) {
+        Tiers current = tiers;
+        List<Transaction> result = new ArrayList<>(current.hot.searchByNote(query, accountIds, limit));
+        List<String> terms = TransactionNoteIndex.tokenize(query);
+        if (terms.isEmpty()) {
+            return result;
+        }
+        for (int s = current.segments.size() - 1; s >= 0 && result.size() < limit; s--) {
+            result.addAll(current.segments.get(s).select(accountIds, Long.MIN_VALUE, Long.MAX_VALUE,
+                    tx -> tx.getNote() != null && involvesAny(tx, accountIds)
+                            && TransactionNoteIndex.tokenize(tx.getNote()).containsAll(terms),
+                    limit - result.size()));
+        }
+        return result;
+    }
+
+    @Override
+    public List<Transaction> query(TransactionQuery query) {
+        Tiers current = tiers;
+        List<Transaction> result = new ArrayList<>(current.hot.query(query));
+        List<UUID> accountIds = query.getAccountId() != null ? List.of(query.getAccountId()) : null;
+        // Límites en microsegundos para descartar bloques por el índice temporal
+        long fromMicros = query.getFrom() != null
+                ? ChronoUnit.MICROS.between(Instant.EPOCH, query.getFrom()) : Long.MIN_VALUE;
+        long toMicros = query.getTo() != null
+                ? ChronoUnit.MICROS.between(Instant.EPOCH, query.getTo()) : Long.MAX_VALUE;
+        for (int s = current.segments.size() - 1; s >= 0 && result.size() < query.getLimit(); s--) {
+            result.addAll(current.segments.get(s).select(accountIds, fromMicros, toMicros, query::matches,
+                    query.getLimit() - result.size()));
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized List<TransactionRollup> getAccountRollups(UUID accountId, Currency currency,
+                                                                  RollupPeriod granularity,
+                                                                  LocalDate from, LocalDate to) {
+        return rollups.getAccountRollups(accountId, currency, granularity, from, to);
+    }
+
+    @Override
+    public synchronized List<TransactionRollup> getSystemRollups(Currency currency, RollupPeriod granularity,
+                                                                 LocalDate from, LocalDate to) {
+        return rollups.getSystemRollups(currency, granularity, from, to);
+    }
+
+    @Override
+    public boolean verifyRollups() {
+        // Se copian los resúmenes y el nivel en memoria; los segmentos se leen fuera del lock
+        Tiers current;
+        List<Transaction> all = new ArrayList<>();
+        TransactionRollupCube expected = new TransactionRollupCube();
+        synchronized (this) {
+            current = tiers;
+            all.addAll(current.hot.snapshot(0));
+            expected.merge(rollups);
+        }
+        for (ColdTransactionSegment segment : current.segments) {
+            all.addAll(segment.readAll());
+        }
+        return TransactionRollupCube.rebuild(all).equals(expected);
+    }
+
+    private TransactionArchiveReport record(TransactionArchiveReport report) {
+        lastReport = report;
+        return report;
+    }
+
+    private static List<Account> involvedAccounts(Transaction tx) {
+        if (tx instanceof DepositTransaction) {
+            return List.of(((DepositTransaction) tx).getTarget());
+        } else if (tx instanceof WithdrawTransaction) {
+            return List.of(((WithdrawTransaction) tx).getSource());
+        } else if (tx instanceof TransferTransaction) {
+            return List.of(((TransferTransaction) tx).getSource(), ((TransferTransaction) tx).getTarget());
+        }
+        return Collections.emptyList();
+    }
+
+    private static boolean involvesAny(Transaction tx, Collection<UUID> accountIds) {
+        if (accountIds == null) {
+            return true;
+        }
+        for (UUID accountId : ColdTransactionSegment.accountIds(tx)) {
+            if (accountIds.contains(accountId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Mezcla por fecha de alta de las transacciones de una cuenta en todos los niveles
+     * El nivel en memoria ya se recorre en orden cronológico; cada segmento se descomprime y se ordena
+     * recién cuando la mezcla alcanza la cota inferior de sus fechas, por lo que un historial
+     * archivado en orden no mantiene más de un segmento en memoria a la vez.
+     * A igual fecha se respeta el orden de los niveles (segmentos por archivado y al final la memoria)
+     */
+    private static final class ChronologicalMerge implements Iterator<Transaction> {
+        private final Tiers current;
+        private final UUID accountId;
+        private final PriorityQueue<TierCursor> heads;
+        // Segmentos con transacciones de la cuenta aún sin abrir, por cota inferior de fecha
+        private final List<Integer> pending;
+        private int nextPending;
+        private boolean hotOpened;
+
+        private ChronologicalMerge(Tiers current, UUID accountId) {
+            this.current = current;
+            this.accountId = accountId;
+            this.heads = new PriorityQueue<>();
+            this.pending = new ArrayList<>();
+            for (int s = 0; s < current.segments.size(); s++) {
+                if (current.segments.get(s).countByAccountId(accountId) > 0) {
+                    pending.add(s);
+                }
+            }
+            pending.sort(Comparator.comparingLong(
+                    (Integer s) -> current.segments.get(s).minMicrosByAccountId(accountId))
+                    .thenComparingInt(s -> s));
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!hotOpened) {
+                hotOpened = true;
+                offer(new TierCursor(current.segments.size(), current.hot.iterateByAccountId(accountId)));
+            }
+            while (nextPending < pending.size() && (heads.isEmpty() || minMicros(pending.get(nextPending))
+                    <= ChronoUnit.MICROS.between(Instant.EPOCH, heads.peek().head.getCreatedAt()))) {
+                int tier = pending.get(nextPending++);
+                List<Transaction> segment = current.segments.get(tier).listByAccountId(accountId);
+                segment.sort(Comparator.comparing(Transaction::getCreatedAt));
+                offer(new TierCursor(tier, segment.iterator()));
+            }
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public Transaction next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            TierCursor cursor = heads.poll();
+            Transaction tx = cursor.head;
+            offer(cursor);
+            return tx;
+        }
+
+        private long minMicros(int tier) {
+            return current.segments.get(tier).minMicrosByAccountId(accountId);
+        }
+
+        /**
+         * Vuelve a encolar el cursor con su siguiente transacción, si le quedan
+         */
+        private void offer(TierCursor cursor) {
+            if (cursor.transactions.hasNext()) {
+                cursor.head = cursor.transactions.next();
+                heads.add(cursor);
+            }
+        }
+    }
+
+    /**
+     * Próxima transacción de un nivel dentro de la mezcla cronológica
+     */
+    private static final class TierCursor implements Comparable<TierCursor> {
+        private final int tier;
+        private final Iterator<Transaction> transactions;
+        private Transaction head;
+
+        private TierCursor(int tier, Iterator<Transaction> transactions) {
+            this.tier = tier;
+            this.transactions = transactions;
+        }
+
+        @Override
+        public int compareTo(TierCursor other) {
+            int byDate = head.getCreatedAt().compareTo(other.head.getCreatedAt());
+            return byDate != 0 ? byDate : Integer.compare(tier, other.tier);
+        }
+    }
+
+    /**
+     * Nivel en memoria y segmentos archivados (del más antiguo al más nuevo) vigentes a la vez
+     */
+    private static final class Tiers {
+        private final InMemoryTransactionDao hot;
+        private final List<ColdTransactionSegment> segments;
+
+        private Tiers(InMemoryTransactionDao hot, List<ColdTransactionSegment> segments) {
+            this.hot = hot;
+            this.segments = segments;
+        }
+    }
+}
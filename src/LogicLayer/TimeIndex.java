@@ -0,0 +1,61 @@
+package LogicLayer;
+
+import java.util.Arrays;
+
+/**
+ * Índice de posiciones de transacciones ordenado por fecha de creación
+ * Usa dos arreglos paralelos (instante en nanosegundos y posición). Las transacciones llegan casi
+ * en orden, por lo que cada alta se inserta desde el final desplazando pocos elementos
+ */
+final class TimeIndex {
+    private long[] times;
+    private int[] positions;
+    private int size;
+
+    TimeIndex(int initialCapacity) {
+        this.times = new long[initialCapacity];
+        this.positions = new int[initialCapacity];
+    }
+
+    void add(long time, int position) {
+        if (size == times.length) {
+            int capacity = Math.max(4, size * 2);
+            times = Arrays.copyOf(times, capacity);
+            positions = Arrays.copyOf(positions, capacity);
+        }
+        int i = size;
+        while (i > 0 && times[i - 1] > time) {
+            times[i] = times[i - 1];
+            positions[i] = positions[i - 1];
+            i--;
+        }
+        times[i] = time;
+        positions[i] = position;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Primer índice cuyo instante es mayor o igual al indicado
+     */
+    int lowerBound(long time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    int positionAt(int index) {
+        return positions[index];
+    }
+}
@@ -0,0 +1,79 @@
+package LogicLayer;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Generador de ids ordenados por tiempo al estilo UUID versión 7
+ * Los 48 bits más altos son los milisegundos desde 1970, seguidos de la versión, un contador de
+ * 12 bits, la variante y 62 bits aleatorios. Los ids de un mismo hilo son siempre crecientes; los
+ * de distintos hilos quedan ordenados por milisegundo. Cada hilo tiene su propio estado y su
+ * propio generador pseudoaleatorio, por lo que no hay bloqueos ni contención al generar.
+ * Los ids revelan cuándo se crearon y no son impredecibles: no deben usarse como secretos
+ */
+public class TimeOrderedIdGenerator implements IdGenerator {
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+    private static final long RANDOM_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+    private static final int COUNTER_LIMIT = 0xFFF;
+    // Cada milisegundo el contador arranca en la mitad inferior, para dejar lugar a los incrementos
+    private static final int COUNTER_SEED_BOUND = 1 << 11;
+
+    private final SplittableRandom seeds;
+    private final ThreadLocal<ThreadState> states;
+
+    public TimeOrderedIdGenerator() {
+        this.seeds = new SplittableRandom(new SecureRandom().nextLong());
+        this.states = ThreadLocal.withInitial(this::newThreadState);
+    }
+
+    @Override
+    public UUID nextId() {
+        ThreadState state = states.get();
+        long now = System.currentTimeMillis();
+        if (now > state.lastMillis) {
+            state.lastMillis = now;
+            state.counter = state.random.nextInt(COUNTER_SEED_BOUND);
+        } else if (++state.counter > COUNTER_LIMIT) {
+            // Contador agotado (o reloj atrasado): se adelanta el milisegundo para conservar el orden
+            state.lastMillis++;
+            state.counter = state.random.nextInt(COUNTER_SEED_BOUND);
+        }
+        long high = state.lastMillis << 16 | VERSION | state.counter;
+        long low = state.random.nextLong() & RANDOM_MASK | VARIANT;
+        return new UUID(high, low);
+    }
+
+    /**
+     * Momento en que se generó un id ordenado por tiempo (con precisión de milisegundos)
+     */
+    public static Instant getTimestamp(UUID id) {
+        if (id.version() != 7) {
+            throw new IllegalArgumentException("El id no está ordenado por tiempo: " + id);
+        }
+        return Instant.ofEpochMilli(id.getMostSignificantBits() >>> 16);
+    }
+
+    private ThreadState newThreadState() {
+        SplittableRandom random;
+        synchronized (seeds) {
+            random = seeds.split();
+        }
+        return new ThreadState(random);
+    }
+
+    /**
+     * Estado de generación de un hilo
+     */
+    private static final class ThreadState {
+        private final SplittableRandom random;
+        private long lastMillis;
+        private int counter;
+
+        private ThreadState(SplittableRandom random) {
+            this.random = random;
+        }
+    }
+}
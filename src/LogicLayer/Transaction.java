@@ -2,8 +2,7 @@ package LogicLayer;
 
 import java.math.BigDecimal;
 import java.time.Instant;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
 /**
@@ -17,19 +16,41 @@ public abstract class Transaction {
     protected final Currency currency;
     protected final Instant createdAt;
     protected final String note;
+    // Transacción original cuando ésta es su reversión
+    protected final UUID reversedTransactionId;
 
     /**
      * Constructor para crear una nueva transacción
      */
     public Transaction(TransactionType type, TransactionStatus status, BigDecimal amount,
                       Currency currency, String note) {
-        this.id = UUID.randomUUID();
+        this(type, status, amount, currency, note, null);
+    }
+
+    /**
+     * Constructor para crear la reversión de una transacción
+     * @param reversedTransactionId id de la transacción que se revierte
+     */
+    protected Transaction(TransactionType type, TransactionStatus status, BigDecimal amount,
+                          Currency currency, String note, UUID reversedTransactionId) {
+        // La fecha se guarda en microsegundos para que el registro compacto la conserve exacta
+        this(EntityIds.next(), type, status, amount, currency, Instant.now().truncatedTo(ChronoUnit.MICROS),
+                note, reversedTransactionId);
+    }
+
+    /**
+     * Constructor para reconstruir una transacción guardada
+     */
+    protected Transaction(UUID id, TransactionType type, TransactionStatus status, BigDecimal amount,
+                          Currency currency, Instant createdAt, String note, UUID reversedTransactionId) {
+        this.id = id;
         this.type = type;
         this.status = status;
         this.amount = amount;
         this.currency = currency;
-        this.createdAt = Instant.now();
+        this.createdAt = createdAt;
         this.note = note;
+        this.reversedTransactionId = reversedTransactionId;
     }
 
     public UUID getId() {
@@ -44,6 +65,30 @@ public abstract class Transaction {
         return note;
     }
 
+    public UUID getReversedTransactionId() {
+        return reversedTransactionId;
+    }
+
+    public boolean isReversal() {
+        return reversedTransactionId != null;
+    }
+
+    public TransactionType getType() {
+        return type;
+    }
+
+    public TransactionStatus getStatus() {
+        return status;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
     public boolean isSuccessful() {
         return status == TransactionStatus.SETTLED;
     }
@@ -51,15 +96,48 @@ public abstract class Transaction {
     /**
      * Genera un resumen legible de la transacción
      */
-    public abstract String summary();
+    public String summary() {
+        return appendSummary(new StringBuilder(128)).toString();
+    }
+
+    /**
+     * Agrega el resumen de la transacción a un StringBuilder reutilizable
+     * @return el mismo StringBuilder, para encadenar
+     */
+    public abstract StringBuilder appendSummary(StringBuilder sb);
+
+    /**
+     * Agrega el encabezado común: "[fecha] Tipo: "
+     */
+    protected StringBuilder appendHeader(StringBuilder sb) {
+        sb.append('[');
+        DisplayFormatter.appendDateTime(sb, createdAt);
+        return sb.append("] ").append(type.getDescription()).append(": ");
+    }
+
+    /**
+     * Agrega el cierre común: " | Estado | Nota" (y " | Reversión" si corresponde)
+     */
+    protected StringBuilder appendStatusAndNote(StringBuilder sb) {
+        sb.append(" | ").append(status.getDescription())
+                .append(" | ").append(note != null ? note : "Sin nota");
+        return reversedTransactionId != null ? sb.append(" | Reversión") : sb;
+    }
 
     /**
-     * Formatea la fecha/hora de la transacción
+     * Dos transacciones son iguales si tienen el mismo id (el DAO puede reconstruir varias copias)
      */
-    protected String formatDateTime() {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")
-                .withZone(ZoneId.systemDefault());
-        return formatter.format(createdAt);
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Transaction that = (Transaction) o;
+        return id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return id.hashCode();
     }
 
     @Override
@@ -0,0 +1,70 @@
+package LogicLayer;
+
+/**
+ * Resultado de un pase de archivado de transacciones al almacenamiento frío
+ */
+public class TransactionArchiveReport {
+    private final int transactions;
+    private final long rawBytes;
+    private final long compressedBytes;
+    private final long indexBytes;
+    private final long elapsedNanos;
+
+    public TransactionArchiveReport(int transactions, long rawBytes, long compressedBytes, long indexBytes,
+                                    long elapsedNanos) {
+        this.transactions = transactions;
+        this.rawBytes = rawBytes;
+        this.compressedBytes = compressedBytes;
+        this.indexBytes = indexBytes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Transacciones movidas al almacenamiento frío
+     */
+    public int getTransactions() {
+        return transactions;
+    }
+
+    /**
+     * Tamaño de los registros sin comprimir
+     */
+    public long getRawBytes() {
+        return rawBytes;
+    }
+
+    /**
+     * Tamaño de los registros comprimidos
+     */
+    public long getCompressedBytes() {
+        return compressedBytes;
+    }
+
+    /**
+     * Tamaño del índice del segmento (bloques, cuentas e ids)
+     */
+    public long getIndexBytes() {
+        return indexBytes;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Relación entre el tamaño de los registros sin comprimir y comprimidos
+     */
+    public double getCompressionRatio() {
+        if (compressedBytes <= 0) {
+            return 0;
+        }
+        return rawBytes / (double) compressedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%,d transacciones, %.1f MB -> %.1f MB (%.1fx) + %.1f MB de índice en %.1f ms",
+                transactions, rawBytes / (1024d * 1024d), compressedBytes / (1024d * 1024d),
+                getCompressionRatio(), indexBytes / (1024d * 1024d), elapsedNanos / 1e6);
+    }
+}
@@ -1,5 +1,8 @@
 package LogicLayer;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
 
@@ -12,8 +15,86 @@ public interface TransactionDao {
      */
     void save(Transaction newTx);
 
+    /**
+     * Guarda un lote de transacciones en una sola operación
+     */
+    void saveAll(List<Transaction> newTxs);
+
+    /**
+     * Busca una transacción por su id
+     * @return la transacción o null si no existe
+     */
+    Transaction findById(UUID id);
+
+    /**
+     * Busca la reversión completada de una transacción
+     * @return la reversión o null si la transacción no fue revertida
+     */
+    Transaction findReversalOf(UUID originalId);
+
     /**
      * Lista todas las transacciones de una cuenta
      */
     List<Transaction> listByAccountId(UUID accountId);
+
+    /**
+     * Cuenta las transacciones de una cuenta
+     */
+    int countByAccountId(UUID accountId);
+
+    /**
+     * Obtiene una página de transacciones de una cuenta (más reciente primero)
+     * @param offset posición de la primera transacción de la página
+     * @param limit cantidad máxima de transacciones
+     */
+    List<Transaction> listByAccountId(UUID accountId, int offset, int limit);
+
+    /**
+     * Recorre las transacciones de una cuenta en orden cronológico (por fecha de alta; a igual fecha,
+     * en orden de alta) sin copiar la lista completa, aunque se hayan guardado fuera de orden
+     * Las transacciones guardadas durante el recorrido se incluyen a continuación de las ya devueltas
+     */
+    Iterator<Transaction> iterateByAccountId(UUID accountId);
+
+    /**
+     * Busca transacciones cuyas notas contienen todos los términos de la consulta
+     * (sin distinguir mayúsculas ni acentos)
+     *
+     * @param query texto a buscar
+     * @param accountIds cuentas donde buscar (null para todas)
+     * @param limit cantidad máxima de resultados
+     * @return transacciones encontradas, más reciente primero
+     */
+    List<Transaction> searchByNote(String query, Collection<UUID> accountIds, int limit);
+
+    /**
+     * Busca transacciones que cumplen todos los criterios de la consulta
+     * (tipo, estado, moneda, cuenta, rango de fechas y rango de montos)
+     *
+     * @return transacciones encontradas, más reciente primero
+     */
+    List<Transaction> query(TransactionQuery query);
+
+    /**
+     * Obtiene los resúmenes precalculados de una cuenta por período (ambas fechas inclusive)
+     *
+     * @return un resumen por cada período con transacciones, en orden cronológico
+     */
+    List<TransactionRollup> getAccountRollups(UUID accountId, Currency currency, RollupPeriod granularity,
+                                              LocalDate from, LocalDate to);
+
+    /**
+     * Obtiene los resúmenes precalculados de todas las cuentas en una moneda por período
+     * (cada transferencia se cuenta una sola vez)
+     */
+    List<TransactionRollup> getSystemRollups(Currency currency, RollupPeriod granularity,
+                                             LocalDate from, LocalDate to);
+
+    /**
+     * Reconstruye los resúmenes desde las transacciones guardadas y los compara con los mantenidos
+     * al guardar
+     *
+     * @return true si coinciden
+     */
+    boolean verifyRollups();
 }
@@ -0,0 +1,185 @@
+package LogicLayer;
+
+import java.text.Normalizer;
+import java.util.*;
+
+/**
+ * Índice invertido sobre las notas de las transacciones
+ * Cada transacción se identifica por su posición de alta en el DAO. Por cada término se mantiene
+ * una lista de posiciones global y una por cuenta involucrada, de modo que la búsqueda de un cliente
+ * solo recorre las listas de sus cuentas. Los términos se normalizan a minúsculas y sin acentos;
+ * una consulta con varios términos devuelve las transacciones que los contienen a todos: se
+ * decodifica solo la lista del término menos frecuente y las demás filtran esas candidatas
+ */
+public class TransactionNoteIndex {
+    // Longitud mínima de un término indexado
+    private static final int MIN_TERM_LENGTH = 2;
+
+    private final Map<String, PostingList> postingsByTerm;
+    private final Map<UUID, Map<String, PostingList>> postingsByAccount;
+
+    public TransactionNoteIndex() {
+        this.postingsByTerm = new HashMap<>();
+        this.postingsByAccount = new HashMap<>();
+    }
+
+    /**
+     * Indexa la nota de una transacción
+     *
+     * @param position posición de la transacción, mayor que las ya indexadas
+     * @param note nota a indexar (puede ser null)
+     * @param accountIds cuentas involucradas en la transacción
+     */
+    public void add(int position, String note, List<UUID> accountIds) {
+        List<String> terms = tokenize(note);
+        if (terms.isEmpty()) {
+            return;
+        }
+        for (String term : terms) {
+            postingsByTerm.computeIfAbsent(term, k -> new PostingList()).add(position);
+        }
+        for (UUID accountId : accountIds) {
+            Map<String, PostingList> accountPostings =
+                    postingsByAccount.computeIfAbsent(accountId, k -> new HashMap<>());
+            for (String term : terms) {
+                accountPostings.computeIfAbsent(term, k -> new PostingList()).add(position);
+            }
+        }
+    }
+
+    /**
+     * Busca las transacciones cuyas notas contienen todos los términos de la consulta
+     *
+     * @param query texto a buscar
+     * @param accountIds cuentas donde buscar (null para todas)
+     * @return posiciones en orden creciente
+     */
+    public int[] search(String query, Collection<UUID> accountIds) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return new int[0];
+        }
+
+        if (accountIds == null) {
+            return intersectAll(postingsByTerm, terms);
+        }
+        // Cada cuenta se intersecta por separado: una cuenta sin alguno de los términos no se decodifica
+        int[] result = new int[0];
+        for (UUID accountId : accountIds) {
+            Map<String, PostingList> accountPostings = postingsByAccount.get(accountId);
+            if (accountPostings != null) {
+                result = union(result, intersectAll(accountPostings, terms));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Cantidad de términos distintos indexados
+     */
+    public int getTermCount() {
+        return postingsByTerm.size();
+    }
+
+    /**
+     * Bytes ocupados por las listas de posiciones globales
+     */
+    public long getEncodedBytes() {
+        long bytes = 0;
+        for (PostingList postings : postingsByTerm.values()) {
+            bytes += postings.encodedBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Divide un texto en términos normalizados y sin repetir, en orden de aparición
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String normalized = needsNormalization(text) ? Normalizer.normalize(text, Normalizer.Form.NFD) : text;
+
+        List<String> terms = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i <= normalized.length(); i++) {
+            char c = i < normalized.length() ? normalized.charAt(i) : ' ';
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                current.append(Character.toLowerCase(c));
+            } else if (current.length() > 0) {
+                if (current.length() >= MIN_TERM_LENGTH) {
+                    String term = current.toString();
+                    if (!terms.contains(term)) {
+                        terms.add(term);
+                    }
+                }
+                current.setLength(0);
+            }
+        }
+        return terms;
+    }
+
+    private static boolean needsNormalization(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 127) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Posiciones presentes en las listas de todos los términos
+     * Si falta alguno no se decodifica ninguna lista; si no, se decodifica la más corta y las demás,
+     * de la más corta a la más larga, conservan solo las candidatas que contienen
+     */
+    private static int[] intersectAll(Map<String, PostingList> postings, List<String> terms) {
+        PostingList[] lists = new PostingList[terms.size()];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = postings.get(terms.get(i));
+            if (lists[i] == null) {
+                return new int[0];
+            }
+        }
+        Arrays.sort(lists, Comparator.comparingInt(PostingList::size));
+        int[] candidates = lists[0].toArray();
+        int size = candidates.length;
+        for (int i = 1; i < lists.length && size > 0; i++) {
+            size = lists[i].retain(candidates, size);
+        }
+        return size == candidates.length ? candidates : Arrays.copyOf(candidates, size);
+    }
+
+    /**
+     * Une dos listas de posiciones en orden creciente, sin repetir (una transferencia entre dos
+     * cuentas consultadas figura en ambas)
+     */
+    private static int[] union(int[] a, int[] b) {
+        if (a.length == 0) {
+            return b;
+        }
+        if (b.length == 0) {
+            return a;
+        }
+        int[] out = new int[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length || j < b.length) {
+            if (j >= b.length || (i < a.length && a[i] < b[j])) {
+                out[n++] = a[i++];
+            } else if (i >= a.length || b[j] < a[i]) {
+                out[n++] = b[j++];
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+}
@@ -0,0 +1,184 @@
+package LogicLayer;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Criterios de búsqueda de transacciones
+ * Los criterios se combinan (todos deben cumplirse); los que no se indican no filtran.
+ * Ejemplo: transferencias de más de 100.000 ARS del último mes
+ * <pre>
+ * new TransactionQuery().ofType(TransactionType.TRANSFER).inCurrency(Currency.ARS)
+ *         .between(inicioDelMes, finDelMes).amountBetween(new BigDecimal("100000"), null)
+ * </pre>
+ */
+public class TransactionQuery {
+    private UUID accountId;
+    private Set<TransactionType> types;
+    private TransactionStatus status;
+    private Currency currency;
+    private Instant from;
+    private Instant to;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+    private int limit = Integer.MAX_VALUE;
+
+    /**
+     * Solo transacciones en las que participa la cuenta
+     */
+    public TransactionQuery forAccount(UUID accountId) {
+        this.accountId = accountId;
+        return this;
+    }
+
+    /**
+     * Copia de la consulta restringida a una cuenta; la consulta original no cambia
+     */
+    TransactionQuery copyForAccount(UUID accountId) {
+        TransactionQuery copy = new TransactionQuery();
+        copy.accountId = accountId;
+        copy.types = types != null ? EnumSet.copyOf(types) : null;
+        copy.status = status;
+        copy.currency = currency;
+        copy.from = from;
+        copy.to = to;
+        copy.minAmount = minAmount;
+        copy.maxAmount = maxAmount;
+        copy.limit = limit;
+        return copy;
+    }
+
+    /**
+     * Solo transacciones de alguno de los tipos indicados
+     */
+    public TransactionQuery ofType(TransactionType first, TransactionType... rest) {
+        this.types = EnumSet.of(first, rest);
+        return this;
+    }
+
+    public TransactionQuery withStatus(TransactionStatus status) {
+        this.status = status;
+        return this;
+    }
+
+    public TransactionQuery inCurrency(Currency currency) {
+        this.currency = currency;
+        return this;
+    }
+
+    /**
+     * Rango de fechas de creación [from, to); cualquiera de los extremos puede ser null
+     */
+    public TransactionQuery between(Instant from, Instant to) {
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new IllegalArgumentException("El fin del rango no puede ser anterior al inicio");
+        }
+        this.from = from;
+        this.to = to;
+        return this;
+    }
+
+    /**
+     * Rango de montos [min, max], ambos inclusive; cualquiera de los extremos puede ser null
+     */
+    public TransactionQuery amountBetween(BigDecimal min, BigDecimal max) {
+        if (min != null && max != null && max.compareTo(min) < 0) {
+            throw new IllegalArgumentException("El monto máximo no puede ser menor que el mínimo");
+        }
+        this.minAmount = min;
+        this.maxAmount = max;
+        return this;
+    }
+
+    /**
+     * Cantidad máxima de resultados (los más recientes)
+     */
+    public TransactionQuery limit(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("El límite debe ser positivo");
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    public UUID getAccountId() {
+        return accountId;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public Instant getFrom() {
+        return from;
+    }
+
+    public Instant getTo() {
+        return to;
+    }
+
+    public BigDecimal getMinAmount() {
+        return minAmount;
+    }
+
+    public BigDecimal getMaxAmount() {
+        return maxAmount;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public boolean hasTimeRange() {
+        return from != null || to != null;
+    }
+
+    public boolean hasAmountRange() {
+        return minAmount != null || maxAmount != null;
+    }
+
+    /**
+     * Verifica si una transacción cumple todos los criterios
+     */
+    public boolean matches(Transaction tx) {
+        if (types != null && !types.contains(tx.getType())) {
+            return false;
+        }
+        if (status != null && tx.getStatus() != status) {
+            return false;
+        }
+        if (currency != null && tx.getCurrency() != currency) {
+            return false;
+        }
+        if (from != null && tx.getCreatedAt().isBefore(from)) {
+            return false;
+        }
+        if (to != null && !tx.getCreatedAt().isBefore(to)) {
+            return false;
+        }
+        if (minAmount != null && tx.getAmount().compareTo(minAmount) < 0) {
+            return false;
+        }
+        if (maxAmount != null && tx.getAmount().compareTo(maxAmount) > 0) {
+            return false;
+        }
+        return accountId == null || involves(tx, accountId);
+    }
+
+    private static boolean involves(Transaction tx, UUID accountId) {
+        if (tx instanceof DepositTransaction) {
+            return ((DepositTransaction) tx).getTarget().getId().equals(accountId);
+        }
+        if (tx instanceof WithdrawTransaction) {
+            return ((WithdrawTransaction) tx).getSource().getId().equals(accountId);
+        }
+        if (tx instanceof TransferTransaction) {
+            return ((TransferTransaction) tx).getSource().getId().equals(accountId)
+                    || ((TransferTransaction) tx).getTarget().getId().equals(accountId);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,126 @@
+package LogicLayer;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Índices secundarios de transacciones por fecha y por monto
+ * Mantiene un índice temporal global, uno por cuenta y uno de montos por moneda. Cada consulta
+ * estima cuántos candidatos aporta cada índice aplicable, recorre el más selectivo y verifica el
+ * resto de los criterios sobre cada candidato
+ */
+public class TransactionRangeIndex {
+    private final TimeIndex byTime;
+    private final Map<UUID, TimeIndex> byAccountTime;
+    private final Map<Currency, AmountIndex> byCurrencyAmount;
+
+    public TransactionRangeIndex() {
+        this.byTime = new TimeIndex(1024);
+        this.byAccountTime = new HashMap<>();
+        this.byCurrencyAmount = new EnumMap<>(Currency.class);
+    }
+
+    /**
+     * Indexa una transacción
+     *
+     * @param position posición de la transacción en el DAO
+     * @param accountIds cuentas involucradas
+     */
+    public void add(int position, Transaction tx, List<UUID> accountIds) {
+        long time = toNanos(tx.getCreatedAt());
+        byTime.add(time, position);
+        for (UUID accountId : accountIds) {
+            byAccountTime.computeIfAbsent(accountId, k -> new TimeIndex(4)).add(time, position);
+        }
+        byCurrencyAmount.computeIfAbsent(tx.getCurrency(), k -> new AmountIndex())
+                .add(toCents(tx.getAmount()), position);
+    }
+
+    /**
+     * Ejecuta una consulta
+     *
+     * @param transactionsByPosition transacciones del DAO indexadas por posición
+     * @return transacciones que cumplen la consulta, más reciente primero
+     */
+    public List<Transaction> query(TransactionQuery query, List<Transaction> transactionsByPosition) {
+        long fromTime = query.getFrom() != null ? toNanos(query.getFrom()) : Long.MIN_VALUE;
+        long toTime = query.getTo() != null ? toNanos(query.getTo()) : Long.MAX_VALUE;
+
+        // Candidatos por fecha: índice de la cuenta si hay cuenta, si no el global
+        TimeIndex timeIndex = byTime;
+        if (query.getAccountId() != null) {
+            timeIndex = byAccountTime.get(query.getAccountId());
+            if (timeIndex == null) {
+                return Collections.emptyList();
+            }
+        }
+        int timeStart = timeIndex.lowerBound(fromTime);
+        int timeEnd = toTime == Long.MAX_VALUE ? timeIndex.size() : timeIndex.lowerBound(toTime);
+        long timeCandidates = Math.max(0, timeEnd - timeStart);
+
+        if (query.hasAmountRange()) {
+            long minKey = query.getMinAmount() != null ? toCents(query.getMinAmount()) : Long.MIN_VALUE;
+            long maxKey = query.getMaxAmount() != null ? toCents(query.getMaxAmount()) : Long.MAX_VALUE;
+            List<AmountIndex> amountIndexes = amountIndexesFor(query.getCurrency());
+            long amountCandidates = 0;
+            for (AmountIndex index : amountIndexes) {
+                amountCandidates += index.count(minKey, maxKey);
+            }
+            if (amountCandidates < timeCandidates) {
+                return queryByAmount(query, transactionsByPosition, amountIndexes, minKey, maxKey);
+            }
+        }
+
+        // Recorrido por fecha desde el más reciente: se detiene al alcanzar el límite
+        List<Transaction> result = new ArrayList<>();
+        for (int i = timeEnd - 1; i >= timeStart && result.size() < query.getLimit(); i--) {
+            Transaction tx = transactionsByPosition.get(timeIndex.positionAt(i));
+            if (query.matches(tx)) {
+                result.add(tx);
+            }
+        }
+        return result;
+    }
+
+    private List<Transaction> queryByAmount(TransactionQuery query, List<Transaction> transactionsByPosition,
+                                            List<AmountIndex> amountIndexes, long minKey, long maxKey) {
+        List<Transaction> result = new ArrayList<>();
+        for (AmountIndex index : amountIndexes) {
+            index.forEach(minKey, maxKey, position -> {
+                Transaction tx = transactionsByPosition.get(position);
+                if (query.matches(tx)) {
+                    result.add(tx);
+                }
+            });
+        }
+        result.sort((t1, t2) -> t2.getCreatedAt().compareTo(t1.getCreatedAt()));
+        return result.size() > query.getLimit() ? new ArrayList<>(result.subList(0, query.getLimit())) : result;
+    }
+
+    private List<AmountIndex> amountIndexesFor(Currency currency) {
+        if (currency != null) {
+            AmountIndex index = byCurrencyAmount.get(currency);
+            return index != null ? List.of(index) : Collections.emptyList();
+        }
+        return new ArrayList<>(byCurrencyAmount.values());
+    }
+
+    private static long toNanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    /**
+     * Clave del índice de montos: centavos truncados hacia abajo, de modo que el rango de claves
+     * contiene a todos los montos del rango consultado (luego se verifica el monto exacto)
+     */
+    private static long toCents(BigDecimal amount) {
+        BigInteger cents = amount.setScale(2, RoundingMode.FLOOR).unscaledValue();
+        if (cents.bitLength() > 63) {
+            return cents.signum() > 0 ? Long.MAX_VALUE : Long.MIN_VALUE;
+        }
+        return cents.longValue();
+    }
+}
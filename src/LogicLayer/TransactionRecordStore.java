@@ -0,0 +1,299 @@
+package LogicLayer;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Almacenamiento compacto de transacciones en columnas de tipos primitivos
+ * Cada transacción ocupa una posición: el id se guarda como dos long, la fecha en microsegundos,
+ * el monto como valor sin escala más su escala, las cuentas como números densos y la nota como
+ * referencia a una tabla sin repetidos. Las cuentas y las transacciones se reconstruyen recién
+ * al leer, por lo que las copias devueltas son objetos nuevos
+ */
+public class TransactionRecordStore {
+    private static final TransactionType[] TYPES = TransactionType.values();
+    private static final TransactionStatus[] STATUSES = TransactionStatus.values();
+    private static final Currency[] CURRENCIES = Currency.values();
+
+    private static final int NONE = -1;
+    // Escala que indica que el monto no entra en un long y se guarda aparte
+    private static final byte WIDE_AMOUNT = Byte.MIN_VALUE;
+
+    // Columnas, una entrada por posición
+    private long[] idHigh;
+    private long[] idLow;
+    private long[] createdMicros;
+    private long[] unscaledAmounts;
+    private byte[] scales;
+    private byte[] types;
+    private byte[] statuses;
+    private byte[] currencies;
+    private int[] sources;
+    private int[] targets;
+    private int[] notes;
+    private int size;
+
+    // Datos poco frecuentes, por posición
+    private final Map<Integer, BigDecimal> wideAmounts;
+    private final Map<Integer, UUID> reversedIds;
+
+    // Cuentas numeradas en orden de aparición, con las posiciones de sus transacciones
+    private final List<Account> accounts;
+    private final Map<UUID, Integer> accountNumbers;
+    private int[][] positionsByAccount;
+    private int[] positionCounts;
+
+    // Notas sin repetidos
+    private final List<String> noteTable;
+    private final Map<String, Integer> noteNumbers;
+
+    // Índice de ids con direccionamiento abierto: cada celda guarda posición + 1 (0 = libre)
+    private int[] idSlots;
+
+    public TransactionRecordStore(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 16);
+        this.idHigh = new long[capacity];
+        this.idLow = new long[capacity];
+        this.createdMicros = new long[capacity];
+        this.unscaledAmounts = new long[capacity];
+        this.scales = new byte[capacity];
+        this.types = new byte[capacity];
+        this.statuses = new byte[capacity];
+        this.currencies = new byte[capacity];
+        this.sources = new int[capacity];
+        this.targets = new int[capacity];
+        this.notes = new int[capacity];
+        this.wideAmounts = new HashMap<>();
+        this.reversedIds = new HashMap<>();
+        this.accounts = new ArrayList<>();
+        this.accountNumbers = new HashMap<>();
+        this.positionsByAccount = new int[16][];
+        this.positionCounts = new int[16];
+        this.noteTable = new ArrayList<>();
+        this.noteNumbers = new HashMap<>();
+        this.idSlots = new int[Integer.highestOneBit(capacity) * 4];
+    }
+
+    /**
+     * Agrega una transacción
+     * @return posición asignada
+     */
+    public int append(Transaction tx) {
+        if (size == idHigh.length) {
+            grow();
+        }
+        int position = size;
+
+        idHigh[position] = tx.getId().getMostSignificantBits();
+        idLow[position] = tx.getId().getLeastSignificantBits();
+        createdMicros[position] = ChronoUnit.MICROS.between(Instant.EPOCH, tx.getCreatedAt());
+        storeAmount(position, tx.getAmount());
+        types[position] = (byte) tx.getType().ordinal();
+        statuses[position] = (byte) tx.getStatus().ordinal();
+        currencies[position] = (byte) tx.getCurrency().ordinal();
+        notes[position] = noteNumber(tx.getNote());
+        if (tx.isReversal()) {
+            reversedIds.put(position, tx.getReversedTransactionId());
+        }
+
+        sources[position] = NONE;
+        targets[position] = NONE;
+        if (tx instanceof DepositTransaction) {
+            targets[position] = accountNumber(((DepositTransaction) tx).getTarget());
+        } else if (tx instanceof WithdrawTransaction) {
+            sources[position] = accountNumber(((WithdrawTransaction) tx).getSource());
+        } else if (tx instanceof TransferTransaction) {
+            sources[position] = accountNumber(((TransferTransaction) tx).getSource());
+            targets[position] = accountNumber(((TransferTransaction) tx).getTarget());
+        }
+        if (sources[position] != NONE) {
+            addAccountPosition(sources[position], position);
+        }
+        if (targets[position] != NONE) {
+            addAccountPosition(targets[position], position);
+        }
+
+        size++;
+        indexId(position);
+        return position;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Reconstruye la transacción guardada en una posición
+     */
+    public Transaction get(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Posición inexistente: " + position);
+        }
+        UUID id = new UUID(idHigh[position], idLow[position]);
+        TransactionStatus status = STATUSES[statuses[position]];
+        BigDecimal amount = scales[position] == WIDE_AMOUNT
+                ? wideAmounts.get(position)
+                : BigDecimal.valueOf(unscaledAmounts[position], scales[position]);
+        Currency currency = CURRENCIES[currencies[position]];
+        Instant createdAt = Instant.EPOCH.plus(createdMicros[position], ChronoUnit.MICROS);
+        String note = notes[position] != NONE ? noteTable.get(notes[position]) : null;
+        UUID reversedId = reversedIds.get(position);
+
+        switch (TYPES[types[position]]) {
+            case DEPOSIT:
+                return new DepositTransaction(id, status, amount, currency, createdAt, note,
+                        accounts.get(targets[position]), reversedId);
+            case WITHDRAW:
+                return new WithdrawTransaction(id, status, amount, currency, createdAt, note,
+                        accounts.get(sources[position]), reversedId);
+            default:
+                return new TransferTransaction(id, status, amount, currency, createdAt, note,
+                        accounts.get(sources[position]), accounts.get(targets[position]), reversedId);
+        }
+    }
+
+    /**
+     * Busca la posición de una transacción por su id
+     * @return la posición o -1 si no existe
+     */
+    public int find(UUID id) {
+        long high = id.getMostSignificantBits();
+        long low = id.getLeastSignificantBits();
+        int mask = idSlots.length - 1;
+        for (int slot = hash(high, low) & mask; idSlots[slot] != 0; slot = (slot + 1) & mask) {
+            int position = idSlots[slot] - 1;
+            if (idHigh[position] == high && idLow[position] == low) {
+                return position;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Número denso de una cuenta, o -1 si no tiene transacciones
+     */
+    public int accountNumber(UUID accountId) {
+        Integer number = accountNumbers.get(accountId);
+        return number != null ? number : NONE;
+    }
+
+    /**
+     * Cantidad de transacciones de una cuenta
+     */
+    public int accountSize(int account) {
+        return account != NONE ? positionCounts[account] : 0;
+    }
+
+    /**
+     * Posición de la i-ésima transacción de una cuenta (en orden de alta)
+     */
+    public int accountPosition(int account, int index) {
+        return positionsByAccount[account][index];
+    }
+
+    /**
+     * Fecha de alta de la transacción de una posición, en microsegundos desde la época
+     */
+    public long createdMicros(int position) {
+        return createdMicros[position];
+    }
+
+    private int accountNumber(Account account) {
+        Integer number = accountNumbers.get(account.getId());
+        if (number != null) {
+            return number;
+        }
+        int newNumber = accounts.size();
+        accounts.add(account);
+        accountNumbers.put(account.getId(), newNumber);
+        if (newNumber == positionsByAccount.length) {
+            positionsByAccount = Arrays.copyOf(positionsByAccount, newNumber * 2);
+            positionCounts = Arrays.copyOf(positionCounts, newNumber * 2);
+        }
+        positionsByAccount[newNumber] = new int[4];
+        return newNumber;
+    }
+
+    private void addAccountPosition(int account, int position) {
+        int[] positions = positionsByAccount[account];
+        int count = positionCounts[account];
+        // Una transferencia entre la misma cuenta se registra una sola vez
+        if (count > 0 && positions[count - 1] == position) {
+            return;
+        }
+        if (count == positions.length) {
+            positions = Arrays.copyOf(positions, count * 2);
+            positionsByAccount[account] = positions;
+        }
+        positions[count] = position;
+        positionCounts[account] = count + 1;
+    }
+
+    private int noteNumber(String note) {
+        if (note == null) {
+            return NONE;
+        }
+        Integer number = noteNumbers.get(note);
+        if (number == null) {
+            number = noteTable.size();
+            noteTable.add(note);
+            noteNumbers.put(note, number);
+        }
+        return number;
+    }
+
+    private void storeAmount(int position, BigDecimal amount) {
+        BigInteger unscaled = amount.unscaledValue();
+        if (unscaled.bitLength() < 64 && amount.scale() > WIDE_AMOUNT && amount.scale() <= Byte.MAX_VALUE) {
+            unscaledAmounts[position] = unscaled.longValue();
+            scales[position] = (byte) amount.scale();
+        } else {
+            scales[position] = WIDE_AMOUNT;
+            wideAmounts.put(position, amount);
+        }
+    }
+
+    private void indexId(int position) {
+        // Se mantiene la ocupación por debajo de la mitad
+        if (size * 2 > idSlots.length) {
+            idSlots = new int[idSlots.length * 2];
+            for (int i = 0; i < size; i++) {
+                insertId(i);
+            }
+        } else {
+            insertId(position);
+        }
+    }
+
+    private void insertId(int position) {
+        int mask = idSlots.length - 1;
+        int slot = hash(idHigh[position], idLow[position]) & mask;
+        while (idSlots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        idSlots[slot] = position + 1;
+    }
+
+    private static int hash(long high, long low) {
+        long h = (high ^ low) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private void grow() {
+        int capacity = idHigh.length * 2;
+        idHigh = Arrays.copyOf(idHigh, capacity);
+        idLow = Arrays.copyOf(idLow, capacity);
+        createdMicros = Arrays.copyOf(createdMicros, capacity);
+        unscaledAmounts = Arrays.copyOf(unscaledAmounts, capacity);
+        scales = Arrays.copyOf(scales, capacity);
+        types = Arrays.copyOf(types, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        currencies = Arrays.copyOf(currencies, capacity);
+        sources = Arrays.copyOf(sources, capacity);
+        targets = Arrays.copyOf(targets, capacity);
+        notes = Arrays.copyOf(notes, capacity);
+    }
+}
@@ -0,0 +1,146 @@
+package LogicLayer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Totales de transacciones de un período, por tipo y estado
+ * En los resúmenes por cuenta las transferencias se separan en entrantes y salientes; en los
+ * resúmenes del sistema cada transferencia se cuenta una sola vez, como saliente
+ */
+public class TransactionRollup {
+    // Tipos de movimiento desde el punto de vista de la cuenta
+    static final int DEPOSIT = 0;
+    static final int WITHDRAW = 1;
+    static final int TRANSFER_IN = 2;
+    static final int TRANSFER_OUT = 3;
+    private static final int KINDS = 4;
+
+    // Por cada tipo de movimiento y estado: cantidad y total en centavos
+    static final int CELLS = KINDS * TransactionStatus.values().length;
+
+    private final LocalDate periodStart;
+    private final RollupPeriod granularity;
+    private final Currency currency;
+    private final long[] counts;
+    private final long[] cents;
+
+    TransactionRollup(LocalDate periodStart, RollupPeriod granularity, Currency currency,
+                      long[] counts, long[] cents) {
+        this.periodStart = periodStart;
+        this.granularity = granularity;
+        this.currency = currency;
+        this.counts = counts.clone();
+        this.cents = cents.clone();
+    }
+
+    static int cell(int kind, TransactionStatus status) {
+        return kind * TransactionStatus.values().length + status.ordinal();
+    }
+
+    public LocalDate getPeriodStart() {
+        return periodStart;
+    }
+
+    public RollupPeriod getGranularity() {
+        return granularity;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    /**
+     * Cantidad de transacciones de un tipo y estado (null = todos)
+     */
+    public long getCount(TransactionType type, TransactionStatus status) {
+        long total = 0;
+        for (int kind = 0; kind < KINDS; kind++) {
+            if (type != null && kindType(kind) != type) {
+                continue;
+            }
+            for (TransactionStatus s : TransactionStatus.values()) {
+                if (status == null || status == s) {
+                    total += counts[cell(kind, s)];
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Monto total de las transacciones de un tipo y estado (null = todos)
+     */
+    public BigDecimal getTotal(TransactionType type, TransactionStatus status) {
+        long total = 0;
+        for (int kind = 0; kind < KINDS; kind++) {
+            if (type != null && kindType(kind) != type) {
+                continue;
+            }
+            for (TransactionStatus s : TransactionStatus.values()) {
+                if (status == null || status == s) {
+                    total += cents[cell(kind, s)];
+                }
+            }
+        }
+        return BigDecimal.valueOf(total, 2);
+    }
+
+    /**
+     * Ingresos completados: depósitos y transferencias entrantes
+     */
+    public BigDecimal getInflow() {
+        return BigDecimal.valueOf(cents[cell(DEPOSIT, TransactionStatus.SETTLED)]
+                + cents[cell(TRANSFER_IN, TransactionStatus.SETTLED)], 2);
+    }
+
+    /**
+     * Egresos completados: retiros y transferencias salientes
+     */
+    public BigDecimal getOutflow() {
+        return BigDecimal.valueOf(cents[cell(WITHDRAW, TransactionStatus.SETTLED)]
+                + cents[cell(TRANSFER_OUT, TransactionStatus.SETTLED)], 2);
+    }
+
+    private static TransactionType kindType(int kind) {
+        switch (kind) {
+            case DEPOSIT:
+                return TransactionType.DEPOSIT;
+            case WITHDRAW:
+                return TransactionType.WITHDRAW;
+            default:
+                return TransactionType.TRANSFER;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TransactionRollup)) {
+            return false;
+        }
+        TransactionRollup other = (TransactionRollup) o;
+        return periodStart.equals(other.periodStart) && granularity == other.granularity
+                && currency == other.currency && Arrays.equals(counts, other.counts)
+                && Arrays.equals(cents, other.cents);
+    }
+
+    @Override
+    public int hashCode() {
+        return periodStart.hashCode() * 31 + Arrays.hashCode(counts);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(periodStart).append(" (").append(granularity.getDescription()).append(") ")
+                .append(getCount(null, null)).append(" transacciones, ingresos ").append(currency.getSymbol());
+        DisplayFormatter.appendAmount(sb, getInflow()).append(", egresos ").append(currency.getSymbol());
+        DisplayFormatter.appendAmount(sb, getOutflow()).append(", fallidas ")
+                .append(getCount(null, TransactionStatus.FAILED));
+        return sb.toString();
+    }
+}
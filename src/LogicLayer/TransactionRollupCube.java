@@ -0,0 +1,235 @@
+package LogicLayer;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Resúmenes de transacciones precalculados por cuenta, moneda, tipo, estado y período
+ * Se actualizan al guardar cada transacción, de modo que consultar un rango de fechas cuesta
+ * lo mismo que la cantidad de períodos y no la cantidad de transacciones. Pueden reconstruirse
+ * desde las transacciones originales para verificar que no se desincronizaron
+ */
+public class TransactionRollupCube {
+    // Transacciones por tramo al reconstruir en paralelo
+    private static final int REBUILD_CHUNK = 65_536;
+
+    private final Map<UUID, Map<Currency, Series>> byAccount;
+    private final Map<Currency, Series> system;
+
+    public TransactionRollupCube() {
+        this.byAccount = new HashMap<>();
+        this.system = new EnumMap<>(Currency.class);
+    }
+
+    /**
+     * Suma una transacción a los resúmenes de las cuentas involucradas y del sistema
+     */
+    public void add(Transaction tx) {
+        LocalDate day = LocalDate.ofInstant(tx.getCreatedAt(), ZoneId.systemDefault());
+        long cents = toCents(tx.getAmount());
+        Currency currency = tx.getCurrency();
+        TransactionStatus status = tx.getStatus();
+
+        if (tx instanceof DepositTransaction) {
+            UUID target = ((DepositTransaction) tx).getTarget().getId();
+            series(target, currency).add(day, TransactionRollup.DEPOSIT, status, cents);
+            systemSeries(currency).add(day, TransactionRollup.DEPOSIT, status, cents);
+        } else if (tx instanceof WithdrawTransaction) {
+            UUID source = ((WithdrawTransaction) tx).getSource().getId();
+            series(source, currency).add(day, TransactionRollup.WITHDRAW, status, cents);
+            systemSeries(currency).add(day, TransactionRollup.WITHDRAW, status, cents);
+        } else if (tx instanceof TransferTransaction) {
+            TransferTransaction transfer = (TransferTransaction) tx;
+            series(transfer.getSource().getId(), currency)
+                    .add(day, TransactionRollup.TRANSFER_OUT, status, cents);
+            series(transfer.getTarget().getId(), currency)
+                    .add(day, TransactionRollup.TRANSFER_IN, status, cents);
+            // En el sistema cada transferencia se cuenta una sola vez
+            systemSeries(currency).add(day, TransactionRollup.TRANSFER_OUT, status, cents);
+        }
+    }
+
+    /**
+     * Obtiene los resúmenes de una cuenta en un rango de fechas (ambos extremos inclusive)
+     * Los períodos sin transacciones se omiten
+     */
+    public List<TransactionRollup> getAccountRollups(UUID accountId, Currency currency,
+                                                     RollupPeriod granularity,
+                                                     LocalDate from, LocalDate to) {
+        Map<Currency, Series> seriesByCurrency = byAccount.get(accountId);
+        Series series = seriesByCurrency != null ? seriesByCurrency.get(currency) : null;
+        return series != null ? series.list(currency, granularity, from, to) : Collections.emptyList();
+    }
+
+    /**
+     * Obtiene los resúmenes de todo el sistema en una moneda
+     */
+    public List<TransactionRollup> getSystemRollups(Currency currency, RollupPeriod granularity,
+                                                    LocalDate from, LocalDate to) {
+        Series series = system.get(currency);
+        return series != null ? series.list(currency, granularity, from, to) : Collections.emptyList();
+    }
+
+    /**
+     * Suma los resúmenes de otro cubo a este
+     */
+    public void merge(TransactionRollupCube other) {
+        other.byAccount.forEach((accountId, seriesByCurrency) -> seriesByCurrency.forEach(
+                (currency, series) -> series(accountId, currency).merge(series)));
+        other.system.forEach((currency, series) -> systemSeries(currency).merge(series));
+    }
+
+    /**
+     * Reconstruye un cubo desde las transacciones originales, procesando tramos en paralelo
+     */
+    public static TransactionRollupCube rebuild(List<Transaction> transactions) {
+        int chunks = (transactions.size() + REBUILD_CHUNK - 1) / REBUILD_CHUNK;
+        List<TransactionRollupCube> partials = IntStream.range(0, chunks).parallel()
+                .mapToObj(chunk -> {
+                    TransactionRollupCube partial = new TransactionRollupCube();
+                    int end = Math.min((chunk + 1) * REBUILD_CHUNK, transactions.size());
+                    for (int i = chunk * REBUILD_CHUNK; i < end; i++) {
+                        partial.add(transactions.get(i));
+                    }
+                    return partial;
+                })
+                .collect(Collectors.toList());
+
+        TransactionRollupCube cube = new TransactionRollupCube();
+        for (TransactionRollupCube partial : partials) {
+            cube.merge(partial);
+        }
+        return cube;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TransactionRollupCube)) {
+            return false;
+        }
+        TransactionRollupCube other = (TransactionRollupCube) o;
+        return byAccount.equals(other.byAccount) && system.equals(other.system);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(byAccount, system);
+    }
+
+    private Series series(UUID accountId, Currency currency) {
+        return byAccount.computeIfAbsent(accountId, k -> new EnumMap<>(Currency.class))
+                .computeIfAbsent(currency, k -> new Series());
+    }
+
+    private Series systemSeries(Currency currency) {
+        return system.computeIfAbsent(currency, k -> new Series());
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Períodos diarios, semanales y mensuales de una cuenta (o del sistema) en una moneda
+     * Cada período guarda, por celda, la cantidad y el total en centavos
+     */
+    private static final class Series {
+        private final Map<RollupPeriod, TreeMap<LocalDate, long[]>> periods = new EnumMap<>(RollupPeriod.class);
+
+        Series() {
+            for (RollupPeriod period : RollupPeriod.values()) {
+                periods.put(period, new TreeMap<>());
+            }
+        }
+
+        void add(LocalDate day, int kind, TransactionStatus status, long cents) {
+            int cell = TransactionRollup.cell(kind, status);
+            for (Map.Entry<RollupPeriod, TreeMap<LocalDate, long[]>> entry : periods.entrySet()) {
+                addTo(entry.getValue().computeIfAbsent(entry.getKey().periodStart(day), k -> newBucket()),
+                        cell, cents);
+            }
+        }
+
+        void merge(Series other) {
+            for (RollupPeriod period : RollupPeriod.values()) {
+                mergeInto(periods.get(period), other.periods.get(period));
+            }
+        }
+
+        List<TransactionRollup> list(Currency currency, RollupPeriod granularity,
+                                     LocalDate from, LocalDate to) {
+            if (from.isAfter(to)) {
+                throw new IllegalArgumentException("La fecha inicial no puede ser posterior a la final");
+            }
+            TreeMap<LocalDate, long[]> buckets = periods.get(granularity);
+            // El período que contiene a "from" se incluye aunque empiece antes
+            SortedMap<LocalDate, long[]> range = buckets.subMap(granularity.periodStart(from), true, to, true);
+            List<TransactionRollup> rollups = new ArrayList<>(range.size());
+            for (Map.Entry<LocalDate, long[]> entry : range.entrySet()) {
+                long[] bucket = entry.getValue();
+                rollups.add(new TransactionRollup(entry.getKey(), granularity, currency,
+                        Arrays.copyOfRange(bucket, 0, TransactionRollup.CELLS),
+                        Arrays.copyOfRange(bucket, TransactionRollup.CELLS, 2 * TransactionRollup.CELLS)));
+            }
+            return rollups;
+        }
+
+        private static long[] newBucket() {
+            return new long[2 * TransactionRollup.CELLS];
+        }
+
+        private static void addTo(long[] bucket, int cell, long cents) {
+            bucket[cell]++;
+            bucket[TransactionRollup.CELLS + cell] = Math.addExact(bucket[TransactionRollup.CELLS + cell], cents);
+        }
+
+        private static void mergeInto(TreeMap<LocalDate, long[]> target, TreeMap<LocalDate, long[]> source) {
+            for (Map.Entry<LocalDate, long[]> entry : source.entrySet()) {
+                long[] bucket = target.computeIfAbsent(entry.getKey(), k -> newBucket());
+                long[] values = entry.getValue();
+                for (int i = 0; i < bucket.length; i++) {
+                    bucket[i] = Math.addExact(bucket[i], values[i]);
+                }
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Series)) {
+                return false;
+            }
+            Series other = (Series) o;
+            for (RollupPeriod period : RollupPeriod.values()) {
+                if (!sameBuckets(periods.get(period), other.periods.get(period))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return periods.get(RollupPeriod.DAILY).keySet().hashCode();
+        }
+
+        private static boolean sameBuckets(TreeMap<LocalDate, long[]> a, TreeMap<LocalDate, long[]> b) {
+            if (!a.keySet().equals(b.keySet())) {
+                return false;
+            }
+            for (Map.Entry<LocalDate, long[]> entry : a.entrySet()) {
+                if (!Arrays.equals(entry.getValue(), b.get(entry.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package LogicLayer;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Evento emitido cuando se guarda una transacción
+ */
+public class TransactionSavedEvent extends ChangeEvent {
+    private final Transaction transaction;
+
+    TransactionSavedEvent(long sequence, Instant occurredAt, Transaction transaction) {
+        super(sequence, occurredAt);
+        this.transaction = transaction;
+    }
+
+    public Transaction getTransaction() {
+        return transaction;
+    }
+
+    @Override
+    UUID conflationKey() {
+        // Las transacciones nunca se combinan
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "#" + getSequence() + " " + transaction.summary();
+    }
+}
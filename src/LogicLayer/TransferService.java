@@ -46,6 +46,7 @@ public class TransferService {
 
     /**
      * Realiza una transferencia a una cuenta de un tercero
+     * Se aplican los límites de velocidad de AccountService antes de debitar
      * @param sourceAccount Cuenta origen
      * @param targetAccount Cuenta destino
      * @param amount Monto
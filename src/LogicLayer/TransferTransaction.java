@@ -1,6 +1,8 @@
 package LogicLayer;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
 
 /**
  * Transacción de transferencia entre cuentas
@@ -19,6 +21,26 @@ public class TransferTransaction extends Transaction {
         this.target = target;
     }
 
+    /**
+     * Constructor para la transferencia que revierte otra transferencia
+     */
+    TransferTransaction(TransactionStatus status, BigDecimal amount, Currency currency,
+                        String note, Account source, Account target, UUID reversedTransactionId) {
+        super(TransactionType.TRANSFER, status, amount, currency, note, reversedTransactionId);
+        this.source = source;
+        this.target = target;
+    }
+
+    /**
+     * Constructor para reconstruir una transferencia guardada
+     */
+    TransferTransaction(UUID id, TransactionStatus status, BigDecimal amount, Currency currency, Instant createdAt,
+                        String note, Account source, Account target, UUID reversedTransactionId) {
+        super(id, TransactionType.TRANSFER, status, amount, currency, createdAt, note, reversedTransactionId);
+        this.source = source;
+        this.target = target;
+    }
+
     public Account getSource() {
         return source;
     }
@@ -28,16 +50,11 @@ public class TransferTransaction extends Transaction {
     }
 
     @Override
-    public String summary() {
-        return String.format("[%s] %s: %s%s de %s → %s | %s | %s",
-                formatDateTime(),
-                type.getDescription(),
-                currency.getSymbol(),
-                String.format("%,.2f", amount),
-                source.type(),
-                target.type(),
-                status.getDescription(),
-                note != null ? note : "Sin nota");
+    public StringBuilder appendSummary(StringBuilder sb) {
+        appendHeader(sb).append(currency.getSymbol());
+        DisplayFormatter.appendAmount(sb, amount).append(" de ").append(source.type())
+                .append(" → ").append(target.type());
+        return appendStatusAndNote(sb);
     }
 }
 
@@ -0,0 +1,42 @@
+package LogicLayer;
+
+import java.util.SplittableRandom;
+
+/**
+ * Modelo original del simulador: fluctuaciones normales uniformes con eventos extremos ocasionales
+ * El 95% del tiempo genera tasas normales (-2% a +3%)
+ * El 5% del tiempo genera tasas extremas (-8% a +12%)
+ */
+public class TwoRegimeMarketModel implements MarketModel {
+    // Tasas normales
+    private static final double NORMAL_MIN_RATE = -0.02;  // -2%
+    private static final double NORMAL_MAX_RATE = 0.03;   // +3%
+
+    // Tasas extremas
+    private static final double EXTREME_MIN_RATE = -0.08; // -8%
+    private static final double EXTREME_MAX_RATE = 0.12;  // +12%
+
+    // Probabilidad de evento extremo (5%)
+    private static final double EXTREME_EVENT_PROBABILITY = 0.05;
+
+    @Override
+    public double nextRate(SplittableRandom rng) {
+        // Determinar si es un evento extremo
+        if (rng.nextDouble() < EXTREME_EVENT_PROBABILITY) {
+            // Evento extremo
+            return EXTREME_MIN_RATE + (EXTREME_MAX_RATE - EXTREME_MIN_RATE) * rng.nextDouble();
+        }
+        // Fluctuación normal
+        return NORMAL_MIN_RATE + (NORMAL_MAX_RATE - NORMAL_MIN_RATE) * rng.nextDouble();
+    }
+
+    @Override
+    public MarketModel copy() {
+        return this;
+    }
+
+    @Override
+    public String getName() {
+        return "Uniforme con eventos extremos";
+    }
+}
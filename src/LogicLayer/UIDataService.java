@@ -8,17 +8,29 @@ import java.util.List;
  * Servicio para preparar datos formateados para la capa de presentación
  */
 public class UIDataService {
+    // A partir de esta cantidad de días el historial se muestra con resúmenes mensuales
+    private static final int ROLLUP_THRESHOLD_DAYS = 60;
+
+    // Días de detalle diario que se muestran junto a los resúmenes
+    private static final int RECENT_DETAIL_DAYS = 30;
+
+    // Paginación de las tablas de historial: filas por página y páginas conservadas en memoria
+    private static final int HISTORY_PAGE_SIZE = 200;
+    private static final int HISTORY_CACHED_PAGES = 50;
+
     private final ClientService clientService;
     private final AccountService accountService;
     private final AuthService authService;
     private final SummaryService summaryService;
+    private final SimulatedClock clock;
 
     public UIDataService(ClientService clientService, AccountService accountService,
-                         AuthService authService, SummaryService summaryService) {
+                         AuthService authService, SummaryService summaryService, SimulatedClock clock) {
         this.clientService = clientService;
         this.accountService = accountService;
         this.authService = authService;
         this.summaryService = summaryService;
+        this.clock = clock;
     }
 
     /**
@@ -86,17 +98,93 @@ public class UIDataService {
 
         StringBuilder sb = new StringBuilder("=== HISTORIAL DE TRANSACCIONES ===\n\n");
         sb.append("Cuenta: ").append(account.type()).append("\n");
-        sb.append("Saldo actual: ").append(account.getBaseCurrency().getSymbol())
-                .append(formatAmount(account.getBalance())).append("\n\n");
+        sb.append("Saldo actual: ").append(account.getBaseCurrency().getSymbol());
+        DisplayFormatter.appendAmount(sb, account.getBalance()).append("\n\n");
         sb.append("-----------------------------\n\n");
 
         for (Transaction tx : transactions) {
-            sb.append(tx.summary()).append("\n\n");
+            tx.appendSummary(sb).append("\n\n");
         }
 
         return sb.toString();
     }
 
+    /**
+     * Crea el modelo paginado de la tabla de transacciones de una cuenta (más reciente primero)
+     * La cantidad de filas se consulta al llamar a refresh() desde el hilo de eventos
+     */
+    public PagedTableModel<Transaction> createTransactionTableModel(Account account) {
+        PageLoader<Transaction> loader = new PageLoader<>() {
+            @Override
+            public int count() {
+                return accountService.countHistory(account);
+            }
+
+            @Override
+            public List<Transaction> loadPage(int offset, int limit) {
+                return accountService.getHistoryPage(account, offset, limit);
+            }
+        };
+        String[] columns = {"Fecha", "Tipo", "Monto", "Estado", "Nota"};
+
+        return new PagedTableModel<>(loader, columns, HISTORY_PAGE_SIZE, HISTORY_CACHED_PAGES) {
+            @Override
+            protected Object getColumnValue(Transaction tx, int column) {
+                switch (column) {
+                    case 0:
+                        return DisplayFormatter.DATE_TIME.format(tx.getCreatedAt());
+                    case 1:
+                        return tx.getType().getDescription();
+                    case 2:
+                        return tx.getCurrency().getSymbol() + formatAmount(tx.getAmount());
+                    case 3:
+                        return tx.getStatus().getDescription();
+                    default:
+                        return tx.getNote() != null ? tx.getNote() : "Sin nota";
+                }
+            }
+        };
+    }
+
+    /**
+     * Crea el modelo paginado de la tabla del historial diario de una cuenta de inversión
+     * (más reciente primero; solo incluye los días conservados en detalle)
+     */
+    public PagedTableModel<InvestmentHistory> createInvestmentHistoryTableModel(InvestmentAccount account) {
+        PageLoader<InvestmentHistory> loader = new PageLoader<>() {
+            @Override
+            public int count() {
+                return account.getHistorySize();
+            }
+
+            @Override
+            public List<InvestmentHistory> loadPage(int offset, int limit) {
+                return account.getHistoryPage(offset, limit);
+            }
+        };
+        String[] columns = {"Fecha", "Tasa", "Saldo inicial", "Saldo final", "Ganancia/Pérdida"};
+        String symbol = account.getBaseCurrency().getSymbol();
+
+        return new PagedTableModel<>(loader, columns, HISTORY_PAGE_SIZE, HISTORY_CACHED_PAGES) {
+            @Override
+            protected Object getColumnValue(InvestmentHistory record, int column) {
+                switch (column) {
+                    case 0:
+                        return record.getDate().toString();
+                    case 1:
+                        return formatRate(record.getDailyRate());
+                    case 2:
+                        return symbol + formatAmount(record.getBalanceBefore());
+                    case 3:
+                        return symbol + formatAmount(record.getBalanceAfter());
+                    default:
+                        String sign = record.getProfit().compareTo(BigDecimal.ZERO) >= 0 ? "+" : "";
+                        return sign + symbol + formatAmount(record.getProfit());
+                }
+            }
+        };
+    }
+
     /**
      * Formatea un número con separadores de miles (2 decimales)
      *
@@ -104,7 +192,7 @@ public class UIDataService {
      * @return String formateado (ej: 1,234,567.89)
      */
     public String formatAmount(BigDecimal amount) {
-        return String.format("%,.2f", amount);
+        return DisplayFormatter.formatAmount(amount);
     }
 
     /**
@@ -117,10 +205,10 @@ public class UIDataService {
     public String formatExchangeRate(BigDecimal rate) {
         // Si el valor es menor que 0.01, usar hasta 5 decimales
         if (rate.compareTo(new BigDecimal("0.01")) < 0) {
-            return String.format("%,.5f", rate);
+            return DisplayFormatter.appendDecimal(new StringBuilder(16), rate, 5, true).toString();
         }
         // Si el valor es mayor o igual a 0.01, usar 2 decimales
-        return String.format("%,.2f", rate);
+        return DisplayFormatter.formatAmount(rate);
     }
 
     /**
@@ -263,9 +351,7 @@ public class UIDataService {
      * Formatea una tasa de interés como porcentaje
      */
     public String formatRate(BigDecimal rate) {
-        BigDecimal percentage = rate.multiply(BigDecimal.valueOf(100));
-        String sign = percentage.compareTo(BigDecimal.ZERO) >= 0 ? "+" : "";
-        return sign + String.format("%.3f%%", percentage);
+        return DisplayFormatter.appendRate(new StringBuilder(12), rate).toString();
     }
 
     /**
@@ -277,32 +363,40 @@ public class UIDataService {
         }
 
         StringBuilder sb = new StringBuilder("=== HISTORIAL DE INVERSIONES ===\n\n");
-        sb.append("Día actual: ").append(SimulatedClock.getCurrentDay()).append("\n\n");
+        sb.append("Día actual: ").append(clock.getCurrentDay()).append("\n\n");
 
         for (InvestmentAccount acc : investmentAccounts) {
+            String symbol = acc.getBaseCurrency().getSymbol();
             sb.append("-----------------------------\n");
             sb.append("Cuenta: ").append(acc.getBaseCurrency()).append("\n");
-            sb.append("Saldo actual: ").append(acc.getBaseCurrency().getSymbol())
-                    .append(formatAmount(acc.getBalance())).append("\n");
+            sb.append("Saldo actual: ").append(symbol);
+            DisplayFormatter.appendAmount(sb, acc.getBalance()).append("\n");
             sb.append("-----------------------------\n\n");
 
             List<InvestmentHistory> records = acc.getHistory();
+            int simulatedDays = acc.getSimulatedDaysCount();
 
-            if (records.isEmpty()) {
+            if (simulatedDays == 0) {
                 sb.append("Sin historial de simulaciones\n\n");
             } else {
                 int bullishDays = acc.getBullishDaysCount();
                 int bearishDays = acc.getBearishDaysCount();
                 BigDecimal totalProfit = acc.getTotalReturn();
-                BigDecimal initialBalance = records.get(0).getBalanceBefore();
+                BigDecimal initialBalance = acc.getFirstRecordedBalance();
 
-                sb.append("Total de días simulados: ").append(records.size()).append("\n");
+                sb.append("Total de días simulados: ").append(simulatedDays).append("\n");
                 sb.append("Días alcistas: ").append(bullishDays).append("\n");
                 sb.append("Días bajistas: ").append(bearishDays).append("\n");
-                sb.append("Saldo inicial: ").append(acc.getBaseCurrency().getSymbol())
-                        .append(formatAmount(initialBalance)).append("\n");
-                sb.append("Ganancia/Pérdida total: ").append(acc.getBaseCurrency().getSymbol())
-                        .append(formatAmount(totalProfit)).append("\n\n");
+                sb.append("Saldo inicial: ").append(symbol);
+                DisplayFormatter.appendAmount(sb, initialBalance).append("\n");
+                sb.append("Ganancia/Pérdida total: ").append(symbol);
+                DisplayFormatter.appendAmount(sb, totalProfit).append("\n\n");
+
+                // Historiales largos: resumen mensual y solo el detalle de los días recientes
+                if (simulatedDays > ROLLUP_THRESHOLD_DAYS || records.size() < simulatedDays) {
+                    appendMonthlyRollups(sb, acc);
+                    records = records.subList(Math.max(0, records.size() - RECENT_DETAIL_DAYS), records.size());
+                }
 
                 sb.append("-----------------------------\n");
                 sb.append("DETALLE POR DÍA:\n");
@@ -311,7 +405,8 @@ public class UIDataService {
                 // Detalle por día (similar al formato de transacciones)
                 for (InvestmentHistory record : records) {
                     sb.append("Fecha: ").append(record.getDate()).append("\n");
-                    sb.append("Tasa: ").append(formatRate(record.getDailyRate()));
+                    sb.append("Tasa: ");
+                    DisplayFormatter.appendRate(sb, record.getDailyRate());
 
                     if (record.isBullish()) {
                         sb.append(" [ALCISTA]\n");
@@ -321,12 +416,12 @@ public class UIDataService {
                         sb.append(" [ESTABLE]\n");
                     }
 
-                    sb.append("Saldo anterior: ").append(acc.getBaseCurrency().getSymbol())
-                            .append(formatAmount(record.getBalanceBefore())).append("\n");
-                    sb.append("Saldo nuevo: ").append(acc.getBaseCurrency().getSymbol())
-                            .append(formatAmount(record.getBalanceAfter())).append("\n");
-                    sb.append("Rendimiento: ").append(acc.getBaseCurrency().getSymbol())
-                            .append(formatAmount(record.getProfit())).append("\n");
+                    sb.append("Saldo anterior: ").append(symbol);
+                    DisplayFormatter.appendAmount(sb, record.getBalanceBefore()).append("\n");
+                    sb.append("Saldo nuevo: ").append(symbol);
+                    DisplayFormatter.appendAmount(sb, record.getBalanceAfter()).append("\n");
+                    sb.append("Rendimiento: ").append(symbol);
+                    DisplayFormatter.appendAmount(sb, record.getProfit()).append("\n");
                     sb.append("\n");
                 }
             }
@@ -335,4 +430,30 @@ public class UIDataService {
 
         return sb.toString();
     }
+
+    /**
+     * Agrega al texto los resúmenes mensuales de una cuenta de inversión
+     */
+    private void appendMonthlyRollups(StringBuilder sb, InvestmentAccount acc) {
+        String symbol = acc.getBaseCurrency().getSymbol();
+
+        sb.append("-----------------------------\n");
+        sb.append("RESUMEN MENSUAL:\n");
+        sb.append("-----------------------------\n\n");
+
+        for (InvestmentRollup rollup : acc.getRollups(RollupPeriod.MONTHLY)) {
+            int month = rollup.getPeriodStart().getMonthValue();
+            sb.append("Mes: ").append(rollup.getPeriodStart().getYear()).append(month < 10 ? "-0" : "-")
+                    .append(month)
+                    .append(" (").append(rollup.getDays()).append(" días, ")
+                    .append(rollup.getBullishDays()).append(" alcistas, ")
+                    .append(rollup.getBearishDays()).append(" bajistas)\n");
+            DisplayFormatter.appendAmount(sb.append("Apertura: ").append(symbol), rollup.getOpen());
+            DisplayFormatter.appendAmount(sb.append(" | Máximo: ").append(symbol), rollup.getHigh());
+            DisplayFormatter.appendAmount(sb.append(" | Mínimo: ").append(symbol), rollup.getLow());
+            DisplayFormatter.appendAmount(sb.append(" | Cierre: ").append(symbol), rollup.getClose()).append("\n");
+            DisplayFormatter.appendAmount(sb.append("Rendimiento: ").append(symbol), rollup.getTotalProfit())
+                    .append("\n\n");
+        }
+    }
 }
@@ -0,0 +1,171 @@
+package LogicLayer;
+
+import java.util.Arrays;
+
+/**
+ * Contadores de velocidad de una cuenta o un cliente
+ * Cada ventana es un anillo de tramos de tamaño fijo con la cantidad de operaciones y, para las
+ * monedas con reglas de monto, el monto en centavos, más los totales de la ventana: consultar y
+ * registrar es O(1) y no asigna memoria. Al avanzar el tiempo se descuentan de los totales los
+ * tramos que salen de la ventana
+ * No es seguro para hilos: VelocityLimiter lo usa con el monitor del objeto tomado
+ */
+final class VelocityCounters {
+    // Un anillo por ventana (por ordinal), null si ninguna regla usa esa ventana
+    private final Ring[] rings;
+
+    /**
+     * @param windows ventanas usadas por las reglas, por ordinal
+     * @param amountCurrencies monedas con reglas de monto en cada ventana, por ordinal de ventana y de moneda
+     */
+    VelocityCounters(boolean[] windows, boolean[][] amountCurrencies) {
+        VelocityWindow[] values = VelocityWindow.values();
+        this.rings = new Ring[values.length];
+        for (int i = 0; i < values.length; i++) {
+            if (windows[i]) {
+                rings[i] = new Ring(values[i], amountCurrencies[i]);
+            }
+        }
+    }
+
+    /**
+     * Descarta los tramos que salieron de cada ventana hasta el instante dado
+     */
+    void advance(long nowMillis) {
+        for (Ring ring : rings) {
+            if (ring != null) {
+                ring.advance(nowMillis / ring.bucketMillis);
+            }
+        }
+    }
+
+    /**
+     * Operaciones en la ventana, en cualquier moneda
+     */
+    int count(VelocityWindow window) {
+        return rings[window.ordinal()].totalCount;
+    }
+
+    /**
+     * Monto en centavos en la ventana para una moneda con reglas de monto
+     */
+    long amount(VelocityWindow window, int currency) {
+        return rings[window.ordinal()].totalAmounts[currency];
+    }
+
+    /**
+     * Registra una operación en el tramo actual de cada ventana (después de advance)
+     */
+    void add(int currency, long cents) {
+        for (Ring ring : rings) {
+            if (ring == null) {
+                continue;
+            }
+            int slot = ring.slot(ring.newest);
+            ring.counts[slot]++;
+            ring.totalCount++;
+            long[] amounts = ring.amounts[currency];
+            if (amounts != null) {
+                amounts[slot] = saturatedAdd(amounts[slot], cents);
+                ring.totalAmounts[currency] = saturatedAdd(ring.totalAmounts[currency], cents);
+            }
+        }
+    }
+
+    /**
+     * Descuenta una operación registrada en el instante dado, en las ventanas donde su tramo
+     * todavía no salió
+     */
+    void remove(int currency, long cents, long atMillis) {
+        for (Ring ring : rings) {
+            if (ring == null) {
+                continue;
+            }
+            long bucket = atMillis / ring.bucketMillis;
+            int slot = ring.slot(bucket);
+            if (bucket > ring.newest || bucket <= ring.newest - ring.counts.length || ring.counts[slot] == 0) {
+                continue;
+            }
+            ring.counts[slot]--;
+            ring.totalCount--;
+            long[] amounts = ring.amounts[currency];
+            if (amounts != null) {
+                long removed = Math.min(amounts[slot], cents);
+                amounts[slot] -= removed;
+                ring.totalAmounts[currency] -= removed;
+            }
+        }
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    /**
+     * Anillo de una ventana; la posición de un tramo es su número (instante / bucketMillis) módulo
+     * la cantidad de tramos, y solo son válidos los tramos de newest hacia atrás
+     */
+    private static final class Ring {
+        private final long bucketMillis;
+        private final int[] counts;
+        // Montos por moneda y tramo, null para las monedas sin reglas de monto
+        private final long[][] amounts;
+        private final long[] totalAmounts;
+        private int totalCount;
+        private long newest;
+
+        private Ring(VelocityWindow window, boolean[] amountCurrencies) {
+            int buckets = window.getBuckets();
+            this.bucketMillis = window.getBucketMillis();
+            this.counts = new int[buckets];
+            this.amounts = new long[amountCurrencies.length][];
+            for (int c = 0; c < amountCurrencies.length; c++) {
+                if (amountCurrencies[c]) {
+                    amounts[c] = new long[buckets];
+                }
+            }
+            this.totalAmounts = new long[amountCurrencies.length];
+            this.newest = Long.MIN_VALUE / 2;
+        }
+
+        /**
+         * Avanza el anillo hasta el tramo dado; un reloj que retrocede sigue usando el tramo más
+         * reciente
+         */
+        private void advance(long bucket) {
+            if (bucket <= newest) {
+                return;
+            }
+            if (bucket - newest >= counts.length) {
+                // Todos los tramos salieron de la ventana
+                Arrays.fill(counts, 0);
+                totalCount = 0;
+                for (int c = 0; c < amounts.length; c++) {
+                    if (amounts[c] != null) {
+                        Arrays.fill(amounts[c], 0);
+                    }
+                    totalAmounts[c] = 0;
+                }
+                newest = bucket;
+                return;
+            }
+            while (newest < bucket) {
+                newest++;
+                int slot = slot(newest);
+                totalCount -= counts[slot];
+                counts[slot] = 0;
+                for (int c = 0; c < amounts.length; c++) {
+                    if (amounts[c] != null) {
+                        totalAmounts[c] -= amounts[c][slot];
+                        amounts[c][slot] = 0;
+                    }
+                }
+            }
+        }
+
+        private int slot(long bucket) {
+            return (int) Math.floorMod(bucket, (long) counts.length);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package LogicLayer;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Control de velocidad de retiros y transferencias a terceros
+ * Acumula la cantidad y el monto de las operaciones de cada cuenta y de cada cliente en ventanas
+ * deslizantes (minuto, hora y día) y rechaza la operación que supera alguna regla. La
+ * verificación y el registro se hacen juntos antes de debitar, con el lock de la cuenta y luego
+ * el del cliente, por lo que operaciones concurrentes no pueden superar un límite entre ambas
+ */
+public class VelocityLimiter {
+    /**
+     * Valor de acquire cuando la operación no llegó a registrarse
+     */
+    public static final long NOT_ACQUIRED = Long.MIN_VALUE;
+
+    private final VelocityRule[] accountRules;
+    private final VelocityRule[] clientRules;
+    private final Clock clock;
+    private final ConcurrentHashMap<UUID, VelocityCounters> accountCounters;
+    private final ConcurrentHashMap<UUID, VelocityCounters> clientCounters;
+    private final Function<UUID, VelocityCounters> newAccountCounters;
+    private final Function<UUID, VelocityCounters> newClientCounters;
+    private final LongAdder rejected;
+
+    public VelocityLimiter(List<VelocityRule> rules) {
+        this(rules, Clock.systemUTC());
+    }
+
+    /**
+     * @param rules reglas a aplicar a todas las operaciones
+     * @param clock reloj con el que se ubican las operaciones en las ventanas
+     */
+    public VelocityLimiter(List<VelocityRule> rules, Clock clock) {
+        if (rules == null || clock == null) {
+            throw new IllegalArgumentException("Las reglas y el reloj no pueden ser nulos");
+        }
+        List<VelocityRule> forAccounts = new ArrayList<>();
+        List<VelocityRule> forClients = new ArrayList<>();
+        int windows = VelocityWindow.values().length;
+        int currencies = Currency.values().length;
+        boolean[] accountWindows = new boolean[windows];
+        boolean[] clientWindows = new boolean[windows];
+        boolean[][] accountAmounts = new boolean[windows][currencies];
+        boolean[][] clientAmounts = new boolean[windows][currencies];
+        for (VelocityRule rule : rules) {
+            boolean forAccount = rule.getScope() == VelocityScope.ACCOUNT;
+            (forAccount ? forAccounts : forClients).add(rule);
+            int window = rule.getWindow().ordinal();
+            (forAccount ? accountWindows : clientWindows)[window] = true;
+            if (rule.limitsAmount()) {
+                (forAccount ? accountAmounts : clientAmounts)[window][rule.getCurrency().ordinal()] = true;
+            }
+        }
+        this.accountRules = forAccounts.toArray(new VelocityRule[0]);
+        this.clientRules = forClients.toArray(new VelocityRule[0]);
+        this.clock = clock;
+        this.accountCounters = new ConcurrentHashMap<>();
+        this.clientCounters = new ConcurrentHashMap<>();
+        this.newAccountCounters = id -> new VelocityCounters(accountWindows, accountAmounts);
+        this.newClientCounters = id -> new VelocityCounters(clientWindows, clientAmounts);
+        this.rejected = new LongAdder();
+    }
+
+    /**
+     * Verifica las reglas para una operación que debita de la cuenta y, si las cumple, la registra
+     *
+     * @return instante en que se registró la operación (para {@link #release})
+     * @throws IllegalStateException si la operación supera alguna regla
+     */
+    public long acquire(Account account, BigDecimal amount) {
+        long cents = toCents(amount);
+        int currency = account.getBaseCurrency().ordinal();
+        VelocityCounters forAccount = counters(accountCounters, account.getId(), newAccountCounters);
+        VelocityCounters forClient = counters(clientCounters, account.getOwner().getId(), newClientCounters);
+
+        // Siempre la cuenta antes que el cliente, para que no haya bloqueos cruzados
+        synchronized (forAccount) {
+            synchronized (forClient) {
+                long now = clock.millis();
+                forAccount.advance(now);
+                forClient.advance(now);
+                check(accountRules, forAccount, currency, cents);
+                check(clientRules, forClient, currency, cents);
+                forAccount.add(currency, cents);
+                forClient.add(currency, cents);
+                return now;
+            }
+        }
+    }
+
+    /**
+     * Descuenta una operación registrada que finalmente no se realizó (por ejemplo, por fondos
+     * insuficientes); no hace nada si acquiredAt es NOT_ACQUIRED
+     */
+    public void release(Account account, BigDecimal amount, long acquiredAt) {
+        if (acquiredAt == NOT_ACQUIRED) {
+            return;
+        }
+        long cents = toCents(amount);
+        int currency = account.getBaseCurrency().ordinal();
+        VelocityCounters forAccount = counters(accountCounters, account.getId(), newAccountCounters);
+        VelocityCounters forClient = counters(clientCounters, account.getOwner().getId(), newClientCounters);
+        synchronized (forAccount) {
+            synchronized (forClient) {
+                forAccount.remove(currency, cents, acquiredAt);
+                forClient.remove(currency, cents, acquiredAt);
+            }
+        }
+    }
+
+    /**
+     * Operaciones rechazadas desde la creación
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public List<VelocityRule> getRules() {
+        List<VelocityRule> rules = new ArrayList<>(List.of(accountRules));
+        rules.addAll(List.of(clientRules));
+        return rules;
+    }
+
+    private static VelocityCounters counters(ConcurrentHashMap<UUID, VelocityCounters> map, UUID id,
+                                             Function<UUID, VelocityCounters> factory) {
+        // get primero: computeIfAbsent bloquea el nodo aunque la clave ya exista
+        VelocityCounters counters = map.get(id);
+        return counters != null ? counters : map.computeIfAbsent(id, factory);
+    }
+
+    private void check(VelocityRule[] rules, VelocityCounters counters, int currency, long cents) {
+        for (VelocityRule rule : rules) {
+            boolean exceeded;
+            if (rule.limitsAmount()) {
+                exceeded = rule.getCurrency().ordinal() == currency
+                        && cents > rule.getMaxAmountCents() - counters.amount(rule.getWindow(), currency);
+            } else {
+                exceeded = counters.count(rule.getWindow()) >= rule.getMaxCount();
+            }
+            if (exceeded) {
+                rejected.increment();
+                throw new IllegalStateException("Se superó el límite de velocidad (" + rule + ")");
+            }
+        }
+    }
+
+    /**
+     * Convierte un monto a centavos, redondeando hacia arriba los decimales adicionales
+     */
+    static long toCents(BigDecimal amount) {
+        BigInteger cents = amount.setScale(2, RoundingMode.CEILING).unscaledValue();
+        return cents.bitLength() < 64 ? cents.longValue() : Long.MAX_VALUE;
+    }
+}
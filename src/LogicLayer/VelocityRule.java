@@ -0,0 +1,98 @@
+package LogicLayer;
+
+import java.math.BigDecimal;
+
+/**
+ * Límite de velocidad para retiros y transferencias a terceros: cantidad de operaciones o monto
+ * total permitido por cuenta o por cliente dentro de una ventana deslizante
+ */
+public class VelocityRule {
+    private final VelocityScope scope;
+    private final VelocityWindow window;
+    private final Currency currency;
+    private final int maxCount;
+    private final BigDecimal maxAmount;
+    private final long maxAmountCents;
+
+    private VelocityRule(VelocityScope scope, VelocityWindow window, Currency currency, int maxCount,
+                         BigDecimal maxAmount) {
+        if (scope == null || window == null) {
+            throw new IllegalArgumentException("El alcance y la ventana no pueden ser nulos");
+        }
+        this.scope = scope;
+        this.window = window;
+        this.currency = currency;
+        this.maxCount = maxCount;
+        this.maxAmount = maxAmount;
+        this.maxAmountCents = maxAmount != null ? VelocityLimiter.toCents(maxAmount) : Long.MAX_VALUE;
+    }
+
+    /**
+     * Límite de cantidad de operaciones (en cualquier moneda)
+     */
+    public static VelocityRule maxCount(VelocityScope scope, VelocityWindow window, int maxCount) {
+        if (maxCount <= 0) {
+            throw new IllegalArgumentException("La cantidad máxima debe ser positiva");
+        }
+        return new VelocityRule(scope, window, null, maxCount, null);
+    }
+
+    /**
+     * Límite de monto total en una moneda
+     */
+    public static VelocityRule maxAmount(VelocityScope scope, VelocityWindow window, Currency currency,
+                                         BigDecimal maxAmount) {
+        if (currency == null) {
+            throw new IllegalArgumentException("La moneda no puede ser nula");
+        }
+        if (maxAmount == null || maxAmount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("El monto máximo debe ser positivo");
+        }
+        return new VelocityRule(scope, window, currency, Integer.MAX_VALUE, maxAmount);
+    }
+
+    public VelocityScope getScope() {
+        return scope;
+    }
+
+    public VelocityWindow getWindow() {
+        return window;
+    }
+
+    /**
+     * Moneda del monto máximo, o null si la regla limita la cantidad de operaciones
+     */
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public int getMaxCount() {
+        return maxCount;
+    }
+
+    /**
+     * Monto máximo, o null si la regla limita la cantidad de operaciones
+     */
+    public BigDecimal getMaxAmount() {
+        return maxAmount;
+    }
+
+    long getMaxAmountCents() {
+        return maxAmountCents;
+    }
+
+    /**
+     * Indica si la regla limita el monto (si no, limita la cantidad de operaciones)
+     */
+    public boolean limitsAmount() {
+        return maxAmount != null;
+    }
+
+    @Override
+    public String toString() {
+        String limit = limitsAmount()
+                ? currency.getSymbol() + " " + DisplayFormatter.formatAmount(maxAmount)
+                : maxCount + " operaciones";
+        return scope + " - " + window + ": " + limit;
+    }
+}
@@ -0,0 +1,24 @@
+package LogicLayer;
+
+/**
+ * Enum que representa sobre qué se acumulan los límites de velocidad
+ */
+public enum VelocityScope {
+    ACCOUNT("Cuenta"),
+    CLIENT("Cliente");
+
+    private final String description;
+
+    VelocityScope(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+}
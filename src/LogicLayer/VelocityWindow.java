@@ -0,0 +1,49 @@
+package LogicLayer;
+
+/**
+ * Enum que representa las ventanas de los límites de velocidad
+ * Cada ventana se divide en una cantidad fija de tramos: la ventana deslizante avanza de a un
+ * tramo y cubre entre el largo de la ventana menos un tramo y el largo completo
+ */
+public enum VelocityWindow {
+    MINUTE("Minuto", 60_000L, 60),
+    HOUR("Hora", 3_600_000L, 60),
+    DAY("Día", 86_400_000L, 96);
+
+    private final String description;
+    private final long lengthMillis;
+    private final int buckets;
+
+    VelocityWindow(String description, long lengthMillis, int buckets) {
+        this.description = description;
+        this.lengthMillis = lengthMillis;
+        this.buckets = buckets;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public long getLengthMillis() {
+        return lengthMillis;
+    }
+
+    /**
+     * Cantidad de tramos en los que se divide la ventana
+     */
+    public int getBuckets() {
+        return buckets;
+    }
+
+    /**
+     * Duración de cada tramo
+     */
+    public long getBucketMillis() {
+        return lengthMillis / buckets;
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+}
@@ -1,6 +1,8 @@
 package LogicLayer;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
 
 /**
  * Transacción de retiro de una cuenta
@@ -17,20 +19,33 @@ public class WithdrawTransaction extends Transaction {
         this.source = source;
     }
 
+    /**
+     * Constructor para el retiro que revierte un depósito
+     */
+    WithdrawTransaction(TransactionStatus status, BigDecimal amount, Currency currency,
+                        String note, Account source, UUID reversedTransactionId) {
+        super(TransactionType.WITHDRAW, status, amount, currency, note, reversedTransactionId);
+        this.source = source;
+    }
+
+    /**
+     * Constructor para reconstruir un retiro guardado
+     */
+    WithdrawTransaction(UUID id, TransactionStatus status, BigDecimal amount, Currency currency, Instant createdAt,
+                        String note, Account source, UUID reversedTransactionId) {
+        super(id, TransactionType.WITHDRAW, status, amount, currency, createdAt, note, reversedTransactionId);
+        this.source = source;
+    }
+
     public Account getSource() {
         return source;
     }
 
     @Override
-    public String summary() {
-        return String.format("[%s] %s: -%s%s de %s | %s | %s",
-                formatDateTime(),
-                type.getDescription(),
-                currency.getSymbol(),
-                String.format("%,.2f", amount),
-                source.type(),
-                status.getDescription(),
-                note != null ? note : "Sin nota");
+    public StringBuilder appendSummary(StringBuilder sb) {
+        appendHeader(sb).append('-').append(currency.getSymbol());
+        DisplayFormatter.appendAmount(sb, amount).append(" de ").append(source.type());
+        return appendStatusAndNote(sb);
     }
 }
 
@@ -0,0 +1,969 @@
+package UserLayer;
+
+import LogicLayer.*;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Clase independiente para ejecutar pruebas de operaciones sobre cuentas
+ */
+public class AccountOperationTests {
+    private static final byte[] PIN = {1, 2, 3, 4};
+
+    public static void main(String[] args) {
+        runTests();
+    }
+
+    /**
+     * Ejecuta todas las pruebas de operaciones sobre cuentas
+     */
+    public static void runTests() {
+        printLine("=", 60);
+        System.out.println("PRUEBAS DE OPERACIONES SOBRE CUENTAS");
+        printLine("=", 60);
+        System.out.println();
+
+        System.out.println("PRUEBA 1: Reversión de transferencias entre cuentas propias");
+        printLine("-", 40);
+        printResult(verifyOwnTransferReversal());
+
+        System.out.println("PRUEBA 2: Reversión sin fondos suficientes");
+        printLine("-", 40);
+        printResult(verifyFailedReversal());
+
+        System.out.println("PRUEBA 3: Reversiones no permitidas al cliente");
+        printLine("-", 40);
+        printResult(verifyUnauthorizedReversals());
+
+        System.out.println("PRUEBA 4: Reanudación del cierre tras una falla a mitad de porción");
+        printLine("-", 40);
+        printResult(verifyBatchResume());
+
+        System.out.println("PRUEBA 5: Límites de velocidad por ventana y por cliente");
+        printLine("-", 40);
+        printResult(verifyVelocityWindows());
+
+        System.out.println("PRUEBA 6: Límites de velocidad con retiros fallidos");
+        printLine("-", 40);
+        printResult(verifyVelocityRelease());
+
+        System.out.println("PRUEBA 7: Límites de velocidad en transferencias programadas");
+        printLine("-", 40);
+        printResult(verifyStandingOrderVelocity());
+
+        System.out.println("PRUEBA 8: Índice de transferencias programadas por vencimiento");
+        printLine("-", 40);
+        printResult(verifyDueIndex());
+
+        System.out.println("PRUEBA 9: Ocurrencias de una orden mensual");
+        printLine("-", 40);
+        printResult(verifyMonthlyRollover());
+
+        System.out.println("PRUEBA 10: Reintentos de órdenes sin fondos");
+        printLine("-", 40);
+        printResult(verifyStandingOrderRetries());
+
+        System.out.println("PRUEBA 11: Orden cuya acreditación no se guarda");
+        printLine("-", 40);
+        printResult(verifyStandingOrderCompensation());
+
+        System.out.println("PRUEBA 12: Resúmenes con transferencias entre monedas");
+        printLine("-", 40);
+        printResult(verifyCrossCurrencyRollups());
+
+        System.out.println("PRUEBA 13: Consultas por rango de montos");
+        printLine("-", 40);
+        printResult(verifyAmountRangeQueries());
+
+        // Prueba 14: ids ordenados por tiempo
+        System.out.println("PRUEBA 14: Ids ordenados por tiempo");
+        printLine("-", 40);
+        printResult(verifyTimeOrderedIds());
+
+        // Prueba 15: órdenes pendientes de un día interrumpido
+        System.out.println("PRUEBA 15: Órdenes de un día interrumpido");
+        printLine("-", 40);
+        printResult(verifyInterruptedStandingOrderDay());
+
+        // Prueba 16: un proceso de fin de día que falla no detiene a los demás
+        System.out.println("PRUEBA 16: Procesos de fin de día aislados");
+        printLine("-", 40);
+        printResult(verifyIsolatedDayListeners());
+
+        printLine("=", 60);
+        System.out.println("TODAS LAS PRUEBAS COMPLETADAS");
+        printLine("=", 60);
+        System.out.println();
+    }
+
+    /**
+     * Revierte una transferencia propia, verifica el vínculo con la original y que no se pueda
+     * revertir dos veces
+     */
+    private static boolean verifyOwnTransferReversal() {
+        Bank bank = new Bank();
+        Client client = bank.register("Reversión", "reversion");
+        Account source = bank.savings(client, "1000.00");
+        Account target = bank.savings(client, "0.00");
+
+        Transaction original = bank.accountService.transfer(source, target, new BigDecimal("250.00"), "Ahorro");
+        Transaction reversal = bank.accountService.reverseTransaction(original.getId(), "Error de cuenta");
+        boolean settled = reversal.isSuccessful()
+                && source.getBalance().compareTo(new BigDecimal("1000.00")) == 0
+                && target.getBalance().compareTo(BigDecimal.ZERO) == 0;
+        boolean linked = original.getId().equals(reversal.getReversedTransactionId())
+                && reversal.isReversal()
+                && reversal.equals(bank.accountService.findReversalOf(original))
+                && reversal.equals(bank.transactionDao.findById(reversal.getId()));
+        boolean secondRejected = throwsException(IllegalStateException.class,
+                () -> bank.accountService.reverseTransaction(original.getId(), "Otra vez"));
+        boolean reversalOfReversalRejected = throwsException(IllegalArgumentException.class,
+                () -> bank.accountService.reverseTransaction(reversal.getId(), "Deshacer"));
+
+        System.out.println("  Saldos restituidos: " + yesNo(settled));
+        System.out.println("  Vinculada a la original: " + yesNo(linked));
+        System.out.println("  Segunda reversión rechazada: " + yesNo(secondRejected));
+        System.out.println("  Reversión de una reversión rechazada: " + yesNo(reversalOfReversalRejected));
+        return settled && linked && secondRejected && reversalOfReversalRejected
+                && source.getBalance().compareTo(new BigDecimal("1000.00")) == 0;
+    }
+
+    /**
+     * Una reversión que no puede debitar, o cuyo crédito no se puede guardar, queda registrada como
+     * fallida, sin mover saldos, y no cuenta como reversión
+     */
+    private static boolean verifyFailedReversal() {
+        Bank bank = new Bank();
+        Client client = bank.register("Sin fondos", "sinfondos");
+        Account source = bank.savings(client, "500.00");
+        Account target = bank.savings(client, "0.00");
+
+        Transaction original = bank.accountService.transfer(source, target, new BigDecimal("300.00"), null);
+        bank.accountService.withdraw(target, new BigDecimal("300.00"), null);
+        Transaction reversal = bank.accountService.reverseTransaction(original.getId(), "Sin fondos");
+
+        boolean failed = reversal.getStatus() == TransactionStatus.FAILED
+                && original.getId().equals(reversal.getReversedTransactionId());
+        boolean recorded = reversal.equals(bank.transactionDao.findById(reversal.getId()));
+        boolean unchanged = source.getBalance().compareTo(new BigDecimal("200.00")) == 0
+                && target.getBalance().compareTo(BigDecimal.ZERO) == 0;
+        boolean retryAllowed = bank.accountService.findReversalOf(original) == null;
+
+        System.out.println("  Reversión registrada como FAILED: " + yesNo(failed));
+        System.out.println("  Registrada en el historial: " + yesNo(recorded));
+        System.out.println("  Saldos sin cambios: " + yesNo(unchanged));
+        System.out.println("  Se puede reintentar: " + yesNo(retryAllowed));
+
+        // El débito se guarda y falla guardar el crédito: la cuenta debitada recupera el monto
+        FailingAccountDao accountDao = new FailingAccountDao();
+        Bank failing = new Bank(accountDao, null);
+        Client owner = failing.register("Crédito perdido", "creditoperdido");
+        Account from = failing.savings(owner, "500.00");
+        Account to = failing.savings(owner, "0.00");
+        Transaction transfer = failing.accountService.transfer(from, to, new BigDecimal("300.00"), null);
+        int savedUpdates = accountDao.updatesOf(to);
+        accountDao.failAfter(1);
+        Transaction failedReversal = failing.accountService.reverseTransaction(transfer.getId(), null);
+        accountDao.failAfter(-1);
+        boolean compensated = !failedReversal.isSuccessful()
+                && from.getBalance().compareTo(new BigDecimal("200.00")) == 0
+                && to.getBalance().compareTo(new BigDecimal("300.00")) == 0
+                && accountDao.updatesOf(to) == savedUpdates + 2
+                && failing.accountService.findReversalOf(transfer) == null;
+        System.out.println("  Débito devuelto si el crédito no se guarda: " + yesNo(compensated));
+        return failed && recorded && unchanged && retryAllowed && compensated;
+    }
+
+    /**
+     * El cliente no puede revertir retiros, depósitos, transferencias a terceros ni transacciones
+     * de otro cliente; el banco sí puede revertir un retiro
+     */
+    private static boolean verifyUnauthorizedReversals() {
+        Bank bank = new Bank();
+        Client owner = bank.register("Titular", "titular");
+        Client other = bank.register("Tercero", "tercero");
+        Account ownerAccount = bank.savings(owner, "1000.00");
+        Account otherAccount = bank.savings(other, "0.00");
+
+        bank.login("titular");
+        Transaction withdrawal = bank.accountService.withdraw(ownerAccount, new BigDecimal("100.00"), null);
+        Transaction deposit = bank.accountService.deposit(ownerAccount, new BigDecimal("50.00"), null);
+        Transaction thirdParty = bank.transferService.transferToThirdParty(ownerAccount, otherAccount,
+                new BigDecimal("200.00"), null);
+        boolean withdrawalRejected = throwsException(SecurityException.class,
+                () -> bank.accountService.reverseTransaction(withdrawal.getId(), null));
+        boolean depositRejected = throwsException(SecurityException.class,
+                () -> bank.accountService.reverseTransaction(deposit.getId(), null));
+        boolean thirdPartyRejected = throwsException(SecurityException.class,
+                () -> bank.accountService.reverseTransaction(thirdParty.getId(), null));
+
+        bank.login("tercero");
+        boolean otherClientRejected = throwsException(SecurityException.class,
+                () -> bank.accountService.reverseTransaction(thirdParty.getId(), null));
+        bank.authService.logout();
+        boolean withoutSessionRejected = throwsException(SecurityException.class,
+                () -> bank.accountService.reverseTransaction(thirdParty.getId(), null));
+        boolean unchanged = ownerAccount.getBalance().compareTo(new BigDecimal("750.00")) == 0
+                && otherAccount.getBalance().compareTo(new BigDecimal("200.00")) == 0;
+
+        Transaction backOffice = new BackOfficeService(bank.accountService)
+                .reverseTransaction(withdrawal.getId(), "Retiro duplicado");
+        boolean backOfficeReversed = backOffice.isSuccessful()
+                && ownerAccount.getBalance().compareTo(new BigDecimal("850.00")) == 0;
+
+        System.out.println("  Retiro rechazado: " + yesNo(withdrawalRejected));
+        System.out.println("  Depósito rechazado: " + yesNo(depositRejected));
+        System.out.println("  Transferencia a tercero rechazada: " + yesNo(thirdPartyRejected));
+        System.out.println("  Otro cliente rechazado: " + yesNo(otherClientRejected));
+        System.out.println("  Sin sesión rechazado: " + yesNo(withoutSessionRejected));
+        System.out.println("  Saldos sin cambios: " + yesNo(unchanged));
+        System.out.println("  Reversión del banco aplicada: " + yesNo(backOfficeReversed));
+        return withdrawalRejected && depositRejected && thirdPartyRejected && otherClientRejected
+                && withoutSessionRejected && unchanged && backOfficeReversed;
+    }
+
+    /**
+     * Interrumpe el cierre de fin de mes a mitad de una porción, lo reanuda y verifica que cada
+     * cuenta recibió los intereses y pagó la comisión exactamente una vez
+     */
+    private static boolean verifyBatchResume() {
+        int accounts = 200;
+        LocalDate monthEnd = LocalDate.of(2024, 1, 31);
+        Map<Currency, BigDecimal> fees = new EnumMap<>(Currency.class);
+        fees.put(Currency.ARS, new BigDecimal("10.00"));
+        Map<Currency, BigDecimal> rates = new EnumMap<>(Currency.class);
+        rates.put(Currency.ARS, new BigDecimal("0.365"));
+
+        FailingAccountDao accountDao = new FailingAccountDao();
+        TransactionDao transactionDao = new InMemoryTransactionDao();
+        Client client = new Client("Cierre", "cierre");
+        for (int i = 0; i < accounts; i++) {
+            accountDao.save(new SavingsAccount(client, Currency.ARS, new BigDecimal("1000.00")));
+        }
+        EndOfDayBatchRunner runner = new EndOfDayBatchRunner(accountDao, new InMemoryCheckpointDao(), 4);
+        runner.addJob(new InterestAccrualJob(accountDao, transactionDao, rates, null));
+        runner.addJob(new MaintenanceFeeJob(accountDao, transactionDao, fees));
+
+        // Falla una actualización del cobro de comisiones, después de cobrar algunas cuentas de la porción
+        accountDao.failAfter(accounts + accounts / 4 + 10);
+        int failedPartitions = 0;
+        for (BatchJobReport report : runner.runDay(monthEnd)) {
+            failedPartitions += report.getPartitionsFailed();
+        }
+        accountDao.failAfter(-1);
+        int resumedFailures = 0;
+        for (BatchJobReport report : runner.runDay(monthEnd)) {
+            resumedFailures += report.getPartitionsFailed();
+        }
+
+        // Interés diario de 1000.00 a 0.365 anual = 1.00; luego la comisión de 10.00
+        BigDecimal expected = new BigDecimal("991.00");
+        int wrongBalances = 0;
+        int wrongHistories = 0;
+        for (Account account : accountDao.findAll()) {
+            if (account.getBalance().compareTo(expected) != 0) {
+                wrongBalances++;
+            }
+            if (transactionDao.countByAccountId(account.getId()) != 2) {
+                wrongHistories++;
+            }
+        }
+        System.out.println("  Porciones fallidas en la primera ejecución: " + failedPartitions);
+        System.out.println("  Porciones fallidas al reanudar: " + resumedFailures);
+        System.out.println("  Cuentas con saldo distinto de $" + expected + ": " + wrongBalances);
+        System.out.println("  Cuentas sin exactamente dos movimientos: " + wrongHistories);
+        return failedPartitions > 0 && resumedFailures == 0 && wrongBalances == 0 && wrongHistories == 0;
+    }
+
+    /**
+     * Verifica el límite de operaciones por cuenta, el monto acumulado entre las cuentas de un
+     * cliente y que ambos se liberan cuando la ventana avanza
+     */
+    private static boolean verifyVelocityWindows() {
+        ManualClock clock = new ManualClock();
+        VelocityLimiter limiter = new VelocityLimiter(List.of(
+                VelocityRule.maxCount(VelocityScope.ACCOUNT, VelocityWindow.MINUTE, 2),
+                VelocityRule.maxAmount(VelocityScope.CLIENT, VelocityWindow.HOUR, Currency.ARS,
+                        new BigDecimal("300.00"))), clock);
+        Client client = new Client("Velocidad", "velocidad");
+        Account first = new SavingsAccount(client, Currency.ARS, BigDecimal.ZERO);
+        Account second = new SavingsAccount(client, Currency.ARS, BigDecimal.ZERO);
+        Account dollars = new SavingsAccount(client, Currency.USD, BigDecimal.ZERO);
+
+        boolean countLimited = acquires(limiter, first, "100.00") && acquires(limiter, first, "100.00")
+                && !acquires(limiter, first, "1.00");
+        boolean clientAggregated = acquires(limiter, second, "100.00") && !acquires(limiter, second, "0.01")
+                && acquires(limiter, dollars, "5000.00");
+        clock.advance(61_000);
+        boolean minuteExpired = !acquires(limiter, first, "0.01") && acquires(limiter, dollars, "1.00");
+        clock.advance(3_600_000);
+        boolean hourExpired = acquires(limiter, first, "100.00") && acquires(limiter, second, "200.00")
+                && !acquires(limiter, second, "0.01");
+
+        System.out.println("  Tercera operación por minuto rechazada: " + yesNo(countLimited));
+        System.out.println("  Monto sumado entre cuentas del cliente: " + yesNo(clientAggregated));
+        System.out.println("  Minuto vencido, monto por hora vigente: " + yesNo(minuteExpired));
+        System.out.println("  Hora vencida: " + yesNo(hourExpired));
+        System.out.println("  Operaciones rechazadas: " + limiter.getRejectedCount());
+        return countLimited && clientAggregated && minuteExpired && hourExpired
+                && limiter.getRejectedCount() == 4;
+    }
+
+    /**
+     * Un retiro que falla por fondos insuficientes no consume el límite; uno que lo supera queda
+     * registrado como fallido sin modificar el saldo
+     */
+    private static boolean verifyVelocityRelease() {
+        ManualClock clock = new ManualClock();
+        Bank bank = new Bank(new VelocityLimiter(
+                List.of(VelocityRule.maxCount(VelocityScope.ACCOUNT, VelocityWindow.MINUTE, 2)), clock));
+        Client client = bank.register("Retiros", "retiros");
+        Account account = bank.savings(client, "100.00");
+
+        boolean insufficientReleased = !bank.accountService.withdraw(account, new BigDecimal("500.00"), null)
+                .isSuccessful()
+                && !bank.accountService.withdraw(account, new BigDecimal("500.00"), null).isSuccessful()
+                && bank.accountService.withdraw(account, new BigDecimal("30.00"), null).isSuccessful()
+                && bank.accountService.withdraw(account, new BigDecimal("30.00"), null).isSuccessful();
+        Transaction limited = bank.accountService.withdraw(account, new BigDecimal("30.00"), null);
+        boolean rejected = limited.getStatus() == TransactionStatus.FAILED
+                && limited.getNote().contains("límite de velocidad")
+                && account.getBalance().compareTo(new BigDecimal("40.00")) == 0;
+        clock.advance(60_000);
+        boolean expired = bank.accountService.withdraw(account, new BigDecimal("30.00"), null).isSuccessful();
+
+        System.out.println("  Retiros sin fondos no consumen el límite: " + yesNo(insufficientReleased));
+        System.out.println("  Tercer retiro del minuto rechazado: " + yesNo(rejected));
+        System.out.println("  Retiro permitido al minuto siguiente: " + yesNo(expired));
+        return insufficientReleased && rejected && expired;
+    }
+
+    /**
+     * Las órdenes programadas a terceros pasan por los límites del cliente; las órdenes entre
+     * cuentas propias no
+     */
+    private static boolean verifyStandingOrderVelocity() {
+        Bank bank = new Bank(new VelocityLimiter(
+                List.of(VelocityRule.maxCount(VelocityScope.CLIENT, VelocityWindow.DAY, 1)), new ManualClock()));
+        Client third = bank.register("Destino", "destino");
+        Account thirdAccount = bank.savings(third, "0.00");
+        Client client = bank.register("Programadas", "programadas");
+        Account source = bank.savings(client, "1000.00");
+        Account savings = bank.savings(client, "0.00");
+
+        StandingOrderService service = new StandingOrderService(bank.accountService, bank.authService,
+                new InMemoryStandingOrderDao(), bank.clock, 10, 0);
+        LocalDate day = bank.clock.getCurrentDay().plusDays(1);
+        for (int i = 0; i < 3; i++) {
+            service.scheduleTransfer(source, thirdAccount, new BigDecimal("100.00"), "Alquiler",
+                    RecurrenceFrequency.ONCE, day, null);
+        }
+        service.scheduleTransfer(source, savings, new BigDecimal("50.00"), "Ahorro", RecurrenceFrequency.ONCE,
+                day, null);
+        StandingOrderReport report = service.processDay(day);
+
+        boolean screened = report.getExecuted() == 2 && report.getFailed() == 2
+                && thirdAccount.getBalance().compareTo(new BigDecimal("100.00")) == 0
+                && savings.getBalance().compareTo(new BigDecimal("50.00")) == 0
+                && source.getBalance().compareTo(new BigDecimal("850.00")) == 0;
+        boolean reported = !report.getFailureMessages().isEmpty()
+                && report.getFailureMessages().get(0).contains("límite de velocidad");
+        System.out.println("  Ejecutadas: " + report.getExecuted() + " | rechazadas: " + report.getFailed());
+        System.out.println("  Solo una orden a terceros por día: " + yesNo(screened));
+        System.out.println("  Motivo informado: " + yesNo(reported));
+        return screened && reported;
+    }
+
+    /**
+     * Al procesar un día solo se toman las órdenes que vencen; las canceladas se descartan y las
+     * futuras no se tocan
+     */
+    private static boolean verifyDueIndex() {
+        Bank bank = new Bank();
+        Client client = bank.register("Índice", "indice");
+        Account source = bank.savings(client, "100000.00");
+        Account target = bank.savings(client, "0.00");
+
+        StandingOrderService service = new StandingOrderService(bank.accountService, bank.authService,
+                new InMemoryStandingOrderDao(), bank.clock, 4, 0);
+        LocalDate tomorrow = bank.clock.getCurrentDay().plusDays(1);
+        LocalDate nextYear = tomorrow.plusYears(1);
+        int future = 1_000;
+        for (int i = 0; i < future; i++) {
+            service.scheduleTransfer(source, target, new BigDecimal("1.00"), "Futura", RecurrenceFrequency.ONCE,
+                    nextYear.plusDays(i % 30), null);
+        }
+        for (int i = 0; i < 10; i++) {
+            service.scheduleTransfer(source, target, new BigDecimal("1.00"), "Vencida", RecurrenceFrequency.ONCE,
+                    tomorrow, null);
+        }
+        StandingOrder cancelled = service.scheduleTransfer(source, target, new BigDecimal("1.00"), "Cancelada",
+                RecurrenceFrequency.ONCE, tomorrow, null);
+        service.cancel(cancelled.getId());
+
+        StandingOrderReport report = service.processDay(tomorrow);
+        StandingOrderReport repeated = service.processDay(tomorrow);
+        int untouched = 0;
+        for (StandingOrder order : service.listByAccount(source)) {
+            if (order.getExecutedCount() == 0 && !order.getDueDate().isBefore(nextYear)) {
+                untouched++;
+            }
+        }
+
+        boolean onlyDue = report.getDue() == 10 && report.getExecuted() == 10
+                && target.getBalance().compareTo(new BigDecimal("10.00")) == 0;
+        boolean consumed = repeated.getDue() == 0;
+        boolean futureKept = untouched == future && service.countActiveOrders() == future;
+        System.out.println("  Órdenes tomadas del índice: " + report.getDue() + " de " + (future + 11));
+        System.out.println("  Solo las vencidas y sin la cancelada: " + yesNo(onlyDue));
+        System.out.println("  El día ya procesado no repite órdenes: " + yesNo(consumed));
+        System.out.println("  Órdenes futuras intactas: " + yesNo(futureKept));
+        return onlyDue && consumed && futureKept;
+    }
+
+    /**
+     * Una orden mensual del 31 pasa por el 29 de febrero, vuelve al 31 y termina en su fecha de fin
+     */
+    private static boolean verifyMonthlyRollover() {
+        Bank bank = new Bank();
+        Client client = bank.register("Mensual", "mensual");
+        Account source = bank.savings(client, "1000.00");
+        Account target = bank.savings(client, "0.00");
+
+        StandingOrderService service = new StandingOrderService(bank.accountService, bank.authService,
+                new InMemoryStandingOrderDao(), bank.clock, 10, 0);
+        StandingOrder order = service.scheduleTransfer(source, target, new BigDecimal("100.00"), "Cuota",
+                RecurrenceFrequency.MONTHLY, LocalDate.of(2024, 1, 31), LocalDate.of(2024, 4, 30));
+
+        LocalDate[] expected = {
+                LocalDate.of(2024, 2, 29), LocalDate.of(2024, 3, 31), LocalDate.of(2024, 4, 30)
+        };
+        boolean skipsOtherDays = service.processDay(LocalDate.of(2024, 1, 30)).getDue() == 0;
+        service.processDay(LocalDate.of(2024, 1, 31));
+        boolean datesMatch = true;
+        for (LocalDate next : expected) {
+            datesMatch &= order.getDueDate().equals(next);
+            skipsOtherDays &= service.processDay(next.minusDays(1)).getDue() == 0;
+            service.processDay(next);
+        }
+
+        boolean finished = !order.isActive() && order.getExecutedCount() == 4 && service.countActiveOrders() == 0
+                && target.getBalance().compareTo(new BigDecimal("400.00")) == 0;
+        System.out.println("  Vencimientos 29/02, 31/03 y 30/04: " + yesNo(datesMatch));
+        System.out.println("  Días intermedios sin órdenes: " + yesNo(skipsOtherDays));
+        System.out.println("  Cuatro ejecuciones y baja en la fecha de fin: " + yesNo(finished));
+        return datesMatch && skipsOtherDays && finished;
+    }
+
+    /**
+     * Una orden sin fondos se reintenta al día siguiente; se ejecuta si llegan fondos dentro de
+     * los reintentos y se abandona si no
+     */
+    private static boolean verifyStandingOrderRetries() {
+        Bank bank = new Bank();
+        Client client = bank.register("Reintentos", "reintentos");
+        Account funded = bank.savings(client, "100.00");
+        Account empty = bank.savings(client, "100.00");
+        Account target = bank.savings(client, "0.00");
+
+        StandingOrderService service = new StandingOrderService(bank.accountService, bank.authService,
+                new InMemoryStandingOrderDao(), bank.clock, 10, 2);
+        LocalDate day = bank.clock.getCurrentDay().plusDays(1);
+        StandingOrder recovered = service.scheduleTransfer(funded, target, new BigDecimal("300.00"), "Recupera",
+                RecurrenceFrequency.ONCE, day, null);
+        StandingOrder abandoned = service.scheduleTransfer(empty, target, new BigDecimal("300.00"), "Abandona",
+                RecurrenceFrequency.ONCE, day, null);
+
+        StandingOrderReport first = service.processDay(day);
+        boolean rescheduled = first.getFailed() == 2 && first.getRetriesScheduled() == 2
+                && recovered.getDueDate().equals(day.plusDays(1)) && recovered.getFailedAttempts() == 1;
+        service.processDay(day.plusDays(1));
+        bank.accountService.deposit(funded, new BigDecimal("500.00"), null);
+        StandingOrderReport third = service.processDay(day.plusDays(2));
+
+        boolean retried = third.getDue() == 2 && third.getExecuted() == 1 && recovered.getExecutedCount() == 1
+                && funded.getBalance().compareTo(new BigDecimal("300.00")) == 0;
+        boolean dropped = third.getOccurrencesAbandoned() == 1 && !abandoned.isActive()
+                && empty.getBalance().compareTo(new BigDecimal("100.00")) == 0
+                && service.countActiveOrders() == 0;
+        System.out.println("  Reprogramadas al día siguiente: " + yesNo(rescheduled));
+        System.out.println("  Ejecutada al tercer intento: " + yesNo(retried));
+        System.out.println("  Abandonada al agotar los reintentos: " + yesNo(dropped));
+        return rescheduled && retried && dropped;
+    }
+
+    /**
+     * Si la cuenta destino no se puede guardar, la orden queda fallida, la cuenta origen recupera
+     * el débito y la reversión del crédito se guarda; si además la reversión falla, el resto del
+     * lote se ejecuta y se registra igual
+     */
+    private static boolean verifyStandingOrderCompensation() {
+        FailingAccountDao accountDao = new FailingAccountDao();
+        Bank bank = new Bank(accountDao, null);
+        Client client = bank.register("Compensación", "compensacion");
+        Account source = bank.savings(client, "1000.00");
+        Account target = bank.savings(client, "0.00");
+
+        StandingOrderService service = new StandingOrderService(bank.accountService, bank.authService,
+                new InMemoryStandingOrderDao(), bank.clock, 10, 0);
+        LocalDate day = bank.clock.getCurrentDay().plusDays(1);
+        service.scheduleTransfer(source, target, new BigDecimal("250.00"), "Sin destino",
+                RecurrenceFrequency.ONCE, day, null);
+
+        // Se guarda el débito de la cuenta origen y falla la actualización de la cuenta destino
+        accountDao.failAfter(1);
+        StandingOrderReport report = service.processDay(day);
+        accountDao.failAfter(-1);
+
+        boolean recorded = report.getFailed() == 1;
+        boolean restored = source.getBalance().compareTo(new BigDecimal("1000.00")) == 0
+                && target.getBalance().compareTo(BigDecimal.ZERO) == 0
+                && accountDao.updatesOf(target) == 1;
+        System.out.println("  Orden registrada como FAILED: " + yesNo(recorded));
+        System.out.println("  Saldos sin cambios y reversión guardada: " + yesNo(restored));
+
+        // La cuenta destino nunca se puede guardar: tampoco la reversión del crédito
+        Account broken = bank.savings(client, "0.00");
+        Account other = bank.savings(client, "0.00");
+        accountDao.failAlways(broken);
+        LocalDate next = day.plusDays(1);
+        service.scheduleTransfer(source, broken, new BigDecimal("100.00"), "Destino roto",
+                RecurrenceFrequency.ONCE, next, null);
+        service.scheduleTransfer(source, other, new BigDecimal("40.00"), "Destino sano",
+                RecurrenceFrequency.ONCE, next, null);
+        StandingOrderReport batch = service.processDay(next);
+
+        List<Transaction> history = bank.accountService.getHistory(broken);
+        boolean isolated = batch.getExecuted() == 1 && batch.getFailed() == 1
+                && other.getBalance().compareTo(new BigDecimal("40.00")) == 0
+                && source.getBalance().compareTo(new BigDecimal("960.00")) == 0
+                && bank.accountService.getHistory(other).size() == 1
+                && history.size() == 1 && !history.get(0).isSuccessful()
+                && history.get(0).getNote().contains("no se revirtió el crédito");
+        System.out.println("  Reversión fallida sin cortar el lote: " + yesNo(isolated));
+        return recorded && restored && isolated;
+    }
+
+    /**
+     * Un proceso de fin de día que falla queda registrado y los procesos siguientes se ejecutan
+     */
+    private static boolean verifyIsolatedDayListeners() {
+        SimulatedClock clock = new SimulatedClock(LocalDate.of(2024, 1, 1));
+        AtomicInteger before = new AtomicInteger();
+        AtomicInteger after = new AtomicInteger();
+        clock.addDayChangeListener((previous, day) -> before.incrementAndGet());
+        clock.addDayChangeListener((previous, day) -> {
+            if (day.getDayOfMonth() == 2) {
+                throw new IllegalStateException("Falla simulada");
+            }
+        });
+        clock.addDayChangeListener((previous, day) -> after.incrementAndGet());
+
+        LocalDate failedDay = clock.advanceOneDay();
+        List<String> errors = clock.getLastDayErrors();
+        boolean reported = errors.size() == 1 && errors.get(0).contains("Falla simulada");
+        boolean allRan = before.get() == 1 && after.get() == 1;
+        clock.advanceOneDay();
+        boolean cleared = clock.getLastDayErrors().isEmpty() && after.get() == 2;
+
+        System.out.println("  Día " + failedDay + ": error registrado: " + yesNo(reported));
+        System.out.println("  Procesos siguientes ejecutados: " + yesNo(allRan));
+        System.out.println("  Sin errores al día siguiente: " + yesNo(cleared));
+        return reported && allRan && cleared;
+    }
+
+    /**
+     * Si el día se interrumpe, las órdenes que no llegaron a ejecutarse siguen vencidas y se
+     * ejecutan en el siguiente proceso
+     */
+    private static boolean verifyInterruptedStandingOrderDay() {
+        Bank bank = new Bank();
+        Client client = bank.register("Interrupción", "interrupcion");
+        Account source = bank.savings(client, "1000.00");
+        Account target = bank.savings(client, "0.00");
+
+        StandingOrderService service = new StandingOrderService(bank.accountService, bank.authService,
+                new FailingStandingOrderDao(), bank.clock, 1, 0);
+        LocalDate day = bank.clock.getCurrentDay().plusDays(1);
+        for (int i = 0; i < 3; i++) {
+            service.scheduleTransfer(source, target, new BigDecimal("10.00"), "Orden " + i,
+                    RecurrenceFrequency.ONCE, day, null);
+        }
+
+        boolean interrupted = throwsException(IllegalStateException.class, () -> service.processDay(day));
+        boolean firstOnly = target.getBalance().compareTo(new BigDecimal("10.00")) == 0;
+        StandingOrderReport retry = service.processDay(day);
+        boolean resumed = retry.getDue() == 2 && retry.getExecuted() == 2
+                && target.getBalance().compareTo(new BigDecimal("30.00")) == 0;
+        System.out.println("  Día interrumpido tras la primera orden: " + yesNo(interrupted && firstOnly));
+        System.out.println("  Las otras dos siguen vencidas y se ejecutan: " + yesNo(resumed));
+        return interrupted && firstOnly && resumed;
+    }
+
+    /**
+     * Una transferencia recibida desde una cuenta en otra moneda aparece en los resúmenes de la
+     * cuenta destino, en la moneda de la transferencia; los resúmenes semanales empiezan en lunes
+     */
+    private static boolean verifyCrossCurrencyRollups() {
+        Bank bank = new Bank();
+        Client client = bank.register("Monedas", "monedas");
+        Account pesos = bank.savings(client, "1000.00");
+        Account dollars = new SavingsAccount(client, Currency.USD, new BigDecimal("500.00"));
+        bank.accountDao.save(dollars);
+
+        bank.accountService.deposit(pesos, new BigDecimal("200.00"), null);
+        bank.accountService.transfer(dollars, pesos, new BigDecimal("50.00"), "Cambio");
+
+        LocalDate today = LocalDate.now();
+        List<TransactionRollup> daily = bank.accountService.getRollups(pesos, RollupPeriod.DAILY,
+                today.minusDays(1), today.plusDays(1));
+        List<TransactionRollup> weekly = bank.accountService.getRollups(pesos, RollupPeriod.WEEKLY,
+                today.minusDays(1), today.plusDays(1));
+
+        boolean ownCurrency = false;
+        boolean incoming = false;
+        for (TransactionRollup rollup : daily) {
+            ownCurrency |= rollup.getCurrency() == Currency.ARS
+                    && rollup.getInflow().compareTo(new BigDecimal("200.00")) == 0;
+            incoming |= rollup.getCurrency() == Currency.USD
+                    && rollup.getCount(TransactionType.TRANSFER, TransactionStatus.SETTLED) == 1
+                    && rollup.getInflow().compareTo(new BigDecimal("50.00")) == 0;
+        }
+        boolean mondays = weekly.size() == 2;
+        for (TransactionRollup rollup : weekly) {
+            mondays &= rollup.getPeriodStart().getDayOfWeek() == DayOfWeek.MONDAY;
+        }
+        System.out.println("  Depósito en la moneda de la cuenta: " + yesNo(ownCurrency));
+        System.out.println("  Transferencia en dólares recibida: " + yesNo(incoming));
+        System.out.println("  Semanas desde el lunes: " + yesNo(mondays));
+        return ownCurrency && incoming && mondays;
+    }
+
+    /**
+     * Verifica que los ids crezcan dentro de un mismo milisegundo (incluso al agotar el contador),
+     * que cada hilo genere ids crecientes y sin repetir, que los hilos queden ordenados por
+     * milisegundo y que el generador del proceso no pueda reemplazarse
+     */
+    private static boolean verifyTimeOrderedIds() {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator();
+
+        // Un hilo: muchos ids por milisegundo desbordan el contador de 12 bits
+        int count = 20_000;
+        UUID previous = generator.nextId();
+        int sameMillis = 0;
+        boolean increasing = true;
+        for (int i = 1; i < count; i++) {
+            UUID id = generator.nextId();
+            increasing &= id.compareTo(previous) > 0;
+            if (TimeOrderedIdGenerator.getTimestamp(id).equals(TimeOrderedIdGenerator.getTimestamp(previous))) {
+                sameMillis++;
+            }
+            previous = id;
+        }
+        System.out.println("  Ids crecientes en un hilo: " + yesNo(increasing)
+                + " (" + sameMillis + " en el mismo milisegundo que el anterior)");
+
+        // Varios hilos con el mismo generador
+        int threads = 4;
+        int perThread = 10_000;
+        UUID[][] generated = new UUID[threads][perThread];
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            UUID[] ids = generated[t];
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    ids[i] = generator.nextId();
+                }
+            });
+            workers[t].start();
+        }
+        if (!joinAll(workers)) {
+            return false;
+        }
+        Set<UUID> unique = new HashSet<>();
+        boolean perThreadIncreasing = true;
+        for (UUID[] ids : generated) {
+            for (int i = 0; i < ids.length; i++) {
+                unique.add(ids[i]);
+                perThreadIncreasing &= i == 0 || ids[i].compareTo(ids[i - 1]) > 0;
+            }
+        }
+        boolean noDuplicates = unique.size() == threads * perThread;
+        System.out.println("  Ids crecientes en cada hilo: " + yesNo(perThreadIncreasing));
+        System.out.println("  Ids sin repetir entre hilos: " + yesNo(noDuplicates));
+
+        // Un hilo que empieza milisegundos después genera ids mayores que todos los anteriores
+        UUID latest = unique.stream().max(UUID::compareTo).orElseThrow();
+        UUID[] later = new UUID[1];
+        try {
+            Thread.sleep(20);
+            Thread worker = new Thread(() -> later[0] = generator.nextId());
+            worker.start();
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        boolean orderedAcrossThreads = later[0].compareTo(latest) > 0;
+        System.out.println("  Otro hilo, más tarde, genera un id mayor: " + yesNo(orderedAcrossThreads));
+
+        // El generador del proceso ya está en uso
+        EntityIds.next();
+        boolean fixed = throwsException(IllegalStateException.class, () -> EntityIds.setGenerator(new RandomIdGenerator()));
+        System.out.println("  Generador del proceso fijo: " + yesNo(fixed));
+
+        return increasing && perThreadIncreasing && noDuplicates && orderedAcrossThreads && fixed;
+    }
+
+    private static boolean joinAll(Thread[] workers) {
+        try {
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Con varios tramos ordenados en el índice de montos (y altas pendientes) las consultas
+     * devuelven lo mismo que filtrar todas las transacciones; la consulta del cliente se puede
+     * reutilizar con otra cuenta
+     */
+    private static boolean verifyAmountRangeQueries() {
+        Bank bank = new Bank();
+        Client client = bank.register("Montos", "montos");
+        Account first = bank.savings(client, "0.00");
+        Account second = bank.savings(client, "0.00");
+
+        int transactions = 150_000;
+        SplittableRandom rng = new SplittableRandom(42L);
+        long[] cents = new long[transactions];
+        for (int i = 0; i < transactions; i++) {
+            cents[i] = 1 + rng.nextInt(10_000_000);
+            Account target = i % 2 == 0 ? first : second;
+            bank.transactionDao.save(new DepositTransaction(TransactionStatus.SETTLED,
+                    BigDecimal.valueOf(cents[i], 2), Currency.ARS, null, target));
+        }
+
+        boolean matches = true;
+        for (int q = 0; q < 20; q++) {
+            long min = rng.nextInt(10_000_000);
+            long max = min + rng.nextInt(20_000);
+            int expected = 0;
+            for (long value : cents) {
+                if (value >= min && value <= max) {
+                    expected++;
+                }
+            }
+            int found = bank.transactionDao.query(new TransactionQuery()
+                    .amountBetween(BigDecimal.valueOf(min, 2), BigDecimal.valueOf(max, 2))).size();
+            matches &= found == expected;
+        }
+
+        TransactionQuery query = new TransactionQuery().amountBetween(new BigDecimal("50000.00"), null);
+        int firstCount = bank.accountService.queryTransactions(first, query).size();
+        int secondCount = bank.accountService.queryTransactions(second, query).size();
+        int expectedFirst = 0;
+        int expectedSecond = 0;
+        for (int i = 0; i < transactions; i++) {
+            if (cents[i] >= 5_000_000) {
+                if (i % 2 == 0) {
+                    expectedFirst++;
+                } else {
+                    expectedSecond++;
+                }
+            }
+        }
+        boolean reusable = query.getAccountId() == null && firstCount == expectedFirst
+                && secondCount == expectedSecond;
+        System.out.println("  Transacciones indexadas: " + transactions);
+        System.out.println("  Rangos iguales al filtrado completo: " + yesNo(matches));
+        System.out.println("  Consulta reutilizada con otra cuenta: " + yesNo(reusable));
+        return matches && reusable;
+    }
+
+    private static boolean acquires(VelocityLimiter limiter, Account account, String amount) {
+        try {
+            limiter.acquire(account, new BigDecimal(amount));
+            return true;
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reloj que solo avanza cuando la prueba lo indica
+     */
+    private static final class ManualClock extends Clock {
+        private volatile long millis = 1_704_067_200_000L;
+
+        private void advance(long deltaMillis) {
+            millis += deltaMillis;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+
+    /**
+     * DAO de cuentas que falla en una actualización dada, para simular una caída a mitad de porción
+     */
+    private static final class FailingAccountDao extends InMemoryAccountDao {
+        private final AtomicInteger remaining = new AtomicInteger(-1);
+        private final Set<UUID> alwaysFailing = ConcurrentHashMap.newKeySet();
+        private final Map<UUID, AtomicInteger> updates = new ConcurrentHashMap<>();
+
+        private void failAfter(int updates) {
+            remaining.set(updates);
+        }
+
+        private void failAlways(Account account) {
+            alwaysFailing.add(account.getId());
+        }
+
+        private int updatesOf(Account account) {
+            AtomicInteger count = updates.get(account.getId());
+            return count != null ? count.get() : 0;
+        }
+
+        @Override
+        public void update(Account account) {
+            if (alwaysFailing.contains(account.getId())
+                    || remaining.get() >= 0 && remaining.getAndDecrement() == 0) {
+                throw new IllegalStateException("Falla simulada");
+            }
+            super.update(account);
+            updates.computeIfAbsent(account.getId(), k -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+
+    /**
+     * DAO de órdenes que falla al borrar la primera orden terminada
+     */
+    private static final class FailingStandingOrderDao extends InMemoryStandingOrderDao {
+        private boolean failed;
+
+        @Override
+        public synchronized void delete(StandingOrder order) {
+            if (!failed) {
+                failed = true;
+                throw new IllegalStateException("Falla simulada");
+            }
+            super.delete(order);
+        }
+    }
+
+    /**
+     * Servicios y DAO en memoria de un banco de prueba
+     */
+    private static final class Bank {
+        private final ClientDao clientDao = new InMemoryClientDao();
+        private final AccountDao accountDao;
+        private final TransactionDao transactionDao = new InMemoryTransactionDao();
+        private final AuthService authService = new AuthService(new InMemoryCredentialDao(),
+                new InMemorySessionDao(), clientDao);
+        private final SimulatedClock clock = new SimulatedClock(LocalDate.of(2024, 1, 1));
+        private final AccountService accountService;
+        private final TransferService transferService;
+
+        private Bank() {
+            this(null);
+        }
+
+        private Bank(VelocityLimiter velocityLimiter) {
+            this(new InMemoryAccountDao(), velocityLimiter);
+        }
+
+        private Bank(AccountDao accountDao, VelocityLimiter velocityLimiter) {
+            this.accountDao = accountDao;
+            accountService = new AccountService(accountDao, transactionDao, authService, new RateProvider(),
+                    clock, null, velocityLimiter);
+            transferService = new TransferService(accountService, new ClientService(clientDao), authService);
+        }
+
+        /**
+         * Registra un cliente con PIN y lo deja con la sesión activa
+         */
+        private Client register(String name, String alias) {
+            Client client = new Client(name, alias);
+            clientDao.save(client);
+            authService.registerPin(client, PIN);
+            login(alias);
+            return client;
+        }
+
+        private void login(String alias) {
+            authService.logout();
+            authService.loginWithPin(alias, PIN);
+        }
+
+        private Account savings(Client owner, String balance) {
+            Account account = new SavingsAccount(owner, Currency.ARS, new BigDecimal(balance));
+            accountDao.save(account);
+            return account;
+        }
+    }
+
+    private static boolean throwsException(Class<? extends Exception> expected, Runnable action) {
+        try {
+            action.run();
+            return false;
+        } catch (Exception e) {
+            return expected.isInstance(e);
+        }
+    }
+
+    private static String yesNo(boolean value) {
+        return value ? "SI" : "NO";
+    }
+
+    private static void printResult(boolean ok) {
+        System.out.println("  RESULTADO: " + (ok ? "CORRECTO" : "ERROR"));
+        System.out.println();
+    }
+
+    /**
+     * Imprime una línea de caracteres repetidos
+     */
+    private static void printLine(String character, int times) {
+        for (int i = 0; i < times; i++) {
+            System.out.print(character);
+        }
+        System.out.println();
+    }
+}
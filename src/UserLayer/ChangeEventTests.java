@@ -0,0 +1,447 @@
+package UserLayer;
+
+import LogicLayer.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Clase independiente para ejecutar pruebas del flujo de eventos de cambios
+ * Las entregas se ejecutan con un ejecutor manual, de modo que cada prueba decide cuándo corren
+ */
+public class ChangeEventTests {
+
+    public static void main(String[] args) {
+        runTests();
+    }
+
+    /**
+     * Ejecuta todas las pruebas del flujo de eventos de cambios
+     */
+    public static void runTests() {
+        printLine("=", 60);
+        System.out.println("PRUEBAS DEL FLUJO DE EVENTOS DE CAMBIOS");
+        printLine("=", 60);
+        System.out.println();
+
+        System.out.println("PRUEBA 1: Entrega en lotes y en orden");
+        printLine("-", 40);
+        printResult(verifyBatching());
+
+        System.out.println("PRUEBA 2: Política DROP con el buffer lleno");
+        printLine("-", 40);
+        printResult(verifyDrop());
+
+        System.out.println("PRUEBA 3: Política BLOCK hasta que el suscriptor libera lugar");
+        printLine("-", 40);
+        printResult(verifyBlock());
+
+        System.out.println("PRUEBA 4: Política BLOCK con la espera vencida");
+        printLine("-", 40);
+        printResult(verifyBlockTimeout());
+
+        System.out.println("PRUEBA 5: Política CONFLATE por cuenta");
+        printLine("-", 40);
+        printResult(verifyConflate());
+
+        System.out.println("PRUEBA 6: Cancelación y cierre");
+        printLine("-", 40);
+        printResult(verifyCancelAndClose());
+
+        System.out.println("PRUEBA 7: Publicadores de simulaciones distintas");
+        printLine("-", 40);
+        printResult(verifyIsolation());
+
+        System.out.println("PRUEBA 8: Ejecutor que rechaza las entregas");
+        printLine("-", 40);
+        printResult(verifyRejectedDelivery());
+
+        printLine("=", 60);
+        System.out.println("TODAS LAS PRUEBAS COMPLETADAS");
+        printLine("=", 60);
+        System.out.println();
+    }
+
+    /**
+     * Cada elemento solicitado es un lote de hasta maxBatchSize eventos, en orden de publicación,
+     * y nada se entrega desde el hilo que publica
+     */
+    private static boolean verifyBatching() {
+        ManualExecutor executor = new ManualExecutor();
+        ChangeEventPublisher publisher = new ChangeEventPublisher(executor, 64, 4);
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        publisher.subscribe(subscriber, BackpressurePolicy.BLOCK);
+
+        Account account = account();
+        for (int i = 1; i <= 10; i++) {
+            publisher.balanceChanged(account, BalanceChangeType.CREDIT, BigDecimal.ONE, BigDecimal.valueOf(i));
+        }
+        boolean deferred = subscriber.batches.isEmpty();
+        executor.runAll();
+
+        List<Integer> sizes = new ArrayList<>();
+        for (List<ChangeEvent> batch : subscriber.batches) {
+            sizes.add(batch.size());
+        }
+        boolean batched = sizes.equals(List.of(4, 4, 2));
+        boolean ordered = true;
+        long previous = 0;
+        for (ChangeEvent event : subscriber.events()) {
+            ordered &= event.getSequence() > previous;
+            previous = event.getSequence();
+        }
+        System.out.println("  Lotes entregados: " + sizes);
+        System.out.println("  Sin entregas en el hilo que publica: " + yesNo(deferred));
+        System.out.println("  Secuencia creciente: " + yesNo(ordered));
+        return deferred && batched && ordered && publisher.getPublishedCount() == 10;
+    }
+
+    /**
+     * Sin demanda, DROP conserva los primeros eventos que entran en el buffer y descarta el resto
+     */
+    private static boolean verifyDrop() {
+        ManualExecutor executor = new ManualExecutor();
+        ChangeEventPublisher publisher = new ChangeEventPublisher(executor, 4, 8);
+        RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        publisher.subscribe(subscriber);
+
+        Account account = account();
+        for (int i = 1; i <= 10; i++) {
+            publisher.balanceChanged(account, BalanceChangeType.CREDIT, BigDecimal.ONE, BigDecimal.valueOf(i));
+        }
+        subscriber.request(1);
+        executor.runAll();
+
+        List<ChangeEvent> events = subscriber.events();
+        boolean kept = events.size() == 4
+                && ((BalanceChangeEvent) events.get(3)).getBalance().compareTo(BigDecimal.valueOf(4)) == 0;
+        System.out.println("  Entregados: " + events.size() + " | descartados: " + publisher.getDroppedCount());
+        System.out.println("  Se conservan los primeros cuatro: " + yesNo(kept));
+        return kept && publisher.getDroppedCount() == 6;
+    }
+
+    /**
+     * Con BLOCK el hilo que publica espera mientras el buffer está lleno y continúa cuando el
+     * suscriptor consume, sin perder eventos
+     */
+    private static boolean verifyBlock() {
+        ManualExecutor executor = new ManualExecutor();
+        ChangeEventPublisher publisher = new ChangeEventPublisher(executor, 2, 1, 10_000);
+        RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        publisher.subscribe(subscriber, BackpressurePolicy.BLOCK);
+
+        Account account = account();
+        Thread producer = new Thread(() -> {
+            for (int i = 1; i <= 6; i++) {
+                publisher.balanceChanged(account, BalanceChangeType.CREDIT, BigDecimal.ONE, BigDecimal.valueOf(i));
+            }
+        });
+        producer.start();
+        boolean waited = awaitWaiting(producer);
+
+        subscriber.request(Long.MAX_VALUE);
+        while (producer.isAlive() || executor.hasPending()) {
+            executor.runAll();
+            Thread.onSpinWait();
+        }
+
+        int delivered = subscriber.events().size();
+        System.out.println("  El hilo que publica esperó con el buffer lleno: " + yesNo(waited));
+        System.out.println("  Entregados: " + delivered + " | descartados: " + publisher.getDroppedCount());
+        return waited && delivered == 6 && publisher.getDroppedCount() == 0;
+    }
+
+    /**
+     * Con BLOCK la espera está acotada: vencido el plazo el evento se descarta
+     */
+    private static boolean verifyBlockTimeout() {
+        ManualExecutor executor = new ManualExecutor();
+        ChangeEventPublisher publisher = new ChangeEventPublisher(executor, 2, 8, 50);
+        RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        publisher.subscribe(subscriber, BackpressurePolicy.BLOCK);
+
+        Account account = account();
+        long start = System.nanoTime();
+        for (int i = 1; i <= 3; i++) {
+            publisher.balanceChanged(account, BalanceChangeType.CREDIT, BigDecimal.ONE, BigDecimal.valueOf(i));
+        }
+        long waitedMillis = (System.nanoTime() - start) / 1_000_000;
+        subscriber.request(1);
+        executor.runAll();
+
+        boolean bounded = waitedMillis >= 40 && waitedMillis < 5_000;
+        System.out.println("  Espera acotada al plazo configurado: " + yesNo(bounded));
+        System.out.println("  Entregados: " + subscriber.events().size() + " | descartados: "
+                + publisher.getDroppedCount());
+        return bounded && subscriber.events().size() == 2 && publisher.getDroppedCount() == 1;
+    }
+
+    /**
+     * Con CONFLATE un cambio de saldo pendiente se reemplaza por el más reciente de la misma
+     * cuenta; las transacciones no se combinan
+     */
+    private static boolean verifyConflate() {
+        ManualExecutor executor = new ManualExecutor();
+        ChangeEventPublisher publisher = new ChangeEventPublisher(executor, 4, 8, 0);
+        RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        publisher.subscribe(subscriber, BackpressurePolicy.CONFLATE);
+
+        Account first = account();
+        Account second = account();
+        for (int i = 1; i <= 5; i++) {
+            publisher.balanceChanged(first, BalanceChangeType.CREDIT, BigDecimal.ONE, BigDecimal.valueOf(i));
+        }
+        publisher.balanceChanged(second, BalanceChangeType.DEBIT, BigDecimal.ONE.negate(), BigDecimal.ZERO);
+        for (int i = 0; i < 2; i++) {
+            publisher.transactionSaved(new DepositTransaction(TransactionStatus.SETTLED, BigDecimal.ONE,
+                    Currency.ARS, null, first));
+        }
+        subscriber.request(1);
+        executor.runAll();
+
+        List<ChangeEvent> events = subscriber.events();
+        boolean latest = events.size() == 4 && events.get(0) instanceof BalanceChangeEvent
+                && ((BalanceChangeEvent) events.get(0)).getBalance().compareTo(BigDecimal.valueOf(5)) == 0;
+        boolean transactionsKept = events.size() == 4 && events.get(2) instanceof TransactionSavedEvent
+                && events.get(3) instanceof TransactionSavedEvent;
+        System.out.println("  Combinados: " + publisher.getConflatedCount() + " | entregados: " + events.size());
+        System.out.println("  Queda el último saldo de la cuenta: " + yesNo(latest));
+        System.out.println("  Transacciones sin combinar: " + yesNo(transactionsKept));
+        return latest && transactionsKept && publisher.getConflatedCount() == 4;
+    }
+
+    /**
+     * Un suscriptor cancelado deja de recibir eventos; al cerrar, los demás reciben sus eventos
+     * pendientes y luego onComplete
+     */
+    private static boolean verifyCancelAndClose() {
+        ManualExecutor executor = new ManualExecutor();
+        ChangeEventPublisher publisher = new ChangeEventPublisher(executor, 16, 2);
+        RecordingSubscriber cancelling = new RecordingSubscriber(Long.MAX_VALUE);
+        RecordingSubscriber remaining = new RecordingSubscriber(Long.MAX_VALUE);
+        publisher.subscribe(cancelling);
+        publisher.subscribe(remaining);
+
+        Account account = account();
+        publisher.balanceChanged(account, BalanceChangeType.CREDIT, BigDecimal.ONE, BigDecimal.ONE);
+        executor.runAll();
+        cancelling.cancel();
+        for (int i = 0; i < 3; i++) {
+            publisher.balanceChanged(account, BalanceChangeType.CREDIT, BigDecimal.ONE, BigDecimal.ONE);
+        }
+        boolean unsubscribed = publisher.getSubscriberCount() == 1;
+        publisher.close();
+        executor.runAll();
+        publisher.balanceChanged(account, BalanceChangeType.CREDIT, BigDecimal.ONE, BigDecimal.ONE);
+        executor.runAll();
+
+        boolean cancelled = cancelling.events().size() == 1 && !cancelling.completed;
+        boolean completed = remaining.events().size() == 4 && remaining.completed
+                && publisher.getSubscriberCount() == 0;
+        System.out.println("  Sin eventos tras cancelar: " + yesNo(cancelled && unsubscribed));
+        System.out.println("  Pendientes entregados antes de onComplete: " + yesNo(completed));
+        return cancelled && unsubscribed && completed;
+    }
+
+    /**
+     * Cada DAO de cuentas publica solo los cambios de sus cuentas en su propio publicador
+     */
+    private static boolean verifyIsolation() {
+        ManualExecutor executor = new ManualExecutor();
+        ChangeEventPublisher firstPublisher = new ChangeEventPublisher(executor, 16, 8);
+        ChangeEventPublisher secondPublisher = new ChangeEventPublisher(executor, 16, 8);
+        firstPublisher.subscribe(new RecordingSubscriber(Long.MAX_VALUE));
+        secondPublisher.subscribe(new RecordingSubscriber(Long.MAX_VALUE));
+
+        InMemoryAccountDao existing = new InMemoryAccountDao();
+        Account saved = account();
+        existing.save(saved);
+        AccountDao firstDao = new EventPublishingAccountDao(existing, firstPublisher);
+        AccountDao secondDao = new EventPublishingAccountDao(new InMemoryAccountDao(), secondPublisher);
+        Account first = account();
+        Account second = account();
+        Account unpublished = account();
+        firstDao.save(first);
+        secondDao.save(second);
+
+        saved.credit(BigDecimal.ONE);
+        first.credit(BigDecimal.ONE);
+        first.debit(BigDecimal.ONE);
+        second.credit(BigDecimal.ONE);
+        unpublished.credit(BigDecimal.ONE);
+        executor.runAll();
+
+        boolean isolated = firstPublisher.getPublishedCount() == 3 && secondPublisher.getPublishedCount() == 1;
+        System.out.println("  Eventos del primer publicador: " + firstPublisher.getPublishedCount()
+                + " | del segundo: " + secondPublisher.getPublishedCount());
+        System.out.println("  Cada simulación ve solo sus cuentas: " + yesNo(isolated));
+        return isolated;
+    }
+
+    /**
+     * Si el ejecutor rechaza la entrega, el cambio de saldo igual se completa, los eventos
+     * pendientes cuentan como descartados y las entregas se reanudan cuando el ejecutor acepta
+     */
+    private static boolean verifyRejectedDelivery() {
+        ManualExecutor executor = new ManualExecutor();
+        ChangeEventPublisher publisher = new ChangeEventPublisher(executor, 16, 8);
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        publisher.subscribe(subscriber);
+        AccountDao accountDao = new EventPublishingAccountDao(new InMemoryAccountDao(), publisher);
+        Account account = account();
+        accountDao.save(account);
+
+        executor.rejecting = true;
+        boolean completed = !throwsException(() -> account.credit(BigDecimal.ONE))
+                && !throwsException(() -> account.debit(new BigDecimal("2")));
+        boolean balanceChanged = account.getBalance().compareTo(new BigDecimal("99.00")) == 0;
+        boolean counted = publisher.getDroppedCount() == 2 && !executor.hasPending();
+
+        executor.rejecting = false;
+        account.credit(BigDecimal.TEN);
+        executor.runAll();
+        List<ChangeEvent> events = subscriber.events();
+        boolean resumed = events.size() == 1
+                && ((BalanceChangeEvent) events.get(0)).getAmount().compareTo(BigDecimal.TEN) == 0;
+
+        System.out.println("  Créditos y débitos sin excepción: " + yesNo(completed && balanceChanged));
+        System.out.println("  Eventos contados como descartados: " + publisher.getDroppedCount()
+                + " | correcto: " + yesNo(counted));
+        System.out.println("  Entregas reanudadas: " + yesNo(resumed));
+        return completed && balanceChanged && counted && resumed;
+    }
+
+    private static boolean throwsException(Runnable action) {
+        try {
+            action.run();
+            return false;
+        } catch (RuntimeException e) {
+            return true;
+        }
+    }
+
+    private static Account account() {
+        return new SavingsAccount(new Client("Eventos", "eventos"), Currency.ARS, new BigDecimal("100.00"));
+    }
+
+    /**
+     * Espera a que el hilo quede bloqueado esperando lugar en el buffer
+     */
+    private static boolean awaitWaiting(Thread thread) {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            Thread.State state = thread.getState();
+            if (state == Thread.State.WAITING || state == Thread.State.TIMED_WAITING) {
+                return true;
+            }
+            Thread.onSpinWait();
+        }
+        return false;
+    }
+
+    /**
+     * Ejecutor que encola las tareas hasta que la prueba las ejecuta
+     */
+    private static final class ManualExecutor implements Executor {
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        // Simula un ejecutor apagado
+        private volatile boolean rejecting;
+
+        @Override
+        public void execute(Runnable task) {
+            if (rejecting) {
+                throw new RejectedExecutionException("Ejecutor apagado");
+            }
+            tasks.add(task);
+        }
+
+        private boolean hasPending() {
+            return !tasks.isEmpty();
+        }
+
+        private void runAll() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+    }
+
+    /**
+     * Suscriptor que guarda los lotes recibidos
+     */
+    private static final class RecordingSubscriber implements Flow.Subscriber<List<ChangeEvent>> {
+        private final long initialRequest;
+        private final List<List<ChangeEvent>> batches = new ArrayList<>();
+        private Flow.Subscription subscription;
+        private volatile boolean completed;
+
+        private RecordingSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialRequest > 0) {
+                subscription.request(initialRequest);
+            }
+        }
+
+        @Override
+        public synchronized void onNext(List<ChangeEvent> batch) {
+            batches.add(batch);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            System.out.println("  Error inesperado: " + error);
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+
+        private void request(long n) {
+            subscription.request(n);
+        }
+
+        private void cancel() {
+            subscription.cancel();
+        }
+
+        private synchronized List<ChangeEvent> events() {
+            List<ChangeEvent> events = new ArrayList<>();
+            for (List<ChangeEvent> batch : batches) {
+                events.addAll(batch);
+            }
+            return events;
+        }
+    }
+
+    private static String yesNo(boolean value) {
+        return value ? "SI" : "NO";
+    }
+
+    private static void printResult(boolean ok) {
+        System.out.println("  RESULTADO: " + (ok ? "CORRECTO" : "ERROR"));
+        System.out.println();
+    }
+
+    /**
+     * Imprime una línea de caracteres repetidos
+     */
+    private static void printLine(String character, int times) {
+        for (int i = 0; i < times; i++) {
+            System.out.print(character);
+        }
+        System.out.println();
+    }
+}
@@ -2,12 +2,25 @@ package UserLayer;
 
 import LogicLayer.*;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Clase independiente para ejecutar pruebas de cálculo de inversiones
  */
 public class InvestmentCalculationTests {
+    private static final SimulatedClock clock = new SimulatedClock();
 
     public static void main(String[] args) {
         runTests();
@@ -24,7 +37,8 @@ public class InvestmentCalculationTests {
 
         // Crear cliente y cuenta de prueba
         Client testClient = new Client("Test User", "testuser");
-        InvestmentAccount testAccount = new InvestmentAccount(testClient, Currency.USD, new BigDecimal("1000.00"));
+        InvestmentAccount testAccount = new InvestmentAccount(testClient, Currency.USD, new BigDecimal("1000.00"),
+                clock.getCurrentDay());
 
         System.out.println("Cuenta inicial:");
         System.out.println("  Moneda: " + testAccount.getBaseCurrency());
@@ -38,7 +52,7 @@ public class InvestmentCalculationTests {
         BigDecimal expectedBalance1 = testAccount.getBalance().multiply(BigDecimal.ONE.add(rate1))
                 .setScale(2, java.math.RoundingMode.HALF_UP);
 
-        testAccount.applyDailyReturn(rate1, SimulatedClock.getCurrentDay());
+        testAccount.applyDailyReturn(rate1, clock.getCurrentDay());
         BigDecimal actualBalance1 = testAccount.getBalance();
 
         System.out.println("  Tasa aplicada: +5.000%");
@@ -55,8 +69,8 @@ public class InvestmentCalculationTests {
         BigDecimal expectedBalance2 = balanceBefore2.multiply(BigDecimal.ONE.add(rate2))
                 .setScale(2, java.math.RoundingMode.HALF_UP);
 
-        SimulatedClock.advanceOneDay();
-        testAccount.applyDailyReturn(rate2, SimulatedClock.getCurrentDay());
+        clock.advanceOneDay();
+        testAccount.applyDailyReturn(rate2, clock.getCurrentDay());
         BigDecimal actualBalance2 = testAccount.getBalance();
 
         System.out.println("  Saldo antes: $" + balanceBefore2);
@@ -72,8 +86,8 @@ public class InvestmentCalculationTests {
         BigDecimal rate3 = BigDecimal.ZERO;
         BigDecimal balanceBefore3 = testAccount.getBalance();
 
-        SimulatedClock.advanceOneDay();
-        testAccount.applyDailyReturn(rate3, SimulatedClock.getCurrentDay());
+        clock.advanceOneDay();
+        testAccount.applyDailyReturn(rate3, clock.getCurrentDay());
         BigDecimal actualBalance3 = testAccount.getBalance();
 
         System.out.println("  Saldo antes: $" + balanceBefore3);
@@ -86,7 +100,8 @@ public class InvestmentCalculationTests {
         // Prueba 4: Múltiples días consecutivos
         System.out.println("PRUEBA 4: Simulación de 3 días consecutivos");
         printLine("-", 40);
-        InvestmentAccount testAccount2 = new InvestmentAccount(testClient, Currency.ARS, new BigDecimal("10000.00"));
+        InvestmentAccount testAccount2 = new InvestmentAccount(testClient, Currency.ARS, new BigDecimal("10000.00"),
+                clock.getCurrentDay());
 
         BigDecimal[] rates = {
             new BigDecimal("0.02"),   // +2%
@@ -106,8 +121,8 @@ public class InvestmentCalculationTests {
         System.out.println("  Día 3: +1.500% → $" + expectedFinal);
 
         for (BigDecimal rate : rates) {
-            SimulatedClock.advanceOneDay();
-            testAccount2.applyDailyReturn(rate, SimulatedClock.getCurrentDay());
+            clock.advanceOneDay();
+            testAccount2.applyDailyReturn(rate, clock.getCurrentDay());
         }
 
         System.out.println("  Saldo esperado final: $" + expectedFinal);
@@ -123,6 +138,122 @@ public class InvestmentCalculationTests {
         System.out.println("  RESULTADO: " + (testAccount2.getHistory().size() == 3 ? "CORRECTO" : "ERROR"));
         System.out.println();
 
+        // Reproducibilidad con semilla
+        System.out.println("PRUEBA 6: Simulación reproducible con semilla");
+        printLine("-", 40);
+        MarketSimulator simulatorA = new MarketSimulator(2024L);
+        MarketSimulator simulatorB = new MarketSimulator(2024L);
+        boolean sameRates = true;
+        for (int i = 0; i < 100; i++) {
+            if (simulatorA.generateDailyRate().compareTo(simulatorB.generateDailyRate()) != 0) {
+                sameRates = false;
+            }
+        }
+        System.out.println("  Tasas idénticas en 100 días: " + (sameRates ? "SI" : "NO"));
+
+        BigDecimal sequentialP50 = runProjectionWithThreads(1);
+        BigDecimal parallelP50 = runProjectionWithThreads(4);
+        System.out.println("  Mediana con 1 hilo: $" + sequentialP50);
+        System.out.println("  Mediana con 4 hilos: $" + parallelP50);
+        boolean sameProjection = sequentialP50 != null && sequentialP50.compareTo(parallelP50) == 0;
+        System.out.println("  RESULTADO: " + (sameRates && sameProjection ? "CORRECTO" : "ERROR"));
+        System.out.println();
+
+        // Cálculo en lote sobre centavos
+        System.out.println("PRUEBA 7: Cálculo en lote idéntico a BigDecimal");
+        printLine("-", 40);
+        MarketSimulator kernelSimulator = new MarketSimulator(7L);
+        SplittableRandom balanceRng = new SplittableRandom(7L);
+        int kernelMismatches = 0;
+        for (int i = 0; i < 100_000; i++) {
+            BigDecimal balance = BigDecimal.valueOf(balanceRng.nextLong(-100_000L, 10_000_000_000L), 2);
+            BigDecimal rate = kernelSimulator.generateDailyRate();
+            BigDecimal expected = balance.compareTo(BigDecimal.ZERO) > 0
+                    ? balance.multiply(BigDecimal.ONE.add(rate)).setScale(2, java.math.RoundingMode.HALF_UP)
+                    : balance;
+            long actual = DailyReturnKernel.applyRate(DailyReturnKernel.toCents(balance),
+                    DailyReturnKernel.toRateUnits(rate));
+            if (expected.compareTo(DailyReturnKernel.fromCents(actual)) != 0) {
+                kernelMismatches++;
+            }
+        }
+        System.out.println("  Saldos comparados: 100000");
+        System.out.println("  Diferencias: " + kernelMismatches);
+        System.out.println("  RESULTADO: " + (kernelMismatches == 0 ? "CORRECTO" : "ERROR"));
+        System.out.println();
+
+        // Modo diferido contra modo inmediato
+        System.out.println("PRUEBA 8: Modo diferido idéntico al inmediato");
+        printLine("-", 40);
+        boolean lazyMatches = compareLazyAndEagerModes();
+        System.out.println("  RESULTADO: " + (lazyMatches ? "CORRECTO" : "ERROR"));
+        System.out.println();
+
+        // Resúmenes por período con retención del detalle diario
+        System.out.println("PRUEBA 9: Resúmenes mensuales con retención de 30 días");
+        printLine("-", 40);
+        InvestmentAccount rollupAccount = new InvestmentAccount(testClient, Currency.USD, new BigDecimal("1000.00"),
+                clock.getCurrentDay());
+        rollupAccount.setDailyRetentionDays(30);
+        MarketSimulator rollupSimulator = new MarketSimulator(31L);
+        for (int day = 0; day < 730; day++) {
+            clock.advanceOneDay();
+            rollupAccount.applyDailyReturn(rollupSimulator.generateDailyRate(), clock.getCurrentDay());
+        }
+        BigDecimal monthlyProfit = BigDecimal.ZERO;
+        int monthlyDays = 0;
+        for (InvestmentRollup rollup : rollupAccount.getRollups(RollupPeriod.MONTHLY)) {
+            monthlyProfit = monthlyProfit.add(rollup.getTotalProfit());
+            monthlyDays += rollup.getDays();
+        }
+        System.out.println("  Días simulados: " + rollupAccount.getSimulatedDaysCount());
+        System.out.println("  Días en detalle: " + rollupAccount.getHistory().size());
+        System.out.println("  Meses resumidos: " + rollupAccount.getRollups(RollupPeriod.MONTHLY).size());
+        System.out.println("  Rendimiento total: $" + rollupAccount.getTotalReturn()
+                + " | suma mensual: $" + monthlyProfit);
+        boolean rollupsOk = rollupAccount.getHistory().size() == 30
+                && monthlyDays == 730
+                && monthlyProfit.compareTo(rollupAccount.getTotalReturn()) == 0
+                && rollupAccount.getBalance().compareTo(rollupAccount.getFirstRecordedBalance()
+                        .add(rollupAccount.getTotalReturn())) == 0;
+        System.out.println("  RESULTADO: " + (rollupsOk ? "CORRECTO" : "ERROR"));
+        System.out.println();
+
+        // Métricas de riesgo incrementales
+        System.out.println("PRUEBA 10: Métricas de riesgo incrementales");
+        printLine("-", 40);
+        boolean riskOk = verifyRiskMetrics(testClient);
+        System.out.println("  RESULTADO: " + (riskOk ? "CORRECTO" : "ERROR"));
+        System.out.println();
+
+        // La máxima caída mide el rendimiento, no los movimientos del cliente
+        System.out.println("PRUEBA 11: Máxima caída con un retiro entre días");
+        printLine("-", 40);
+        boolean drawdownOk = verifyDrawdownIgnoresWithdrawals(testClient);
+        System.out.println("  RESULTADO: " + (drawdownOk ? "CORRECTO" : "ERROR"));
+        System.out.println();
+
+        // La proyección usa el modelo de la moneda y redondea igual que la cuenta
+        System.out.println("PRUEBA 12: Proyección con el modelo de la moneda");
+        printLine("-", 40);
+        boolean projectionModelOk = verifyProjectionUsesCurrencyModel(testClient);
+        System.out.println("  RESULTADO: " + (projectionModelOk ? "CORRECTO" : "ERROR"));
+        System.out.println();
+
+        // El backtest en centavos reproduce la cuenta de inversión
+        System.out.println("PRUEBA 13: Backtest igual a la cuenta de inversión");
+        printLine("-", 40);
+        boolean backtestOk = verifyBacktestMatchesAccount(testClient);
+        System.out.println("  RESULTADO: " + (backtestOk ? "CORRECTO" : "ERROR"));
+        System.out.println();
+
+        // Consultas y depósitos mientras se aplican rendimientos en otro hilo
+        System.out.println("PRUEBA 14: Consultas concurrentes con la simulación");
+        printLine("-", 40);
+        boolean concurrentOk = verifyConcurrentAccess(testClient);
+        System.out.println("  RESULTADO: " + (concurrentOk ? "CORRECTO" : "ERROR"));
+        System.out.println();
+
         printLine("=", 60);
         System.out.println("TODAS LAS PRUEBAS COMPLETADAS");
         System.out.println("Los cálculos de inversión se realizaron según la fórmula:");
@@ -131,6 +262,347 @@ public class InvestmentCalculationTests {
         System.out.println();
     }
 
+    /**
+     * Simula los mismos días y movimientos en modo inmediato y diferido y compara los saldos finales
+     */
+    private static boolean compareLazyAndEagerModes() {
+        Client client = new Client("Lazy User", "lazyuser");
+        AccountDao eagerDao = new InMemoryAccountDao();
+        AccountDao lazyDao = new InMemoryAccountDao();
+        MarketRateLog rateLog = new MarketRateLog();
+        InvestmentService eagerService = new InvestmentService(eagerDao, new MarketSimulator(99L));
+        InvestmentService lazyService = new InvestmentService(lazyDao, new MarketSimulator(99L), rateLog);
+
+        InvestmentAccount[] eager = new InvestmentAccount[Currency.values().length];
+        InvestmentAccount[] lazy = new InvestmentAccount[Currency.values().length];
+        for (Currency currency : Currency.values()) {
+            eager[currency.ordinal()] = new InvestmentAccount(client, currency, new BigDecimal("5000.00"),
+                    clock.getCurrentDay());
+            lazy[currency.ordinal()] = new InvestmentAccount(client, currency, new BigDecimal("5000.00"),
+                    clock.getCurrentDay(), rateLog);
+            eagerDao.save(eager[currency.ordinal()]);
+            lazyDao.save(lazy[currency.ordinal()]);
+        }
+
+        // Ambos servicios se suscriben al mismo reloj como procesos de fin de día
+        SimulatedClock simulationClock = new SimulatedClock(clock.getCurrentDay());
+        simulationClock.addDayChangeListener(eagerService);
+        simulationClock.addDayChangeListener(lazyService);
+
+        for (int day = 1; day <= 60; day++) {
+            simulationClock.advanceOneDay();
+
+            // Movimientos intermedios: la cuenta diferida debe ponerse al día antes de operar
+            if (day % 15 == 0) {
+                eager[0].credit(new BigDecimal("100.00"));
+                lazy[0].credit(new BigDecimal("100.00"));
+            }
+            if (day == 40) {
+                eager[1].debit(eager[1].getBalance());
+                lazy[1].debit(lazy[1].getBalance());
+            }
+            if (day == 50) {
+                eager[1].credit(new BigDecimal("300.00"));
+                lazy[1].credit(new BigDecimal("300.00"));
+            }
+        }
+
+        boolean matches = true;
+        for (int i = 0; i < eager.length; i++) {
+            System.out.println("  " + eager[i].getBaseCurrency().name() + ": inmediato $" + eager[i].getBalance()
+                    + " | diferido $" + lazy[i].getBalance());
+            matches &= eager[i].getBalance().compareTo(lazy[i].getBalance()) == 0
+                    && eager[i].getHistory().size() == lazy[i].getHistory().size();
+        }
+        return matches;
+    }
+
+    /**
+     * Compara las métricas incrementales con el cálculo completo sobre el historial
+     * y verifica el ranking de cuentas más riesgosas
+     */
+    private static boolean verifyRiskMetrics(Client client) {
+        AccountDao riskDao = new InMemoryAccountDao();
+        MarketSimulator riskSimulator = new MarketSimulator(32L);
+        riskSimulator.setModel(Currency.EUR, new GeometricBrownianMotionModel(0.0002, 0.002));
+        InvestmentService riskInvestments = new InvestmentService(riskDao, riskSimulator);
+
+        InvestmentAccount volatileAccount = new InvestmentAccount(client, Currency.ARS, new BigDecimal("1000.00"),
+                clock.getCurrentDay());
+        InvestmentAccount stable = new InvestmentAccount(client, Currency.EUR, new BigDecimal("1000.00"),
+                clock.getCurrentDay());
+        riskDao.save(volatileAccount);
+        riskDao.save(stable);
+        for (int day = 0; day < 2000; day++) {
+            clock.advanceOneDay();
+            riskInvestments.advanceDay(clock.getCurrentDay());
+        }
+
+        // Cálculo completo sobre el historial
+        List<InvestmentHistory> records = volatileAccount.getHistory();
+        double mean = 0;
+        for (InvestmentHistory record : records) {
+            mean += record.getDailyRate().doubleValue();
+        }
+        mean /= records.size();
+        double squares = 0;
+        double index = 1;
+        double peak = 1;
+        double maxDrawdown = 0;
+        double[] sortedRates = new double[records.size()];
+        for (int i = 0; i < records.size(); i++) {
+            double rate = records.get(i).getDailyRate().doubleValue();
+            squares += (rate - mean) * (rate - mean);
+            sortedRates[i] = rate;
+            index *= 1 + rate;
+            peak = Math.max(peak, index);
+            maxDrawdown = Math.max(maxDrawdown, (peak - index) / peak);
+        }
+        Arrays.sort(sortedRates);
+        double exactVolatility = Math.sqrt(squares / (records.size() - 1));
+        double exactVaR = -sortedRates[(int) Math.ceil(0.05 * sortedRates.length) - 1];
+
+        InvestmentRiskMetrics metrics = volatileAccount.getRiskMetrics();
+        System.out.printf("  Volatilidad diaria: %.6f (completo %.6f)%n", metrics.getDailyVolatility(), exactVolatility);
+        System.out.printf("  Máxima caída: %.6f (completo %.6f)%n", metrics.getMaxDrawdown(), maxDrawdown);
+        System.out.printf("  VaR 95%%: %.6f (completo %.6f)%n", metrics.getValueAtRisk95(), exactVaR);
+
+        List<InvestmentAccount> ranking = new RiskService(riskDao).getRiskiestAccounts(2);
+        System.out.println("  Más riesgosa: " + ranking.get(0).getBaseCurrency().name());
+
+        return Math.abs(metrics.getDailyVolatility() - exactVolatility) < 1e-9
+                && Math.abs(metrics.getMaxDrawdown() - maxDrawdown) < 1e-9
+                && Math.abs(metrics.getValueAtRisk95() - exactVaR) < 0.002
+                && ranking.get(0) == volatileAccount;
+    }
+
+    /**
+     * Aplica tasas conocidas con un retiro grande entre dos días: la máxima caída es la del índice
+     * de rendimiento (2% el segundo día) y no la del saldo
+     */
+    private static boolean verifyDrawdownIgnoresWithdrawals(Client client) {
+        LocalDate day = clock.getCurrentDay();
+        InvestmentAccount account = new InvestmentAccount(client, Currency.ARS, new BigDecimal("1000.00"), day);
+        account.applyDailyReturn(new BigDecimal("0.01"), day.plusDays(1));
+        account.applyDailyReturn(new BigDecimal("-0.02"), day.plusDays(2));
+        account.debit(new BigDecimal("600.00"));
+        account.applyDailyReturn(new BigDecimal("0.01"), day.plusDays(3));
+        account.applyDailyReturn(new BigDecimal("-0.005"), day.plusDays(4));
+
+        // Índice: 1.01, 0.9898, 0.999698, 0.99469951; pico 1.01
+        double expected = (1.01 - 0.9898) / 1.01;
+        double drawdown = account.getRiskMetrics().getMaxDrawdown();
+        System.out.println("  Saldo final: $" + account.getBalance());
+        System.out.printf("  Máxima caída: %.6f (esperada %.6f)%n", drawdown, expected);
+        return Math.abs(drawdown - expected) < 1e-12;
+    }
+
+    /**
+     * Con un modelo sin volatilidad para EUR todas las trayectorias son iguales y deben coincidir
+     * con aplicar la misma tasa a la cuenta día por día; ARS conserva el modelo por defecto
+     */
+    private static boolean verifyProjectionUsesCurrencyModel(Client client) {
+        MarketSimulator simulator = new MarketSimulator(26L);
+        // exp(0.001) - 1 = 0.0010005..., que a 5 decimales es 0.00100
+        simulator.setModel(Currency.EUR, new GeometricBrownianMotionModel(0.001, 0));
+        ProjectionService projectionService = new ProjectionService(simulator);
+        int days = 30;
+
+        InvestmentAccount eurAccount = new InvestmentAccount(client, Currency.EUR, new BigDecimal("1234.56"),
+                clock.getCurrentDay());
+        InvestmentAccount arsAccount = new InvestmentAccount(client, Currency.ARS, new BigDecimal("1234.56"),
+                clock.getCurrentDay());
+        InvestmentProjection eur = projectionService.project(eurAccount, days, 1_000);
+        InvestmentProjection ars = projectionService.project(arsAccount, days, 1_000);
+
+        for (int day = 1; day <= days; day++) {
+            eurAccount.applyDailyReturn(new BigDecimal("0.00100"), clock.getCurrentDay().plusDays(day));
+        }
+        BigDecimal expected = eurAccount.getBalance();
+        boolean sameAsAccount = eur.getP5().compareTo(expected) == 0 && eur.getP95().compareTo(expected) == 0
+                && eur.getExpectedFinalBalance().compareTo(expected) == 0;
+        boolean defaultModel = ars.getP5().compareTo(ars.getP95()) < 0;
+
+        // El horizonte se valida y se acota antes de simular
+        boolean horizonBounded = projectionService.project(arsAccount, ProjectionService.MAX_HORIZON_DAYS, 10)
+                .getHorizonDays() == ProjectionService.MAX_HORIZON_DAYS
+                && rejectsHorizon(projectionService, arsAccount, 0)
+                && rejectsHorizon(projectionService, arsAccount, -5)
+                && rejectsHorizon(projectionService, arsAccount, ProjectionService.MAX_HORIZON_DAYS + 1);
+        System.out.println("  EUR proyectado: $" + eur.getP50() + " | aplicado en la cuenta: $" + expected);
+        System.out.println("  Coincide en todas las trayectorias: " + (sameAsAccount ? "SI" : "NO"));
+        System.out.println("  ARS con dispersión del modelo por defecto: " + (defaultModel ? "SI" : "NO"));
+        System.out.println("  Horizonte fuera de 1 a " + ProjectionService.MAX_HORIZON_DAYS + " días rechazado: "
+                + (horizonBounded ? "SI" : "NO"));
+        return sameAsAccount && defaultModel && horizonBounded;
+    }
+
+    private static boolean rejectsHorizon(ProjectionService projectionService, InvestmentAccount account,
+                                          int horizonDays) {
+        try {
+            projectionService.project(account, horizonDays, 10);
+            return false;
+        } catch (IllegalArgumentException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Un hilo aplica rendimientos, otro acredita y un tercero lee todas las consultas de la cuenta
+     * Ningún crédito se pierde (saldo final = inicial + créditos + rendimiento total) y las lecturas
+     * no fallan ni ven copias a medio actualizar
+     */
+    private static boolean verifyConcurrentAccess(Client client) {
+        int days = 3_000;
+        int credits = 3_000;
+        BigDecimal initial = new BigDecimal("1000.00");
+        LocalDate opening = LocalDate.of(2024, 1, 1);
+        InvestmentAccount account = new InvestmentAccount(client, Currency.ARS, initial, opening);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger readFailures = new AtomicInteger();
+        AtomicInteger reads = new AtomicInteger();
+        Thread simulation = new Thread(() -> {
+            SplittableRandom rng = new SplittableRandom(14L);
+            for (int day = 1; day <= days; day++) {
+                account.applyDailyReturn(BigDecimal.valueOf(rng.nextInt(-200, 201), 5), opening.plusDays(day));
+            }
+        });
+        Thread depositor = new Thread(() -> {
+            for (int i = 0; i < credits; i++) {
+                account.credit(BigDecimal.ONE);
+            }
+        });
+        Thread reader = new Thread(() -> {
+            while (running.get()) {
+                try {
+                    List<InvestmentHistory> history = account.getHistory();
+                    int days30 = 0;
+                    for (InvestmentRollup rollup : account.getRollups(RollupPeriod.MONTHLY)) {
+                        days30 += rollup.getDays();
+                    }
+                    InvestmentRiskMetrics metrics = account.getRiskMetrics();
+                    // Las copias ya leídas no cambian aunque la simulación avance
+                    int size = history.size();
+                    long observations = metrics.getObservations();
+                    account.getTotalReturn();
+                    account.getBullishDaysCount();
+                    account.getLastUpdateDate();
+                    if (days30 < size || history.size() != size || metrics.getObservations() != observations) {
+                        readFailures.incrementAndGet();
+                    }
+                    reads.incrementAndGet();
+                } catch (RuntimeException e) {
+                    readFailures.incrementAndGet();
+                }
+            }
+        });
+        reader.start();
+        simulation.start();
+        depositor.start();
+        try {
+            simulation.join();
+            depositor.join();
+            running.set(false);
+            reader.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        BigDecimal expected = initial.add(BigDecimal.valueOf(credits)).add(account.getTotalReturn());
+        boolean noLostCredits = account.getBalance().compareTo(expected) == 0;
+        boolean readsOk = readFailures.get() == 0;
+        System.out.println("  Saldo $" + account.getBalance() + " | esperado $" + expected);
+        System.out.println("  Ningún crédito perdido: " + (noLostCredits ? "SI" : "NO"));
+        System.out.println("  Lecturas sin fallas: " + (readsOk ? "SI" : "NO") + " (" + reads.get() + " lecturas)");
+        return noLostCredits && readsOk && account.getSimulatedDaysCount() == days;
+    }
+
+    /**
+     * Aplica una serie corta con comentarios antes del encabezado a poblaciones de saldo fijo y
+     * compara con InvestmentAccount.applyDailyReturn día por día
+     */
+    private static boolean verifyBacktestMatchesAccount(Client client) {
+        String[] rates = {"0.01234", "-0.02", "0.00005", "-0.07999", "0.12", "-0.00001", "0.03"};
+        String[] balances = {"0.07", "1234.56", "999999.99"};
+        Path series = null;
+        Path misplacedHeader = null;
+        try {
+            series = Files.createTempFile("serie", ".csv");
+            List<String> lines = new ArrayList<>();
+            lines.add("# Serie de prueba");
+            lines.add("");
+            lines.add("fecha,tasa");
+            for (int i = 0; i < rates.length; i++) {
+                lines.add(clock.getCurrentDay().plusDays(i + 1) + "," + rates[i]);
+            }
+            Files.write(series, lines, StandardCharsets.UTF_8);
+
+            BacktestService backtestService = new BacktestService();
+            boolean matches = true;
+            for (String balance : balances) {
+                InvestmentAccount account = new InvestmentAccount(client, Currency.ARS, new BigDecimal(balance),
+                        clock.getCurrentDay());
+                for (int i = 0; i < rates.length; i++) {
+                    account.applyDailyReturn(new BigDecimal(rates[i]), clock.getCurrentDay().plusDays(i + 1));
+                }
+                BacktestResult result = backtestService.run(series, 3, new BigDecimal(balance),
+                        new BigDecimal(balance), 1L);
+                BigDecimal expected = account.getBalance().multiply(BigDecimal.valueOf(3));
+                System.out.println("  $" + balance + ": backtest $" + result.getFinalTotal()
+                        + " | cuenta x3 $" + expected);
+                matches &= result.getDays() == rates.length && result.getFinalTotal().compareTo(expected) == 0;
+            }
+
+            // Un encabezado después de la primera tasa no se acepta
+            misplacedHeader = Files.createTempFile("serie", ".csv");
+            Files.write(misplacedHeader, List.of("0.01", "fecha,tasa", "0.02"), StandardCharsets.UTF_8);
+            boolean rejected;
+            try {
+                backtestService.run(misplacedHeader, 1, BigDecimal.ONE, BigDecimal.ONE, 1L);
+                rejected = false;
+            } catch (IllegalArgumentException e) {
+                rejected = true;
+            }
+            System.out.println("  Encabezado fuera de lugar rechazado: " + (rejected ? "SI" : "NO"));
+            return matches && rejected;
+        } catch (IOException e) {
+            System.out.println("  No se pudo escribir la serie: " + e.getMessage());
+            return false;
+        } finally {
+            deleteQuietly(series);
+            deleteQuietly(misplacedHeader);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Archivo temporal: el sistema lo limpia
+        }
+    }
+
+    /**
+     * Ejecuta una proyección con semilla fija usando un pool con la cantidad de hilos indicada
+     */
+    private static BigDecimal runProjectionWithThreads(int threads) {
+        ProjectionService projectionService = new ProjectionService(new MarketSimulator(2024L));
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return pool.submit(() -> projectionService
+                    .project(new BigDecimal("1000.00"), 30, 50_000).getP50()).get();
+        } catch (Exception e) {
+            return null;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
     /**
      * Imprime una línea de caracteres repetidos
      */
@@ -4,6 +4,10 @@ import LogicLayer.*;
 
 import javax.swing.*;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Clase principal - punto de entrada de la aplicación bancaria
@@ -31,23 +35,75 @@ public class Main {
         CredentialDao credentialDao = new InMemoryCredentialDao();
         SessionDao sessionDao = new InMemorySessionDao();
         RateProvider rateProvider = new RateProvider();
+        MarketRateLog marketRateLog = new MarketRateLog();
+        SimulatedClock clock = new SimulatedClock();
 
         // Crear servicios base
         authService = new AuthService(credentialDao, sessionDao, clientDao);
         ClientService clientService = new ClientService(clientDao);
-        accountService = new AccountService(accountDao, transactionDao, authService, rateProvider);
+        accountService = new AccountService(accountDao, transactionDao, authService, rateProvider,
+                clock, marketRateLog, createVelocityLimiter());
         SummaryService summaryService = new SummaryService(accountDao, rateProvider, authService);
         registrationService = new RegistrationService(clientService, authService);
         TransferService transferService = new TransferService(accountService, clientService, authService);
-        UIDataService uiDataService = new UIDataService(clientService, accountService, authService, summaryService);
+        UIDataService uiDataService = new UIDataService(clientService, accountService, authService,
+                summaryService, clock);
 
         // Crear servicios de inversión
         MarketSimulator marketSimulator = new MarketSimulator();
-        InvestmentService investmentService = new InvestmentService(accountDao, marketSimulator);
+        InvestmentService investmentService = new InvestmentService(accountDao, marketSimulator, marketRateLog);
+        ProjectionService projectionService = new ProjectionService(marketSimulator);
+
+        // Procesos de fin de día
+        Map<Currency, BigDecimal> monthlyFees = new EnumMap<>(Currency.class);
+        monthlyFees.put(Currency.ARS, new BigDecimal("500.00"));
+        monthlyFees.put(Currency.USD, new BigDecimal("1.00"));
+        monthlyFees.put(Currency.EUR, new BigDecimal("1.00"));
+
+        // Tasas nominales anuales
+        Map<Currency, BigDecimal> savingsRates = new EnumMap<>(Currency.class);
+        savingsRates.put(Currency.ARS, new BigDecimal("0.30"));
+        savingsRates.put(Currency.USD, new BigDecimal("0.01"));
+        savingsRates.put(Currency.EUR, new BigDecimal("0.01"));
+
+        Map<Currency, BigDecimal> overdraftRates = new EnumMap<>(Currency.class);
+        overdraftRates.put(Currency.ARS, new BigDecimal("0.80"));
+        overdraftRates.put(Currency.USD, new BigDecimal("0.10"));
+        overdraftRates.put(Currency.EUR, new BigDecimal("0.10"));
+
+        EndOfDayBatchRunner batchRunner = new EndOfDayBatchRunner(accountDao, new InMemoryCheckpointDao(), 16);
+        batchRunner.addJob(new InterestAccrualJob(accountDao, transactionDao, savingsRates, overdraftRates));
+        batchRunner.addJob(new MaintenanceFeeJob(accountDao, transactionDao, monthlyFees));
+
+        // Transferencias programadas: lotes de 1000 órdenes, hasta 3 reintentos por ocurrencia
+        StandingOrderService standingOrderService = new StandingOrderService(accountService, authService,
+                new InMemoryStandingOrderDao(), clock, 1000, 3);
+
+        clock.addDayChangeListener(investmentService);
+        clock.addDayChangeListener(batchRunner);
+        clock.addDayChangeListener(standingOrderService);
 
         // Crear servicio de menú
         menuService = new MenuUIService(authService, accountService, registrationService,
-                transferService, uiDataService, rateProvider, investmentService);
+                transferService, uiDataService, rateProvider, investmentService, projectionService,
+                standingOrderService, clock);
+    }
+
+    /**
+     * Límites de velocidad para retiros y transferencias a terceros
+     */
+    private static VelocityLimiter createVelocityLimiter() {
+        List<VelocityRule> rules = new ArrayList<>();
+        rules.add(VelocityRule.maxCount(VelocityScope.ACCOUNT, VelocityWindow.MINUTE, 10));
+        rules.add(VelocityRule.maxCount(VelocityScope.CLIENT, VelocityWindow.HOUR, 100));
+        rules.add(VelocityRule.maxCount(VelocityScope.CLIENT, VelocityWindow.DAY, 500));
+        rules.add(VelocityRule.maxAmount(VelocityScope.CLIENT, VelocityWindow.DAY, Currency.ARS,
+                new BigDecimal("5000000.00")));
+        rules.add(VelocityRule.maxAmount(VelocityScope.CLIENT, VelocityWindow.DAY, Currency.USD,
+                new BigDecimal("10000.00")));
+        rules.add(VelocityRule.maxAmount(VelocityScope.CLIENT, VelocityWindow.DAY, Currency.EUR,
+                new BigDecimal("10000.00")));
+        return new VelocityLimiter(rules);
     }
 
     /**
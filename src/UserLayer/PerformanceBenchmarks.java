@@ -0,0 +1,1773 @@
+package UserLayer;
+
+import LogicLayer.*;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.ThreadMXBean;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Clase independiente para medir el rendimiento de los componentes de simulación
+ */
+public class PerformanceBenchmarks {
+
+    public static void main(String[] args) {
+        runBenchmarks();
+    }
+
+    /**
+     * Ejecuta todas las mediciones de rendimiento
+     */
+    public static void runBenchmarks() {
+        printLine("=", 60);
+        System.out.println("MEDICIONES DE RENDIMIENTO");
+        printLine("=", 60);
+        System.out.println();
+
+        benchmarkProjection();
+        benchmarkMarketModels();
+        benchmarkDailyReturnKernel();
+        benchmarkBacktest();
+        benchmarkIsolatedSimulations();
+        benchmarkEndOfDayBatch();
+        benchmarkInterestAccrual();
+        benchmarkStandingOrders();
+        benchmarkHistoryPaging();
+        benchmarkHistoryRendering();
+        benchmarkStatementExport();
+        benchmarkNoteSearch();
+        benchmarkRangeQueries();
+        benchmarkTransactionRollups();
+        benchmarkTransactionReversal();
+        benchmarkCompactRecords();
+        benchmarkOffHeapStore();
+        benchmarkTieredStorage();
+        benchmarkIdGeneration();
+        benchmarkChangeEvents();
+        benchmarkVelocityChecks();
+
+        printLine("=", 60);
+        System.out.println("TODAS LAS MEDICIONES COMPLETADAS");
+        printLine("=", 60);
+        System.out.println();
+    }
+
+    /**
+     * Mide las trayectorias por segundo de la proyección Monte Carlo con distinta cantidad de hilos
+     */
+    private static void benchmarkProjection() {
+        System.out.println("PROYECCIÓN MONTE CARLO (1.000.000 trayectorias x 30 días)");
+        printLine("-", 40);
+
+        ProjectionService projectionService = new ProjectionService(new MarketSimulator(42L));
+        BigDecimal balance = new BigDecimal("10000.00");
+
+        // Calentamiento del JIT
+        projectionService.project(balance, 30, 200_000);
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                InvestmentProjection projection = pool.submit(
+                        () -> projectionService.project(balance, 30, 1_000_000)).get();
+                System.out.printf("  %2d hilos: %,.0f trayectorias/s | P5 %s | P50 %s | P95 %s | pérdida %.1f%%%n",
+                        threads, projection.getPathsPerSecond(),
+                        projection.getP5(), projection.getP50(), projection.getP95(),
+                        projection.getProbabilityOfLoss() * 100);
+            } catch (Exception e) {
+                System.out.println("  Error con " + threads + " hilos: " + e.getMessage());
+            } finally {
+                pool.shutdown();
+            }
+        }
+        System.out.println();
+    }
+
+    /**
+     * Mide el costo de generación de tasas de cada modelo de mercado
+     */
+    private static void benchmarkMarketModels() {
+        System.out.println("MODELOS DE MERCADO (10.000.000 tasas por modelo)");
+        printLine("-", 40);
+
+        MarketModel[] models = {
+                new TwoRegimeMarketModel(),
+                new GeometricBrownianMotionModel(0.0003, 0.015),
+                new RegimeSwitchingMarketModel(0.0005, 0.008, -0.002, 0.035, 0.02, 0.10)
+        };
+
+        int draws = 10_000_000;
+        for (MarketModel model : models) {
+            SplittableRandom rng = new SplittableRandom(42L);
+            double checksum = 0;
+            // Calentamiento del JIT
+            for (int i = 0; i < draws / 10; i++) {
+                checksum += model.nextRate(rng);
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < draws; i++) {
+                checksum += model.nextRate(rng);
+            }
+            long elapsed = System.nanoTime() - start;
+
+            System.out.printf("  %-32s %6.1f ns/tasa (control %.3f)%n",
+                    model.getName(), (double) elapsed / draws, checksum);
+        }
+
+        MarketSimulator simulator = new MarketSimulator(42L);
+        int days = 1_000_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < days; i++) {
+            simulator.generateDailyRates();
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("  %-32s %6.1f ns/día%n",
+                "Vector diario (" + Currency.values().length + " monedas)", (double) elapsed / days);
+        System.out.println();
+    }
+
+    /**
+     * Compara el núcleo en punto fijo contra el cálculo BigDecimal por objeto
+     */
+    private static void benchmarkDailyReturnKernel() {
+        int accounts = 1_000_000;
+        int days = 20;
+        System.out.println("RENDIMIENTO DIARIO EN LOTE (" + accounts + " saldos x " + days + " días)");
+        printLine("-", 40);
+
+        SplittableRandom rng = new SplittableRandom(42L);
+        MarketSimulator simulator = new MarketSimulator(42L);
+        BigDecimal[] rates = new BigDecimal[days];
+        for (int d = 0; d < days; d++) {
+            rates[d] = simulator.generateDailyRate();
+        }
+
+        BigDecimal[] balances = new BigDecimal[accounts];
+        long[] cents = new long[accounts];
+        for (int i = 0; i < accounts; i++) {
+            cents[i] = 100 + rng.nextLong(1_000_000_000L);
+            balances[i] = BigDecimal.valueOf(cents[i], 2);
+        }
+
+        long start = System.nanoTime();
+        for (BigDecimal rate : rates) {
+            BigDecimal multiplier = BigDecimal.ONE.add(rate);
+            for (int i = 0; i < accounts; i++) {
+                balances[i] = balances[i].multiply(multiplier).setScale(2, java.math.RoundingMode.HALF_UP);
+            }
+        }
+        long bigDecimalNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (BigDecimal rate : rates) {
+            DailyReturnKernel.applyRate(cents, 0, accounts, DailyReturnKernel.toRateUnits(rate));
+        }
+        long kernelNanos = System.nanoTime() - start;
+
+        int mismatches = 0;
+        for (int i = 0; i < accounts; i++) {
+            if (balances[i].compareTo(DailyReturnKernel.fromCents(cents[i])) != 0) {
+                mismatches++;
+            }
+        }
+
+        double updates = (double) accounts * days;
+        System.out.printf("  BigDecimal por objeto: %,12.0f actualizaciones/s%n", updates / (bigDecimalNanos / 1e9));
+        System.out.printf("  Núcleo en centavos:    %,12.0f actualizaciones/s%n", updates / (kernelNanos / 1e9));
+        System.out.println("  Diferencias: " + mismatches);
+        System.out.println();
+    }
+
+    /**
+     * Mide un backtest de 40 años de tasas sobre una población sintética
+     */
+    private static void benchmarkBacktest() {
+        int days = 40 * 365;
+        int accounts = 200_000;
+        System.out.println("BACKTEST (" + days + " días x " + accounts + " cuentas)");
+        printLine("-", 40);
+
+        BacktestService backtestService = new BacktestService();
+        MarketSimulator simulator = new MarketSimulator(42L);
+        simulator.setModel(Currency.USD, new GeometricBrownianMotionModel(0.0003, 0.012));
+
+        Path series = null;
+        try {
+            series = Files.createTempFile("serie-tasas", ".csv");
+            backtestService.writeRateSeries(series, simulator, Currency.USD, LocalDate.of(1985, 1, 1), days);
+
+            BacktestResult result = backtestService.run(series, accounts,
+                    new BigDecimal("1000.00"), new BigDecimal("100000.00"), 42L);
+            System.out.printf("  Tiempo: %.2f s | %,.0f días/s | %,.0f actualizaciones/s%n",
+                    result.getElapsedNanos() / 1e9, result.getDaysPerSecond(), result.getAccountDaysPerSecond());
+            System.out.printf("  Total inicial: %s | final: %s%n", result.getInitialTotal(), result.getFinalTotal());
+            System.out.printf("  Rendimiento medio: %.2f%% | peor: %.2f%% | mejor: %.2f%% | con pérdida: %.1f%%%n",
+                    result.getMeanReturn() * 100, result.getWorstReturn() * 100,
+                    result.getBestReturn() * 100, result.getLossProbability() * 100);
+        } catch (IOException e) {
+            System.out.println("  Error de E/S: " + e.getMessage());
+        } finally {
+            if (series != null) {
+                series.toFile().delete();
+            }
+        }
+        System.out.println();
+    }
+
+    /**
+     * Ejecuta varias simulaciones aisladas en paralelo, cada una con su propio reloj y sus servicios
+     */
+    private static void benchmarkIsolatedSimulations() {
+        int simulations = 8;
+        int accountsPerSimulation = 500;
+        int days = 365;
+        System.out.println("SIMULACIONES AISLADAS EN PARALELO (" + simulations + " x " + accountsPerSimulation
+                + " cuentas x " + days + " días)");
+        printLine("-", 40);
+
+        long start = System.nanoTime();
+        BigDecimal[] totals = IntStream.range(0, simulations).parallel()
+                .mapToObj(i -> runIsolatedSimulation(i, accountsPerSimulation, days))
+                .toArray(BigDecimal[]::new);
+        long elapsed = System.nanoTime() - start;
+
+        double accountDays = (double) simulations * accountsPerSimulation * days;
+        System.out.printf("  Tiempo: %.2f s | %,.0f cuentas-día/s%n", elapsed / 1e9, accountDays / (elapsed / 1e9));
+        System.out.println("  Saldo total de la simulación 0: " + totals[0]);
+        System.out.println();
+    }
+
+    /**
+     * Arma una simulación independiente y la avanza la cantidad de días indicada
+     *
+     * @return saldo total final de las cuentas de inversión
+     */
+    private static BigDecimal runIsolatedSimulation(long seed, int accounts, int days) {
+        SimulatedClock clock = new SimulatedClock(LocalDate.of(2024, 1, 1));
+        AccountDao accountDao = new InMemoryAccountDao();
+        InvestmentService investmentService = new InvestmentService(accountDao, new MarketSimulator(seed));
+        clock.addDayChangeListener(investmentService);
+
+        Client client = new Client("Simulación " + seed, "sim" + seed);
+        for (int i = 0; i < accounts; i++) {
+            InvestmentAccount account = new InvestmentAccount(client, Currency.values()[i % Currency.values().length],
+                    new BigDecimal("1000.00"), clock.getCurrentDay());
+            account.setDailyRetentionDays(30);
+            accountDao.save(account);
+        }
+
+        for (int day = 0; day < days; day++) {
+            clock.advanceOneDay();
+        }
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (Account account : accountDao.findAll()) {
+            total = total.add(account.getBalance());
+        }
+        return total;
+    }
+
+    /**
+     * Mide el cierre de fin de mes sobre muchas cuentas de ahorro y la reanudación por puntos de control
+     */
+    private static void benchmarkEndOfDayBatch() {
+        int accounts = 200_000;
+        System.out.println("CIERRE DE FIN DE DÍA (" + accounts + " cuentas de ahorro)");
+        printLine("-", 40);
+
+        AccountDao accountDao = new InMemoryAccountDao();
+        TransactionDao transactionDao = new InMemoryTransactionDao();
+        Client client = new Client("Lote", "lote");
+        for (int i = 0; i < accounts; i++) {
+            accountDao.save(new SavingsAccount(client, Currency.USD, new BigDecimal("100.00")));
+        }
+
+        Map<Currency, BigDecimal> fees = new EnumMap<>(Currency.class);
+        fees.put(Currency.USD, new BigDecimal("1.00"));
+        EndOfDayBatchRunner runner = new EndOfDayBatchRunner(accountDao, new InMemoryCheckpointDao(), 64);
+        runner.addJob(new MaintenanceFeeJob(accountDao, transactionDao, fees));
+
+        LocalDate monthEnd = LocalDate.of(2024, 1, 31);
+        for (BatchJobReport report : runner.runDay(monthEnd)) {
+            System.out.println("  " + report);
+        }
+        // Segunda ejecución del mismo día: todas las porciones ya tienen punto de control
+        for (BatchJobReport report : runner.runDay(monthEnd)) {
+            System.out.println("  Reanudación: " + report);
+        }
+        System.out.println();
+    }
+
+    /**
+     * Mide el devengamiento diario de intereses sobre cuentas de ahorro y de crédito en sobregiro
+     */
+    private static void benchmarkInterestAccrual() {
+        int accounts = 2_000_000;
+        System.out.println("INTERESES DIARIOS (" + accounts + " cuentas)");
+        printLine("-", 40);
+
+        AccountDao accountDao = new InMemoryAccountDao();
+        TransactionDao transactionDao = new InMemoryTransactionDao();
+        Client client = new Client("Intereses", "intereses");
+        SplittableRandom rng = new SplittableRandom(42L);
+        for (int i = 0; i < accounts; i++) {
+            BigDecimal balance = BigDecimal.valueOf(rng.nextLong(100_000L, 100_000_000L), 2);
+            if (i % 4 == 0) {
+                CreditAccount credit = new CreditAccount(client, Currency.ARS, BigDecimal.ZERO,
+                        new BigDecimal("1000000.00"));
+                credit.debit(balance);
+                accountDao.save(credit);
+            } else {
+                accountDao.save(new SavingsAccount(client, Currency.ARS, balance));
+            }
+        }
+
+        Map<Currency, BigDecimal> savingsRates = new EnumMap<>(Currency.class);
+        savingsRates.put(Currency.ARS, new BigDecimal("0.30"));
+        Map<Currency, BigDecimal> overdraftRates = new EnumMap<>(Currency.class);
+        overdraftRates.put(Currency.ARS, new BigDecimal("0.80"));
+
+        EndOfDayBatchRunner runner = new EndOfDayBatchRunner(accountDao, new InMemoryCheckpointDao(), 64);
+        runner.addJob(new InterestAccrualJob(accountDao, transactionDao, savingsRates, overdraftRates));
+
+        long start = System.nanoTime();
+        List<BatchJobReport> reports = runner.runDay(LocalDate.of(2024, 1, 15));
+        long elapsed = System.nanoTime() - start;
+
+        for (BatchJobReport report : reports) {
+            System.out.println("  " + report);
+        }
+        System.out.printf("  Cierre completo (incluye partición): %.2f s | estimado para 20M cuentas: %.1f s%n",
+                elapsed / 1e9, elapsed / 1e9 * (20_000_000d / accounts));
+        System.out.println();
+    }
+
+    /**
+     * Mide la ejecución de transferencias programadas: cada día solo se recorren las órdenes que vencen
+     */
+    private static void benchmarkStandingOrders() {
+        int accounts = 200_000;
+        int orders = 2_000_000;
+        System.out.println("TRANSFERENCIAS PROGRAMADAS (" + orders + " órdenes mensuales, " + accounts + " cuentas)");
+        printLine("-", 40);
+
+        ClientDao clientDao = new InMemoryClientDao();
+        AccountDao accountDao = new InMemoryAccountDao();
+        TransactionDao transactionDao = new InMemoryTransactionDao();
+        AuthService authService = new AuthService(new InMemoryCredentialDao(), new InMemorySessionDao(), clientDao);
+        SimulatedClock clock = new SimulatedClock(LocalDate.of(2024, 1, 1));
+        AccountService accountService = new AccountService(accountDao, transactionDao, authService,
+                new RateProvider(), clock);
+        StandingOrderService service = new StandingOrderService(accountService, authService,
+                new InMemoryStandingOrderDao(), clock, 10_000, 3);
+        clock.addDayChangeListener(service);
+
+        Client client = new Client("Órdenes", "ordenes");
+        clientDao.save(client);
+        authService.registerPin(client, new byte[]{1, 2, 3, 4});
+        authService.loginWithPin("ordenes", new byte[]{1, 2, 3, 4});
+        Account[] pool = new Account[accounts];
+        for (int i = 0; i < accounts; i++) {
+            // Una de cada diez cuentas no tiene fondos suficientes y genera reintentos
+            BigDecimal balance = i % 10 == 0 ? BigDecimal.ZERO : new BigDecimal("1000000.00");
+            pool[i] = new SavingsAccount(client, Currency.ARS, balance);
+            accountDao.save(pool[i]);
+        }
+
+        SplittableRandom rng = new SplittableRandom(7L);
+        BigDecimal amount = new BigDecimal("10.00");
+        long start = System.nanoTime();
+        for (int i = 0; i < orders; i++) {
+            int from = rng.nextInt(accounts);
+            int to = (from + 1 + rng.nextInt(accounts - 1)) % accounts;
+            Account source = pool[from];
+            Account target = pool[to];
+            LocalDate startDate = LocalDate.of(2024, 1, 2 + rng.nextInt(28));
+            service.scheduleTransfer(source, target, amount, "Orden " + i,
+                    RecurrenceFrequency.MONTHLY, startDate, null);
+        }
+        long scheduleNanos = System.nanoTime() - start;
+        System.out.printf("  Alta de órdenes: %.2f s (%,.0f órdenes/s)%n",
+                scheduleNanos / 1e9, orders / (scheduleNanos / 1e9));
+
+        int days = 5;
+        long totalDue = 0;
+        start = System.nanoTime();
+        for (int d = 0; d < days; d++) {
+            clock.advanceOneDay();
+            System.out.println("  " + service.getLastReport());
+            totalDue += service.getLastReport().getDue();
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("  %d días: %,d órdenes vencidas de %,d vigentes (%.2f s, %,.0f órdenes/s)%n",
+                days, totalDue, service.countActiveOrders(), elapsed / 1e9, totalDue / (elapsed / 1e9));
+        System.out.println();
+    }
+
+    /**
+     * Compara la carga completa del historial con la lectura de una página para una cuenta con un millón
+     * de transacciones (lo que necesita la tabla para mostrar las filas visibles)
+     */
+    private static void benchmarkHistoryPaging() {
+        int transactions = 1_000_000;
+        int pageSize = 200;
+        System.out.println("HISTORIAL PAGINADO (" + transactions + " transacciones en una cuenta)");
+        printLine("-", 40);
+
+        TransactionDao transactionDao = new InMemoryTransactionDao();
+        Client client = new Client("Historial", "historial");
+        SavingsAccount account = new SavingsAccount(client, Currency.ARS, BigDecimal.ZERO);
+        BigDecimal amount = new BigDecimal("1.00");
+        for (int i = 0; i < transactions; i++) {
+            transactionDao.save(new DepositTransaction(TransactionStatus.SETTLED, amount, Currency.ARS,
+                    "Depósito " + i, account));
+        }
+
+        long start = System.nanoTime();
+        int fullSize = transactionDao.listByAccountId(account.getId()).size();
+        long fullNanos = System.nanoTime() - start;
+
+        int pages = 1_000;
+        SplittableRandom rng = new SplittableRandom(3L);
+        long rows = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < pages; i++) {
+            int count = transactionDao.countByAccountId(account.getId());
+            int offset = rng.nextInt(count / pageSize) * pageSize;
+            rows += transactionDao.listByAccountId(account.getId(), offset, pageSize).size();
+        }
+        long pageNanos = (System.nanoTime() - start) / pages;
+
+        System.out.printf("  Historial completo ordenado: %,d filas en %.1f ms%n", fullSize, fullNanos / 1e6);
+        System.out.printf("  Página de %d filas (posición aleatoria): %.1f µs promedio (%,d filas leídas)%n",
+                pageSize, pageNanos / 1e3, rows);
+        System.out.println();
+    }
+
+    /**
+     * Compara el renderizado de filas del historial con String.format y un DateTimeFormatter por fila
+     * (la implementación anterior de summary()) contra los formateadores compartidos sobre un
+     * StringBuilder reutilizado
+     */
+    private static void benchmarkHistoryRendering() {
+        int rows = 200_000;
+        int rounds = 5;
+        System.out.println("RENDERIZADO DEL HISTORIAL (" + rows + " filas)");
+        printLine("-", 40);
+
+        Client client = new Client("Render", "render");
+        SavingsAccount account = new SavingsAccount(client, Currency.ARS, BigDecimal.ZERO);
+        SplittableRandom rng = new SplittableRandom(11L);
+        Transaction[] transactions = new Transaction[rows];
+        for (int i = 0; i < rows; i++) {
+            BigDecimal amount = BigDecimal.valueOf(rng.nextLong(1L, 1_000_000_000L), 2);
+            transactions[i] = new DepositTransaction(TransactionStatus.SETTLED, amount, Currency.ARS,
+                    "Depósito " + i, account);
+        }
+
+        long checksum = 0;
+        long legacyNanos = Long.MAX_VALUE;
+        long sharedNanos = Long.MAX_VALUE;
+        StringBuilder sb = new StringBuilder(256);
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            for (Transaction tx : transactions) {
+                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")
+                        .withZone(ZoneId.systemDefault());
+                String line = String.format("[%s] %s: +%s%s → %s | %s | %s",
+                        formatter.format(tx.getCreatedAt()),
+                        tx.getType().getDescription(),
+                        tx.getCurrency().getSymbol(),
+                        String.format("%,.2f", tx.getAmount()),
+                        account.type(),
+                        tx.getStatus().getDescription(),
+                        tx.getNote());
+                checksum += line.length();
+            }
+            legacyNanos = Math.min(legacyNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (Transaction tx : transactions) {
+                sb.setLength(0);
+                checksum += tx.appendSummary(sb).length();
+            }
+            sharedNanos = Math.min(sharedNanos, System.nanoTime() - start);
+        }
+
+        System.out.printf("  String.format + formateador por fila: %,12.0f filas/s%n", rows / (legacyNanos / 1e9));
+        System.out.printf("  Formateadores compartidos + StringBuilder: %,8.0f filas/s (%.1fx)%n",
+                rows / (sharedNanos / 1e9), (double) legacyNanos / sharedNanos);
+        System.out.println("  (suma de control: " + checksum + ")");
+        System.out.println();
+    }
+
+    /**
+     * Mide la exportación de extractos a CSV: una cuenta con muchas transacciones y todos los clientes
+     * en paralelo, un archivo por cliente
+     */
+    private static void benchmarkStatementExport() {
+        int clients = 2_000;
+        int transactionsPerAccount = 500;
+        System.out.println("EXPORTACIÓN DE EXTRACTOS CSV (" + clients + " clientes x 2 cuentas x "
+                + transactionsPerAccount + " transacciones)");
+        printLine("-", 40);
+
+        ClientDao clientDao = new InMemoryClientDao();
+        AccountDao accountDao = new InMemoryAccountDao();
+        TransactionDao transactionDao = new InMemoryTransactionDao();
+        SplittableRandom rng = new SplittableRandom(5L);
+        for (int c = 0; c < clients; c++) {
+            Client client = new Client("Cliente " + c, "cliente" + c);
+            clientDao.save(client);
+            Account savings = new SavingsAccount(client, Currency.ARS, BigDecimal.ZERO);
+            Account credit = new CreditAccount(client, Currency.ARS, BigDecimal.ZERO, new BigDecimal("1000.00"));
+            accountDao.save(savings);
+            accountDao.save(credit);
+            for (int i = 0; i < transactionsPerAccount; i++) {
+                BigDecimal amount = BigDecimal.valueOf(rng.nextLong(100L, 10_000_000L), 2);
+                transactionDao.save(new DepositTransaction(TransactionStatus.SETTLED, amount, Currency.ARS,
+                        "Depósito " + i, savings));
+                if (i % 2 == 0) {
+                    transactionDao.save(new TransferTransaction(TransactionStatus.SETTLED, amount, Currency.ARS,
+                            "Pago, cuota " + i, savings, credit));
+                }
+            }
+        }
+
+        StatementExporter exporter = new StatementExporter(clientDao, accountDao, transactionDao);
+        Path directory = null;
+        try {
+            directory = Files.createTempDirectory("extractos");
+            StatementExportReport bulk = exporter.exportAllClients(directory.resolve("todos"));
+            System.out.println("  Todos en paralelo: " + bulk);
+
+            Client first = clientDao.findByAlias("cliente0");
+            StatementExportReport single = exporter.exportClient(first, directory.resolve("cliente0.csv"));
+            System.out.println("  Un cliente: " + single);
+        } catch (IOException e) {
+            System.out.println("  Error de E/S: " + e.getMessage());
+        } finally {
+            if (directory != null) {
+                deleteRecursively(directory);
+            }
+        }
+        System.out.println();
+    }
+
+    /**
+     * Compara la búsqueda en notas con el índice invertido contra recorrer el historial completo
+     */
+    private static void benchmarkNoteSearch() {
+        int accounts = 10_000;
+        int transactions = 2_000_000;
+        System.out.println("BÚSQUEDA EN NOTAS (" + transactions + " transacciones, " + accounts + " cuentas)");
+        printLine("-", 40);
+
+        String[] notes = {"Alquiler %s", "Supermercado", "Pago tarjeta de crédito %s", "Expensas %s",
+                "Sueldo %s", "Transferencia a ahorro", "Cuota préstamo %s", "Servicios luz y gas %s"};
+        String[] months = {"enero", "febrero", "marzo", "abril", "mayo", "junio", "julio", "agosto",
+                "septiembre", "octubre", "noviembre", "diciembre"};
+
+        TransactionDao transactionDao = new InMemoryTransactionDao();
+        Client client = new Client("Notas", "notas");
+        Account[] pool = new Account[accounts];
+        for (int i = 0; i < accounts; i++) {
+            pool[i] = new SavingsAccount(client, Currency.ARS, BigDecimal.ZERO);
+        }
+        SplittableRandom rng = new SplittableRandom(13L);
+        BigDecimal amount = new BigDecimal("100.00");
+        long start = System.nanoTime();
+        for (int i = 0; i < transactions; i++) {
+            String note = String.format(notes[rng.nextInt(notes.length)], months[rng.nextInt(months.length)]);
+            // Las primeras cinco cuentas (un cliente con años de historial) reciben una de cada diez transacciones
+            int target = rng.nextInt(10) == 0 ? rng.nextInt(5) : rng.nextInt(accounts);
+            transactionDao.save(new DepositTransaction(TransactionStatus.SETTLED, amount, Currency.ARS, note,
+                    pool[target]));
+        }
+        long saveNanos = System.nanoTime() - start;
+        System.out.printf("  Alta con indexado: %.2f s (%,.0f transacciones/s)%n",
+                saveNanos / 1e9, transactions / (saveNanos / 1e9));
+
+        List<UUID> clientAccounts = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            clientAccounts.add(pool[i].getId());
+        }
+
+        int queries = 200;
+        int found = 0;
+        start = System.nanoTime();
+        for (int q = 0; q < queries; q++) {
+            found = transactionDao.searchByNote("alquiler marzo", clientAccounts, Integer.MAX_VALUE).size();
+        }
+        long indexedNanos = (System.nanoTime() - start) / queries;
+
+        int scanned = 0;
+        start = System.nanoTime();
+        for (int q = 0; q < queries; q++) {
+            scanned = 0;
+            for (UUID accountId : clientAccounts) {
+                for (Transaction tx : transactionDao.listByAccountId(accountId)) {
+                    String note = tx.getNote().toLowerCase();
+                    if (note.contains("alquiler") && note.contains("marzo")) {
+                        scanned++;
+                    }
+                }
+            }
+        }
+        long scanNanos = (System.nanoTime() - start) / queries;
+
+        start = System.nanoTime();
+        int global = transactionDao.searchByNote("alquiler marzo", null, Integer.MAX_VALUE).size();
+        long globalNanos = System.nanoTime() - start;
+
+        System.out.printf("  Cliente (5 cuentas), índice: %,d resultados en %.1f µs%n", found, indexedNanos / 1e3);
+        System.out.printf("  Cliente (5 cuentas), recorrido: %,d resultados en %.1f µs (%.0fx)%n",
+                scanned, scanNanos / 1e3, (double) scanNanos / indexedNanos);
+        System.out.printf("  Todas las cuentas, índice: %,d resultados en %.1f ms%n", global, globalNanos / 1e6);
+        System.out.println();
+    }
+
+    /**
+     * Compara las consultas por rango de fechas y montos con índices contra un recorrido completo
+     */
+    private static void benchmarkRangeQueries() {
+        int accounts = 10_000;
+        int transactions = 2_000_000;
+        System.out.println("CONSULTAS POR RANGO (" + transactions + " transacciones, " + accounts + " cuentas)");
+        printLine("-", 40);
+
+        TransactionDao transactionDao = new InMemoryTransactionDao();
+        Client client = new Client("Rangos", "rangos");
+        Account[] pool = new Account[accounts];
+        for (int i = 0; i < accounts; i++) {
+            pool[i] = new SavingsAccount(client, Currency.ARS, BigDecimal.ZERO);
+        }
+        List<Transaction> all = new ArrayList<>(transactions);
+        SplittableRandom rng = new SplittableRandom(17L);
+        Instant windowStart = null;
+        Instant windowEnd = null;
+        for (int i = 0; i < transactions; i++) {
+            if (i == transactions / 2) {
+                windowStart = Instant.now();
+            } else if (i == transactions / 2 + transactions / 20) {
+                windowEnd = Instant.now();
+            }
+            BigDecimal amount = BigDecimal.valueOf(rng.nextLong(100L, 50_000_000L), 2);
+            Account source = pool[rng.nextInt(accounts)];
+            Transaction tx;
+            switch (rng.nextInt(3)) {
+                case 0:
+                    tx = new DepositTransaction(TransactionStatus.SETTLED, amount, Currency.ARS, null, source);
+                    break;
+                case 1:
+                    tx = new WithdrawTransaction(TransactionStatus.SETTLED, amount, Currency.ARS, null, source);
+                    break;
+                default:
+                    tx = new TransferTransaction(TransactionStatus.SETTLED, amount, Currency.ARS, null, source,
+                            pool[rng.nextInt(accounts)]);
+            }
+            transactionDao.save(tx);
+            all.add(tx);
+        }
+
+        runRangeQuery("Transferencias > $495.000", transactionDao, all, () -> new TransactionQuery()
+                .ofType(TransactionType.TRANSFER).inCurrency(Currency.ARS)
+                .amountBetween(new BigDecimal("495000"), null));
+        Instant from = windowStart;
+        Instant to = windowEnd;
+        runRangeQuery("Retiros de una cuenta desde la mitad", transactionDao, all, () -> new TransactionQuery()
+                .forAccount(pool[0].getId()).ofType(TransactionType.WITHDRAW).between(from, null));
+        runRangeQuery("Ventana del 5% con montos $100.000-$150.000", transactionDao, all, () -> new TransactionQuery()
+                .between(from, to).amountBetween(new BigDecimal("100000"), new BigDecimal("150000")));
+        System.out.println();
+    }
+
+    private static void runRangeQuery(String label, TransactionDao transactionDao, List<Transaction> all,
+                                      Supplier<TransactionQuery> query) {
+        int rounds = 20;
+        int indexed = 0;
+        long start = System.nanoTime();
+        for (int r = 0; r < rounds; r++) {
+            indexed = transactionDao.query(query.get()).size();
+        }
+        long indexedNanos = (System.nanoTime() - start) / rounds;
+
+        int scanned = 0;
+        start = System.nanoTime();
+        for (int r = 0; r < rounds; r++) {
+            TransactionQuery q = query.get();
+            scanned = 0;
+            for (Transaction tx : all) {
+                if (q.matches(tx)) {
+                    scanned++;
+                }
+            }
+        }
+        long scanNanos = (System.nanoTime() - start) / rounds;
+
+        System.out.printf("  %-45s %,7d resultados | índice %8.2f ms | recorrido %8.2f ms (%s)%n",
+                label, indexed, indexedNanos / 1e6, scanNanos / 1e6,
+                indexed == scanned ? String.format("%.0fx", (double) scanNanos / indexedNanos) : "DIFERENCIA");
+    }
+
+    private static void benchmarkTransactionRollups() {
+        int accounts = 10_000;
+        int transactions = 2_000_000;
+        System.out.println("RESÚMENES PRECALCULADOS (" + transactions + " transacciones, " + accounts + " cuentas)");
+        printLine("-", 40);
+
+        TransactionDao transactionDao = new InMemoryTransactionDao();
+        Client client = new Client("Resumenes", "resumenes");
+        Account[] pool = new Account[accounts];
+        for (int i = 0; i < accounts; i++) {
+            pool[i] = new SavingsAccount(client, Currency.ARS, BigDecimal.ZERO);
+        }
+        List<Transaction> all = new ArrayList<>(transactions);
+        SplittableRandom rng = new SplittableRandom(23L);
+        for (int i = 0; i < transactions; i++) {
+            BigDecimal amount = BigDecimal.valueOf(rng.nextLong(100L, 50_000_000L), 2);
+            TransactionStatus status = rng.nextInt(20) == 0 ? TransactionStatus.FAILED : TransactionStatus.SETTLED;
+            Account source = pool[rng.nextInt(accounts)];
+            Transaction tx;
+            switch (rng.nextInt(3)) {
+                case 0:
+                    tx = new DepositTransaction(status, amount, Currency.ARS, null, source);
+                    break;
+                case 1:
+                    tx = new WithdrawTransaction(status, amount, Currency.ARS, null, source);
+                    break;
+                default:
+                    tx = new TransferTransaction(status, amount, Currency.ARS, null, source,
+                            pool[rng.nextInt(accounts)]);
+            }
+            all.add(tx);
+        }
+        long start = System.nanoTime();
+        for (Transaction tx : all) {
+            transactionDao.save(tx);
+        }
+        System.out.printf("  Alta con índices y resúmenes: %,.0f transacciones/s%n",
+                transactions / ((System.nanoTime() - start) / 1e9));
+
+        LocalDate today = LocalDate.now();
+        LocalDate from = today.minusYears(1);
+        int rounds = 20;
+
+        // Ingresos y egresos mensuales de una cuenta
+        Account account = pool[0];
+        BigDecimal inflow = BigDecimal.ZERO;
+        start = System.nanoTime();
+        for (int r = 0; r < rounds; r++) {
+            inflow = BigDecimal.ZERO;
+            for (TransactionRollup rollup : transactionDao.getAccountRollups(account.getId(), Currency.ARS,
+                    RollupPeriod.MONTHLY, from, today)) {
+                inflow = inflow.add(rollup.getInflow());
+            }
+        }
+        long rollupNanos = (System.nanoTime() - start) / rounds;
+        BigDecimal scannedInflow = BigDecimal.ZERO;
+        start = System.nanoTime();
+        for (int r = 0; r < rounds; r++) {
+            scannedInflow = BigDecimal.ZERO;
+            for (Transaction tx : transactionDao.listByAccountId(account.getId())) {
+                if (tx.isSuccessful() && (tx instanceof DepositTransaction
+                        || tx instanceof TransferTransaction && ((TransferTransaction) tx).getTarget() == account)) {
+                    scannedInflow = scannedInflow.add(tx.getAmount());
+                }
+            }
+        }
+        long scanNanos = (System.nanoTime() - start) / rounds;
+        printRollupComparison("Ingresos mensuales de una cuenta", rollupNanos, scanNanos,
+                inflow.compareTo(scannedInflow) == 0);
+
+        // Transacciones fallidas por día en todo el sistema
+        long failed = 0;
+        start = System.nanoTime();
+        for (int r = 0; r < rounds; r++) {
+            failed = 0;
+            for (TransactionRollup rollup : transactionDao.getSystemRollups(Currency.ARS,
+                    RollupPeriod.DAILY, from, today)) {
+                failed += rollup.getCount(null, TransactionStatus.FAILED);
+            }
+        }
+        rollupNanos = (System.nanoTime() - start) / rounds;
+        long scannedFailed = 0;
+        start = System.nanoTime();
+        for (int r = 0; r < rounds; r++) {
+            scannedFailed = 0;
+            for (Transaction tx : all) {
+                if (!tx.isSuccessful()) {
+                    scannedFailed++;
+                }
+            }
+        }
+        scanNanos = (System.nanoTime() - start) / rounds;
+        printRollupComparison("Fallidas por día en el sistema", rollupNanos, scanNanos, failed == scannedFailed);
+
+        start = System.nanoTime();
+        boolean consistent = transactionDao.verifyRollups();
+        System.out.printf("  Reconstrucción paralela y verificación: %8.2f ms (%s)%n",
+                (System.nanoTime() - start) / 1e6, consistent ? "coinciden" : "DIFERENCIA");
+        System.out.println();
+    }
+
+    private static void printRollupComparison(String label, long rollupNanos, long scanNanos, boolean same) {
+        System.out.printf("  %-35s resúmenes %8.3f ms | recorrido %8.2f ms (%s)%n",
+                label, rollupNanos / 1e6, scanNanos / 1e6,
+                same ? String.format("%.0fx", (double) scanNanos / rollupNanos) : "DIFERENCIA");
+    }
+
+    private static void benchmarkTransactionReversal() {
+        int accounts = 10_000;
+        int transactions = 1_000_000;
+        int reversals = 100_000;
+        System.out.println("BÚSQUEDA POR ID Y REVERSIÓN (" + transactions + " transacciones, " + accounts + " cuentas)");
+        printLine("-", 40);
+
+        ClientDao clientDao = new InMemoryClientDao();
+        AccountDao accountDao = new InMemoryAccountDao();
+        TransactionDao transactionDao = new InMemoryTransactionDao();
+        AuthService authService = new AuthService(new InMemoryCredentialDao(), new InMemorySessionDao(), clientDao);
+        AccountService accountService = new AccountService(accountDao, transactionDao, authService,
+                new RateProvider(), new SimulatedClock(LocalDate.of(2024, 1, 1)));
+        Client client = new Client("Reversiones", "reversiones");
+        clientDao.save(client);
+        authService.registerPin(client, new byte[]{1, 2, 3, 4});
+        authService.loginWithPin("reversiones", new byte[]{1, 2, 3, 4});
+
+        Account[] pool = new Account[accounts];
+        for (int i = 0; i < accounts; i++) {
+            pool[i] = new SavingsAccount(client, Currency.ARS, new BigDecimal("1000000.00"));
+            accountDao.save(pool[i]);
+        }
+        SplittableRandom rng = new SplittableRandom(29L);
+        List<Transaction> all = new ArrayList<>(transactions);
+        for (int i = 0; i < transactions; i++) {
+            BigDecimal amount = BigDecimal.valueOf(rng.nextLong(100L, 100_000L), 2);
+            Account source = pool[rng.nextInt(accounts)];
+            switch (rng.nextInt(3)) {
+                case 0:
+                    all.add(accountService.deposit(source, amount, null));
+                    break;
+                case 1:
+                    all.add(accountService.withdraw(source, amount, null));
+                    break;
+                default:
+                    Account target = pool[rng.nextInt(accounts)];
+                    all.add(source == target ? accountService.deposit(source, amount, null)
+                            : accountService.transfer(source, target, amount, null));
+            }
+        }
+
+        // Búsqueda por id contra recorrer las listas de todas las cuentas
+        int lookups = 100;
+        UUID[] ids = new UUID[lookups];
+        for (int i = 0; i < lookups; i++) {
+            ids[i] = all.get(rng.nextInt(transactions)).getId();
+        }
+        int found = 0;
+        long start = System.nanoTime();
+        for (UUID id : ids) {
+            if (transactionDao.findById(id) != null) {
+                found++;
+            }
+        }
+        long indexedNanos = (System.nanoTime() - start) / lookups;
+        int scanned = 0;
+        start = System.nanoTime();
+        for (UUID id : ids) {
+            search:
+            for (Account account : pool) {
+                for (Transaction tx : transactionDao.listByAccountId(account.getId())) {
+                    if (tx.getId().equals(id)) {
+                        scanned++;
+                        break search;
+                    }
+                }
+            }
+        }
+        long scanNanos = (System.nanoTime() - start) / lookups;
+        System.out.printf("  Búsqueda por id: índice %8.4f ms | recorrido %8.2f ms (%s)%n",
+                indexedNanos / 1e6, scanNanos / 1e6,
+                found == scanned ? String.format("%.0fx", (double) scanNanos / indexedNanos) : "DIFERENCIA");
+
+        // Revertir una muestra y verificar que los saldos vuelven al estado anterior
+        BigDecimal totalBefore = BigDecimal.ZERO;
+        for (Account account : pool) {
+            totalBefore = totalBefore.add(account.getBalance());
+        }
+        BigDecimal expectedChange = BigDecimal.ZERO;
+        int settled = 0;
+        int failed = 0;
+        BackOfficeService backOffice = new BackOfficeService(accountService);
+        start = System.nanoTime();
+        for (int i = 0; i < reversals; i++) {
+            Transaction original = all.get(i * (transactions / reversals));
+            if (!original.isSuccessful()) {
+                continue;
+            }
+            Transaction reversal = backOffice.reverseTransaction(original.getId(), "Reversión de prueba");
+            if (!reversal.isSuccessful()) {
+                failed++;
+                continue;
+            }
+            settled++;
+            if (original instanceof DepositTransaction) {
+                expectedChange = expectedChange.subtract(original.getAmount());
+            } else if (original instanceof WithdrawTransaction) {
+                expectedChange = expectedChange.add(original.getAmount());
+            }
+        }
+        long reverseNanos = System.nanoTime() - start;
+        BigDecimal totalAfter = BigDecimal.ZERO;
+        for (Account account : pool) {
+            totalAfter = totalAfter.add(account.getBalance());
+        }
+        boolean linked = transactionDao.findReversalOf(all.get(0).getId()) != null || !all.get(0).isSuccessful();
+        System.out.printf("  Reversiones: %,d completadas, %,d fallidas en %.2f s (%,.0f reversiones/s)%n",
+                settled, failed, reverseNanos / 1e9, (settled + failed) / (reverseNanos / 1e9));
+        System.out.printf("  Saldos y vínculos: %s%n",
+                totalAfter.subtract(totalBefore).compareTo(expectedChange) == 0 && linked
+                        ? "consistentes" : "DIFERENCIA");
+        authService.logout();
+        System.out.println();
+    }
+
+    private static void benchmarkCompactRecords() {
+        int accounts = 10_000;
+        int transactions = 1_000_000;
+        System.out.println("REGISTROS COMPACTOS (" + transactions + " transacciones, " + accounts + " cuentas)");
+        printLine("-", 40);
+
+        Client client = new Client("Compactos", "compactos");
+        Account[] pool = new Account[accounts];
+        for (int i = 0; i < accounts; i++) {
+            pool[i] = new SavingsAccount(client, Currency.ARS, BigDecimal.ZERO);
+        }
+        String[] frequentNotes = {"Alquiler", "Sueldo", "Expensas", "Intereses", "Comisión de mantenimiento"};
+
+        // Antes: objetos Transaction en la lista por posición, en las listas por cuenta y en el mapa por id
+        long baseline = usedHeap();
+        List<Transaction> byPosition = new ArrayList<>();
+        Map<UUID, List<Transaction>> byAccount = new HashMap<>();
+        Map<UUID, Transaction> byId = new HashMap<>();
+        SplittableRandom rng = new SplittableRandom(31L);
+        for (int i = 0; i < transactions; i++) {
+            Transaction tx = randomTransaction(rng, pool, frequentNotes, i);
+            byPosition.add(tx);
+            byId.put(tx.getId(), tx);
+            if (tx instanceof TransferTransaction) {
+                byAccount.computeIfAbsent(((TransferTransaction) tx).getSource().getId(), k -> new ArrayList<>()).add(tx);
+                byAccount.computeIfAbsent(((TransferTransaction) tx).getTarget().getId(), k -> new ArrayList<>()).add(tx);
+            } else {
+                Account account = tx instanceof DepositTransaction
+                        ? ((DepositTransaction) tx).getTarget() : ((WithdrawTransaction) tx).getSource();
+                byAccount.computeIfAbsent(account.getId(), k -> new ArrayList<>()).add(tx);
+            }
+        }
+        double objectBytes = (double) (usedHeap() - baseline) / transactions;
+        long expectedChecksum = 0;
+        for (Transaction tx : byPosition) {
+            expectedChecksum += tx.getAmount().unscaledValue().longValue();
+        }
+        int indexedAccounts = byAccount.size();
+        int indexedIds = byId.size();
+        byPosition = null;
+        byAccount = null;
+        byId = null;
+
+        // Después: columnas del almacenamiento compacto
+        baseline = usedHeap();
+        TransactionRecordStore store = new TransactionRecordStore(1024);
+        rng = new SplittableRandom(31L);
+        for (int i = 0; i < transactions; i++) {
+            store.append(randomTransaction(rng, pool, frequentNotes, i));
+        }
+        double compactBytes = (double) (usedHeap() - baseline) / transactions;
+
+        long start = System.nanoTime();
+        long checksum = 0;
+        for (int i = 0; i < store.size(); i++) {
+            checksum += store.get(i).getAmount().unscaledValue().longValue();
+        }
+        long readNanos = System.nanoTime() - start;
+
+        System.out.printf("  Objetos Transaction: %6.1f bytes por transacción (%,d cuentas, %,d ids)%n",
+                objectBytes, indexedAccounts, indexedIds);
+        System.out.printf("  Registros compactos: %6.1f bytes por transacción (%.1fx menos)%n",
+                compactBytes, objectBytes / compactBytes);
+        System.out.printf("  Reconstrucción al leer: %.0f ns por transacción (%s)%n",
+                (double) readNanos / transactions, checksum == expectedChecksum ? "montos verificados" : "DIFERENCIA");
+        System.out.println();
+    }
+
+    private static Transaction randomTransaction(SplittableRandom rng, Account[] pool, String[] frequentNotes, int i) {
+        BigDecimal amount = BigDecimal.valueOf(rng.nextLong(100L, 50_000_000L), 2);
+        // Un tercio sin nota, un tercio con notas frecuentes y un tercio con notas únicas
+        int noteKind = rng.nextInt(3);
+        String note = noteKind == 0 ? null
+                : noteKind == 1 ? frequentNotes[rng.nextInt(frequentNotes.length)] : "Pago " + i;
+        int from = rng.nextInt(pool.length);
+        switch (rng.nextInt(3)) {
+            case 0:
+                return new DepositTransaction(TransactionStatus.SETTLED, amount, Currency.ARS, note, pool[from]);
+            case 1:
+                return new WithdrawTransaction(TransactionStatus.SETTLED, amount, Currency.ARS, note, pool[from]);
+            default:
+                int to = (from + 1 + rng.nextInt(pool.length - 1)) % pool.length;
+                return new TransferTransaction(TransactionStatus.SETTLED, amount, Currency.ARS, note,
+                        pool[from], pool[to]);
+        }
+    }
+
+    private static void benchmarkOffHeapStore() {
+        int accounts = 10_000;
+        int transactions = 2_000_000;
+        int batchSize = 1_000;
+        System.out.println("ALMACENAMIENTO FUERA DEL HEAP (" + transactions + " transacciones en lotes de "
+                + batchSize + ", " + accounts + " cuentas)");
+        printLine("-", 40);
+
+        Client client = new Client("Columnas", "columnas");
+        Account[] pool = new Account[accounts];
+        for (int i = 0; i < accounts; i++) {
+            pool[i] = new SavingsAccount(client, Currency.ARS, BigDecimal.ZERO);
+        }
+        String[] frequentNotes = {"Alquiler", "Sueldo", "Expensas", "Intereses", "Comisión de mantenimiento"};
+
+        // Pausas de cada recolección, informadas por las notificaciones de los recolectores
+        List<Long> pauses = new ArrayList<>();
+        NotificationListener listener = (notification, handback) -> {
+            if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from(
+                        (CompositeData) notification.getUserData());
+                synchronized (pauses) {
+                    pauses.add(info.getGcInfo().getDuration());
+                }
+            }
+        };
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            ((NotificationEmitter) collector).addNotificationListener(listener, null, null);
+        }
+
+        // Primero el almacenamiento fuera del heap, para que los restos del otro no alteren su medición
+        measureWriteLoad(new OffHeapTransactionDao(), "Fuera del heap", pool, frequentNotes, transactions, batchSize,
+                pauses);
+        measureWriteLoad(new InMemoryTransactionDao(), "En el heap", pool, frequentNotes, transactions, batchSize,
+                pauses);
+
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            try {
+                ((NotificationEmitter) collector).removeNotificationListener(listener);
+            } catch (ListenerNotFoundException e) {
+                // El recolector no tenía el listener registrado
+            }
+        }
+        System.out.println();
+    }
+
+    /**
+     * Guarda transacciones en lotes y mide pausas de recolección, heap retenido y asignaciones al
+     * recorrer el historial de la cuenta con más movimientos
+     */
+    private static void measureWriteLoad(TransactionDao transactionDao, String label, Account[] pool,
+                                         String[] frequentNotes, int transactions, int batchSize,
+                                         List<Long> pauses) {
+        long baseline = usedHeap();
+        synchronized (pauses) {
+            pauses.clear();
+        }
+        SplittableRandom rng = new SplittableRandom(37L);
+        List<Transaction> batch = new ArrayList<>(batchSize);
+        long start = System.nanoTime();
+        for (int i = 0; i < transactions; i++) {
+            batch.add(randomTransaction(rng, pool, frequentNotes, i));
+            if (batch.size() == batchSize) {
+                transactionDao.saveAll(batch);
+                batch.clear();
+            }
+        }
+        long writeNanos = System.nanoTime() - start;
+
+        // Las pausas se leen antes de forzar la recolección para medir el heap
+        long totalPause = 0;
+        long maxPause = 0;
+        int collections;
+        synchronized (pauses) {
+            collections = pauses.size();
+            for (long pause : pauses) {
+                totalPause += pause;
+                maxPause = Math.max(maxPause, pause);
+            }
+        }
+        System.out.printf("  %-14s %,9.0f tx/s | %3d recolecciones, pausa total %,6d ms, máxima %,5d ms%n",
+                label, transactions / (writeNanos / 1e9), collections, totalPause, maxPause);
+        long heapBytes = usedHeap() - baseline;
+        OffHeapTransactionDao offHeap = transactionDao instanceof OffHeapTransactionDao
+                ? (OffHeapTransactionDao) transactionDao : null;
+        System.out.printf("  %-14s heap retenido %6.1f bytes/tx%s%n", "", (double) heapBytes / transactions,
+                offHeap != null ? String.format(", memoria directa %6.1f bytes/tx",
+                        (double) offHeap.getOffHeapBytes() / transactions) : "");
+
+        Account busiest = pool[0];
+        for (Account account : pool) {
+            if (transactionDao.countByAccountId(account.getId()) > transactionDao.countByAccountId(busiest.getId())) {
+                busiest = account;
+            }
+        }
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocated = threads.getCurrentThreadAllocatedBytes();
+        long count = 0;
+        for (Iterator<Transaction> it = transactionDao.iterateByAccountId(busiest.getId()); it.hasNext(); ) {
+            it.next();
+            count++;
+        }
+        System.out.printf("  %-14s historial (%,d tx) con iterador: %,d bytes asignados por transacción%n", "",
+                count, (threads.getCurrentThreadAllocatedBytes() - allocated) / Math.max(count, 1));
+        if (offHeap != null) {
+            long[] settled = new long[1];
+            OffHeapTransactionDao.RecordVisitor visitor = (created, type, status, unscaled, scale, outgoing) -> {
+                if (status == TransactionStatus.SETTLED) {
+                    settled[0]++;
+                }
+            };
+            // La primera pasada inicializa el visitante; se mide la segunda
+            offHeap.forEachRecord(busiest.getId(), visitor);
+            settled[0] = 0;
+            allocated = threads.getCurrentThreadAllocatedBytes();
+            offHeap.forEachRecord(busiest.getId(), visitor);
+            System.out.printf("  %-14s historial (%,d tx) con visitante: %,d bytes asignados en total%n", "",
+                    settled[0], threads.getCurrentThreadAllocatedBytes() - allocated);
+        }
+    }
+
+    /**
+     * Archiva transacciones antiguas en segmentos comprimidos y compara la lectura de historial
+     * reciente (en memoria) con la de historial archivado
+     */
+    private static void benchmarkTieredStorage() {
+        int accounts = 10_000;
+        int archived = 500_000;
+        int recent = 50_000;
+        int samples = 2_000;
+        System.out.println("ALMACENAMIENTO FRÍO COMPRIMIDO (" + archived + " transacciones archivadas, "
+                + recent + " recientes, " + accounts + " cuentas)");
+        printLine("-", 40);
+
+        Client client = new Client("Archivo", "archivo");
+        Account[] pool = new Account[accounts];
+        for (int i = 0; i < accounts; i++) {
+            pool[i] = new SavingsAccount(client, Currency.ARS, BigDecimal.ZERO);
+        }
+        String[] frequentNotes = {"Alquiler", "Sueldo", "Expensas", "Intereses", "Comisión de mantenimiento"};
+
+        Path directory = null;
+        try {
+            directory = Files.createTempDirectory("archivo");
+            // Retención nula: el pase archiva todo lo guardado hasta ese momento
+            try (TieredTransactionDao transactionDao = new TieredTransactionDao(directory, Duration.ZERO)) {
+                SplittableRandom rng = new SplittableRandom(41L);
+                List<UUID> coldIds = new ArrayList<>();
+                for (int i = 0; i < archived; i++) {
+                    Transaction tx = randomTransaction(rng, pool, frequentNotes, i);
+                    transactionDao.save(tx);
+                    if (i % (archived / samples) == 0) {
+                        coldIds.add(tx.getId());
+                    }
+                }
+
+                long heapBefore = usedHeap();
+                TransactionArchiveReport report = transactionDao.archive();
+                long freedHeap = heapBefore - usedHeap();
+                System.out.println("  Archivado: " + report);
+                System.out.printf("  Segmento: %.1f bytes por transacción; memoria liberada: %.1f bytes "
+                        + "por transacción%n", (double) (report.getCompressedBytes() + report.getIndexBytes()) / archived,
+                        (double) freedHeap / archived);
+
+                List<UUID> hotIds = new ArrayList<>();
+                for (int i = 0; i < recent; i++) {
+                    Transaction tx = randomTransaction(rng, pool, frequentNotes, archived + i);
+                    transactionDao.save(tx);
+                    if (i % (recent / samples) == 0) {
+                        hotIds.add(tx.getId());
+                    }
+                }
+
+                // Primera página (en memoria) contra la última página del historial (archivada);
+                // cada medición se repite y se informa la segunda pasada
+                long hotPageNanos = 0;
+                long coldPageNanos = 0;
+                long hotFindNanos = 0;
+                long coldFindNanos = 0;
+                for (int pass = 0; pass < 2; pass++) {
+                    SplittableRandom pick = new SplittableRandom(43L);
+                    long start = System.nanoTime();
+                    for (int i = 0; i < samples; i++) {
+                        transactionDao.listByAccountId(pool[pick.nextInt(accounts)].getId(), 0, 3);
+                    }
+                    hotPageNanos = System.nanoTime() - start;
+
+                    pick = new SplittableRandom(43L);
+                    start = System.nanoTime();
+                    for (int i = 0; i < samples; i++) {
+                        UUID accountId = pool[pick.nextInt(accounts)].getId();
+                        int count = transactionDao.countByAccountId(accountId);
+                        transactionDao.listByAccountId(accountId, Math.max(count - 20, 0), 20);
+                    }
+                    coldPageNanos = System.nanoTime() - start;
+
+                    start = System.nanoTime();
+                    for (UUID id : hotIds) {
+                        transactionDao.findById(id);
+                    }
+                    hotFindNanos = System.nanoTime() - start;
+
+                    start = System.nanoTime();
+                    for (UUID id : coldIds) {
+                        transactionDao.findById(id);
+                    }
+                    coldFindNanos = System.nanoTime() - start;
+                }
+                System.out.printf("  Página reciente (memoria):  %8.1f us%n", hotPageNanos / 1e3 / samples);
+                System.out.printf("  Página antigua (archivada): %8.1f us%n", coldPageNanos / 1e3 / samples);
+                System.out.printf("  Búsqueda por id en memoria: %8.1f us%n", hotFindNanos / 1e3 / hotIds.size());
+                System.out.printf("  Búsqueda por id archivada:  %8.1f us%n", coldFindNanos / 1e3 / coldIds.size());
+                System.out.println("  Resúmenes verificados: " + (transactionDao.verifyRollups() ? "sí" : "DIFERENCIA"));
+            }
+        } catch (IOException e) {
+            System.out.println("  Error de E/S: " + e.getMessage());
+        } finally {
+            if (directory != null) {
+                deleteRecursively(directory);
+            }
+        }
+        System.out.println();
+    }
+
+    /**
+     * Compara ids aleatorios con ids ordenados por tiempo: velocidad de generación con varios hilos
+     * e inserción en un índice ordenado; además mide un segmento archivado con el generador en uso
+     */
+    private static void benchmarkIdGeneration() {
+        int idsPerThread = 1_000_000;
+        int indexedIds = 1_000_000;
+        int archived = 200_000;
+        System.out.println("GENERACIÓN DE IDS (aleatorios contra ordenados por tiempo)");
+        printLine("-", 40);
+
+        Map<String, IdGenerator> generators = new LinkedHashMap<>();
+        generators.put("Aleatorios", new RandomIdGenerator());
+        generators.put("Ordenados", new TimeOrderedIdGenerator());
+
+        int maxThreads = Math.max(4, Runtime.getRuntime().availableProcessors());
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            StringBuilder line = new StringBuilder(String.format("  %2d hilos:", threads));
+            for (Map.Entry<String, IdGenerator> entry : generators.entrySet()) {
+                generateIds(entry.getValue(), threads, idsPerThread / 4);
+                long nanos = generateIds(entry.getValue(), threads, idsPerThread);
+                line.append(String.format(" %s %,12.0f ids/s |", entry.getKey().toLowerCase(),
+                        (double) threads * idsPerThread / (nanos / 1e9)));
+            }
+            System.out.println(line.substring(0, line.length() - 2));
+        }
+
+        // Índice ordenado: con ids ordenados cada inserción cae al final, en la misma zona del árbol
+        for (Map.Entry<String, IdGenerator> entry : generators.entrySet()) {
+            UUID[] ids = new UUID[indexedIds];
+            for (int i = 0; i < indexedIds; i++) {
+                ids[i] = entry.getValue().nextId();
+            }
+            TreeMap<UUID, Integer> index = new TreeMap<>();
+            int appends = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < indexedIds; i++) {
+                if (index.isEmpty() || ids[i].compareTo(index.lastKey()) > 0) {
+                    appends++;
+                }
+                index.put(ids[i], i);
+            }
+            long nanos = System.nanoTime() - start;
+            System.out.printf("  Índice ordenado, %s: %.0f ns por inserción, %.1f%% al final%n",
+                    entry.getKey().toLowerCase(), (double) nanos / indexedIds, 100.0 * appends / indexedIds);
+        }
+
+        // Segmento archivado: los ids ordenados comparten prefijo dentro de cada bloque
+        // El generador del proceso es fijo, así que el segmento se mide solo con los ids en uso
+        Client client = new Client("Ids", "ids");
+        Account[] pool = new Account[1_000];
+        for (int i = 0; i < pool.length; i++) {
+            pool[i] = new SavingsAccount(client, Currency.ARS, BigDecimal.ZERO);
+        }
+        String[] frequentNotes = {"Alquiler", "Sueldo", "Expensas", "Intereses", "Comisión de mantenimiento"};
+        String inUse = EntityIds.getGenerator() instanceof TimeOrderedIdGenerator ? "ordenados" : "en uso";
+        Path directory = null;
+        try {
+            directory = Files.createTempDirectory("ids");
+            try (TieredTransactionDao transactionDao = new TieredTransactionDao(directory, Duration.ZERO)) {
+                SplittableRandom rng = new SplittableRandom(47L);
+                for (int i = 0; i < archived; i++) {
+                    transactionDao.save(randomTransaction(rng, pool, frequentNotes, i));
+                }
+                TransactionArchiveReport report = transactionDao.archive();
+                System.out.printf("  Segmento, %s: %.1f bytes por transacción (%.1f de índice)%n", inUse,
+                        (double) (report.getCompressedBytes() + report.getIndexBytes()) / archived,
+                        (double) report.getIndexBytes() / archived);
+            }
+        } catch (IOException e) {
+            System.out.println("  Error de E/S: " + e.getMessage());
+        } finally {
+            if (directory != null) {
+                deleteRecursively(directory);
+            }
+        }
+        System.out.println();
+    }
+
+    /**
+     * Genera ids en paralelo, cada hilo con su propia cuota
+     * @return tiempo total en nanosegundos
+     */
+    private static long generateIds(IdGenerator generator, int threads, int idsPerThread) {
+        long[] checksums = new long[threads];
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int worker = t;
+            workers[t] = new Thread(() -> {
+                long checksum = 0;
+                for (int i = 0; i < idsPerThread; i++) {
+                    checksum += generator.nextId().getLeastSignificantBits();
+                }
+                checksums[worker] = checksum;
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        try {
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Mide el flujo de eventos de cambios: throughput con varios suscriptores, el efecto de cada
+     * política con un suscriptor lento y el costo que agrega a los depósitos y extracciones
+     */
+    private static void benchmarkChangeEvents() {
+        int events = 2_000_000;
+        int slowEvents = 200_000;
+        int operations = 400_000;
+        System.out.println("EVENTOS DE CAMBIOS (" + events + " eventos)");
+        printLine("-", 40);
+
+        Client client = new Client("Eventos", "eventos");
+        Account[] pool = new Account[1_000];
+        for (int i = 0; i < pool.length; i++) {
+            pool[i] = new SavingsAccount(client, Currency.ARS, BigDecimal.ZERO);
+        }
+        BigDecimal amount = new BigDecimal("10.00");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            // Throughput con BLOCK: no se pierde ningún evento
+            for (int subscribers : new int[]{1, 4}) {
+                ChangeEventPublisher publisher = new ChangeEventPublisher(executor, 8_192, 256);
+                LongAdder delivered = new LongAdder();
+                CountDownLatch done = new CountDownLatch(subscribers);
+                for (int s = 0; s < subscribers; s++) {
+                    publisher.subscribe(countingSubscriber(delivered, done, 0), BackpressurePolicy.BLOCK);
+                }
+                long start = System.nanoTime();
+                for (int i = 0; i < events; i++) {
+                    publisher.balanceChanged(pool[i % pool.length], BalanceChangeType.CREDIT, amount, amount);
+                }
+                publisher.close();
+                done.await();
+                long nanos = System.nanoTime() - start;
+                System.out.printf("  BLOCK, %d suscriptor(es): %,12.0f eventos/s publicados, %,d entregados%n",
+                        subscribers, events / (nanos / 1e9), delivered.sum());
+            }
+
+            // Suscriptor lento: DROP descarta, CONFLATE conserva el último saldo de cada cuenta
+            for (BackpressurePolicy policy : new BackpressurePolicy[]{BackpressurePolicy.DROP,
+                    BackpressurePolicy.CONFLATE}) {
+                ChangeEventPublisher publisher = new ChangeEventPublisher(executor, 1_024, 64);
+                LongAdder delivered = new LongAdder();
+                CountDownLatch done = new CountDownLatch(1);
+                publisher.subscribe(countingSubscriber(delivered, done, 100_000), policy);
+                long start = System.nanoTime();
+                for (int i = 0; i < slowEvents; i++) {
+                    publisher.balanceChanged(pool[i % pool.length], BalanceChangeType.CREDIT, amount, amount);
+                }
+                long nanos = System.nanoTime() - start;
+                publisher.close();
+                done.await();
+                System.out.printf("  %-8s suscriptor lento: %,10.0f eventos/s, %,d entregados, %,d descartados,"
+                                + " %,d combinados%n", policy.name(), slowEvents / (nanos / 1e9), delivered.sum(),
+                        publisher.getDroppedCount(), publisher.getConflatedCount());
+            }
+
+            // Costo sobre AccountService: sin publicador, publicador sin suscriptores y con un suscriptor
+            // (las primeras pasadas calientan el JIT y no se informan)
+            ChangeEventPublisher idle = new ChangeEventPublisher(executor, 8_192, 256);
+            measureAccountOperations(null, null, false, operations);
+            measureAccountOperations(null, idle, false, operations);
+            measureAccountOperations("Sin publicador", null, false, operations);
+            measureAccountOperations("Sin suscriptores", idle, false, operations);
+            idle.close();
+            ChangeEventPublisher publisher = new ChangeEventPublisher(executor, 8_192, 256);
+            measureAccountOperations("Un suscriptor", publisher, true, operations);
+            publisher.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdown();
+        }
+        System.out.println();
+    }
+
+    /**
+     * Mide depósitos y extracciones por segundo con el publicador registrado (o sin él si es null)
+     * @param label nombre de la medición, o null para no informarla
+     */
+    private static void measureAccountOperations(String label, ChangeEventPublisher publisher, boolean subscribe,
+                                                 int operations) throws InterruptedException {
+        ClientDao clientDao = new InMemoryClientDao();
+        AccountDao accountDao = publisher != null
+                ? new EventPublishingAccountDao(new InMemoryAccountDao(), publisher)
+                : new InMemoryAccountDao();
+        TransactionDao transactionDao = publisher != null
+                ? new EventPublishingTransactionDao(new InMemoryTransactionDao(), publisher)
+                : new InMemoryTransactionDao();
+        AuthService authService = new AuthService(new InMemoryCredentialDao(), new InMemorySessionDao(), clientDao);
+        AccountService accountService = new AccountService(accountDao, transactionDao, authService,
+                new RateProvider(), new SimulatedClock(LocalDate.of(2024, 1, 1)));
+        Client client = new Client("Eventos", "eventos");
+        clientDao.save(client);
+        authService.registerPin(client, new byte[]{1, 2, 3, 4});
+        authService.loginWithPin("eventos", new byte[]{1, 2, 3, 4});
+        Account[] pool = new Account[1_000];
+        for (int i = 0; i < pool.length; i++) {
+            pool[i] = new SavingsAccount(client, Currency.ARS, new BigDecimal("1000000.00"));
+            accountDao.save(pool[i]);
+        }
+
+        LongAdder delivered = new LongAdder();
+        CountDownLatch done = new CountDownLatch(1);
+        if (subscribe) {
+            publisher.subscribe(countingSubscriber(delivered, done, 0), BackpressurePolicy.DROP);
+        }
+        SplittableRandom rng = new SplittableRandom(49L);
+        BigDecimal amount = new BigDecimal("10.00");
+        long start = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            Account account = pool[rng.nextInt(pool.length)];
+            if ((i & 1) == 0) {
+                accountService.deposit(account, amount, null);
+            } else {
+                accountService.withdraw(account, amount, null);
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        authService.logout();
+        String events = "";
+        if (subscribe) {
+            publisher.close();
+            done.await();
+            events = String.format(", %,d eventos entregados, %,d descartados", delivered.sum(),
+                    publisher.getDroppedCount());
+        }
+        if (label == null) {
+            return;
+        }
+        System.out.printf("  %-17s %,10.0f operaciones/s (%.2f µs por operación)%s%n", label + ":",
+                operations / (nanos / 1e9), nanos / 1e3 / operations, events);
+    }
+
+    /**
+     * Suscriptor que cuenta los eventos recibidos, opcionalmente con una pausa por lote para
+     * simular un consumidor lento
+     */
+    private static Flow.Subscriber<List<ChangeEvent>> countingSubscriber(LongAdder delivered, CountDownLatch done,
+                                                                        long pauseNanos) {
+        return new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(4);
+            }
+
+            @Override
+            public void onNext(List<ChangeEvent> batch) {
+                delivered.add(batch.size());
+                if (pauseNanos > 0) {
+                    LockSupport.parkNanos(pauseNanos);
+                }
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                done.countDown();
+            }
+
+            @Override
+            public void onComplete() {
+                done.countDown();
+            }
+        };
+    }
+
+    /**
+     * Mide el costo de los límites de velocidad: verificación directa con varios hilos (tiempo y
+     * memoria asignada por operación) y transferencias a terceros con y sin límites
+     */
+    private static void benchmarkVelocityChecks() {
+        int accounts = 10_000;
+        int clients = 1_000;
+        int checksPerThread = 2_000_000;
+        int transfers = 200_000;
+        System.out.println("LÍMITES DE VELOCIDAD (" + accounts + " cuentas, " + clients + " clientes)");
+        printLine("-", 40);
+
+        // Reglas holgadas: se mide el camino que verifica y registra, no el rechazo
+        List<VelocityRule> rules = new ArrayList<>();
+        for (VelocityWindow window : VelocityWindow.values()) {
+            rules.add(VelocityRule.maxCount(VelocityScope.ACCOUNT, window, Integer.MAX_VALUE));
+            rules.add(VelocityRule.maxCount(VelocityScope.CLIENT, window, Integer.MAX_VALUE));
+            rules.add(VelocityRule.maxAmount(VelocityScope.CLIENT, window, Currency.ARS,
+                    new BigDecimal("1000000000000.00")));
+        }
+
+        Client[] owners = new Client[clients];
+        for (int i = 0; i < clients; i++) {
+            owners[i] = new Client("Cliente " + i, "velocidad" + i);
+        }
+        Account[] pool = new Account[accounts];
+        for (int i = 0; i < accounts; i++) {
+            pool[i] = new SavingsAccount(owners[i % clients], Currency.ARS, BigDecimal.ZERO);
+        }
+        BigDecimal amount = new BigDecimal("125.50");
+        int maxThreads = Math.max(4, Runtime.getRuntime().availableProcessors());
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            VelocityLimiter limiter = new VelocityLimiter(rules);
+            // Primera pasada para crear los contadores y calentar el JIT
+            runVelocityChecks(limiter, pool, amount, threads, checksPerThread / 4);
+            long[] allocated = new long[1];
+            long nanos = runVelocityChecks(limiter, pool, amount, threads, checksPerThread, allocated);
+            long checks = (long) threads * checksPerThread;
+            System.out.printf("  Verificación, %d hilo(s): %,12.0f operaciones/s (%,5.0f ns por operación),"
+                            + " %.1f bytes asignados por operación%n", threads, checks / (nanos / 1e9),
+                    (double) nanos / checks, (double) allocated[0] / checks);
+        }
+
+        // Transferencias a terceros: todas las cuentas origen son de un cliente, que comparte sus contadores
+        for (boolean limited : new boolean[]{false, true}) {
+            ClientDao clientDao = new InMemoryClientDao();
+            AccountDao accountDao = new InMemoryAccountDao();
+            AuthService authService = new AuthService(new InMemoryCredentialDao(), new InMemorySessionDao(),
+                    clientDao);
+            AccountService accountService = new AccountService(accountDao, new InMemoryTransactionDao(),
+                    authService, new RateProvider(), new SimulatedClock(LocalDate.of(2024, 1, 1)), null,
+                    limited ? new VelocityLimiter(rules) : null);
+            TransferService transferService = new TransferService(accountService, new ClientService(clientDao),
+                    authService);
+            Client client = new Client("Transferencias", "transferencias");
+            Client third = new Client("Tercero", "tercero");
+            clientDao.save(client);
+            clientDao.save(third);
+            authService.registerPin(client, new byte[]{1, 2, 3, 4});
+            authService.loginWithPin("transferencias", new byte[]{1, 2, 3, 4});
+            Account[] sources = new Account[1_000];
+            Account[] targets = new Account[1_000];
+            for (int i = 0; i < sources.length; i++) {
+                sources[i] = new SavingsAccount(client, Currency.ARS, new BigDecimal("1000000000.00"));
+                targets[i] = new SavingsAccount(third, Currency.ARS, BigDecimal.ZERO);
+                accountDao.save(sources[i]);
+                accountDao.save(targets[i]);
+            }
+            for (int threads : new int[]{1, maxThreads}) {
+                int perThread = transfers / threads;
+                // La primera pasada calienta el JIT y no se informa
+                for (int round = 0; round < 2; round++) {
+                    Thread[] workers = new Thread[threads];
+                    for (int t = 0; t < threads; t++) {
+                        long seed = 53L + t;
+                        workers[t] = new Thread(() -> {
+                            SplittableRandom rng = new SplittableRandom(seed);
+                            for (int i = 0; i < perThread; i++) {
+                                int n = rng.nextInt(sources.length);
+                                transferService.transferToThirdParty(sources[n], targets[n], amount, null);
+                            }
+                        });
+                    }
+                    long start = System.nanoTime();
+                    joinAll(workers);
+                    long nanos = System.nanoTime() - start;
+                    if (round == 1) {
+                        System.out.printf("  Transferencias %s, %d hilo(s): %,9.0f transferencias/s (%.2f µs por"
+                                        + " transferencia)%n", limited ? "con límites" : "sin límites", threads,
+                                (double) perThread * threads / (nanos / 1e9), nanos / 1e3 / perThread / threads);
+                    }
+                }
+            }
+            authService.logout();
+        }
+
+        // Rechazo: con un límite de 3 retiros por minuto, los siguientes quedan registrados como fallidos
+        ClientDao clientDao = new InMemoryClientDao();
+        AccountDao accountDao = new InMemoryAccountDao();
+        AuthService authService = new AuthService(new InMemoryCredentialDao(), new InMemorySessionDao(), clientDao);
+        VelocityLimiter strict = new VelocityLimiter(
+                List.of(VelocityRule.maxCount(VelocityScope.ACCOUNT, VelocityWindow.MINUTE, 3)));
+        AccountService accountService = new AccountService(accountDao, new InMemoryTransactionDao(), authService,
+                new RateProvider(), new SimulatedClock(LocalDate.of(2024, 1, 1)), null, strict);
+        Client client = new Client("Límites", "limites");
+        clientDao.save(client);
+        authService.registerPin(client, new byte[]{1, 2, 3, 4});
+        authService.loginWithPin("limites", new byte[]{1, 2, 3, 4});
+        Account account = new SavingsAccount(client, Currency.ARS, new BigDecimal("1000.00"));
+        accountDao.save(account);
+        int settled = 0;
+        for (int i = 0; i < 5; i++) {
+            if (accountService.withdraw(account, amount, null).isSuccessful()) {
+                settled++;
+            }
+        }
+        System.out.printf("  Límite de 3 retiros por minuto: %d completados, %d rechazados, saldo %s%n",
+                settled, strict.getRejectedCount(), account.getBalance());
+        authService.logout();
+        System.out.println();
+    }
+
+    private static long runVelocityChecks(VelocityLimiter limiter, Account[] pool, BigDecimal amount, int threads,
+                                          int checksPerThread) {
+        return runVelocityChecks(limiter, pool, amount, threads, checksPerThread, new long[1]);
+    }
+
+    /**
+     * Verifica y registra operaciones sobre cuentas al azar desde varios hilos
+     * @param allocated recibe el total de bytes asignados por los hilos
+     * @return tiempo total en nanosegundos
+     */
+    private static long runVelocityChecks(VelocityLimiter limiter, Account[] pool, BigDecimal amount, int threads,
+                                          int checksPerThread, long[] allocated) {
+        ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long[] bytes = new long[threads];
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int worker = t;
+            workers[t] = new Thread(() -> {
+                SplittableRandom rng = new SplittableRandom(51L + worker);
+                long before = threadBean.getCurrentThreadAllocatedBytes();
+                for (int i = 0; i < checksPerThread; i++) {
+                    limiter.acquire(pool[rng.nextInt(pool.length)], amount);
+                }
+                bytes[worker] = threadBean.getCurrentThreadAllocatedBytes() - before;
+            });
+        }
+        long start = System.nanoTime();
+        joinAll(workers);
+        long nanos = System.nanoTime() - start;
+        for (long b : bytes) {
+            allocated[0] += b;
+        }
+        return nanos;
+    }
+
+    /**
+     * Inicia los hilos y espera a que terminen
+     */
+    private static void joinAll(Thread[] workers) {
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        try {
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Memoria en uso después de forzar la recolección de basura
+     * Se toma la menor de varias lecturas porque otros hilos (por ejemplo, el que entrega las
+     * notificaciones de los recolectores) pueden estar asignando memoria temporal
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+
+    /**
+     * Borra un directorio temporal con su contenido
+     */
+    private static void deleteRecursively(Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            System.out.println("  No se pudo borrar " + directory + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Imprime una línea de caracteres repetidos
+     */
+    private static void printLine(String character, int times) {
+        for (int i = 0; i < times; i++) {
+            System.out.print(character);
+        }
+        System.out.println();
+    }
+}
@@ -0,0 +1,689 @@
+package UserLayer;
+
+import LogicLayer.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Clase independiente para ejecutar pruebas de los almacenamientos de transacciones
+ * Cada DAO recibe las mismas operaciones y cada transacción leída se compara campo por campo
+ * con la que se guardó
+ */
+public class TransactionStorageTests {
+    private static final byte[] PIN = {1, 2, 3, 4};
+    private static final String[] NOTES = {"Alquiler", "Sueldo", "Expensas", "Comisión de mantenimiento", "Café ☕"};
+
+    public static void main(String[] args) {
+        runTests();
+    }
+
+    /**
+     * Ejecuta todas las pruebas de almacenamiento de transacciones
+     */
+    public static void runTests() {
+        printLine("=", 60);
+        System.out.println("PRUEBAS DE ALMACENAMIENTO DE TRANSACCIONES");
+        printLine("=", 60);
+        System.out.println();
+
+        System.out.println("PRUEBA 1: Registro compacto en columnas");
+        printLine("-", 40);
+        printResult(verifyRecordStore());
+
+        System.out.println("PRUEBA 2: DAO en memoria");
+        printLine("-", 40);
+        printResult(verifyDao(new InMemoryTransactionDao(), 600));
+
+        // Más de un segmento de registros (65.536 por segmento)
+        System.out.println("PRUEBA 3: DAO fuera del heap");
+        printLine("-", 40);
+        printResult(verifyDao(new OffHeapTransactionDao(), 70_000));
+
+        System.out.println("PRUEBA 4: DAO en dos niveles con segmentos archivados");
+        printLine("-", 40);
+        printResult(verifyTieredDao());
+
+        System.out.println("PRUEBA 5: Extractos CSV en orden cronológico con transacciones guardadas fuera de orden");
+        printLine("-", 40);
+        printResult(verifyStatementOrder());
+
+        System.out.println("PRUEBA 6: Búsqueda por notas");
+        printLine("-", 40);
+        printResult(verifyNoteSearch());
+
+        printLine("=", 60);
+        System.out.println("TODAS LAS PRUEBAS COMPLETADAS");
+        printLine("=", 60);
+        System.out.println();
+    }
+
+    /**
+     * Guarda transacciones de los tres tipos (con notas repetidas, sin nota, montos que no entran
+     * en un long y una reversión) y verifica que cada posición reconstruya la original
+     */
+    private static boolean verifyRecordStore() {
+        Client client = new Client("Columnas", "columnas");
+        Account first = new SavingsAccount(client, Currency.ARS, BigDecimal.ZERO);
+        Account second = new SavingsAccount(client, Currency.USD, BigDecimal.ZERO);
+
+        List<Transaction> saved = new ArrayList<>();
+        saved.add(new DepositTransaction(TransactionStatus.SETTLED, new BigDecimal("1500.00"), Currency.ARS,
+                "Sueldo", first));
+        saved.add(new WithdrawTransaction(TransactionStatus.FAILED, new BigDecimal("0.01"), Currency.ARS,
+                null, first));
+        saved.add(new TransferTransaction(TransactionStatus.SETTLED, new BigDecimal("99999999999999999999.99"),
+                Currency.USD, "Café ☕", second, first));
+        saved.add(new DepositTransaction(TransactionStatus.SETTLED, new BigDecimal("2.5"), Currency.USD,
+                "Sueldo", second));
+
+        // Pocas posiciones iniciales para que el almacenamiento crezca
+        TransactionRecordStore store = new TransactionRecordStore(1);
+        SplittableRandom rng = new SplittableRandom(45L);
+        Account[] pool = {first, second};
+        for (int i = 0; i < 200; i++) {
+            saved.add(randomTransaction(rng, pool, i));
+        }
+
+        boolean positions = true;
+        for (int i = 0; i < saved.size(); i++) {
+            positions &= store.append(saved.get(i)) == i;
+        }
+        boolean roundTrip = store.size() == saved.size();
+        for (int i = 0; i < saved.size(); i++) {
+            roundTrip &= sameTransaction(store.get(i), saved.get(i)) && store.find(saved.get(i).getId()) == i;
+        }
+        boolean unknown = store.find(UUID.randomUUID()) == -1
+                && store.accountNumber(UUID.randomUUID()) == -1
+                && store.accountSize(-1) == 0;
+
+        boolean byAccount = true;
+        for (Account account : pool) {
+            int number = store.accountNumber(account.getId());
+            List<UUID> expected = idsOf(involving(saved, account));
+            List<UUID> actual = new ArrayList<>();
+            for (int i = 0; i < store.accountSize(number); i++) {
+                actual.add(store.get(store.accountPosition(number, i)).getId());
+            }
+            byAccount &= actual.equals(expected);
+        }
+
+        System.out.println("  Posiciones asignadas en orden: " + yesNo(positions));
+        System.out.println("  Transacciones reconstruidas iguales: " + yesNo(roundTrip));
+        System.out.println("  Ids y cuentas inexistentes no encontrados: " + yesNo(unknown));
+        System.out.println("  Posiciones por cuenta en orden de alta: " + yesNo(byAccount));
+        return positions && roundTrip && unknown && byAccount;
+    }
+
+    /**
+     * Opera con el DAO a través de los servicios y verifica la lectura por id, por cuenta y de
+     * reversiones
+     */
+    private static boolean verifyDao(TransactionDao transactionDao, int batchSize) {
+        Storage storage = new Storage(transactionDao);
+        storage.operate(45L, batchSize);
+        return storage.verify();
+    }
+
+    /**
+     * Verifica el DAO en dos niveles antes de archivar, con todo archivado y con dos segmentos
+     * más transacciones nuevas en memoria
+     */
+    private static boolean verifyTieredDao() {
+        Path directory = null;
+        try {
+            directory = Files.createTempDirectory("niveles");
+            try (TieredTransactionDao transactionDao = new TieredTransactionDao(directory, Duration.ZERO)) {
+                Storage storage = new Storage(transactionDao);
+                // Varios bloques comprimidos (256 transacciones por bloque)
+                storage.operate(47L, 1_000);
+                System.out.println("  Antes de archivar:");
+                boolean hot = storage.verify();
+
+                TransactionArchiveReport first = archiveAll(transactionDao);
+                boolean allArchived = first.getTransactions() == storage.size()
+                        && transactionDao.getHotSize() == 0 && transactionDao.getColdSize() == storage.size();
+                System.out.println("  Archivadas en el primer pase: " + first.getTransactions()
+                        + " | todas: " + yesNo(allArchived));
+                System.out.println("  Con todo archivado:");
+                boolean cold = storage.verify();
+
+                storage.saveBatch(48L, 300);
+                TransactionArchiveReport second = archiveAll(transactionDao);
+                storage.saveBatch(49L, 200);
+                boolean split = second.getTransactions() == 300 && transactionDao.getHotSize() == 200;
+                System.out.println("  Dos segmentos y 200 en memoria: " + yesNo(split));
+                boolean mixed = storage.verify();
+
+                return hot && allArchived && cold && split && mixed;
+            }
+        } catch (IOException e) {
+            System.out.println("  Error de E/S: " + e.getMessage());
+            return false;
+        } finally {
+            if (directory != null) {
+                deleteRecursively(directory);
+            }
+        }
+    }
+
+    /**
+     * Archiva con retención nula, dejando pasar el microsegundo de las últimas transacciones
+     */
+    private static TransactionArchiveReport archiveAll(TieredTransactionDao transactionDao) {
+        pause();
+        return transactionDao.archive();
+    }
+
+    private static void deleteRecursively(Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        } catch (IOException e) {
+            System.out.println("  No se pudo borrar " + directory + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Exporta los extractos de una cuenta y de un cliente con cada DAO después de guardar en lotes
+     * transacciones creadas en otro orden; en el DAO en dos niveles las más nuevas quedan archivadas
+     * y las más antiguas en memoria
+     */
+    private static boolean verifyStatementOrder() {
+        Path directory = null;
+        try {
+            directory = Files.createTempDirectory("extractos");
+            boolean inMemory = exportsInOrder("En memoria", new InMemoryTransactionDao(), null, directory);
+            boolean offHeap = exportsInOrder("Fuera del heap", new OffHeapTransactionDao(), null, directory);
+            boolean tiered;
+            try (TieredTransactionDao transactionDao =
+                         new TieredTransactionDao(directory.resolve("niveles"), Duration.ZERO)) {
+                tiered = exportsInOrder("En dos niveles", transactionDao, transactionDao, directory);
+            }
+            return inMemory && offHeap && tiered;
+        } catch (IOException e) {
+            System.out.println("  Error de E/S: " + e.getMessage());
+            return false;
+        } finally {
+            if (directory != null) {
+                deleteRecursively(directory);
+            }
+        }
+    }
+
+    /**
+     * @param tiered DAO a archivar entre los dos lotes, o null
+     */
+    private static boolean exportsInOrder(String label, TransactionDao transactionDao, TieredTransactionDao tiered,
+                                          Path directory) throws IOException {
+        ClientDao clientDao = new InMemoryClientDao();
+        AccountDao accountDao = new InMemoryAccountDao();
+        Client client = new Client("Extracto", "extracto");
+        clientDao.save(client);
+        Account first = new SavingsAccount(client, Currency.ARS, BigDecimal.ZERO);
+        Account second = new SavingsAccount(client, Currency.ARS, BigDecimal.ZERO);
+        accountDao.save(first);
+        accountDao.save(second);
+
+        // Creadas en este orden, con fechas distintas
+        Transaction salary = new DepositTransaction(TransactionStatus.SETTLED, new BigDecimal("100.00"),
+                Currency.ARS, "Sueldo", first);
+        pause();
+        Transaction rent = new TransferTransaction(TransactionStatus.SETTLED, new BigDecimal("30.00"),
+                Currency.ARS, "Alquiler, enero", first, second);
+        pause();
+        Transaction cash = new WithdrawTransaction(TransactionStatus.SETTLED, new BigDecimal("12.50"),
+                Currency.ARS, null, first);
+        pause();
+        Transaction refund = new DepositTransaction(TransactionStatus.SETTLED, new BigDecimal("5.00"),
+                Currency.ARS, "Reintegro", second);
+
+        transactionDao.saveAll(List.of(refund, cash));
+        if (tiered != null) {
+            archiveAll(tiered);
+        }
+        transactionDao.saveAll(List.of(rent, salary));
+
+        StatementExporter exporter = new StatementExporter(clientDao, accountDao, transactionDao);
+        Path accountFile = directory.resolve("cuenta.csv");
+        StatementExportReport accountReport = exporter.exportAccount(first, accountFile);
+        List<String> expectedAccount = List.of(
+                salary.getId() + "," + first.getId() + ",100.00",
+                rent.getId() + "," + first.getId() + ",-30.00",
+                cash.getId() + "," + first.getId() + ",-12.50");
+        List<String[]> accountRows = readStatement(accountFile);
+        boolean accountOk = accountRows != null && accountReport.getRows() == 3
+                && rowKeys(accountRows).equals(expectedAccount) && datesMatch(accountRows, transactionDao)
+                && accountRows.get(1)[8].equals("\"Alquiler, enero\"") && accountRows.get(2)[8].isEmpty();
+
+        // La transferencia interna aparece una vez por cuenta, con signos opuestos
+        Path clientFile = directory.resolve("cliente.csv");
+        StatementExportReport clientReport = exporter.exportClient(client, clientFile);
+        List<String> expectedClient = List.of(
+                salary.getId() + "," + first.getId() + ",100.00",
+                rent.getId() + "," + first.getId() + ",-30.00",
+                rent.getId() + "," + second.getId() + ",30.00",
+                cash.getId() + "," + first.getId() + ",-12.50",
+                refund.getId() + "," + second.getId() + ",5.00");
+        List<String[]> clientRows = readStatement(clientFile);
+        boolean clientOk = clientRows != null && clientReport.getRows() == 5
+                && rowKeys(clientRows).equals(expectedClient) && datesMatch(clientRows, transactionDao);
+
+        System.out.println("  " + label + ": extracto de cuenta " + yesNo(accountOk)
+                + " | extracto de cliente " + yesNo(clientOk));
+        return accountOk && clientOk;
+    }
+
+    /**
+     * Filas del extracto sin el encabezado, o null si el encabezado no es el esperado
+     */
+    private static List<String[]> readStatement(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file);
+        if (lines.isEmpty()
+                || !lines.get(0).equals("fecha,transaccion,cuenta,tipo_cuenta,tipo,importe,moneda,estado,nota")) {
+            return null;
+        }
+        List<String[]> rows = new ArrayList<>();
+        for (String line : lines.subList(1, lines.size())) {
+            // La nota es el último campo y es el único que puede llevar comas
+            rows.add(line.split(",", 9));
+        }
+        return rows;
+    }
+
+    /**
+     * Transacción, cuenta e importe con signo de cada fila
+     */
+    private static List<String> rowKeys(List<String[]> rows) {
+        List<String> keys = new ArrayList<>();
+        for (String[] row : rows) {
+            keys.add(row[1] + "," + row[2] + "," + row[5]);
+        }
+        return keys;
+    }
+
+    /**
+     * Cada fecha es la de alta de su transacción y ninguna es anterior a la de la fila previa
+     */
+    private static boolean datesMatch(List<String[]> rows, TransactionDao transactionDao) {
+        Instant previous = Instant.MIN;
+        for (String[] row : rows) {
+            Instant date = OffsetDateTime.parse(row[0]).toInstant();
+            Transaction tx = transactionDao.findById(UUID.fromString(row[1]));
+            if (tx == null || !date.equals(tx.getCreatedAt()) || date.isBefore(previous)) {
+                return false;
+            }
+            previous = date;
+        }
+        return true;
+    }
+
+    /**
+     * Verifica el índice de notas (normalización de términos, varios términos y alcance por cuentas)
+     * y la búsqueda de cada DAO con el alcance de un cliente y un límite de resultados
+     */
+    private static boolean verifyNoteSearch() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        TransactionNoteIndex index = new TransactionNoteIndex();
+        index.add(0, "Pago de Alquiler - Enero", List.of(first));
+        index.add(1, "ALQUILER febrero", List.of(first, second));
+        index.add(2, "Café con leche", List.of(second));
+        index.add(3, "alquiler cochera, enero", List.of(other));
+        index.add(4, null, List.of(first));
+        index.add(5, "a b alquiler alquiler", List.of(second));
+
+        // Sin distinguir mayúsculas, acentos ni signos; los términos de una letra no se indexan
+        boolean tokens = Arrays.equals(index.search("alquiler", null), new int[] {0, 1, 3, 5})
+                && Arrays.equals(index.search("¡ÁLQUILER!", null), new int[] {0, 1, 3, 5})
+                && Arrays.equals(index.search("CAFE", null), new int[] {2})
+                && index.search("a", null).length == 0
+                && index.search(" ,; ", null).length == 0
+                && index.search(null, null).length == 0;
+        // Todos los términos, en cualquier orden
+        boolean allTerms = Arrays.equals(index.search("alquiler enero", null), new int[] {0, 3})
+                && Arrays.equals(index.search("enero ALQUILER", null), new int[] {0, 3})
+                && index.search("alquiler marzo", null).length == 0;
+        // La transferencia entre dos cuentas consultadas aparece una vez
+        boolean scoped = Arrays.equals(index.search("alquiler", List.of(first, second)), new int[] {0, 1, 5})
+                && Arrays.equals(index.search("alquiler enero", List.of(second, other)), new int[] {3})
+                && index.search("cafe", List.of(first)).length == 0
+                && index.search("alquiler", List.of(UUID.randomUUID())).length == 0;
+        System.out.println("  Términos normalizados: " + yesNo(tokens));
+        System.out.println("  Varios términos a la vez: " + yesNo(allTerms));
+        System.out.println("  Alcance por cuentas: " + yesNo(scoped));
+
+        boolean daos = noteSearchMatches("En memoria", new InMemoryTransactionDao(), null)
+                && noteSearchMatches("Fuera del heap", new OffHeapTransactionDao(), null);
+        Path directory = null;
+        try {
+            directory = Files.createTempDirectory("notas");
+            try (TieredTransactionDao transactionDao = new TieredTransactionDao(directory, Duration.ZERO)) {
+                daos &= noteSearchMatches("En dos niveles", transactionDao, transactionDao);
+            }
+        } catch (IOException e) {
+            System.out.println("  Error de E/S: " + e.getMessage());
+            daos = false;
+        } finally {
+            if (directory != null) {
+                deleteRecursively(directory);
+            }
+        }
+        return tokens && allTerms && scoped && daos;
+    }
+
+    /**
+     * Un cliente con dos cuentas (con transferencias entre ellas) y una cuenta ajena con notas parecidas
+     * @param tiered DAO a archivar a mitad de las altas, o null
+     */
+    private static boolean noteSearchMatches(String label, TransactionDao transactionDao,
+                                             TieredTransactionDao tiered) {
+        Client client = new Client("Notas", "notas");
+        Account first = new SavingsAccount(client, Currency.ARS, BigDecimal.ZERO);
+        Account second = new SavingsAccount(client, Currency.ARS, BigDecimal.ZERO);
+        Account other = new SavingsAccount(new Client("Ajeno", "ajeno"), Currency.ARS, BigDecimal.ZERO);
+
+        List<Transaction> rent = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            if (i == 6 && tiered != null) {
+                archiveAll(tiered);
+            }
+            Transaction tx = i % 3 == 0
+                    ? new TransferTransaction(TransactionStatus.SETTLED, BigDecimal.TEN, Currency.ARS,
+                            "Alquiler de enero", first, second)
+                    : new DepositTransaction(TransactionStatus.SETTLED, BigDecimal.TEN, Currency.ARS,
+                            "Pago alquiler ENERO " + i, i % 2 == 0 ? first : second);
+            transactionDao.save(tx);
+            rent.add(tx);
+            transactionDao.save(new DepositTransaction(TransactionStatus.SETTLED, BigDecimal.ONE, Currency.ARS,
+                    "Alquiler enero", other));
+            transactionDao.save(new DepositTransaction(TransactionStatus.SETTLED, BigDecimal.ONE, Currency.ARS,
+                    "Alquiler febrero", first));
+        }
+        List<UUID> newestFirst = idsOf(rent);
+        Collections.reverse(newestFirst);
+        List<UUID> clientAccounts = List.of(first.getId(), second.getId());
+
+        boolean scoped = idsOf(transactionDao.searchByNote("alquiler enero", clientAccounts, 100))
+                .equals(newestFirst);
+        boolean limited = idsOf(transactionDao.searchByNote("ENERO alquiler", clientAccounts, 5))
+                .equals(newestFirst.subList(0, 5))
+                && transactionDao.searchByNote("alquiler enero", clientAccounts, 0).isEmpty();
+        boolean otherScopes = transactionDao.searchByNote("alquiler enero", List.of(other.getId()), 100).size() == 12
+                && transactionDao.searchByNote("alquiler enero", null, 100).size() == 24
+                && transactionDao.searchByNote("alquiler marzo", clientAccounts, 100).isEmpty();
+
+        System.out.println("  " + label + ": cliente " + yesNo(scoped) + " | límite " + yesNo(limited)
+                + " | otras cuentas " + yesNo(otherScopes));
+        return scoped && limited && otherScopes;
+    }
+
+    /**
+     * Deja pasar el microsegundo para que la siguiente transacción tenga otra fecha de alta
+     */
+    private static void pause() {
+        try {
+            Thread.sleep(2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Banco mínimo sobre un DAO de transacciones; recuerda cada transacción guardada para
+     * compararla con lo que el DAO devuelve
+     */
+    private static final class Storage {
+        private final TransactionDao transactionDao;
+        private final AccountService accountService;
+        private final Account[] accounts;
+        private final List<Transaction> saved;
+        private final Map<UUID, Transaction> savedById;
+        private Transaction transfer;
+        private Transaction reversal;
+
+        private Storage(TransactionDao transactionDao) {
+            this.transactionDao = transactionDao;
+            ClientDao clientDao = new InMemoryClientDao();
+            AccountDao accountDao = new InMemoryAccountDao();
+            AuthService authService = new AuthService(new InMemoryCredentialDao(), new InMemorySessionDao(),
+                    clientDao);
+            this.accountService = new AccountService(accountDao, transactionDao, authService, new RateProvider(),
+                    new SimulatedClock(LocalDate.of(2024, 1, 1)));
+
+            Client client = new Client("Almacenamiento", "almacenamiento");
+            clientDao.save(client);
+            authService.registerPin(client, PIN);
+            authService.loginWithPin("almacenamiento", PIN);
+            this.accounts = new Account[] {
+                    accountService.createSavingsAccount(client, Currency.ARS, new BigDecimal("10000.00")),
+                    accountService.createSavingsAccount(client, Currency.ARS, new BigDecimal("500.00")),
+                    accountService.createSavingsAccount(client, Currency.USD, new BigDecimal("100.00"))
+            };
+            this.saved = new ArrayList<>();
+            this.savedById = new HashMap<>();
+        }
+
+        /**
+         * Depósito, retiro, transferencia y su reversión con los servicios, un monto cuyo valor sin
+         * escala no entra en un long, una nota de más de un megabyte y un lote de transacciones generadas guardado
+         * de una vez
+         */
+        private void operate(long seed, int batchSize) {
+            record(accountService.deposit(accounts[0], new BigDecimal("1000.00"), "Sueldo"));
+            record(accountService.withdraw(accounts[0], new BigDecimal("50.25"), null));
+            transfer = accountService.transfer(accounts[0], accounts[1], new BigDecimal("100.00"), "Alquiler");
+            record(transfer);
+            reversal = accountService.reverseTransaction(transfer.getId(), "Reversión");
+            record(reversal);
+
+            // Valor sin escala mayor que un long, con un monto chico para los resúmenes en centavos
+            Transaction wide = new DepositTransaction(TransactionStatus.SETTLED,
+                    new BigDecimal("1.00000000000000000001"), Currency.USD, "Herencia", accounts[2]);
+            transactionDao.save(wide);
+            record(wide);
+            Transaction longNote = new WithdrawTransaction(TransactionStatus.SETTLED, new BigDecimal("1.00"),
+                    Currency.ARS, "Nota extensa ".repeat(100_000), accounts[1]);
+            transactionDao.save(longNote);
+            record(longNote);
+
+            saveBatch(seed, batchSize);
+        }
+
+        private int size() {
+            return saved.size();
+        }
+
+        private void record(Transaction tx) {
+            saved.add(tx);
+            savedById.put(tx.getId(), tx);
+        }
+
+        private void saveBatch(long seed, int batchSize) {
+            SplittableRandom rng = new SplittableRandom(seed);
+            List<Transaction> batch = new ArrayList<>(batchSize);
+            for (int i = 0; i < batchSize; i++) {
+                batch.add(randomTransaction(rng, accounts, saved.size() + i));
+            }
+            transactionDao.saveAll(batch);
+            for (Transaction tx : batch) {
+                record(tx);
+            }
+        }
+
+        private boolean verify() {
+            boolean byId = true;
+            for (Transaction tx : saved) {
+                byId &= sameTransaction(transactionDao.findById(tx.getId()), tx);
+            }
+            boolean unknown = transactionDao.findById(UUID.randomUUID()) == null
+                    && transactionDao.listByAccountId(UUID.randomUUID()).isEmpty();
+
+            boolean byAccount = true;
+            for (Account account : accounts) {
+                List<Transaction> expected = involving(saved, account);
+                List<Transaction> listed = transactionDao.listByAccountId(account.getId());
+                boolean newestFirst = true;
+                for (int i = 1; i < listed.size(); i++) {
+                    newestFirst &= !listed.get(i).getCreatedAt().isAfter(listed.get(i - 1).getCreatedAt());
+                }
+                Set<UUID> listedIds = new HashSet<>(idsOf(listed));
+                byAccount &= newestFirst
+                        && listed.size() == expected.size()
+                        && listedIds.equals(new HashSet<>(idsOf(expected)))
+                        && transactionDao.countByAccountId(account.getId()) == expected.size();
+                for (Transaction tx : listed) {
+                    byAccount &= sameTransaction(tx, savedById.get(tx.getId()));
+                }
+                byAccount &= pagesAndIterationMatch(transactionDao, account, expected);
+            }
+
+            Transaction foundReversal = transactionDao.findReversalOf(transfer.getId());
+            boolean reversalFound = reversal.isSuccessful() && foundReversal != null
+                    && foundReversal.getId().equals(reversal.getId())
+                    && transactionDao.findReversalOf(reversal.getId()) == null;
+
+            System.out.println("  Transacciones guardadas: " + saved.size());
+            System.out.println("  Lectura por id igual a lo guardado: " + yesNo(byId));
+            System.out.println("  Ids y cuentas inexistentes sin resultados: " + yesNo(unknown));
+            System.out.println("  Listado, páginas y recorrido por cuenta: " + yesNo(byAccount));
+            System.out.println("  Reversión encontrada: " + yesNo(reversalFound));
+            return byId && unknown && byAccount && reversalFound;
+        }
+    }
+
+    /**
+     * Las páginas siguen el orden inverso de alta y el recorrido, el orden por fecha de alta
+     * (a igual fecha, el de alta)
+     */
+    private static boolean pagesAndIterationMatch(TransactionDao transactionDao, Account account,
+                                                  List<Transaction> expected) {
+        List<UUID> newestFirst = idsOf(expected);
+        Collections.reverse(newestFirst);
+        List<UUID> paged = new ArrayList<>();
+        int pageSize = 97;
+        for (int offset = 0; offset < expected.size(); offset += pageSize) {
+            paged.addAll(idsOf(transactionDao.listByAccountId(account.getId(), offset, pageSize)));
+        }
+        boolean pastEnd = transactionDao.listByAccountId(account.getId(), expected.size(), pageSize).isEmpty();
+
+        List<UUID> iterated = new ArrayList<>();
+        Iterator<Transaction> iterator = transactionDao.iterateByAccountId(account.getId());
+        while (iterator.hasNext()) {
+            iterated.add(iterator.next().getId());
+        }
+        List<Transaction> chronological = new ArrayList<>(expected);
+        chronological.sort(Comparator.comparing(Transaction::getCreatedAt));
+        return paged.equals(newestFirst) && pastEnd && iterated.equals(idsOf(chronological));
+    }
+
+    private static Transaction randomTransaction(SplittableRandom rng, Account[] pool, int i) {
+        Account source = pool[rng.nextInt(pool.length)];
+        BigDecimal amount = BigDecimal.valueOf(rng.nextLong(1L, 10_000_000L), 2);
+        TransactionStatus status = rng.nextInt(10) == 0 ? TransactionStatus.FAILED : TransactionStatus.SETTLED;
+        int noteKind = rng.nextInt(3);
+        String note = noteKind == 0 ? null : noteKind == 1 ? NOTES[rng.nextInt(NOTES.length)] : "Pago " + i;
+        switch (rng.nextInt(3)) {
+            case 0:
+                return new DepositTransaction(status, amount, source.getBaseCurrency(), note, source);
+            case 1:
+                return new WithdrawTransaction(status, amount, source.getBaseCurrency(), note, source);
+            default:
+                Account target = pool[rng.nextInt(pool.length)];
+                while (target == source) {
+                    target = pool[rng.nextInt(pool.length)];
+                }
+                return new TransferTransaction(status, amount, source.getBaseCurrency(), note, source, target);
+        }
+    }
+
+    /**
+     * Compara todos los campos guardados de dos transacciones (las cuentas, por id)
+     */
+    private static boolean sameTransaction(Transaction actual, Transaction expected) {
+        return actual != null
+                && actual.getClass() == expected.getClass()
+                && actual.getId().equals(expected.getId())
+                && actual.getType() == expected.getType()
+                && actual.getStatus() == expected.getStatus()
+                && actual.getAmount().equals(expected.getAmount())
+                && actual.getCurrency() == expected.getCurrency()
+                && actual.getCreatedAt().equals(expected.getCreatedAt())
+                && Objects.equals(actual.getNote(), expected.getNote())
+                && Objects.equals(actual.getReversedTransactionId(), expected.getReversedTransactionId())
+                && accountIdsOf(actual).equals(accountIdsOf(expected));
+    }
+
+    private static List<UUID> accountIdsOf(Transaction tx) {
+        List<UUID> ids = new ArrayList<>(2);
+        if (tx instanceof DepositTransaction) {
+            ids.add(((DepositTransaction) tx).getTarget().getId());
+        } else if (tx instanceof WithdrawTransaction) {
+            ids.add(((WithdrawTransaction) tx).getSource().getId());
+        } else if (tx instanceof TransferTransaction) {
+            ids.add(((TransferTransaction) tx).getSource().getId());
+            ids.add(((TransferTransaction) tx).getTarget().getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Transacciones de una cuenta, en el orden en que se guardaron
+     */
+    private static List<Transaction> involving(List<Transaction> transactions, Account account) {
+        List<Transaction> result = new ArrayList<>();
+        for (Transaction tx : transactions) {
+            if (accountIdsOf(tx).contains(account.getId())) {
+                result.add(tx);
+            }
+        }
+        return result;
+    }
+
+    private static List<UUID> idsOf(List<Transaction> transactions) {
+        List<UUID> ids = new ArrayList<>(transactions.size());
+        for (Transaction tx : transactions) {
+            ids.add(tx.getId());
+        }
+        return ids;
+    }
+
+    private static String yesNo(boolean value) {
+        return value ? "SI" : "NO";
+    }
+
+    private static void printResult(boolean ok) {
+        System.out.println("  RESULTADO: " + (ok ? "CORRECTO" : "ERROR"));
+        System.out.println();
+    }
+
+    /**
+     * Imprime una línea de caracteres repetidos
+     */
+    private static void printLine(String character, int times) {
+        for (int i = 0; i < times; i++) {
+            System.out.print(character);
+        }
+        System.out.println();
+    }
+}